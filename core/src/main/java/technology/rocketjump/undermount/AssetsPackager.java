@@ -21,11 +21,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import static technology.rocketjump.undermount.modding.model.ModArtifactDefinition.OutputType.COPY_ORIGINAL_FILES;
+
 public class AssetsPackager {
 
+	private static final String CHECKSUMS_PATH = "metadata/checksums.json";
+	private static final String FILE_CHECKSUMS_PATH = "metadata/fileChecksums.json";
+	private static final String TIMINGS_PATH = "metadata/timings.json";
+
 	private final ModParser modParser;
+	private final Map<Class<? extends ModArtifactValidator>, ModArtifactValidator> validators = new ConcurrentHashMap<>();
 	private final ObjectMapper objectMapper = new ObjectMapper();
 	private Path tempDir;
 
@@ -82,91 +93,156 @@ public class AssetsPackager {
 	}
 
 	private void packageModCollection(ModCollection modCollection, Path assetDir) {
-		Map<ModArtifactDefinition, Long> currentChecksums = null;
+		Map<ModArtifactDefinition, Long> currentChecksums = new TreeMap<>();
 		try {
 			currentChecksums = readChecksums(assetDir);
 		} catch (IOException e) {
 			Logger.error(e, "Could not read existing checksums");
 		}
+		ModFileChecksums fileChecksums = new ModFileChecksums();
+		try {
+			fileChecksums.read(assetDir.resolve(FILE_CHECKSUMS_PATH));
+		} catch (IOException e) {
+			Logger.error(e, "Could not read existing file checksums");
+		}
 
+		// The listing can contain the same artifact more than once, which only needs packaging once
+		Map<String, ModArtifactDefinition> uniqueDefinitions = new LinkedHashMap<>();
 		for (ModArtifactDefinition artifactDefinition : modParser.getArtifactListing().getAll()) {
-			long newChecksum = 0L;
-			try {
-				newChecksum = modCollection.getChecksum(artifactDefinition);
-			} catch (IOException e) {
-				Logger.error(e, "Could not process checksum for input files of " + artifactDefinition.getName());
-			}
-
-			if (newChecksum != currentChecksums.get(artifactDefinition)) {
-				long start = System.currentTimeMillis();
-
-				List<Exception> modLoadExceptions = new ArrayList<>();
-
-				ModArtifactProcessor processor = createProcessorInstance(artifactDefinition);
-
-				List<ModArtifact> validArtifacts = modCollection.getAll().stream()
-						.map(mod -> {
-							ModArtifact artifact = mod.get(artifactDefinition);
-							if (artifact == null) {
-								return null;
-							} else {
-								try {
-									processor.apply(artifact, mod, assetDir);
-									validate(artifact, mod);
-								} catch (Exception e) {
-									modLoadExceptions.add(e);
-								}
-								return artifact;
-							}
-						})
-						.filter(Objects::nonNull)
-						.collect(Collectors.toList());
-
-				if (!modLoadExceptions.isEmpty()) {
-					Logger.error(modLoadExceptions.get(0), "Exception while processing artifact " + artifactDefinition.getName());
-					continue; // Do not set new checksum so it is reattempted next time
-				}
+			uniqueDefinitions.putIfAbsent(artifactDefinition.getName(), artifactDefinition);
+		}
+		List<ModArtifactDefinition> artifactDefinitions = new ArrayList<>(uniqueDefinitions.values());
 
-				try {
-					combineAndPackage(validArtifacts, artifactDefinition, assetDir);
-					currentChecksums.put(artifactDefinition, newChecksum);
-				} catch (ModLoadingException | IOException e) {
-					Logger.error(e, "Could not write artifact " + artifactDefinition.getName());
-					e.printStackTrace();
-				} finally {
-					long end = System.currentTimeMillis();
-					Logger.info("Processed " + artifactDefinition.toString() + " in " + (end - start) + "ms");
+		Map<ModArtifactDefinition, Long> previousChecksums = currentChecksums;
+		Map<ModArtifactDefinition, Long> updatedChecksums = new ConcurrentHashMap<>();
+		Map<String, JSONObject> timings = new ConcurrentHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			List<CompletableFuture<Void>> packaged = new ArrayList<>();
+			for (int index = 0; index < artifactDefinitions.size(); index++) {
+				ModArtifactDefinition artifactDefinition = artifactDefinitions.get(index);
+				List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+				for (int earlier = 0; earlier < index; earlier++) {
+					if (mustFollow(artifactDefinition, artifactDefinitions.get(earlier))) {
+						dependencies.add(packaged.get(earlier));
+					}
 				}
-
+				packaged.add(CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0])).thenRunAsync(() -> {
+					long start = System.currentTimeMillis();
+					long previousChecksum = previousChecksums.getOrDefault(artifactDefinition, 0L);
+					Long newChecksum = packageArtifact(artifactDefinition, previousChecksum, modCollection, fileChecksums, assetDir);
+					if (newChecksum != null) {
+						updatedChecksums.put(artifactDefinition, newChecksum);
+					}
+					JSONObject timing = new JSONObject(true);
+					timing.put("rebuilt", newChecksum != null && newChecksum != previousChecksum);
+					timing.put("millis", System.currentTimeMillis() - start);
+					timings.put(artifactDefinition.getName(), timing);
+				}, executor));
 			}
+			CompletableFuture.allOf(packaged.toArray(new CompletableFuture[0])).join();
+		} finally {
+			executor.shutdown();
 		}
+		currentChecksums.putAll(updatedChecksums);
 
 		try {
 			writeChecksums(assetDir, currentChecksums);
+			fileChecksums.write(assetDir.resolve(FILE_CHECKSUMS_PATH));
+			FileUtils.writeStringToFile(assetDir.resolve(TIMINGS_PATH).toFile(), objectMapper.writeValueAsString(new TreeMap<>(timings)));
 		} catch (IOException e) {
 			Logger.error(e, "Could not write checksums");
 		}
 	}
 
+	/**
+	 * Artifacts copying original files clear out their output directory first, so anything else written to that
+	 * directory has to be packaged in listing order with them
+	 */
+	private boolean mustFollow(ModArtifactDefinition artifactDefinition, ModArtifactDefinition earlierDefinition) {
+		return artifactDefinition.assetDir.equals(earlierDefinition.assetDir) &&
+				(artifactDefinition.outputType.equals(COPY_ORIGINAL_FILES) || earlierDefinition.outputType.equals(COPY_ORIGINAL_FILES));
+	}
+
+	/**
+	 * Rebuilds the artifact if its input files have changed since it was last packaged
+	 *
+	 * @return the checksum to record for the artifact, or null if it failed and should be reattempted next time
+	 */
+	private Long packageArtifact(ModArtifactDefinition artifactDefinition, long previousChecksum, ModCollection modCollection,
+								 ModFileChecksums fileChecksums, Path assetDir) {
+		long newChecksum = 0L;
+		try {
+			newChecksum = modCollection.getChecksum(artifactDefinition, fileChecksums);
+		} catch (IOException e) {
+			Logger.error(e, "Could not process checksum for input files of " + artifactDefinition.getName());
+		}
+
+		if (newChecksum == previousChecksum) {
+			return newChecksum;
+		}
+
+		long start = System.currentTimeMillis();
+		try {
+			List<Exception> modLoadExceptions = new ArrayList<>();
+
+			ModArtifactProcessor processor = createProcessorInstance(artifactDefinition);
+
+			List<ModArtifact> validArtifacts = modCollection.getAll().stream()
+					.map(mod -> {
+						ModArtifact artifact = mod.get(artifactDefinition);
+						if (artifact == null) {
+							return null;
+						} else {
+							try {
+								processor.apply(artifact, mod, assetDir);
+								validate(artifact, mod);
+							} catch (Exception e) {
+								modLoadExceptions.add(e);
+							}
+							return artifact;
+						}
+					})
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+
+			if (!modLoadExceptions.isEmpty()) {
+				Logger.error(modLoadExceptions.get(0), "Exception while processing artifact " + artifactDefinition.getName());
+				return null; // Do not set new checksum so it is reattempted next time
+			}
+
+			combineAndPackage(processor, validArtifacts, assetDir);
+			return newChecksum;
+		} catch (ModLoadingException | IOException | RuntimeException e) {
+			Logger.error(e, "Could not write artifact " + artifactDefinition.getName());
+			return null;
+		} finally {
+			long end = System.currentTimeMillis();
+			Logger.info("Processed " + artifactDefinition.toString() + " in " + (end - start) + "ms");
+		}
+	}
+
 	private void validate(ModArtifact modArtifact, ParsedMod mod) throws ModLoadingException {
 		for (Class<? extends ModArtifactValidator> validatorClass : modArtifact.artifactDefinition.validators) {
-			try {
-				ModArtifactValidator validatorInstance = validatorClass.getDeclaredConstructor().newInstance();
-				validatorInstance.apply(modArtifact, mod);
-			} catch (ReflectiveOperationException e) {
-				throw new RuntimeException(e);
-			}
+			validators.computeIfAbsent(validatorClass, this::createValidatorInstance).apply(modArtifact, mod);
+		}
+	}
+
+	private ModArtifactValidator createValidatorInstance(Class<? extends ModArtifactValidator> validatorClass) {
+		try {
+			return validatorClass.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException(e);
 		}
 	}
 
-	private void combineAndPackage(List<ModArtifact> validArtifacts, ModArtifactDefinition artifactDefinition, Path assetsDir) throws ModLoadingException, IOException {
-		ModArtifactProcessor processor = createProcessorInstance(artifactDefinition);
+	private void combineAndPackage(ModArtifactProcessor processor, List<ModArtifact> validArtifacts, Path assetsDir) throws ModLoadingException, IOException {
 		processor.combine(validArtifacts, tempDir);
 		processor.write(assetsDir);
 	}
 
 	private Map<ModArtifactDefinition, Long> readChecksums(Path assetDir) throws IOException {
-		Path checksumPath = assetDir.resolve("metadata/checksums.json");
+		Path checksumPath = assetDir.resolve(CHECKSUMS_PATH);
 		JSONObject checksumJson = JSON.parseObject(FileUtils.readFileToString(checksumPath.toFile()));
 
 		Map<ModArtifactDefinition, Long> checksums = new TreeMap<>();
@@ -178,7 +254,7 @@ public class AssetsPackager {
 	}
 
 	private void writeChecksums(Path assetDir, Map<ModArtifactDefinition, Long> checksums) throws IOException {
-		Path checksumPath = assetDir.resolve("metadata/checksums.json");
+		Path checksumPath = assetDir.resolve(CHECKSUMS_PATH);
 		FileUtils.writeStringToFile(checksumPath.toFile(), objectMapper.writeValueAsString(checksums));
 	}
 
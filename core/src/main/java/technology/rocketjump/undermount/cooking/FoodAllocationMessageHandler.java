@@ -248,19 +248,18 @@ public class FoodAllocationMessageHandler implements Telegraph, GameContextAware
 		}
 		final int requesterRegionId = requesterTile.getRegionId();
 
-		Optional<Entity> unallocatedEdibleItem = itemTracker.getUnallocatedEdibleItems().stream()
-				.filter(item -> {
-					Vector2 position = item.getLocationComponent().getWorldOrParentPosition();
-					MapTile positionTile = gameContext.getAreaMap().getTile(position);
-					return positionTile != null && positionTile.getRegionId() == requesterRegionId;
-				})
-				.sorted((i1, i2) ->
-					Math.round(i1.getLocationComponent().getWorldOrParentPosition().dst2(requesterPosition) - i2.getLocationComponent().getWorldOrParentPosition().dst2(requesterPosition))
-				)
-				.findFirst();
+		Entity[] nearestEdibleItem = new Entity[1];
+		itemTracker.visitUnallocatedEdibleNearestFirst(requesterPosition, item -> {
+			MapTile positionTile = gameContext.getAreaMap().getTile(item.getLocationComponent().getWorldOrParentPosition());
+			if (positionTile != null && positionTile.getRegionId() == requesterRegionId) {
+				nearestEdibleItem[0] = item;
+				return true;
+			}
+			return false;
+		});
 
-		if (unallocatedEdibleItem.isPresent()) {
-			Entity foodEntity = unallocatedEdibleItem.get();
+		if (nearestEdibleItem[0] != null) {
+			Entity foodEntity = nearestEdibleItem[0];
 			ItemAllocationComponent itemAllocationComponent = foodEntity.getOrCreateComponent(ItemAllocationComponent.class);
 			ItemAllocation itemAllocation = itemAllocationComponent.createAllocation(1, requestingEntity, FOOD_ALLOCATION);
 			return new FoodAllocation(LOOSE_ITEM, foodEntity, itemAllocation);
@@ -3,6 +3,7 @@ package technology.rocketjump.undermount.cooking;
 import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.math.Vector2;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.pmw.tinylog.Logger;
@@ -41,12 +42,13 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import static technology.rocketjump.undermount.entities.EntityUpdater.TIME_BETWEEN_INFREQUENT_UPDATE_SECONDS;
+import static technology.rocketjump.undermount.entities.components.BehaviourComponent.DEFAULT_INFREQUENT_UPDATE_INTERVAL_SECONDS;
 import static technology.rocketjump.undermount.entities.behaviour.furniture.CraftingStationBehaviour.getAnyNavigableWorkspace;
 import static technology.rocketjump.undermount.entities.components.ItemAllocation.Purpose.DUE_TO_BE_HAULED;
 import static technology.rocketjump.undermount.entities.model.EntityType.ITEM;
 import static technology.rocketjump.undermount.entities.tags.ConstructionOverrideTag.ConstructionOverrideSetting.REQUIRES_EDIBLE_LIQUID;
 import static technology.rocketjump.undermount.misc.VectorUtils.toGridPoint;
+import static technology.rocketjump.undermount.misc.VectorUtils.toVector;
 import static technology.rocketjump.undermount.rooms.HaulingAllocation.AllocationPositionType.CONSTRUCTION;
 import static technology.rocketjump.undermount.rooms.HaulingAllocation.AllocationPositionType.FLOOR;
 import static technology.rocketjump.undermount.rooms.constructions.ConstructionState.SELECTING_MATERIALS;
@@ -89,7 +91,7 @@ public class KitchenManager implements Telegraph, Updatable {
 	@Override
 	public void update(float deltaTime) {
 		timeSinceLastUpdate += deltaTime;
-		if (gameContext != null && timeSinceLastUpdate > TIME_BETWEEN_INFREQUENT_UPDATE_SECONDS) {
+		if (gameContext != null && timeSinceLastUpdate > DEFAULT_INFREQUENT_UPDATE_INTERVAL_SECONDS) {
 			timeSinceLastUpdate = 0f;
 
 			// Look for unallocated constructions of REQUIRES_EDIBLE_LIQUID tagged furniture
@@ -97,7 +99,7 @@ public class KitchenManager implements Telegraph, Updatable {
 				// Only those in SELECTING_MATERIALS state have not yet been allocated to
 				if (construction.getConstructionOverrideSettings().contains(REQUIRES_EDIBLE_LIQUID) && construction.getState().equals(SELECTING_MATERIALS)) {
 					// FIXME this assumes that a REQUIRES_EDIBLE_LIQUID construction only has a construction requirement of a single entity/item
-					Entity matchingEntity = getMatchingInput(construction.getPrimaryMaterialType(), construction.getRequirements());
+					Entity matchingEntity = getMatchingInput(construction.getPrimaryMaterialType(), construction.getRequirements(), toVector(construction.getPrimaryLocation()));
 					if (matchingEntity != null) {
 						// found a match
 
@@ -219,7 +221,7 @@ public class KitchenManager implements Telegraph, Updatable {
 	/**
 	 * This only handles REQUIRES_EDIBLE_LIQUID for now
 	 */
-	private Entity getMatchingInput(GameMaterialType primaryMaterialType, List<QuantifiedItemTypeWithMaterial> constructionRequirements) {
+	private Entity getMatchingInput(GameMaterialType primaryMaterialType, List<QuantifiedItemTypeWithMaterial> constructionRequirements, Vector2 constructionPosition) {
 		if (constructionRequirements.size() != 1) {
 			Logger.error("Not expecting list of requirements with 0 or more than 1 item");
 			return null;
@@ -251,17 +253,20 @@ public class KitchenManager implements Telegraph, Updatable {
 			}
 		}
 
-		// Try any lost items containing edible liquid
-		for (Entity itemEntity : itemTracker.getItemsByType(constructionRequirement.getItemType(), true)) {
+		// Try any lost items containing edible liquid, nearest to the construction first
+		Entity[] matchingItem = new Entity[1];
+		itemTracker.visitUnallocatedNearestFirst(constructionRequirement.getItemType(), null, constructionPosition, itemEntity -> {
 			LiquidContainerComponent liquidContainerComponent = itemEntity.getComponent(LiquidContainerComponent.class);
 			if (liquidContainerComponent != null && liquidContainerComponent.getTargetLiquidMaterial() != null) {
 				if (liquidContainerComponent.getTargetLiquidMaterial().isEdible() && liquidContainerComponent.getNumUnallocated() > 0) {
-					return itemEntity;
+					matchingItem[0] = itemEntity;
+					return true;
 				}
 			}
-		}
+			return false;
+		});
 
-		return null;
+		return matchingItem[0];
 	}
 
 	@Override
@@ -183,6 +183,7 @@ public class DoorwayMessageHandler implements GameContextAware, Telegraph {
 		WallCapAsset baseAsset = wallCapAssetDictionary.getMatching(doorway, attributes);
 		wallCapEntity.getPhysicalEntityComponent().setBaseAsset(baseAsset);
 		wallCapEntity.getPhysicalEntityComponent().getTypeMap().put(baseAsset.getType(), baseAsset);
+		wallCapEntity.getPhysicalEntityComponent().assetsChanged();
 		wallCapEntity.getLocationComponent().setOrientation(assetOrientation);
 
 		// Wall cap should be bottom of tile  (+1 pixel) to overlap entities
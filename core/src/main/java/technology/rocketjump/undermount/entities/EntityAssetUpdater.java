@@ -141,6 +141,7 @@ public class EntityAssetUpdater implements GameContextAware {
 			default:
 				throw new RuntimeException("Unhandled entity type " + entity.getType() + " in " + this.getClass().getSimpleName());
 		}
+		entity.getPhysicalEntityComponent().assetsChanged();
 	}
 
 	private void updateCreatureAssets(Entity entity) {
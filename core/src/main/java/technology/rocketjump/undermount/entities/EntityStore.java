@@ -48,7 +48,7 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 	private final ItemEntityFactory itemEntityFactory;
 
 	private final Map<Long, Entity> updateEveryFrameEntities = new ConcurrentHashMap<>();
-	private final List<Entity> updateInfrequentlyEntities = new ArrayList<>();
+	private final InfrequentUpdateScheduler infrequentUpdateScheduler = new InfrequentUpdateScheduler();
 	private final Map<Long, Entity> jobAssignableEntities = new ConcurrentHashMap<>();
 	private final MessageDispatcher messageDispatcher;
 
@@ -89,7 +89,7 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 			updateEveryFrameEntities.put(entity.getId(), entity);
 		}
 		if (entity.isUpdateInfrequently()) {
-			updateInfrequentlyEntities.add(entity);
+			infrequentUpdateScheduler.add(entity, entity.getBehaviourComponent().getInfrequentUpdateInterval());
 		}
 		if (entity.isJobAssignable()) {
 			jobAssignableEntities.put(entity.getId(), entity);
@@ -118,7 +118,7 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 				updateEveryFrameEntities.remove(entityId);
 			}
 			if (entityToRemove.isUpdateInfrequently()) {
-				updateInfrequentlyEntities.remove(entityToRemove);
+				infrequentUpdateScheduler.remove(entityToRemove);
 			}
 
 			if (removeFromWorld && entityToRemove.getLocationComponent().getWorldPosition() != null) {
@@ -167,7 +167,7 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 					updateEveryFrameEntities.remove(entity.getId());
 				}
 				if (oldBehaviour.isUpdateInfrequently()) {
-					updateInfrequentlyEntities.remove(entity);
+					infrequentUpdateScheduler.remove(entity);
 				}
 				if (oldBehaviour instanceof Destructible) {
 					((Destructible)oldBehaviour).destroy(entity, messageDispatcher, gameContext);
@@ -184,7 +184,7 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 				updateEveryFrameEntities.put(entity.getId(), entity);
 			}
 			if (newBehaviour.isUpdateInfrequently()) {
-				updateInfrequentlyEntities.add(entity);
+				infrequentUpdateScheduler.add(entity, newBehaviour.getInfrequentUpdateInterval());
 			}
 		}
 	}
@@ -237,10 +237,6 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 		return jobAssignableEntities.values();
 	}
 
-	public void shuffle() {
-		Collections.shuffle(updateInfrequentlyEntities);
-	}
-
 	public Entity getById(long entityId) {
 		return gameContext.getEntities().get(entityId);
 	}
@@ -253,8 +249,8 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 		return this.updateEveryFrameEntities.values();
 	}
 
-	public List<Entity> getUpdateInfrequentlyEntities() {
-		return updateInfrequentlyEntities;
+	public InfrequentUpdateScheduler getInfrequentUpdateScheduler() {
+		return infrequentUpdateScheduler;
 	}
 
 	@Override
@@ -307,7 +303,7 @@ public class EntityStore implements GameContextAware, AssetDisposable {
 	@Override
 	public void clearContextRelatedState() {
 		updateEveryFrameEntities.clear();
-		updateInfrequentlyEntities.clear();
+		infrequentUpdateScheduler.clear();
 		jobAssignableEntities.clear();
 	}
 
@@ -3,51 +3,56 @@ package technology.rocketjump.undermount.entities;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.gamecontext.FixedTimestepSimulation;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.Updatable;
-
-import java.util.List;
+import technology.rocketjump.undermount.rendering.camera.GlobalSettings;
 
 @Singleton
 public class EntityUpdater implements Updatable {
 
-	private int infrequentUpdateCursor = 0;
-
-	public static final float TIME_BETWEEN_INFREQUENT_UPDATE_SECONDS = 3f;//1f / 30f;
 	private final EntityStore entityStore;
+	private final FixedTimestepSimulation fixedTimestepSimulation;
+	private final ParallelSteeringPhase parallelSteeringPhase = new ParallelSteeringPhase();
 	private GameContext gameContext;
 
 	@Inject
-	public EntityUpdater(EntityStore entityStore) {
+	public EntityUpdater(EntityStore entityStore, FixedTimestepSimulation fixedTimestepSimulation) {
 		this.entityStore = entityStore;
+		this.fixedTimestepSimulation = fixedTimestepSimulation;
 	}
 
 	@Override
 	public void update(float deltaTime) {
-		for (Entity updatableEntity : entityStore.getUpdateEveryFrameEntities()) {
-			if (updatableEntity != null) { // FIXME No idea how this is sometimes being null
-				updatableEntity.update(deltaTime, gameContext);
+		if (fixedTimestepSimulation.isEnabled()) {
+			// This is updated once per tick, so this is where entities are before anything moves them this tick
+			long currentTick = fixedTimestepSimulation.getCurrentTick();
+			for (Entity updatableEntity : entityStore.getUpdateEveryFrameEntities()) {
+				if (updatableEntity != null) {
+					updatableEntity.getLocationComponent().recordPreviousTickPosition(currentTick);
+				}
 			}
 		}
 
-		List<Entity> infrequentUpdateEntities = entityStore.getUpdateInfrequentlyEntities();
-		float numInfrequentEntitiesToUpdatePerSecond = infrequentUpdateEntities.size() / TIME_BETWEEN_INFREQUENT_UPDATE_SECONDS;
-		int numEntitiesToUpdateThisFrame = Math.round(deltaTime * numInfrequentEntitiesToUpdatePerSecond);
-		numEntitiesToUpdateThisFrame = Math.max(1, numEntitiesToUpdateThisFrame);
+		// Steering looks up nearby creatures in this rather than the entities of each tile
+		gameContext.getAreaMap().getCreatureSpatialHash().rebuild(entityStore.getUpdateEveryFrameEntities());
 
-		if (!infrequentUpdateEntities.isEmpty()) {
-			while (numEntitiesToUpdateThisFrame > 0) {
-				if (infrequentUpdateCursor >= infrequentUpdateEntities.size()) {
-					infrequentUpdateCursor = 0;
-				}
+		boolean parallelSteering = GlobalSettings.PARALLEL_ENTITY_UPDATES;
+		if (parallelSteering) {
+			parallelSteeringPhase.update(deltaTime, entityStore.getUpdateEveryFrameEntities(), gameContext.getAreaMap());
+		}
 
-				Entity entity = infrequentUpdateEntities.get(infrequentUpdateCursor);
-				// Note that this can end up being called after an entity has been removed from infrequentUpdateEntities
-				entity.infrequentUpdate(gameContext);
-				infrequentUpdateCursor++;
-				numEntitiesToUpdateThisFrame--;
+		for (Entity updatableEntity : entityStore.getUpdateEveryFrameEntities()) {
+			if (updatableEntity != null) { // FIXME No idea how this is sometimes being null
+				updatableEntity.update(deltaTime, gameContext);
 			}
 		}
+
+		if (parallelSteering) {
+			parallelSteeringPhase.finishFrame();
+		}
+
+		entityStore.getInfrequentUpdateScheduler().update(deltaTime, gameContext);
 	}
 
 	@Override
@@ -62,6 +67,6 @@ public class EntityUpdater implements Updatable {
 
 	@Override
 	public void clearContextRelatedState() {
-		this.infrequentUpdateCursor = 0;
+		parallelSteeringPhase.clear();
 	}
 }
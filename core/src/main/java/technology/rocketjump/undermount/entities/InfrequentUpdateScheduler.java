@@ -0,0 +1,172 @@
+package technology.rocketjump.undermount.entities;
+
+import com.badlogic.gdx.utils.LongMap;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.gamecontext.GameContext;
+
+/**
+ * A timing wheel of entities to call infrequentUpdate() on, where each entity is updated once per its own interval.
+ *
+ * Each slot of the wheel is a linked list of entities due in that slot, so adding and removing an entity is O(1).
+ * Intervals longer than one turn of the wheel wait for a number of extra rounds before being due. New entities are
+ * placed at an offset within their first interval derived from their ID, which spreads the entities with the same
+ * interval evenly across the slots.
+ */
+public class InfrequentUpdateScheduler {
+
+	public static final float SLOT_DURATION_SECONDS = 1f / 60f;
+	public static final int NUM_SLOTS = 512;
+
+	private final ScheduledEntity[] slotHeads = new ScheduledEntity[NUM_SLOTS];
+	private final int[] slotSizes = new int[NUM_SLOTS];
+	private final long[] slotUpdateNanos = new long[NUM_SLOTS]; // Time spent on the last visit to each slot
+	private final LongMap<ScheduledEntity> scheduledByEntityId = new LongMap<>();
+	private int currentSlot;
+	private float timeSinceLastSlot;
+
+	public void add(Entity entity, float intervalSeconds) {
+		if (scheduledByEntityId.containsKey(entity.getId())) {
+			remove(entity);
+		}
+		ScheduledEntity scheduled = new ScheduledEntity(entity, Math.max(1, Math.round(intervalSeconds / SLOT_DURATION_SECONDS)));
+		scheduledByEntityId.put(entity.getId(), scheduled);
+		// Golden ratio hash of the ID so that sequential IDs are spread across the interval
+		long spread = (entity.getId() * 0x9E3779B97F4A7C15L) >>> 33;
+		schedule(scheduled, 1 + (int) (spread % scheduled.intervalTicks));
+	}
+
+	public void remove(Entity entity) {
+		ScheduledEntity scheduled = scheduledByEntityId.remove(entity.getId());
+		if (scheduled != null) {
+			if (scheduled.slot >= 0) {
+				unlink(scheduled);
+			}
+			// Otherwise it is currently being processed and is skipped by being marked as removed
+			scheduled.removed = true;
+		}
+	}
+
+	public boolean contains(Entity entity) {
+		return scheduledByEntityId.containsKey(entity.getId());
+	}
+
+	public int size() {
+		return scheduledByEntityId.size;
+	}
+
+	public void clear() {
+		for (int slot = 0; slot < NUM_SLOTS; slot++) {
+			slotHeads[slot] = null;
+			slotSizes[slot] = 0;
+			slotUpdateNanos[slot] = 0;
+		}
+		scheduledByEntityId.clear();
+		currentSlot = 0;
+		timeSinceLastSlot = 0;
+	}
+
+	/**
+	 * Advances the wheel by the elapsed time, updating the entities in every slot which has been passed
+	 */
+	public void update(float deltaTime, GameContext gameContext) {
+		timeSinceLastSlot += deltaTime;
+		while (timeSinceLastSlot >= SLOT_DURATION_SECONDS) {
+			timeSinceLastSlot -= SLOT_DURATION_SECONDS;
+			currentSlot = (currentSlot + 1) % NUM_SLOTS;
+			processSlot(currentSlot, gameContext);
+		}
+	}
+
+	private void processSlot(int slot, GameContext gameContext) {
+		long startTime = System.nanoTime();
+
+		// Detach the slot's list, as updates may add entities to it or remove entities from it
+		ScheduledEntity scheduled = slotHeads[slot];
+		slotHeads[slot] = null;
+		slotSizes[slot] = 0;
+		for (ScheduledEntity cursor = scheduled; cursor != null; cursor = cursor.next) {
+			cursor.slot = -1;
+		}
+
+		while (scheduled != null) {
+			ScheduledEntity next = scheduled.next;
+			scheduled.previous = null;
+			scheduled.next = null;
+			if (!scheduled.removed) {
+				if (scheduled.roundsRemaining > 0) {
+					scheduled.roundsRemaining--;
+					insert(scheduled, slot);
+				} else {
+					scheduled.entity.infrequentUpdate(gameContext);
+					if (!scheduled.removed) {
+						schedule(scheduled, scheduled.intervalTicks);
+					}
+				}
+			}
+			scheduled = next;
+		}
+
+		slotUpdateNanos[slot] = System.nanoTime() - startTime;
+	}
+
+	private void schedule(ScheduledEntity scheduled, int ticksFromNow) {
+		scheduled.roundsRemaining = (ticksFromNow - 1) / NUM_SLOTS;
+		insert(scheduled, (currentSlot + ticksFromNow) % NUM_SLOTS);
+	}
+
+	private void insert(ScheduledEntity scheduled, int slot) {
+		scheduled.slot = slot;
+		scheduled.previous = null;
+		scheduled.next = slotHeads[slot];
+		if (slotHeads[slot] != null) {
+			slotHeads[slot].previous = scheduled;
+		}
+		slotHeads[slot] = scheduled;
+		slotSizes[slot]++;
+	}
+
+	private void unlink(ScheduledEntity scheduled) {
+		if (scheduled.previous == null) {
+			slotHeads[scheduled.slot] = scheduled.next;
+		} else {
+			scheduled.previous.next = scheduled.next;
+		}
+		if (scheduled.next != null) {
+			scheduled.next.previous = scheduled.previous;
+		}
+		slotSizes[scheduled.slot]--;
+		scheduled.slot = -1;
+		scheduled.previous = null;
+		scheduled.next = null;
+	}
+
+	/**
+	 * @return the number of entities currently waiting in the slot, including those with rounds remaining
+	 */
+	public int getSlotSize(int slot) {
+		return slotSizes[slot];
+	}
+
+	/**
+	 * @return how long the last visit to the slot took, in nanoseconds
+	 */
+	public long getSlotUpdateNanos(int slot) {
+		return slotUpdateNanos[slot];
+	}
+
+	private static class ScheduledEntity {
+
+		private final Entity entity;
+		private final int intervalTicks;
+		private int roundsRemaining;
+		private int slot = -1;
+		private boolean removed;
+		private ScheduledEntity previous;
+		private ScheduledEntity next;
+
+		private ScheduledEntity(Entity entity, int intervalTicks) {
+			this.entity = entity;
+			this.intervalTicks = intervalTicks;
+		}
+	}
+}
@@ -154,83 +154,81 @@ public class ItemEntityMessageHandler implements GameContextAware, Telegraph {
 
 	private boolean handle(RequestHaulingAllocationMessage message) {
 		int requesterRegionId = gameContext.getAreaMap().getTile(message.requesterPosition).getRegionId();
-		List<Entity> unallocatedItems;
-		if (message.requiredMaterial != null) {
-			unallocatedItems = itemTracker.getItemsByTypeAndMaterial(message.requiredItemType, message.requiredMaterial, true);
-		} else {
-			unallocatedItems = itemTracker.getItemsByType(message.requiredItemType, true);
-		}
 
-		Collections.sort(unallocatedItems, new NearestDistanceSorter(message.requesterPosition));
+		HaulingAllocation[] found = new HaulingAllocation[1];
+		itemTracker.visitUnallocatedNearestFirst(message.requiredItemType, message.requiredMaterial, message.requesterPosition, unallocatedItem -> {
+			found[0] = allocateForHauling(unallocatedItem, message, requesterRegionId);
+			return found[0] != null;
+		});
+		// Callback is made after the search so it is free to request further allocations
+		message.allocationCallback.allocationFound(found[0]);
+		return true;
+	}
 
+	private HaulingAllocation allocateForHauling(Entity unallocatedItem, RequestHaulingAllocationMessage message, int requesterRegionId) {
 		HaulingAllocation allocation = new HaulingAllocation();
-		for (Entity unallocatedItem : unallocatedItems) {
-			MapTile itemTile = gameContext.getAreaMap().getTile(unallocatedItem.getLocationComponent().getWorldOrParentPosition());
-			if (itemTile == null || itemTile.getRegionId() != requesterRegionId) {
-				// Item not found or in different region
-				continue;
-			}
+		MapTile itemTile = gameContext.getAreaMap().getTile(unallocatedItem.getLocationComponent().getWorldOrParentPosition());
+		if (itemTile == null || itemTile.getRegionId() != requesterRegionId) {
+			// Item not found or in different region
+			return null;
+		}
 
-			LiquidContainerComponent liquidContainerComponent = unallocatedItem.getComponent(LiquidContainerComponent.class);
-			if (liquidContainerComponent != null && liquidContainerComponent.getLiquidQuantity() > 0) {
-				if (message.requiredContainedLiquid == null) {
-					// Not requesting item to contain a specific liquid so don't use this one
-					continue;
-				} else if (!message.requiredContainedLiquid.equals(liquidContainerComponent.getTargetLiquidMaterial()) || liquidContainerComponent.getNumUnallocated() <= 0) {
-					continue;
-				}
-			} else if (message.requiredContainedLiquid != null) {
-				// No liquid container component or quantity and this request specifies a liquid
-				continue;
+		LiquidContainerComponent liquidContainerComponent = unallocatedItem.getComponent(LiquidContainerComponent.class);
+		if (liquidContainerComponent != null && liquidContainerComponent.getLiquidQuantity() > 0) {
+			if (message.requiredContainedLiquid == null) {
+				// Not requesting item to contain a specific liquid so don't use this one
+				return null;
+			} else if (!message.requiredContainedLiquid.equals(liquidContainerComponent.getTargetLiquidMaterial()) || liquidContainerComponent.getNumUnallocated() <= 0) {
+				return null;
 			}
+		} else if (message.requiredContainedLiquid != null) {
+			// No liquid container component or quantity and this request specifies a liquid
+			return null;
+		}
 
-			Entity containerEntity = unallocatedItem.getLocationComponent().getContainerEntity();
-			if (containerEntity != null) {
-				if (message.includeFromFurniture) {
-					if (containerEntity.getType().equals(EntityType.FURNITURE)) {
-						allocation.setSourcePositionType(HaulingAllocation.AllocationPositionType.FURNITURE);
-						allocation.setSourcePosition(itemTile.getTilePosition());
-						allocation.setSourceContainerId(containerEntity.getId());
-					} else {
-						Logger.info("Not yet implemented: Requesting item from non-furniture container");
-						continue;
-					}
+		Entity containerEntity = unallocatedItem.getLocationComponent().getContainerEntity();
+		if (containerEntity != null) {
+			if (message.includeFromFurniture) {
+				if (containerEntity.getType().equals(EntityType.FURNITURE)) {
+					allocation.setSourcePositionType(HaulingAllocation.AllocationPositionType.FURNITURE);
+					allocation.setSourcePosition(itemTile.getTilePosition());
+					allocation.setSourceContainerId(containerEntity.getId());
 				} else {
-					// This request does not want items from other containers
-					continue;
+					Logger.info("Not yet implemented: Requesting item from non-furniture container");
+					return null;
 				}
 			} else {
-				// Not in a container
-				allocation.setSourcePositionType(HaulingAllocation.AllocationPositionType.FLOOR);
-				allocation.setSourcePosition(itemTile.getTilePosition());
+				// This request does not want items from other containers
+				return null;
 			}
+		} else {
+			// Not in a container
+			allocation.setSourcePositionType(HaulingAllocation.AllocationPositionType.FLOOR);
+			allocation.setSourcePosition(itemTile.getTilePosition());
+		}
 
-			ItemEntityAttributes attributes = (ItemEntityAttributes) unallocatedItem.getPhysicalEntityComponent().getAttributes();
-			allocation.setHauledEntityId(unallocatedItem.getId());
+		ItemEntityAttributes attributes = (ItemEntityAttributes) unallocatedItem.getPhysicalEntityComponent().getAttributes();
+		allocation.setHauledEntityId(unallocatedItem.getId());
 
-			ItemAllocationComponent itemAllocationComponent = unallocatedItem.getOrCreateComponent(ItemAllocationComponent.class);
+		ItemAllocationComponent itemAllocationComponent = unallocatedItem.getOrCreateComponent(ItemAllocationComponent.class);
 
-			int numToAllocate = Math.min(itemAllocationComponent.getNumUnallocated(), attributes.getItemType().getMaxHauledAtOnce());
-			if (message.maxAmountRequired != null) {
-				numToAllocate = Math.min(numToAllocate, message.maxAmountRequired);
-			}
-			Entity requestingEntity = message.requestingEntity != null ? message.requestingEntity : unallocatedItem;
-			ItemAllocation itemAllocation = itemAllocationComponent.createAllocation(numToAllocate, requestingEntity, ItemAllocation.Purpose.DUE_TO_BE_HAULED);
-			if (itemAllocation != null) {
-				allocation.setItemAllocation(itemAllocation);
-				if (liquidContainerComponent != null && message.requiredContainedLiquid != null) {
-					LiquidAllocation liquidAllocation = liquidContainerComponent.createAllocationDueToParentHauling(liquidContainerComponent.getNumUnallocated(), message.requestingEntity);
-					allocation.setLiquidAllocation(liquidAllocation);
-				}
-				message.allocationCallback.allocationFound(allocation);
-				return true;
-			} else {
-				Logger.error("Could not create item allocation");
+		int numToAllocate = Math.min(itemAllocationComponent.getNumUnallocated(), attributes.getItemType().getMaxHauledAtOnce());
+		if (message.maxAmountRequired != null) {
+			numToAllocate = Math.min(numToAllocate, message.maxAmountRequired);
+		}
+		Entity requestingEntity = message.requestingEntity != null ? message.requestingEntity : unallocatedItem;
+		ItemAllocation itemAllocation = itemAllocationComponent.createAllocation(numToAllocate, requestingEntity, ItemAllocation.Purpose.DUE_TO_BE_HAULED);
+		if (itemAllocation != null) {
+			allocation.setItemAllocation(itemAllocation);
+			if (liquidContainerComponent != null && message.requiredContainedLiquid != null) {
+				LiquidAllocation liquidAllocation = liquidContainerComponent.createAllocationDueToParentHauling(liquidContainerComponent.getNumUnallocated(), message.requestingEntity);
+				allocation.setLiquidAllocation(liquidAllocation);
 			}
+			return allocation;
+		} else {
+			Logger.error("Could not create item allocation");
+			return null;
 		}
-
-		message.allocationCallback.allocationFound(null);
-		return true;
 	}
 
 	private boolean handle(ItemMaterialSelectionMessage itemMaterialSelectionMessage) {
@@ -0,0 +1,144 @@
+package technology.rocketjump.undermount.entities;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import org.pmw.tinylog.Logger;
+import technology.rocketjump.undermount.entities.behaviour.creature.CreatureBehaviour;
+import technology.rocketjump.undermount.entities.behaviour.creature.SettlerBehaviour;
+import technology.rocketjump.undermount.entities.components.BehaviourComponent;
+import technology.rocketjump.undermount.entities.components.humanoid.SteeringComponent;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.entities.model.EntityType;
+import technology.rocketjump.undermount.entities.model.physical.creature.CreatureEntityAttributes;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static technology.rocketjump.undermount.entities.model.physical.creature.Consciousness.AWAKE;
+
+/**
+ * Moves every awake creature ahead of the entity updates, with the steering of each chunk of the map calculated on
+ * its own thread.
+ *
+ * Calculating steering only reads the map and other entities, so every chunk sees the same state of the world however
+ * the work is split. Everything with side effects - moving the entity between tiles and the messages that go with it -
+ * is held back and applied on the main thread afterwards, chunk by chunk and then by entity ID, so the result is the
+ * same every time.
+ */
+public class ParallelSteeringPhase {
+
+	private static final int CHUNK_SIZE = 16;
+	private static final int MIN_ENTITIES_FOR_PARALLELISM = 32;
+
+	private final IntMap<Array<Entity>> entitiesByChunk = new IntMap<>();
+	private final IntArray chunkOrder = new IntArray();
+	private final Array<Entity> steeredEntities = new Array<>();
+
+	public void update(float deltaTime, Iterable<Entity> updateEveryFrameEntities, TiledMap areaMap) {
+		int numEntities = partition(updateEveryFrameEntities, areaMap);
+
+		if (numEntities < MIN_ENTITIES_FOR_PARALLELISM) {
+			for (int cursor = 0; cursor < chunkOrder.size; cursor++) {
+				calculate(entitiesByChunk.get(chunkOrder.get(cursor)), deltaTime);
+			}
+		} else {
+			List<Callable<Void>> tasks = new ArrayList<>(chunkOrder.size);
+			for (int cursor = 0; cursor < chunkOrder.size; cursor++) {
+				Array<Entity> chunkEntities = entitiesByChunk.get(chunkOrder.get(cursor));
+				tasks.add(() -> {
+					calculate(chunkEntities, deltaTime);
+					return null;
+				});
+			}
+			for (Future<Void> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+				try {
+					result.get();
+				} catch (InterruptedException | ExecutionException e) {
+					// Entities in a failed chunk have nothing to apply, so steer themselves as normal in their update
+					Logger.error(e, "Error while calculating steering");
+				}
+			}
+		}
+
+		for (int cursor = 0; cursor < chunkOrder.size; cursor++) {
+			for (Entity entity : entitiesByChunk.get(chunkOrder.get(cursor))) {
+				SteeringComponent steeringComponent = entity.getBehaviourComponent().getSteeringComponent();
+				steeringComponent.applySteeringAhead();
+				steeredEntities.add(entity);
+			}
+		}
+	}
+
+	/**
+	 * To be called once the entity updates for the frame are complete, so any entity which did not get to use its
+	 * steering in its update (e.g. by falling asleep in the meantime) steers itself as normal next frame
+	 */
+	public void finishFrame() {
+		for (Entity entity : steeredEntities) {
+			entity.getBehaviourComponent().getSteeringComponent().clearSteeringAppliedAhead();
+		}
+		steeredEntities.clear();
+	}
+
+	public void clear() {
+		entitiesByChunk.clear();
+		chunkOrder.clear();
+		steeredEntities.clear();
+	}
+
+	private int partition(Iterable<Entity> updateEveryFrameEntities, TiledMap areaMap) {
+		for (IntMap.Entry<Array<Entity>> entry : entitiesByChunk) {
+			entry.value.clear();
+		}
+		chunkOrder.clear();
+
+		int chunksWide = (areaMap.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		int numEntities = 0;
+		for (Entity entity : updateEveryFrameEntities) {
+			if (entity == null || !isSteered(entity)) {
+				continue;
+			}
+			Vector2 position = entity.getLocationComponent().getWorldPosition();
+			int chunkIndex = ((int) position.y / CHUNK_SIZE) * chunksWide + ((int) position.x / CHUNK_SIZE);
+			Array<Entity> chunkEntities = entitiesByChunk.get(chunkIndex);
+			if (chunkEntities == null) {
+				chunkEntities = new Array<>();
+				entitiesByChunk.put(chunkIndex, chunkEntities);
+			}
+			if (chunkEntities.isEmpty()) {
+				chunkOrder.add(chunkIndex);
+			}
+			chunkEntities.add(entity);
+			numEntities++;
+		}
+
+		chunkOrder.sort();
+		for (int cursor = 0; cursor < chunkOrder.size; cursor++) {
+			entitiesByChunk.get(chunkOrder.get(cursor)).sort((a, b) -> Long.compare(a.getId(), b.getId()));
+		}
+		return numEntities;
+	}
+
+	private boolean isSteered(Entity entity) {
+		// Matches the creatures which update their steering in their own update
+		BehaviourComponent behaviour = entity.getBehaviourComponent();
+		return entity.getType().equals(EntityType.CREATURE) &&
+				(behaviour instanceof SettlerBehaviour || behaviour instanceof CreatureBehaviour) &&
+				entity.getLocationComponent().getWorldPosition() != null &&
+				AWAKE.equals(((CreatureEntityAttributes) entity.getPhysicalEntityComponent().getAttributes()).getConsciousness());
+	}
+
+	private static void calculate(Array<Entity> chunkEntities, float deltaTime) {
+		for (Entity entity : chunkEntities) {
+			entity.getBehaviourComponent().getSteeringComponent().calculateSteering(deltaTime);
+		}
+	}
+
+}
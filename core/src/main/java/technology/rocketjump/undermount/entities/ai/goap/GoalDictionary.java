@@ -22,6 +22,7 @@ public class GoalDictionary {
 
 	private final List<Goal> allGoals = new LinkedList<>();
 	private final Map<String, Goal> byName = new HashMap<>();
+	private final GoalSelectionTable selectionTable;
 
 	@Inject
 	public GoalDictionary(ActionDictionary actionDictionary) throws IOException {
@@ -46,12 +47,18 @@ public class GoalDictionary {
 			}
 			specialGoal.goalInstance = instance;
 		}
+
+		selectionTable = new GoalSelectionTable(allGoals);
 	}
 
 	public List<Goal> getAllGoals() {
 		return allGoals;
 	}
 
+	public GoalSelectionTable getSelectionTable() {
+		return selectionTable;
+	}
+
 	Goal getByName(String name) {
 		return byName.get(name);
 	}
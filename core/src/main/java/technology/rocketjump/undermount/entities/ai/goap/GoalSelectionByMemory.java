@@ -10,6 +10,7 @@ import technology.rocketjump.undermount.entities.components.humanoid.NeedsCompon
 import technology.rocketjump.undermount.environment.GameClock;
 
 import java.util.Collection;
+import java.util.Objects;
 
 public class GoalSelectionByMemory implements GoalSelectionCondition {
 
@@ -35,4 +36,17 @@ public class GoalSelectionByMemory implements GoalSelectionCondition {
 		}
 		return false;
 	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GoalSelectionByMemory that = (GoalSelectionByMemory) o;
+		return memoryType == that.memoryType;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(memoryType);
+	}
 }
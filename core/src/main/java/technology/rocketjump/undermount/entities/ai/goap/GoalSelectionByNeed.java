@@ -7,6 +7,8 @@ import technology.rocketjump.undermount.entities.components.humanoid.MemoryCompo
 import technology.rocketjump.undermount.entities.components.humanoid.NeedsComponent;
 import technology.rocketjump.undermount.environment.GameClock;
 
+import java.util.Objects;
+
 public class GoalSelectionByNeed implements GoalSelectionCondition {
 
 	public final EntityNeed need;
@@ -32,4 +34,17 @@ public class GoalSelectionByNeed implements GoalSelectionCondition {
 		double needValue = needsComponent.getValue(need);
 		return operator.apply(needValue, value);
 	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		GoalSelectionByNeed that = (GoalSelectionByNeed) o;
+		return need == that.need && operator == that.operator && Objects.equals(value, that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(need, operator, value);
+	}
 }
@@ -0,0 +1,180 @@
+package technology.rocketjump.undermount.entities.ai.goap;
+
+import com.badlogic.gdx.utils.LongMap;
+import org.pmw.tinylog.Logger;
+import technology.rocketjump.undermount.entities.ai.memory.Memory;
+import technology.rocketjump.undermount.entities.ai.memory.MemoryType;
+import technology.rocketjump.undermount.entities.components.humanoid.MemoryComponent;
+import technology.rocketjump.undermount.entities.components.humanoid.NeedsComponent;
+import technology.rocketjump.undermount.environment.GameClock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The goal selectors from GoalDictionary compiled into a table, so that picking which goals to queue for an entity
+ * doesn't go through every goal's conditions.
+ *
+ * Each distinct condition across all selectors becomes one bit of a signature, and each selector becomes a mask of the
+ * bits it requires. Memory conditions are worked out together from a single pass over short-term memories and need
+ * conditions are single comparisons. The goals selected for a signature are worked out once and reused by every entity
+ * in the same state.
+ */
+public class GoalSelectionTable {
+
+	private static final int MAX_CACHED_SIGNATURES = 4096;
+
+	private final List<CompiledGoal> compiledGoals = new ArrayList<>();
+	private final List<GoalSelectionCondition> conditions = new ArrayList<>();
+	private final long[] memoryTypeBits = new long[MemoryType.values().length];
+	private final List<Integer> nonMemoryConditionIndices = new ArrayList<>();
+	private final boolean compiled;
+
+	private final LongMap<CompiledSelector[]> selectionsBySignature = new LongMap<>();
+
+	public GoalSelectionTable(List<Goal> allGoals) {
+		for (Goal goal : allGoals) {
+			if (goal.getSelectors().isEmpty()) {
+				continue; // Don't add goals with no selectors
+			}
+			CompiledGoal compiledGoal = new CompiledGoal(goal);
+			for (GoalSelector selector : goal.getSelectors()) {
+				long requiredMask = 0L;
+				for (GoalSelectionCondition condition : selector.conditions) {
+					requiredMask |= 1L << indexOf(condition);
+				}
+				compiledGoal.selectors.add(new CompiledSelector(goal, selector, requiredMask));
+			}
+			compiledGoals.add(compiledGoal);
+		}
+
+		compiled = conditions.size() <= Long.SIZE;
+		if (!compiled) {
+			Logger.warn("Too many distinct goal selection conditions (" + conditions.size() + ") to compile, goals will be selected by checking each condition");
+			return;
+		}
+		for (int index = 0; index < conditions.size(); index++) {
+			GoalSelectionCondition condition = conditions.get(index);
+			if (condition instanceof GoalSelectionByMemory) {
+				memoryTypeBits[((GoalSelectionByMemory) condition).memoryType.ordinal()] |= 1L << index;
+			} else {
+				nonMemoryConditionIndices.add(index);
+			}
+		}
+	}
+
+	/**
+	 * Adds each goal which has a selector with all its conditions met, except the entity's current goal, to the goal queue
+	 *
+	 * @param currentGoal the goal currently being carried out, may be null
+	 */
+	public void addSelectedGoals(GoalQueue goalQueue, Goal currentGoal, GameClock gameClock,
+								 NeedsComponent needsComponent, MemoryComponent memoryComponent) {
+		if (!compiled) {
+			addSelectedGoalsUncompiled(goalQueue, currentGoal, gameClock, needsComponent, memoryComponent);
+			return;
+		}
+
+		for (CompiledSelector selection : getSelections(signatureOf(gameClock, needsComponent, memoryComponent))) {
+			if (currentGoal != null && selection.goal.equals(currentGoal)) {
+				continue; // Don't queue up the current goal
+			}
+			goalQueue.add(new QueuedGoal(selection.goal, selection.selector.scheduleCategory, selection.selector.priority, gameClock));
+		}
+	}
+
+	int getNumConditions() {
+		return conditions.size();
+	}
+
+	long signatureOf(GameClock gameClock, NeedsComponent needsComponent, MemoryComponent memoryComponent) {
+		long signature = 0L;
+		if (memoryComponent != null) {
+			for (Memory memory : memoryComponent.getShortTermMemories(gameClock)) {
+				signature |= memoryTypeBits[memory.getType().ordinal()];
+			}
+		}
+		for (int cursor = 0; cursor < nonMemoryConditionIndices.size(); cursor++) {
+			int index = nonMemoryConditionIndices.get(cursor);
+			if (conditions.get(index).apply(gameClock, needsComponent, memoryComponent)) {
+				signature |= 1L << index;
+			}
+		}
+		return signature;
+	}
+
+	private CompiledSelector[] getSelections(long signature) {
+		CompiledSelector[] selections = selectionsBySignature.get(signature);
+		if (selections == null) {
+			List<CompiledSelector> selected = new ArrayList<>();
+			for (CompiledGoal compiledGoal : compiledGoals) {
+				for (CompiledSelector selector : compiledGoal.selectors) {
+					if ((selector.requiredMask & signature) == selector.requiredMask) {
+						selected.add(selector);
+						break;
+					}
+				}
+			}
+			selections = selected.toArray(new CompiledSelector[0]);
+			if (selectionsBySignature.size >= MAX_CACHED_SIGNATURES) {
+				selectionsBySignature.clear();
+			}
+			selectionsBySignature.put(signature, selections);
+		}
+		return selections;
+	}
+
+	private void addSelectedGoalsUncompiled(GoalQueue goalQueue, Goal currentGoal, GameClock gameClock,
+											NeedsComponent needsComponent, MemoryComponent memoryComponent) {
+		for (CompiledGoal compiledGoal : compiledGoals) {
+			if (currentGoal != null && compiledGoal.goal.equals(currentGoal)) {
+				continue;
+			}
+			for (CompiledSelector compiledSelector : compiledGoal.selectors) {
+				boolean allConditionsApply = true;
+				for (GoalSelectionCondition condition : compiledSelector.selector.conditions) {
+					if (!condition.apply(gameClock, needsComponent, memoryComponent)) {
+						allConditionsApply = false;
+						break;
+					}
+				}
+				if (allConditionsApply) {
+					goalQueue.add(new QueuedGoal(compiledGoal.goal, compiledSelector.selector.scheduleCategory, compiledSelector.selector.priority, gameClock));
+					break;
+				}
+			}
+		}
+	}
+
+	private int indexOf(GoalSelectionCondition condition) {
+		int index = conditions.indexOf(condition);
+		if (index < 0) {
+			conditions.add(condition);
+			index = conditions.size() - 1;
+		}
+		return index;
+	}
+
+	private static class CompiledGoal {
+
+		private final Goal goal;
+		private final List<CompiledSelector> selectors = new ArrayList<>();
+
+		private CompiledGoal(Goal goal) {
+			this.goal = goal;
+		}
+	}
+
+	private static class CompiledSelector {
+
+		private final Goal goal;
+		private final GoalSelector selector;
+		private final long requiredMask;
+
+		private CompiledSelector(Goal goal, GoalSelector selector, long requiredMask) {
+			this.goal = goal;
+			this.selector = selector;
+			this.requiredMask = requiredMask;
+		}
+	}
+}
@@ -47,4 +47,10 @@ public class RequeueSameJobTypeAction extends SelectJobAction {
 			completionType = FAILURE;
 		}
 	}
+
+	@Override
+	public boolean canAccept(Job potentialJob, GameContext gameContext) {
+		Job currentJob = parent.getAssignedJob();
+		return currentJob != null && potentialJob.getType().equals(currentJob.getType());
+	}
 }
@@ -81,22 +81,8 @@ public class SelectJobAction extends Action implements JobAssignmentCallback, In
 		Job selectedJob = null;
 		for (Job potentialJob : potentialJobs) {
 			if (potentialJob.getJobState().equals(JobState.ASSIGNABLE) && potentialJob.getAssignedToEntityId() == null) {
-
-				if (potentialJob.getRequiredItemType() != null && !jobUsesWorkstationTool(potentialJob)) {
-					if (!haveInventoryItem(potentialJob.getRequiredItemType(), potentialJob.getRequiredItemMaterial(), gameContext.getGameClock())) {
-						Memory itemRequiredMemory = new Memory(MemoryType.LACKING_REQUIRED_ITEM, gameContext.getGameClock());
-						itemRequiredMemory.setRelatedItemType(potentialJob.getRequiredItemType());
-						itemRequiredMemory.setRelatedMaterial(potentialJob.getRequiredItemMaterial()); // Might be null
-						parent.parentEntity.getComponent(MemoryComponent.class).addShortTerm(itemRequiredMemory, gameContext.getGameClock());
-						continue;
-					}
-				}
-
-				if (potentialJob.getType().isRequiresWeapon()) {
-					WeaponSelectionComponent weaponSelectionComponent = parent.parentEntity.getOrCreateComponent(WeaponSelectionComponent.class);
-					if (!hasSelectedWeaponAndAmmoInInventory(parent.parentEntity, weaponSelectionComponent.getSelectedWeapon(), gameContext)) {
-						continue;
-					}
+				if (!canAccept(potentialJob, gameContext)) {
+					continue;
 				}
 
 				selectedJob = potentialJob;
@@ -111,6 +97,35 @@ public class SelectJobAction extends Action implements JobAssignmentCallback, In
 			// No jobs found
 			completionType = FAILURE;
 		}
+
+		// Remembered once here rather than in canAccept(), which is checked for every job looked at in the search
+		Job rejectedJob = jobRequest == null ? null : jobRequest.getFirstRejectedJob();
+		if (rejectedJob != null && lacksRequiredItem(rejectedJob, gameContext)) {
+			Memory itemRequiredMemory = new Memory(MemoryType.LACKING_REQUIRED_ITEM, gameContext.getGameClock());
+			itemRequiredMemory.setRelatedItemType(rejectedJob.getRequiredItemType());
+			itemRequiredMemory.setRelatedMaterial(rejectedJob.getRequiredItemMaterial()); // Might be null
+			parent.parentEntity.getComponent(MemoryComponent.class).addShortTerm(itemRequiredMemory, gameContext.getGameClock());
+		}
+	}
+
+	@Override
+	public boolean canAccept(Job potentialJob, GameContext gameContext) {
+		if (lacksRequiredItem(potentialJob, gameContext)) {
+			return false;
+		}
+
+		if (potentialJob.getType().isRequiresWeapon()) {
+			WeaponSelectionComponent weaponSelectionComponent = parent.parentEntity.getOrCreateComponent(WeaponSelectionComponent.class);
+			if (!hasSelectedWeaponAndAmmoInInventory(parent.parentEntity, weaponSelectionComponent.getSelectedWeapon(), gameContext)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean lacksRequiredItem(Job job, GameContext gameContext) {
+		return job.getRequiredItemType() != null && !jobUsesWorkstationTool(job) &&
+				!haveInventoryItem(job.getRequiredItemType(), job.getRequiredItemMaterial(), gameContext.getGameClock());
 	}
 
 	private boolean haveInventoryItem(ItemType itemTypeRequired, GameMaterial requiredItemMaterial, GameClock gameClock) {
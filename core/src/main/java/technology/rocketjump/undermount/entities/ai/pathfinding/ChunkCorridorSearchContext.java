@@ -0,0 +1,213 @@
+package technology.rocketjump.undermount.entities.ai.pathfinding;
+
+import java.util.Arrays;
+
+import static technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingChunkGraph.CHUNK_SIZE;
+
+/**
+ * Reusable working state for PathfindingChunkGraph, kept per thread (see forCurrentThread()) in the same way as
+ * PathfindingSearchContext so corridor searches and chunk rebuilds on the pathfinding pool neither share scratch
+ * arrays nor allocate collections or nodes per query.
+ *
+ * Searches within a single chunk are indexed by (CHUNK_SIZE * localY) + localX. The search over portal tiles
+ * is indexed by map tile, with a search generation stamped in rather than clearing the per-tile arrays.
+ */
+class ChunkCorridorSearchContext {
+
+	static final int TILES_PER_CHUNK = CHUNK_SIZE * CHUNK_SIZE;
+	private static final int MAX_CHUNK_FRONTIER_SIZE = (TILES_PER_CHUNK * 8) + 1;
+	private static final int INITIAL_FRONTIER_CAPACITY = 64;
+
+	private static final ThreadLocal<ChunkCorridorSearchContext> perThreadContext = ThreadLocal.withInitial(ChunkCorridorSearchContext::new);
+
+	// Dijkstra search within a single chunk
+	final float[] chunkCosts = new float[TILES_PER_CHUNK];
+	final boolean[] chunkSettled = new boolean[TILES_PER_CHUNK];
+	final float[] startCosts = new float[TILES_PER_CHUNK];
+	final float[] goalCosts = new float[TILES_PER_CHUNK];
+	private final int[] chunkFrontier = new int[MAX_CHUNK_FRONTIER_SIZE];
+	private final float[] chunkFrontierCost = new float[MAX_CHUNK_FRONTIER_SIZE];
+	private int chunkFrontierSize;
+
+	// A* search over portal tiles, per map tile
+	private float[] costToGetHere = new float[0];
+	private int[] previousInPath = new int[0];
+	private int[] searchGeneration = new int[0];
+	private int generation;
+
+	private int[] frontierTile = new int[INITIAL_FRONTIER_CAPACITY];
+	private float[] frontierCost = new float[INITIAL_FRONTIER_CAPACITY];
+	private float[] frontierTotal = new float[INITIAL_FRONTIER_CAPACITY];
+	private int frontierSize;
+	private float polledCost;
+
+	static ChunkCorridorSearchContext forCurrentThread() {
+		return perThreadContext.get();
+	}
+
+	void startChunkSearch(int startLocal) {
+		Arrays.fill(chunkCosts, Float.POSITIVE_INFINITY);
+		Arrays.fill(chunkSettled, false);
+		chunkFrontierSize = 0;
+		chunkCosts[startLocal] = 0f;
+		pushChunkFrontier(startLocal, 0f);
+	}
+
+	boolean hasChunkFrontier() {
+		return chunkFrontierSize > 0;
+	}
+
+	float peekChunkFrontierCost() {
+		return chunkFrontierCost[0];
+	}
+
+	void pushChunkFrontier(int local, float cost) {
+		int cursor = chunkFrontierSize;
+		chunkFrontierSize++;
+		while (cursor > 0) {
+			int parent = (cursor - 1) >>> 1;
+			if (cost >= chunkFrontierCost[parent]) {
+				break;
+			}
+			chunkFrontier[cursor] = chunkFrontier[parent];
+			chunkFrontierCost[cursor] = chunkFrontierCost[parent];
+			cursor = parent;
+		}
+		chunkFrontier[cursor] = local;
+		chunkFrontierCost[cursor] = cost;
+	}
+
+	int popChunkFrontier() {
+		int polled = chunkFrontier[0];
+		chunkFrontierSize--;
+		int lastLocal = chunkFrontier[chunkFrontierSize];
+		float lastCost = chunkFrontierCost[chunkFrontierSize];
+		int cursor = 0;
+		int half = chunkFrontierSize >>> 1;
+		while (cursor < half) {
+			int child = (cursor << 1) + 1;
+			if (child + 1 < chunkFrontierSize && chunkFrontierCost[child + 1] < chunkFrontierCost[child]) {
+				child++;
+			}
+			if (lastCost <= chunkFrontierCost[child]) {
+				break;
+			}
+			chunkFrontier[cursor] = chunkFrontier[child];
+			chunkFrontierCost[cursor] = chunkFrontierCost[child];
+			cursor = child;
+		}
+		if (chunkFrontierSize > 0) {
+			chunkFrontier[cursor] = lastLocal;
+			chunkFrontierCost[cursor] = lastCost;
+		}
+		return polled;
+	}
+
+	void startCorridorSearch(int numMapTiles) {
+		if (searchGeneration.length != numMapTiles) {
+			costToGetHere = new float[numMapTiles];
+			previousInPath = new int[numMapTiles];
+			searchGeneration = new int[numMapTiles];
+			generation = 0;
+		}
+		generation++;
+		if (generation == Integer.MAX_VALUE) {
+			// Wrapped around, so old stamps are no longer distinguishable
+			Arrays.fill(searchGeneration, 0);
+			generation = 1;
+		}
+		frontierSize = 0;
+	}
+
+	/**
+	 * @return the cheapest known cost to reach the tile in this search, or Float.MAX_VALUE if not yet reached
+	 */
+	float getCostToGetHere(int tileIndex) {
+		return searchGeneration[tileIndex] == generation ? costToGetHere[tileIndex] : Float.MAX_VALUE;
+	}
+
+	int getPreviousInPath(int tileIndex) {
+		return previousInPath[tileIndex];
+	}
+
+	/**
+	 * Records a new, cheaper route to the tile and adds it to the frontier
+	 */
+	void explore(int tileIndex, float cost, int previousTileIndex, float totalEstimate) {
+		costToGetHere[tileIndex] = cost;
+		previousInPath[tileIndex] = previousTileIndex;
+		searchGeneration[tileIndex] = generation;
+		push(tileIndex, cost, totalEstimate);
+	}
+
+	boolean hasFrontier() {
+		return frontierSize > 0;
+	}
+
+	/**
+	 * @return the cost to reach the tile last returned by pollFrontier(), at the time it was added to the frontier
+	 */
+	float getPolledCost() {
+		return polledCost;
+	}
+
+	int pollFrontier() {
+		int polled = frontierTile[0];
+		polledCost = frontierCost[0];
+
+		frontierSize--;
+		if (frontierSize == 0) {
+			return polled;
+		}
+
+		int lastTile = frontierTile[frontierSize];
+		float lastCost = frontierCost[frontierSize];
+		float lastTotal = frontierTotal[frontierSize];
+
+		int cursor = 0;
+		int half = frontierSize >>> 1;
+		while (cursor < half) {
+			int child = (cursor << 1) + 1;
+			if (child + 1 < frontierSize && frontierTotal[child + 1] < frontierTotal[child]) {
+				child++;
+			}
+			if (lastTotal <= frontierTotal[child]) {
+				break;
+			}
+			frontierTile[cursor] = frontierTile[child];
+			frontierCost[cursor] = frontierCost[child];
+			frontierTotal[cursor] = frontierTotal[child];
+			cursor = child;
+		}
+		frontierTile[cursor] = lastTile;
+		frontierCost[cursor] = lastCost;
+		frontierTotal[cursor] = lastTotal;
+		return polled;
+	}
+
+	private void push(int tileIndex, float cost, float total) {
+		if (frontierSize == frontierTile.length) {
+			int newCapacity = frontierTile.length * 2;
+			frontierTile = Arrays.copyOf(frontierTile, newCapacity);
+			frontierCost = Arrays.copyOf(frontierCost, newCapacity);
+			frontierTotal = Arrays.copyOf(frontierTotal, newCapacity);
+		}
+
+		int cursor = frontierSize;
+		frontierSize++;
+		while (cursor > 0) {
+			int parent = (cursor - 1) >>> 1;
+			if (total >= frontierTotal[parent]) {
+				break;
+			}
+			frontierTile[cursor] = frontierTile[parent];
+			frontierCost[cursor] = frontierCost[parent];
+			frontierTotal[cursor] = frontierTotal[parent];
+			cursor = parent;
+		}
+		frontierTile[cursor] = tileIndex;
+		frontierCost[cursor] = cost;
+		frontierTotal[cursor] = total;
+	}
+
+}
@@ -0,0 +1,59 @@
+package technology.rocketjump.undermount.entities.ai.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+/**
+ * One fixed-size square of the map in the PathfindingChunkGraph, holding its entrance (portal) tiles,
+ * which tiles in neighbouring chunks each portal leads to, and the cost of moving between portals
+ * while staying inside this chunk
+ *
+ * Once built a chunk is not modified, a changed chunk is replaced by a newly built one instead
+ * so searches on other threads can keep reading the one they already have
+ */
+class PathfindingChunk {
+
+	final int chunkX;
+	final int chunkY;
+	// The PathfindingChunkGraph revision of this chunk's tiles which it was built from
+	final int builtRevision;
+
+	final IntArray portalTiles = new IntArray();
+	final IntIntMap portalSlotByTile = new IntIntMap();
+	IntArray[] crossChunkPartners = new IntArray[0];
+	float[] intraChunkCosts = new float[0];
+
+	PathfindingChunk(int chunkX, int chunkY, int builtRevision) {
+		this.chunkX = chunkX;
+		this.chunkY = chunkY;
+		this.builtRevision = builtRevision;
+	}
+
+	int numPortals() {
+		return portalTiles.size;
+	}
+
+	float getIntraChunkCost(int fromSlot, int toSlot) {
+		return intraChunkCosts[(fromSlot * portalTiles.size) + toSlot];
+	}
+
+	/**
+	 * @return the slot of this portal tile, adding it if it is not already a portal
+	 */
+	int addPortal(int tileIndex) {
+		int slot = portalSlotByTile.get(tileIndex, -1);
+		if (slot == -1) {
+			slot = portalTiles.size;
+			portalTiles.add(tileIndex);
+			portalSlotByTile.put(tileIndex, slot);
+			if (crossChunkPartners.length <= slot) {
+				IntArray[] resized = new IntArray[Math.max(8, slot * 2)];
+				System.arraycopy(crossChunkPartners, 0, resized, 0, crossChunkPartners.length);
+				crossChunkPartners = resized;
+			}
+			crossChunkPartners[slot] = new IntArray(2);
+		}
+		return slot;
+	}
+
+}
@@ -0,0 +1,329 @@
+package technology.rocketjump.undermount.entities.ai.pathfinding;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.mapping.tile.CompassDirection;
+import technology.rocketjump.undermount.mapping.tile.MapTile;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static technology.rocketjump.undermount.entities.ai.pathfinding.ChunkCorridorSearchContext.TILES_PER_CHUNK;
+
+/**
+ * Abstraction layer over a TiledMap for hierarchical pathfinding (HPA*)
+ *
+ * The map is partitioned into CHUNK_SIZE square chunks. Where a run of navigable tiles crosses the border between
+ * two chunks, one or two portal tiles are picked on each side, and the cost of moving between every pair of portals
+ * inside a chunk is precomputed. Long-distance requests search this small graph first to find which chunks the route
+ * passes through, so the tile-level search only needs to refine those chunks.
+ *
+ * Chunks are rebuilt lazily, the first time they are needed after tileChanged() has moved on the revision of their
+ * tiles. Navigability here ignores the requesting entity (i.e. doorways are passable), so callers should fall back to
+ * a full search if refining the returned chunks fails.
+ *
+ * This is accessed from pathfinding threads as well as the main thread without locking. Search state is kept per
+ * thread in a ChunkCorridorSearchContext, and a rebuilt chunk is swapped in as a new instance (copy-on-write), so a
+ * search only ever reads chunks which are no longer being modified.
+ */
+public class PathfindingChunkGraph {
+
+	public static final int CHUNK_SIZE = 16;
+	// Entrances longer than this get a portal at either end rather than a single one in the middle
+	private static final int MAX_SINGLE_PORTAL_ENTRANCE_LENGTH = 6;
+	private static final CompassDirection[] DIRECTIONS = CompassDirection.values();
+
+	private final TiledMap map;
+	private final int chunksWide;
+	private final int chunksHigh;
+	// Null until first needed
+	private final AtomicReferenceArray<PathfindingChunk> chunks;
+	// Incremented whenever a tile affecting the chunk changes, a chunk built from an older revision is stale
+	private final AtomicIntegerArray chunkRevisions;
+
+	public PathfindingChunkGraph(TiledMap map) {
+		this.map = map;
+		this.chunksWide = (map.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunksHigh = (map.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunks = new AtomicReferenceArray<>(chunksWide * chunksHigh);
+		this.chunkRevisions = new AtomicIntegerArray(chunksWide * chunksHigh);
+	}
+
+	public int getChunkIndex(int tileX, int tileY) {
+		return ((tileY / CHUNK_SIZE) * chunksWide) + (tileX / CHUNK_SIZE);
+	}
+
+	/**
+	 * @return the number of chunks (horizontally or vertically, whichever is greater) between two tiles
+	 */
+	public static int chunkDistance(MapTile a, MapTile b) {
+		return Math.max(Math.abs((a.getTileX() / CHUNK_SIZE) - (b.getTileX() / CHUNK_SIZE)),
+				Math.abs((a.getTileY() / CHUNK_SIZE) - (b.getTileY() / CHUNK_SIZE)));
+	}
+
+	/**
+	 * Marks the chunk containing this tile as needing rebuilding, along with any neighbouring chunk
+	 * whose portals or diagonal moves the tile could affect
+	 */
+	public void tileChanged(int tileX, int tileY) {
+		for (int xOffset = -1; xOffset <= 1; xOffset++) {
+			for (int yOffset = -1; yOffset <= 1; yOffset++) {
+				int x = tileX + xOffset;
+				int y = tileY + yOffset;
+				if (x >= 0 && x < map.getWidth() && y >= 0 && y < map.getHeight()) {
+					chunkRevisions.incrementAndGet(getChunkIndex(x, y));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Searches the abstract graph between origin and destination
+	 *
+	 * @return the indices (see getChunkIndex()) of the chunks which the abstract path passes through,
+	 * or null if there is no path through the abstract graph
+	 */
+	public IntSet findChunkCorridor(MapTile origin, MapTile destination) {
+		ChunkCorridorSearchContext context = ChunkCorridorSearchContext.forCurrentThread();
+		PathfindingChunk originChunk = getBuiltChunk(origin.getTileX(), origin.getTileY(), context);
+		PathfindingChunk destinationChunk = getBuiltChunk(destination.getTileX(), destination.getTileY(), context);
+		int originIndex = toTileIndex(origin.getTileX(), origin.getTileY());
+		int destinationIndex = toTileIndex(destination.getTileX(), destination.getTileY());
+		int destinationChunkIndex = getChunkIndex(destination.getTileX(), destination.getTileY());
+		boolean sameChunk = getChunkIndex(origin.getTileX(), origin.getTileY()) == destinationChunkIndex;
+
+		searchWithinChunk(originChunk, origin.getTileX(), origin.getTileY(), context);
+		System.arraycopy(context.chunkCosts, 0, context.startCosts, 0, TILES_PER_CHUNK);
+		searchWithinChunk(destinationChunk, destination.getTileX(), destination.getTileY(), context);
+		System.arraycopy(context.chunkCosts, 0, context.goalCosts, 0, TILES_PER_CHUNK);
+
+		context.startCorridorSearch(map.getWidth() * map.getHeight());
+		context.explore(originIndex, 0f, originIndex, estimate(originIndex, destinationIndex));
+
+		while (context.hasFrontier()) {
+			int currentTile = context.pollFrontier();
+			float currentCost = context.getPolledCost();
+			if (currentCost > context.getCostToGetHere(currentTile)) {
+				continue; // superseded by a cheaper route
+			}
+			if (currentTile == destinationIndex) {
+				return toCorridor(context, originIndex, destinationIndex);
+			}
+
+			int tileX = toTileX(currentTile);
+			int tileY = toTileY(currentTile);
+			// May be a newer instance than one seen earlier in this search if the chunk has since changed
+			PathfindingChunk currentChunk = getBuiltChunk(tileX, tileY, context);
+
+			if (currentTile == originIndex) {
+				for (int slot = 0; slot < originChunk.numPortals(); slot++) {
+					int portalTile = originChunk.portalTiles.get(slot);
+					relax(currentTile, currentCost, portalTile, context.startCosts[toLocalIndex(portalTile)], destinationIndex, context);
+				}
+				if (sameChunk) {
+					relax(currentTile, currentCost, destinationIndex, context.startCosts[toLocalIndex(destinationIndex)], destinationIndex, context);
+				}
+			}
+
+			int slot = currentChunk.portalSlotByTile.get(currentTile, -1);
+			if (slot != -1) {
+				for (int otherSlot = 0; otherSlot < currentChunk.numPortals(); otherSlot++) {
+					if (otherSlot != slot) {
+						relax(currentTile, currentCost, currentChunk.portalTiles.get(otherSlot), currentChunk.getIntraChunkCost(slot, otherSlot),
+								destinationIndex, context);
+					}
+				}
+				IntArray partners = currentChunk.crossChunkPartners[slot];
+				for (int cursor = 0; cursor < partners.size; cursor++) {
+					int partnerTile = partners.get(cursor);
+					MapTile partner = map.getTile(toTileX(partnerTile), toTileY(partnerTile));
+					relax(currentTile, currentCost, partnerTile, stepCost(1f, partner), destinationIndex, context);
+				}
+				if (getChunkIndex(tileX, tileY) == destinationChunkIndex) {
+					// Costs within a chunk are treated as symmetric, close enough for picking chunks
+					relax(currentTile, currentCost, destinationIndex, context.goalCosts[toLocalIndex(currentTile)], destinationIndex, context);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	private void relax(int currentTile, float currentCost, int nextTileIndex, float edgeCost, int destinationIndex,
+					   ChunkCorridorSearchContext context) {
+		if (edgeCost == Float.POSITIVE_INFINITY) {
+			return;
+		}
+		float newCost = currentCost + edgeCost;
+		if (newCost < context.getCostToGetHere(nextTileIndex)) {
+			context.explore(nextTileIndex, newCost, currentTile, newCost + estimate(nextTileIndex, destinationIndex));
+		}
+	}
+
+	private IntSet toCorridor(ChunkCorridorSearchContext context, int originIndex, int destinationIndex) {
+		IntSet corridor = new IntSet();
+		int cursor = destinationIndex;
+		while (cursor != originIndex) {
+			corridor.add(getChunkIndex(toTileX(cursor), toTileY(cursor)));
+			cursor = context.getPreviousInPath(cursor);
+		}
+		corridor.add(getChunkIndex(toTileX(originIndex), toTileY(originIndex)));
+		return corridor;
+	}
+
+	private PathfindingChunk getBuiltChunk(int tileX, int tileY, ChunkCorridorSearchContext context) {
+		int chunkIndex = getChunkIndex(tileX, tileY);
+		int revision = chunkRevisions.get(chunkIndex);
+		PathfindingChunk chunk = chunks.get(chunkIndex);
+		if (chunk == null || chunk.builtRevision != revision) {
+			// Another thread may be rebuilding the same chunk, whichever finishes last is kept but both are valid
+			chunk = build(tileX / CHUNK_SIZE, tileY / CHUNK_SIZE, revision, context);
+			chunks.set(chunkIndex, chunk);
+		}
+		return chunk;
+	}
+
+	private PathfindingChunk build(int chunkX, int chunkY, int revision, ChunkCorridorSearchContext context) {
+		PathfindingChunk chunk = new PathfindingChunk(chunkX, chunkY, revision);
+
+		int minX = chunk.chunkX * CHUNK_SIZE;
+		int minY = chunk.chunkY * CHUNK_SIZE;
+		int maxX = Math.min(minX + CHUNK_SIZE, map.getWidth()) - 1;
+		int maxY = Math.min(minY + CHUNK_SIZE, map.getHeight()) - 1;
+		int chunkWidth = maxX - minX + 1;
+		int chunkHeight = maxY - minY + 1;
+
+		// Scanning each border in ascending order means neighbouring chunks pick the same portal pairs
+		addEntrances(chunk, minX, minY, 0, 1, chunkHeight, -1, 0); // West
+		addEntrances(chunk, maxX, minY, 0, 1, chunkHeight, 1, 0); // East
+		addEntrances(chunk, minX, minY, 1, 0, chunkWidth, 0, -1); // South
+		addEntrances(chunk, minX, maxY, 1, 0, chunkWidth, 0, 1); // North
+
+		int numPortals = chunk.numPortals();
+		chunk.intraChunkCosts = new float[numPortals * numPortals];
+		for (int fromSlot = 0; fromSlot < numPortals; fromSlot++) {
+			int fromTile = chunk.portalTiles.get(fromSlot);
+			searchWithinChunk(chunk, toTileX(fromTile), toTileY(fromTile), context);
+			for (int toSlot = 0; toSlot < numPortals; toSlot++) {
+				chunk.intraChunkCosts[(fromSlot * numPortals) + toSlot] = context.chunkCosts[toLocalIndex(chunk.portalTiles.get(toSlot))];
+			}
+		}
+
+		return chunk;
+	}
+
+	private void addEntrances(PathfindingChunk chunk, int startX, int startY, int stepX, int stepY, int length,
+							  int outwardX, int outwardY) {
+		int runStart = -1;
+		for (int cursor = 0; cursor <= length; cursor++) {
+			boolean crossable = cursor < length && isCrossable(startX + (cursor * stepX), startY + (cursor * stepY), outwardX, outwardY);
+			if (crossable && runStart == -1) {
+				runStart = cursor;
+			} else if (!crossable && runStart != -1) {
+				int runEnd = cursor - 1;
+				if (runEnd - runStart + 1 <= MAX_SINGLE_PORTAL_ENTRANCE_LENGTH) {
+					int middle = runStart + ((runEnd - runStart) / 2);
+					addPortal(chunk, startX + (middle * stepX), startY + (middle * stepY), outwardX, outwardY);
+				} else {
+					addPortal(chunk, startX + (runStart * stepX), startY + (runStart * stepY), outwardX, outwardY);
+					addPortal(chunk, startX + (runEnd * stepX), startY + (runEnd * stepY), outwardX, outwardY);
+				}
+				runStart = -1;
+			}
+		}
+	}
+
+	private boolean isCrossable(int insideX, int insideY, int outwardX, int outwardY) {
+		MapTile outside = map.getTile(insideX + outwardX, insideY + outwardY);
+		return outside != null && isNavigable(outside) && isNavigable(map.getTile(insideX, insideY));
+	}
+
+	private void addPortal(PathfindingChunk chunk, int insideX, int insideY, int outwardX, int outwardY) {
+		int slot = chunk.addPortal(toTileIndex(insideX, insideY));
+		chunk.crossChunkPartners[slot].add(toTileIndex(insideX + outwardX, insideY + outwardY));
+	}
+
+	/**
+	 * Dijkstra search from the given tile, restricted to tiles in the chunk, leaving the cost to reach each
+	 * tile of the chunk in the context's chunkCosts (infinity if unreachable)
+	 */
+	private void searchWithinChunk(PathfindingChunk chunk, int startX, int startY, ChunkCorridorSearchContext context) {
+		int minX = chunk.chunkX * CHUNK_SIZE;
+		int minY = chunk.chunkY * CHUNK_SIZE;
+		float[] chunkCosts = context.chunkCosts;
+		boolean[] chunkSettled = context.chunkSettled;
+		context.startChunkSearch(toLocalIndex(startX, startY));
+
+		while (context.hasChunkFrontier()) {
+			float cost = context.peekChunkFrontierCost();
+			int local = context.popChunkFrontier();
+			if (chunkSettled[local]) {
+				continue;
+			}
+			chunkSettled[local] = true;
+			int tileX = minX + (local % CHUNK_SIZE);
+			int tileY = minY + (local / CHUNK_SIZE);
+
+			for (CompassDirection direction : DIRECTIONS) {
+				int neighbourX = tileX + direction.getXOffset();
+				int neighbourY = tileY + direction.getYOffset();
+				if (neighbourX < minX || neighbourX >= minX + CHUNK_SIZE || neighbourY < minY || neighbourY >= minY + CHUNK_SIZE) {
+					continue;
+				}
+				MapTile neighbour = map.getTile(neighbourX, neighbourY);
+				if (neighbour == null || !isNavigable(neighbour)) {
+					continue;
+				}
+				if (direction.isDiagonal() && (!isNavigable(map.getTile(tileX + direction.getXOffset(), tileY)) ||
+						!isNavigable(map.getTile(tileX, tileY + direction.getYOffset())))) {
+					continue;
+				}
+				int neighbourLocal = toLocalIndex(neighbourX, neighbourY);
+				float newCost = cost + stepCost(direction.distance(), neighbour);
+				if (newCost < chunkCosts[neighbourLocal]) {
+					chunkCosts[neighbourLocal] = newCost;
+					context.pushChunkFrontier(neighbourLocal, newCost);
+				}
+			}
+		}
+	}
+
+	private boolean isNavigable(MapTile tile) {
+		return tile != null && map.getNavigationGrid().isNavigable(tile.getTileX(), tile.getTileY());
+	}
+
+	/**
+	 * Same cost of moving onto a tile as used by PathfindingTask
+	 */
+	private static float stepCost(float distance, MapTile tileMovedTo) {
+		return distance * (1 / tileMovedTo.getFloor().getFloorType().getSpeedModifier());
+	}
+
+	private float estimate(int fromTileIndex, int toTileIndex) {
+		float x = toTileX(toTileIndex) - toTileX(fromTileIndex);
+		float y = toTileY(toTileIndex) - toTileY(fromTileIndex);
+		return (float) Math.sqrt(x * x + y * y);
+	}
+
+	private int toTileIndex(int tileX, int tileY) {
+		return (map.getWidth() * tileY) + tileX;
+	}
+
+	private int toTileX(int tileIndex) {
+		return tileIndex % map.getWidth();
+	}
+
+	private int toTileY(int tileIndex) {
+		return tileIndex / map.getWidth();
+	}
+
+	private int toLocalIndex(int tileIndex) {
+		return toLocalIndex(toTileX(tileIndex), toTileY(tileIndex));
+	}
+
+	private static int toLocalIndex(int tileX, int tileY) {
+		return ((tileY % CHUNK_SIZE) * CHUNK_SIZE) + (tileX % CHUNK_SIZE);
+	}
+
+}
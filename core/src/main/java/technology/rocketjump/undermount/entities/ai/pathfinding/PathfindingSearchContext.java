@@ -0,0 +1,211 @@
+package technology.rocketjump.undermount.entities.ai.pathfinding;
+
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+
+import java.util.Arrays;
+
+/**
+ * Reusable working state for a single A* search over a TiledMap, with tiles indexed by (mapWidth * tileY) + tileX
+ *
+ * One instance is kept per thread (see forMap()) so pathfinding tasks running on the background pool
+ * do not allocate per-node objects or collections. Search nodes live in primitive arrays which are reused
+ * between searches, and rather than clearing the per-tile arrays for each search, a search generation is
+ * stamped into them so values from a previous search are ignored.
+ */
+public class PathfindingSearchContext {
+
+	public static final int NO_NODE = -1;
+	private static final int INITIAL_NODE_CAPACITY = 256;
+
+	private static final ThreadLocal<PathfindingSearchContext> perThreadContext = ThreadLocal.withInitial(PathfindingSearchContext::new);
+
+	private int mapWidth;
+	private int mapHeight;
+
+	// Per-tile state
+	private int[] exploredNode = new int[0];
+	private int[] exploredGeneration = new int[0];
+	private float[] closedCost = new float[0];
+	private int[] closedGeneration = new int[0];
+	private int generation;
+
+	// Search nodes, equivalent to MapPathfindingNode
+	private int[] nodeTile = new int[INITIAL_NODE_CAPACITY];
+	private float[] nodeCost = new float[INITIAL_NODE_CAPACITY];
+	private int[] nodeParent = new int[INITIAL_NODE_CAPACITY];
+	private int numNodes;
+
+	// Binary min-heap of nodes, ordered the same way as gdx-ai's PriorityQueue of MapPathfindingNode
+	private int[] frontierNode = new int[INITIAL_NODE_CAPACITY];
+	private float[] frontierTotal = new float[INITIAL_NODE_CAPACITY];
+	private int frontierSize;
+
+	public static PathfindingSearchContext forMap(TiledMap map) {
+		PathfindingSearchContext context = perThreadContext.get();
+		context.reset(map.getWidth(), map.getHeight());
+		return context;
+	}
+
+	private void reset(int width, int height) {
+		if (width != mapWidth || height != mapHeight) {
+			this.mapWidth = width;
+			this.mapHeight = height;
+			int numTiles = width * height;
+			exploredNode = new int[numTiles];
+			exploredGeneration = new int[numTiles];
+			closedCost = new float[numTiles];
+			closedGeneration = new int[numTiles];
+			generation = 0;
+		}
+
+		generation++;
+		if (generation == Integer.MAX_VALUE) {
+			// Wrapped around, so old stamps are no longer distinguishable
+			Arrays.fill(exploredGeneration, 0);
+			Arrays.fill(closedGeneration, 0);
+			generation = 1;
+		}
+		numNodes = 0;
+		frontierSize = 0;
+	}
+
+	public int toTileIndex(int tileX, int tileY) {
+		return (mapWidth * tileY) + tileX;
+	}
+
+	public int toTileX(int tileIndex) {
+		return tileIndex % mapWidth;
+	}
+
+	public int toTileY(int tileIndex) {
+		return tileIndex / mapWidth;
+	}
+
+	/**
+	 * @return the node which currently has the cheapest known route to the tile, or NO_NODE if not yet explored
+	 */
+	public int getExploredNode(int tileIndex) {
+		return exploredGeneration[tileIndex] == generation ? exploredNode[tileIndex] : NO_NODE;
+	}
+
+	public int getTileIndex(int node) {
+		return nodeTile[node];
+	}
+
+	public float getCostToGetHere(int node) {
+		return nodeCost[node];
+	}
+
+	public int getPreviousNodeInPath(int node) {
+		return nodeParent[node];
+	}
+
+	/**
+	 * Records a new, cheaper route to the tile and adds it to the frontier
+	 */
+	public void explore(int tileIndex, float costToGetHere, int previousNodeInPath, float estimateToGoal) {
+		if (numNodes == nodeTile.length) {
+			int newCapacity = nodeTile.length * 2;
+			nodeTile = Arrays.copyOf(nodeTile, newCapacity);
+			nodeCost = Arrays.copyOf(nodeCost, newCapacity);
+			nodeParent = Arrays.copyOf(nodeParent, newCapacity);
+		}
+		int node = numNodes;
+		numNodes++;
+		nodeTile[node] = tileIndex;
+		nodeCost[node] = costToGetHere;
+		nodeParent[node] = previousNodeInPath;
+
+		exploredNode[tileIndex] = node;
+		exploredGeneration[tileIndex] = generation;
+		push(node, costToGetHere + estimateToGoal);
+	}
+
+	/**
+	 * Pops nodes from the frontier until one is found which could still improve on its neighbours, i.e. its tile
+	 * has not already been expanded at the same or a lower cost. That node is marked as closed and returned.
+	 *
+	 * Nodes superseded by a cheaper route are skipped rather than being re-expanded, but a tile is re-opened
+	 * if a cheaper route is found after it has been expanded (the distance heuristic is not admissible
+	 * when floor speed modifiers are greater than 1).
+	 *
+	 * @return the node to expand, or NO_NODE if the frontier is exhausted
+	 */
+	public int pollOpen() {
+		while (frontierSize > 0) {
+			int node = pollFrontier();
+			int tileIndex = nodeTile[node];
+			if (closedGeneration[tileIndex] != generation || nodeCost[node] < closedCost[tileIndex]) {
+				closedGeneration[tileIndex] = generation;
+				closedCost[tileIndex] = nodeCost[node];
+				return node;
+			}
+		}
+		return NO_NODE;
+	}
+
+	public void clearFrontier() {
+		frontierSize = 0;
+	}
+
+	private void push(int node, float total) {
+		if (frontierSize == frontierNode.length) {
+			int newCapacity = frontierNode.length * 2;
+			frontierNode = Arrays.copyOf(frontierNode, newCapacity);
+			frontierTotal = Arrays.copyOf(frontierTotal, newCapacity);
+		}
+
+		int cursor = frontierSize;
+		frontierSize++;
+		while (cursor > 0) {
+			int parent = (cursor - 1) >>> 1;
+			if (compare(total, frontierTotal[parent]) >= 0) {
+				break;
+			}
+			frontierNode[cursor] = frontierNode[parent];
+			frontierTotal[cursor] = frontierTotal[parent];
+			cursor = parent;
+		}
+		frontierNode[cursor] = node;
+		frontierTotal[cursor] = total;
+	}
+
+	private int pollFrontier() {
+		int polled = frontierNode[0];
+
+		frontierSize--;
+		if (frontierSize == 0) {
+			return polled;
+		}
+
+		int lastNode = frontierNode[frontierSize];
+		float lastTotal = frontierTotal[frontierSize];
+
+		int cursor = 0;
+		int half = frontierSize >>> 1;
+		while (cursor < half) {
+			int child = (cursor << 1) + 1;
+			int right = child + 1;
+			if (right < frontierSize && compare(frontierTotal[child], frontierTotal[right]) > 0) {
+				child = right;
+			}
+			if (compare(lastTotal, frontierTotal[child]) <= 0) {
+				break;
+			}
+			frontierNode[cursor] = frontierNode[child];
+			frontierTotal[cursor] = frontierTotal[child];
+			cursor = child;
+		}
+		frontierNode[cursor] = lastNode;
+		frontierTotal[cursor] = lastTotal;
+		return polled;
+	}
+
+	/**
+	 * Same ordering as MapPathfindingNode.compareTo() so ties are broken identically
+	 */
+	private static int compare(float totalA, float totalB) {
+		return Math.round((totalA - totalB) * 100f);
+	}
+
+}
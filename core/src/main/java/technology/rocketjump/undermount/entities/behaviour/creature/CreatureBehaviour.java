@@ -245,27 +245,8 @@ public abstract class CreatureBehaviour implements BehaviourComponent, Destructi
 		NeedsComponent needsComponent = parentEntity.getComponent(NeedsComponent.class);
 		MemoryComponent memoryComponent = parentEntity.getComponent(MemoryComponent.class);
 		goalQueue.removeExpiredGoals(gameContext.getGameClock());
-		for (Goal potentialGoal : goalDictionary.getAllGoals()) {
-			if (potentialGoal.getSelectors().isEmpty()) {
-				continue; // Don't add goals with no selectors
-			}
-			if (currentGoal != null && potentialGoal.equals(currentGoal.goal)) {
-				continue; // Don't queue up the current goal
-			}
-			for (GoalSelector selector : potentialGoal.getSelectors()) {
-				boolean allConditionsApply = true;
-				for (GoalSelectionCondition condition : selector.conditions) {
-					if (!condition.apply(gameContext.getGameClock(), needsComponent, memoryComponent)) {
-						allConditionsApply = false;
-						break;
-					}
-				}
-				if (allConditionsApply) {
-					goalQueue.add(new QueuedGoal(potentialGoal, selector.scheduleCategory, selector.priority, gameContext.getGameClock()));
-					break;
-				}
-			}
-		}
+		goalDictionary.getSelectionTable().addSelectedGoals(goalQueue, currentGoal == null ? null : currentGoal.goal,
+				gameContext.getGameClock(), needsComponent, memoryComponent);
 	}
 
 	public void applyStun(Random random) {
@@ -347,6 +347,12 @@ public class PlantBehaviour implements BehaviourComponent, SelectableDescription
 		return true;
 	}
 
+	@Override
+	public float getInfrequentUpdateInterval() {
+		// Growth is calculated from the game time elapsed since the last update, so plants can be updated less often
+		return DEFAULT_INFREQUENT_UPDATE_INTERVAL_SECONDS * 2;
+	}
+
 	@Override
 	public boolean isJobAssignable() {
 		return false;
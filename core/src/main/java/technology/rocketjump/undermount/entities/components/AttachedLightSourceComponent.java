@@ -3,6 +3,8 @@ package technology.rocketjump.undermount.entities.components;
 import com.alibaba.fastjson.JSONObject;
 import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import org.pmw.tinylog.Logger;
 import technology.rocketjump.undermount.assets.entities.model.ColoringLayer;
@@ -14,19 +16,26 @@ import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.CompassDirection;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.mapping.tile.MapVertex;
+import technology.rocketjump.undermount.mapping.tile.wall.Edge;
 import technology.rocketjump.undermount.persistence.SavedGameDependentDictionaries;
 import technology.rocketjump.undermount.persistence.model.InvalidSaveException;
 import technology.rocketjump.undermount.persistence.model.SavedGameStateHolder;
-import technology.rocketjump.undermount.rendering.lighting.LightProcessor;
+import technology.rocketjump.undermount.rendering.lighting.AttachedLightSourceProcessor;
 import technology.rocketjump.undermount.rendering.lighting.PointLight;
 
 import java.util.EnumMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class AttachedLightSourceComponent implements InfrequentlyUpdatableComponent, Disposable {
 
 	private PointLight light = new PointLight();
 	private Entity parentEntity;
-	private boolean requiresMeshUpdate = true;
+	private boolean requiresMeshUpdate = true; // Light has moved so is recalculated immediately
+	private boolean geometryStale; // Surroundings have changed so is recalculated in the background
+	private Future<Array<Edge>> pendingGeometry;
+	private AttachedLightSourceProcessor indexedBy; // The processor holding this light in its spatial index, if any
+	private boolean disposed;
 	private boolean enabled = false; // For entity to toggle off in bright outdoor light
 	private boolean useParentBodyColor;
 	private GameContext gameContext;
@@ -106,14 +115,47 @@ public class AttachedLightSourceComponent implements InfrequentlyUpdatableCompon
 		requiresMeshUpdate = true;
 	}
 
-	public PointLight getLightForRendering(TiledMap tiledMap, LightProcessor lightProcessor) {
+	public void setGeometryStale() {
+		geometryStale = true;
+	}
+
+	public Vector2 getLightPosition() {
+		return light.getWorldPosition();
+	}
+
+	public PointLight getLightForRendering(TiledMap tiledMap, AttachedLightSourceProcessor attachedLightSourceProcessor) {
+		if (pendingGeometry != null && pendingGeometry.isDone()) {
+			applyPendingGeometry();
+		}
 		if (requiresMeshUpdate) {
-			lightProcessor.updateLightGeometry(light, tiledMap);
+			if (pendingGeometry != null) {
+				pendingGeometry.cancel(false);
+				pendingGeometry = null;
+			}
+			attachedLightSourceProcessor.updateLightGeometry(this, light, tiledMap);
+			indexedBy = attachedLightSourceProcessor;
 			requiresMeshUpdate = false;
+			geometryStale = false;
+		} else if (geometryStale && pendingGeometry == null) {
+			pendingGeometry = attachedLightSourceProcessor.updateLightGeometryInBackground(light, tiledMap);
+			geometryStale = false;
 		}
 		return light;
 	}
 
+	private void applyPendingGeometry() {
+		try {
+			Array<Edge> lightGeometry = pendingGeometry.get();
+			if (lightGeometry != null) {
+				light.setLightPolygonEdges(lightGeometry);
+				light.updateMesh();
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			Logger.error(e, "Failed to update light geometry in background");
+		}
+		pendingGeometry = null;
+	}
+
 	public boolean isEnabled() {
 		return enabled;
 	}
@@ -154,8 +196,21 @@ public class AttachedLightSourceComponent implements InfrequentlyUpdatableCompon
 		this.useParentBodyColor = asJson.getBooleanValue("useParentBodyColor");
 	}
 
+	public boolean isDisposed() {
+		return disposed;
+	}
+
 	@Override
 	public void dispose() {
+		disposed = true;
+		if (pendingGeometry != null) {
+			pendingGeometry.cancel(false);
+			pendingGeometry = null;
+		}
+		if (indexedBy != null) {
+			indexedBy.removeLight(this);
+			indexedBy = null;
+		}
 		light.dispose();
 	}
 }
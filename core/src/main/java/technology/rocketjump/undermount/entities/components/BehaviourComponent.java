@@ -5,6 +5,8 @@ import technology.rocketjump.undermount.gamecontext.GameContext;
 
 public interface BehaviourComponent extends ParentDependentEntityComponent {
 
+	float DEFAULT_INFREQUENT_UPDATE_INTERVAL_SECONDS = 3f;
+
 	void update(float deltaTime, GameContext gameContext);
 
 	void infrequentUpdate(GameContext gameContext);
@@ -15,6 +17,13 @@ public interface BehaviourComponent extends ParentDependentEntityComponent {
 
 	boolean isUpdateInfrequently(); // Note this needs to be true if Entity is going to have any InfrequentUpdateComponents
 
+	/**
+	 * How often infrequentUpdate() is called, in seconds of (game speed adjusted) real time
+	 */
+	default float getInfrequentUpdateInterval() {
+		return DEFAULT_INFREQUENT_UPDATE_INTERVAL_SECONDS;
+	}
+
 	boolean isJobAssignable();
 
 }
@@ -5,9 +5,7 @@ import com.google.inject.Singleton;
 import org.reflections.Reflections;
 import org.reflections.scanners.SubTypesScanner;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 @Singleton
 public class ComponentDictionary {
@@ -26,6 +24,12 @@ public class ComponentDictionary {
 				simpleNameMap.put(componentClass.getSimpleName(), componentClass);
 			}
 		}
+
+		List<String> names = new ArrayList<>(simpleNameMap.keySet());
+		Collections.sort(names);
+		for (String name : names) {
+			EntityComponentTypes.idOf(simpleNameMap.get(name));
+		}
 	}
 
 	public Class<? extends EntityComponent> getByName(String className) {
@@ -0,0 +1,36 @@
+package technology.rocketjump.undermount.entities.components;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives each EntityComponent class a small, dense integer ID, to be used as its index into each entity's components.
+ *
+ * The known component classes are registered in name order by the ComponentDictionary at startup, any other class
+ * (e.g. a test double) is given the next ID the first time it is seen.
+ */
+public class EntityComponentTypes {
+
+	private static final AtomicInteger nextId = new AtomicInteger();
+	private static final ClassValue<Integer> ids = new ClassValue<>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return nextId.getAndIncrement();
+		}
+	};
+
+	private EntityComponentTypes() {
+
+	}
+
+	public static int idOf(Class<?> componentClass) {
+		return ids.get(componentClass);
+	}
+
+	/**
+	 * @return the number of IDs handed out so far
+	 */
+	public static int count() {
+		return nextId.get();
+	}
+
+}
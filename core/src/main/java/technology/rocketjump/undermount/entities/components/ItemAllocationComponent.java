@@ -8,6 +8,7 @@ import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.entities.model.EntityType;
 import technology.rocketjump.undermount.entities.model.physical.item.ItemEntityAttributes;
 import technology.rocketjump.undermount.gamecontext.GameContext;
+import technology.rocketjump.undermount.messaging.MessageType;
 import technology.rocketjump.undermount.misc.Destructible;
 import technology.rocketjump.undermount.persistence.SavedGameDependentDictionaries;
 import technology.rocketjump.undermount.persistence.model.InvalidSaveException;
@@ -19,6 +20,7 @@ import java.util.List;
 public class ItemAllocationComponent implements ParentDependentEntityComponent, Destructible {
 
 	private Entity parentEntity;
+	private MessageDispatcher messageDispatcher;
 
 	private List<ItemAllocation> allocations = new ArrayList<>();
 
@@ -29,6 +31,7 @@ public class ItemAllocationComponent implements ParentDependentEntityComponent,
 	@Override
 	public void init(Entity parentEntity, MessageDispatcher messageDispatcher, GameContext gameContext) {
 		this.parentEntity = parentEntity;
+		this.messageDispatcher = messageDispatcher;
 	}
 
 	@Override
@@ -60,6 +63,9 @@ public class ItemAllocationComponent implements ParentDependentEntityComponent,
 		if (allocations.contains(itemAllocaton) && !itemAllocaton.isCancelled()) {
 			allocations.remove(itemAllocaton);
 			itemAllocaton.markAsCancelled();
+			if (messageDispatcher != null && itemAllocaton.getAllocationAmount() > 0 && parentEntity.getType().equals(EntityType.ITEM)) {
+				messageDispatcher.dispatchMessage(MessageType.ITEM_ALLOCATION_CANCELLED, parentEntity);
+			}
 			return itemAllocaton;
 		} else {
 			Logger.error("Incorrect cancellation of " + this.getClass().getSimpleName());
@@ -2,16 +2,16 @@ package technology.rocketjump.undermount.entities.components.humanoid;
 
 import com.alibaba.fastjson.JSONObject;
 import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import org.pmw.tinylog.Logger;
 import technology.rocketjump.undermount.assets.entities.furniture.model.DoorState;
 import technology.rocketjump.undermount.entities.model.Entity;
-import technology.rocketjump.undermount.entities.model.EntityType;
 import technology.rocketjump.undermount.entities.model.physical.LocationComponent;
 import technology.rocketjump.undermount.entities.model.physical.creature.CreatureEntityAttributes;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
-import technology.rocketjump.undermount.mapping.tile.NullMapTile;
 import technology.rocketjump.undermount.messaging.MessageType;
 import technology.rocketjump.undermount.persistence.JSONUtils;
 import technology.rocketjump.undermount.persistence.SavedGameDependentDictionaries;
@@ -41,6 +41,30 @@ public class SteeringComponent implements ChildPersistable {
 	private boolean movementImpaired;
 	private Vector2 knockback;
 
+	// Results of calculateSteering() waiting for applySteering()
+	private boolean steeringCalculated;
+	private boolean steeringAppliedAhead;
+	private final Vector2 pendingVelocity = new Vector2();
+	private final Vector2 pendingPosition = new Vector2();
+	private boolean pendingUpdateFacing;
+	private boolean pendingKnockback;
+	private boolean pendingKnockbackFinished;
+	private final Vector2 pendingKnockbackThisFrame = new Vector2();
+	private final Vector2 pendingFinalPosition = new Vector2();
+	private float pendingPauseTime;
+	private Entity pendingDoorToOpen;
+
+	// Scratch space reused every frame so that steering doesn't create garbage
+	private final Vector2 steeringOutputForce = new Vector2();
+	private final Vector2 currentVelocity = new Vector2();
+	private final Vector2 nextWaypointRelative = new Vector2();
+	private final Vector2 entityAvoidanceForce = new Vector2();
+	private final Vector2 wallAvoidanceForce = new Vector2();
+	private final Vector2 adjustmentForce = new Vector2();
+	private final Vector2 scratch = new Vector2();
+	private final GridPoint2[] nearestTilePositions = { new GridPoint2(), new GridPoint2(), new GridPoint2(), new GridPoint2() };
+	private final Array<Entity> nearbyCreatures = new Array<>();
+
 	public SteeringComponent() {
 
 	}
@@ -60,23 +84,38 @@ public class SteeringComponent implements ChildPersistable {
 	}
 
 	public void update(float deltaTime) {
+		if (steeringAppliedAhead) {
+			// Already moved this frame by the parallel update phase
+			steeringAppliedAhead = false;
+			return;
+		}
+		calculateSteering(deltaTime);
+		applySteering();
+	}
 
-		Vector2 steeringOutputForce = new Vector2();
+	/**
+	 * Works out this frame's movement without changing anything other entities can see, so this can be called for
+	 * many entities at once from other threads. The result is only made visible by applySteering().
+	 */
+	public void calculateSteering(float deltaTime) {
+		steeringCalculated = false;
+		pendingDoorToOpen = null;
+
+		steeringOutputForce.setZero();
 		// Get current position and vector to target destination
 		Vector2 currentPosition = locationComponent.getWorldPosition();
-		Vector2 currentVelocity = locationComponent.getLinearVelocity();
-
 		if (currentPosition == null) {
 			Logger.error("Attempting to update null position in " + this.getClass().getSimpleName());
 			return;
 		}
+		currentVelocity.set(locationComponent.getLinearVelocity());
 
 		boolean updateFacing = true;
 
 		if (nextWaypoint == null) {
 			updateFacing = false;
 			if (currentVelocity.len2() > 0.5f) {
-				currentVelocity.mulAdd(currentVelocity.cpy().scl(-3f), deltaTime);
+				currentVelocity.mulAdd(currentVelocity, -3f * deltaTime);
 			} else {
 				currentVelocity.setZero();
 			}
@@ -86,16 +125,16 @@ public class SteeringComponent implements ChildPersistable {
 			if (nextTile.hasDoorway()) {
 				DoorState doorState = nextTile.getDoorway().getDoorState();
 				if (!doorState.equals(DoorState.OPEN)) {
-					messageDispatcher.dispatchMessage(MessageType.REQUEST_DOOR_OPEN, nextTile.getDoorway().getDoorEntity());
+					pendingDoorToOpen = nextTile.getDoorway().getDoorEntity();
 					waitingForDoorToOpen = true;
 				}
 			}
 
-			Vector2 nextWaypointRelative = nextWaypoint.cpy().sub(currentPosition);
+			nextWaypointRelative.set(nextWaypoint).sub(currentPosition);
 			if (!waitingForDoorToOpen) {
 				if (nextWaypoint == destination) {
 					// approach rather than full steam ahead
-					currentVelocity.mulAdd(currentVelocity.cpy().scl(-2f), deltaTime);
+					currentVelocity.mulAdd(currentVelocity, -2f * deltaTime);
 					steeringOutputForce.add(nextWaypointRelative.nor().scl(2f));
 				} else {
 					steeringOutputForce.add(nextWaypointRelative.nor().scl(3f));
@@ -109,42 +148,47 @@ public class SteeringComponent implements ChildPersistable {
 
 		float maxSpeed = locationComponent.getMaxLinearSpeed();
 		isSlowed = false;
-		Vector2 entityAvoidanceForce = new Vector2();
-		Vector2 wallAvoidanceForce = new Vector2();
-		// If we're colliding with another entity, slow down
+		entityAvoidanceForce.setZero();
+		wallAvoidanceForce.setZero();
 		MapTile currentTile = areaMap.getTile(currentPosition);
-		for (MapTile tileNearPosition : areaMap.getNearestTiles(currentPosition)) {
-			// If it's a wall, only repel if we're not in it
-			if ((tileNearPosition.hasWall() && !tileNearPosition.equals(currentTile)) || tileNearPosition instanceof NullMapTile) {
-				Vector2 wallToEntity = currentPosition.cpy().sub(tileNearPosition.getWorldPositionOfCenter());
+		TiledMap.getNearestTilePositions(currentPosition, nearestTilePositions);
+		for (GridPoint2 tilePosition : nearestTilePositions) {
+			MapTile tileNearPosition = areaMap.getTile(tilePosition.x, tilePosition.y);
+			// If it's a wall, only repel if we're not in it, and always repel from the edge of the map
+			if (tileNearPosition == null || (tileNearPosition.hasWall() && !tileNearPosition.equals(currentTile))) {
+				Vector2 wallToEntity = scratch.set(currentPosition).sub(tilePosition.x + 0.5f, tilePosition.y + 0.5f);
 				if (wallToEntity.len2() < 0.5f) {
 					wallAvoidanceForce.add(wallToEntity.nor());
 				}
 			}
+		}
 
-			for (Entity otherEntity : tileNearPosition.getEntities()) {
-				if (otherEntity.getId() != parentEntity.getId() && otherEntity.getType().equals(EntityType.CREATURE)) {
-					if (!AWAKE.equals(((CreatureEntityAttributes)otherEntity.getPhysicalEntityComponent().getAttributes()).getConsciousness())) {
-						continue;
-					}
-					Vector2 separation = currentPosition.cpy().sub(otherEntity.getLocationComponent().getWorldPosition());
-					float totalRadii = this.locationComponent.getRadius() + otherEntity.getLocationComponent().getRadius();
-					float separationDistance = separation.len();
-					if (separationDistance < totalRadii) {
-						// Overlapping
-						isSlowed = true;
-					}
-					if (separationDistance < totalRadii + locationComponent.getRadius()) {
-						entityAvoidanceForce.add(separation.nor());
-					}
-				}
+		// If we're colliding with another entity, slow down
+		areaMap.getCreatureSpatialHash().getCreaturesNear(currentPosition, nearestTilePositions, nearbyCreatures);
+		for (Entity otherEntity : nearbyCreatures) {
+			Vector2 otherPosition = otherEntity.getLocationComponent().getWorldPosition();
+			if (otherEntity.getId() == parentEntity.getId() || otherPosition == null) {
+				continue;
+			}
+			if (!AWAKE.equals(((CreatureEntityAttributes)otherEntity.getPhysicalEntityComponent().getAttributes()).getConsciousness())) {
+				continue;
+			}
+			Vector2 separation = scratch.set(currentPosition).sub(otherPosition);
+			float totalRadii = this.locationComponent.getRadius() + otherEntity.getLocationComponent().getRadius();
+			float separationDistance = separation.len();
+			if (separationDistance < totalRadii) {
+				// Overlapping
+				isSlowed = true;
+			}
+			if (separationDistance < totalRadii + locationComponent.getRadius()) {
+				entityAvoidanceForce.add(separation.nor());
 			}
 		}
 
 		if (currentTile != null) {
 			if (currentTile.getFloor().isRiverTile() && !currentTile.getFloor().hasBridge()) {
 				maxSpeed *= 2;
-				steeringOutputForce.add(currentTile.getFloor().getRiverTile().getFlowDirection().cpy().scl(20f));
+				steeringOutputForce.mulAdd(currentTile.getFloor().getRiverTile().getFlowDirection(), 20f);
 			}
 
 			maxSpeed *= currentTile.getFloor().getFloorType().getSpeedModifier();
@@ -165,44 +209,97 @@ public class SteeringComponent implements ChildPersistable {
 		}
 
 
+		pendingPauseTime = pauseTime;
 		if (pauseTime > 0) {
-			pauseTime -= deltaTime;
+			pendingPauseTime -= deltaTime;
 			maxSpeed *= 0.4f;
 			timeSinceLastPauseCheck = 0f;
 		} else {
 			timeSinceLastPauseCheck += deltaTime;
 			if (timeSinceLastPauseCheck > TIME_BETWEEN_PAUSE_CHECKS) {
 				timeSinceLastPauseCheck = 0f;
-				checkToPauseForOtherEntities();
+				if (isBehindOtherEntity(currentPosition, currentVelocity)) {
+					pendingPauseTime = DEFAULT_PAUSE_TIME;
+				}
 			}
 		}
-		Vector2 newVelocity = currentVelocity.cpy().mulAdd(steeringOutputForce, deltaTime).limit(maxSpeed);
-		Vector2 newPosition = currentPosition.cpy().mulAdd(newVelocity, deltaTime);
-
-		locationComponent.setLinearVelocity(newVelocity);
-		locationComponent.setWorldPosition(newPosition, updateFacing);
+		pendingVelocity.set(currentVelocity).mulAdd(steeringOutputForce, deltaTime).limit(maxSpeed);
+		pendingPosition.set(currentPosition).mulAdd(pendingVelocity, deltaTime);
+		pendingUpdateFacing = updateFacing;
 
 		// TODO Adjust position for nudges by other entities
 
+		pendingFinalPosition.set(pendingPosition);
+		pendingKnockback = knockback != null;
 		if (knockback != null) {
 			float knockbackDistanceThisFrame = deltaTime * KNOCKBACK_DISTANCE_PER_SECOND;
-			if (knockbackDistanceThisFrame > knockback.len()) {
-				locationComponent.setWorldPosition(newPosition.cpy().add(knockback), false);
-				knockback = null;
+			pendingKnockbackFinished = knockbackDistanceThisFrame > knockback.len();
+			if (pendingKnockbackFinished) {
+				pendingFinalPosition.add(knockback);
 			} else {
-				Vector2 knockbackThisFrame = knockback.cpy().nor().scl(knockbackDistanceThisFrame);
-				locationComponent.setWorldPosition(newPosition.cpy().add(knockbackThisFrame), false);
-				knockback.sub(knockbackThisFrame);
+				pendingKnockbackThisFrame.set(knockback).nor().scl(knockbackDistanceThisFrame);
+				pendingFinalPosition.add(pendingKnockbackThisFrame);
 			}
 		}
 
-
 		if (currentTile != null && !currentTile.hasWall()) {
-			repelFromImpassableCollisions(deltaTime, currentTile);
+			repelFromImpassableCollisions(deltaTime, currentTile, pendingFinalPosition);
+		}
+		steeringCalculated = true;
+	}
+
+	/**
+	 * Moves the entity to the position from the last calculateSteering() and sends any messages it needed, which
+	 * must happen on the main thread
+	 */
+	public void applySteering() {
+		if (!steeringCalculated) {
+			return;
+		}
+		steeringCalculated = false;
+
+		if (pendingDoorToOpen != null) {
+			messageDispatcher.dispatchMessage(MessageType.REQUEST_DOOR_OPEN, pendingDoorToOpen);
+			pendingDoorToOpen = null;
+		}
+		pauseTime = pendingPauseTime;
+
+		locationComponent.setLinearVelocity(pendingVelocity);
+
+		Vector2 currentPosition = locationComponent.getWorldPosition();
+		if (pendingUpdateFacing && currentPosition != null) {
+			// Face the way this entity chose to move, not the way it was knocked back or repelled
+			locationComponent.setFacing(pendingPosition.x - currentPosition.x, pendingPosition.y - currentPosition.y);
+		}
+		// Knockback and repelling are published in the same move, and only a changed position needs a new vector
+		// (rather than updating the current one) as other code can hold on to the position it was given, e.g. pathfinding
+		if (currentPosition == null || !currentPosition.equals(pendingFinalPosition)) {
+			locationComponent.setWorldPosition(pendingFinalPosition.cpy(), false);
+		}
+
+		if (pendingKnockback && knockback != null) {
+			if (pendingKnockbackFinished) {
+				knockback = null;
+			} else {
+				knockback.sub(pendingKnockbackThisFrame);
+			}
 		}
 	}
 
+	/**
+	 * Applies a steering calculated by the parallel update phase ahead of this entity's own update, which then skips
+	 * its steering for this frame
+	 */
+	public void applySteeringAhead() {
+		if (steeringCalculated) {
+			applySteering();
+			steeringAppliedAhead = true;
+		}
+	}
 
+	public void clearSteeringAppliedAhead() {
+		steeringAppliedAhead = false;
+	}
 
 	private void rotateFacingAndApplyVelocity(float deltaTime, Vector2 currentVelocity, Vector2 target) {
 		float angleToWaypoint = target.angle();
@@ -236,13 +333,18 @@ public class SteeringComponent implements ChildPersistable {
 		this.nextWaypoint = nextWaypoint;
 	}
 
-	private void repelFromImpassableCollisions(float deltaTime, MapTile currentTile) {
-		Vector2 currentPosition = locationComponent.getWorldPosition().cpy();
-		Vector2 adjustmentForce = new Vector2();
-		for (MapTile tileNearNewPosition : areaMap.getNearestTiles(currentPosition)) {
-			if (!tileNearNewPosition.isNavigable(parentEntity, currentTile) && !tileNearNewPosition.equals(currentTile)) {
+	/**
+	 * Pushes the given position out of any impassable tiles it is overlapping, updating it in place
+	 */
+	private void repelFromImpassableCollisions(float deltaTime, MapTile currentTile, Vector2 currentPosition) {
+		adjustmentForce.setZero();
+		TiledMap.getNearestTilePositions(currentPosition, nearestTilePositions);
+		for (GridPoint2 tilePosition : nearestTilePositions) {
+			MapTile tileNearNewPosition = areaMap.getTile(tilePosition.x, tilePosition.y);
+			// Off the edge of the map is never navigable
+			if (tileNearNewPosition == null || (!tileNearNewPosition.isNavigable(parentEntity, currentTile) && !tileNearNewPosition.equals(currentTile))) {
 				// if overlapping wall
-				Vector2 wallToPosition = currentPosition.cpy().sub(tileNearNewPosition.getWorldPositionOfCenter());
+				Vector2 wallToPosition = scratch.set(currentPosition).sub(tilePosition.x + 0.5f, tilePosition.y + 0.5f);
 
 				if (Math.abs(wallToPosition.x) < 0.5f + locationComponent.getRadius() &&
 						Math.abs(wallToPosition.y) < 0.5f + locationComponent.getRadius()) {
@@ -254,49 +356,43 @@ public class SteeringComponent implements ChildPersistable {
 		}
 		// Each force is a 1 tile/second speed, could do with being proportional to nearness of wall
 		currentPosition.mulAdd(adjustmentForce, deltaTime);
-		locationComponent.setWorldPosition(currentPosition, false);
 	}
 
 	/**
 	 * This checks to see if other moving entities are in front, and if so and moving in same direction, slow down a bit
 	 */
-	public void checkToPauseForOtherEntities() {
-		if (pauseTime <= 0) {
-			boolean forceBreak = false;
-			Vector2 currentPosition = locationComponent.getWorldPosition();
-			MapTile currentTile = areaMap.getTile(currentPosition);
-			for (MapTile tileNearPosition : areaMap.getNearestTiles(currentPosition)) {
-				if (pauseTime > 0) {
-					break;
-				}
+	private boolean isBehindOtherEntity(Vector2 currentPosition, Vector2 currentVelocity) {
+		TiledMap.getNearestTilePositions(currentPosition, nearestTilePositions);
+		for (GridPoint2 tilePosition : nearestTilePositions) {
+			nearbyCreatures.clear();
+			areaMap.getCreatureSpatialHash().addCreaturesInTile(tilePosition.x, tilePosition.y, nearbyCreatures);
+			for (Entity otherEntity : nearbyCreatures) {
+				Vector2 otherPosition = otherEntity.getLocationComponent().getWorldPosition();
+				if (otherEntity.getId() != parentEntity.getId() && otherPosition != null) {
+					if (!AWAKE.equals(((CreatureEntityAttributes)otherEntity.getPhysicalEntityComponent().getAttributes()).getConsciousness())) {
+						continue;
+					}
 
-				for (Entity otherEntity : tileNearPosition.getEntities()) {
-					if (otherEntity.getId() != parentEntity.getId() && otherEntity.getType().equals(EntityType.CREATURE)) {
-						if (!AWAKE.equals(((CreatureEntityAttributes)otherEntity.getPhysicalEntityComponent().getAttributes()).getConsciousness())) {
-							continue;
-						}
+					if (otherEntity.getBehaviourComponent().getSteeringComponent().pauseTime > 0) {
+						break;
+					}
 
-						if (otherEntity.getBehaviourComponent().getSteeringComponent().pauseTime > 0) {
-							break;
-						}
+					Vector2 thisToOther = scratch.set(currentPosition).sub(otherPosition);
+					float totalRadii = this.locationComponent.getRadius() + otherEntity.getLocationComponent().getRadius();
+					float separationDistance = thisToOther.len();
+					if (separationDistance < totalRadii * 2) {
+						// Overlapping
 
-						Vector2 thisToOther = currentPosition.cpy().sub(otherEntity.getLocationComponent().getWorldPosition());
-						float totalRadii = this.locationComponent.getRadius() + otherEntity.getLocationComponent().getRadius();
-						float separationDistance = thisToOther.len();
-						if (separationDistance < totalRadii * 2) {
-							// Overlapping
-
-							boolean similarFacing = this.locationComponent.getLinearVelocity().cpy().dot(otherEntity.getLocationComponent().getLinearVelocity()) > 0;
-							boolean otherEntityInFront = thisToOther.cpy().dot(otherEntity.getLocationComponent().getLinearVelocity()) < 0;
-							if (similarFacing && otherEntityInFront) {
-								pauseTime = DEFAULT_PAUSE_TIME;
-								break;
-							}
+						boolean similarFacing = currentVelocity.dot(otherEntity.getLocationComponent().getLinearVelocity()) > 0;
+						boolean otherEntityInFront = thisToOther.dot(otherEntity.getLocationComponent().getLinearVelocity()) < 0;
+						if (similarFacing && otherEntityInFront) {
+							return true;
 						}
 					}
 				}
 			}
 		}
+		return false;
 	}
 
 	public float getPauseTime() {
@@ -95,7 +95,8 @@ public class Entity implements Persistable, Disposable {
 		if (gameContext.getAreaMap() == null) {
 			return;
 		}
-		for (EntityComponent component : componentMap.values()) {
+		for (int index = 0; index < componentMap.capacity(); index++) {
+			EntityComponent component = componentMap.getAt(index);
 			if (component instanceof ParentDependentEntityComponent) {
 				((ParentDependentEntityComponent)component).init(this, messageDispatcher, gameContext);
 			}
@@ -104,8 +105,8 @@ public class Entity implements Persistable, Disposable {
 	}
 
 	public void destroy(MessageDispatcher messageDispatcher, GameContext gameContext) {
-		for (Class componentClass : new HashSet<>(componentMap.keySet())) {
-			EntityComponent entityComponent = componentMap.get(componentClass);
+		for (int index = 0; index < componentMap.capacity(); index++) {
+			EntityComponent entityComponent = componentMap.getAt(index);
 			if (entityComponent instanceof Destructible) {
 				((Destructible) entityComponent).destroy(this, messageDispatcher, gameContext);
 			}
@@ -114,8 +115,8 @@ public class Entity implements Persistable, Disposable {
 
 	@Override
 	public void dispose() {
-		for (Class componentClass : new HashSet<>(componentMap.keySet())) {
-			EntityComponent entityComponent = componentMap.get(componentClass);
+		for (int index = 0; index < componentMap.capacity(); index++) {
+			EntityComponent entityComponent = componentMap.getAt(index);
 			if (entityComponent instanceof Disposable) {
 				((Disposable) entityComponent).dispose();
 			}
@@ -129,10 +130,13 @@ public class Entity implements Persistable, Disposable {
 				locationComponent.clone(messageDispatcher, gameContext),
 				messageDispatcher, gameContext);
 
-		for (Class componentClass : this.componentMap.keySet()) {
-			EntityComponent clonedComponent = cloned.componentMap.get(componentClass);
+		for (int index = 0; index < this.componentMap.capacity(); index++) {
+			EntityComponent thisComponent = this.componentMap.getAt(index);
+			if (thisComponent == null) {
+				continue;
+			}
+			EntityComponent clonedComponent = cloned.componentMap.get(thisComponent.getClass());
 			if (clonedComponent == null) {
-				EntityComponent thisComponent = this.componentMap.get(componentClass);
 				clonedComponent = thisComponent.clone(messageDispatcher, gameContext);
 				cloned.componentMap.add(clonedComponent);
 				if (clonedComponent instanceof BehaviourComponent) {
@@ -229,7 +233,8 @@ public class Entity implements Persistable, Disposable {
 		double gameTime = gameContext.getGameClock().getCurrentGameTime();
 		double elapsed = gameTime - lastUpdateGameTime;
 		lastUpdateGameTime = gameTime;
-		for (EntityComponent c : componentMap.values()) {
+		for (int index = 0; index < componentMap.capacity(); index++) {
+			EntityComponent c = componentMap.getAt(index);
 			if (c instanceof InfrequentlyUpdatableComponent) {
 				((InfrequentlyUpdatableComponent)c).infrequentUpdate(elapsed);
 			}
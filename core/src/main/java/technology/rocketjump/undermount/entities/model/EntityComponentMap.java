@@ -1,45 +1,84 @@
 package technology.rocketjump.undermount.entities.model;
 
 import technology.rocketjump.undermount.entities.components.EntityComponent;
+import technology.rocketjump.undermount.entities.components.EntityComponentTypes;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * The components of an entity, held in an array indexed by the ID from EntityComponentTypes of each component's class.
+ *
+ * Iterate over the components without allocating by going through the indices up to capacity(), skipping nulls.
+ */
 public class EntityComponentMap {
 
-	private Map<Class, Object> componentMap = new HashMap<>();
+	private static final EntityComponent[] NO_COMPONENTS = new EntityComponent[0];
+
+	private EntityComponent[] components = NO_COMPONENTS;
+	private int size;
 
 	public <T extends EntityComponent> void add(T component) {
-		componentMap.put(component.getClass(), component);
+		int id = EntityComponentTypes.idOf(component.getClass());
+		if (id >= components.length) {
+			EntityComponent[] expanded = new EntityComponent[Math.max(id + 1, EntityComponentTypes.count())];
+			System.arraycopy(components, 0, expanded, 0, components.length);
+			components = expanded;
+		}
+		if (components[id] == null) {
+			size++;
+		}
+		components[id] = component;
 	}
 
+	@SuppressWarnings("unchecked")
 	public <T extends EntityComponent> T remove(Class<T> classType) {
-		Object removed = componentMap.remove(classType);
-		if (removed == null) {
+		int id = EntityComponentTypes.idOf(classType);
+		if (id >= components.length || components[id] == null) {
 			return null;
-		} else {
-			return (T)removed;
 		}
+		T removed = (T) components[id];
+		components[id] = null;
+		size--;
+		return removed;
 	}
 
 	@SuppressWarnings("unchecked")
 	public <T extends EntityComponent> T get(Class<T> classType) {
-		Object instance = componentMap.get(classType);
-		if (instance == null) {
-			return null;
-		} else {
-			return (T)instance;
-		}
+		int id = EntityComponentTypes.idOf(classType);
+		return id < components.length ? (T) components[id] : null;
+	}
+
+	/**
+	 * @return the component at this index, or null if there is none
+	 */
+	public EntityComponent getAt(int index) {
+		return components[index];
+	}
+
+	/**
+	 * @return the upper bound (exclusive) of the indices to iterate over with getAt()
+	 */
+	public int capacity() {
+		return components.length;
 	}
 
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return a copy of the components, for callers which are not on a hot path
+	 */
+	@SuppressWarnings("unchecked")
 	public <T extends EntityComponent> List<T> values() {
-		List<T> allComponents = new LinkedList<>();
-		for (Object value : componentMap.values()) {
-			allComponents.add((T)value);
+		List<T> allComponents = new ArrayList<>(size);
+		for (EntityComponent component : components) {
+			if (component != null) {
+				allComponents.add((T) component);
+			}
 		}
 		return allComponents;
 	}
 
-	public Set<Class> keySet() {
-		return componentMap.keySet();
-	}
 }
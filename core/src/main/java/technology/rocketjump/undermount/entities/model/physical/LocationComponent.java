@@ -8,6 +8,7 @@ import technology.rocketjump.undermount.assets.entities.model.EntityAssetOrienta
 import technology.rocketjump.undermount.entities.components.AttachedLightSourceComponent;
 import technology.rocketjump.undermount.entities.components.ParentDependentEntityComponent;
 import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.gamecontext.FixedTimestepSimulation;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.messaging.MessageType;
 import technology.rocketjump.undermount.messaging.types.EntityPositionChangedMessage;
@@ -23,11 +24,11 @@ import static technology.rocketjump.undermount.entities.model.EntityType.ONGOING
 public class LocationComponent implements ParentDependentEntityComponent {
 
 	private Vector2 worldPosition; // can be null to denote off-map or being carried
-	private Vector2 facing = new Vector2();
+	private final Vector2 facing = new Vector2();
 	private EntityAssetOrientation orientation; // To only be updated by facing
 	private float radius = 0.3f; // Rough size of entity around worldPosition point, maybe change to width and height vector
 
-	private Vector2 linearVelocity = new Vector2();
+	private final Vector2 linearVelocity = new Vector2();
 	private float maxLinearSpeed = 1.8f;
 	private float maxLinearAcceleration = 1.2f;
 
@@ -46,6 +47,11 @@ public class LocationComponent implements ParentDependentEntityComponent {
 	private transient Long containerEntityId; // Only used during loading
 	private transient boolean initialised; // Only used during loading
 
+	// Where this entity was at the start of the latest simulation tick, for rendering to interpolate from
+	private final transient Vector2 previousTickPosition = new Vector2();
+	private transient long previousTickPositionTick = -1;
+	private static final float MAX_INTERPOLATION_DISTANCE2 = 4f;
+
 	@Override
 	public void init(Entity parentEntity, MessageDispatcher messageDispatcher, GameContext gameContext) {
 		this.messageDispatcher = messageDispatcher;
@@ -70,10 +76,10 @@ public class LocationComponent implements ParentDependentEntityComponent {
 		if (this.worldPosition != null) {
 			cloned.worldPosition = this.worldPosition.cpy();
 		}
-		cloned.facing = this.facing.cpy();
+		cloned.facing.set(this.facing);
 		cloned.orientation = this.orientation;
 		cloned.radius = this.radius;
-		cloned.linearVelocity = this.linearVelocity.cpy();
+		cloned.linearVelocity.set(this.linearVelocity);
 		cloned.maxLinearSpeed = this.maxLinearSpeed;
 		cloned.maxLinearAcceleration = this.maxLinearAcceleration;
 		cloned.rotation = this.rotation;
@@ -86,6 +92,35 @@ public class LocationComponent implements ParentDependentEntityComponent {
 		return worldPosition;
 	}
 
+	/**
+	 * @return the position to draw this entity at, interpolated between the last two simulation ticks when running with
+	 * a fixed timestep (and it has moved by less than a jump), written to the given vector
+	 */
+	public Vector2 getRenderPosition(Vector2 renderPosition, FixedTimestepSimulation simulation) {
+		if (worldPosition == null) {
+			return null;
+		}
+		renderPosition.set(worldPosition);
+		// The previous position was recorded at the start of the tick before the current one started, i.e. the most recent tick
+		if (simulation.isEnabled() && previousTickPositionTick == simulation.getCurrentTick() - 1 &&
+				previousTickPosition.dst2(worldPosition) < MAX_INTERPOLATION_DISTANCE2) {
+			renderPosition.set(previousTickPosition).lerp(worldPosition, simulation.getInterpolationAlpha());
+		}
+		return renderPosition;
+	}
+
+	/**
+	 * To be called at the start of each simulation tick, before anything moves this entity
+	 */
+	public void recordPreviousTickPosition(long currentTick) {
+		if (worldPosition == null) {
+			previousTickPositionTick = -1;
+		} else {
+			previousTickPosition.set(worldPosition);
+			previousTickPositionTick = currentTick;
+		}
+	}
+
 	public Vector2 getWorldOrParentPosition() {
 		if (containerEntity != null) {
 			return containerEntity.getLocationComponent().getWorldOrParentPosition();
@@ -106,9 +141,7 @@ public class LocationComponent implements ParentDependentEntityComponent {
 			}
 		}
 		if (this.worldPosition != null && updateFacing) {
-			Vector2 previousPosition = this.worldPosition.cpy();
-			Vector2 difference = newPosition.cpy().sub(previousPosition);
-			setFacing(difference);
+			setFacing(newPosition.x - worldPosition.x, newPosition.y - worldPosition.y);
 		}
 		this.worldPosition = newPosition;
 		if (parentEntity != null) {
@@ -139,9 +172,16 @@ public class LocationComponent implements ParentDependentEntityComponent {
 		return facing;
 	}
 
+	/**
+	 * Copies the direction of the given vector, so shared vectors such as those of EntityAssetOrientation can be passed in
+	 */
 	public void setFacing(Vector2 facing) {
-		this.facing = facing.nor();
-		setOrientation(EntityAssetOrientation.fromFacing(facing));
+		setFacing(facing.x, facing.y);
+	}
+
+	public void setFacing(float x, float y) {
+		this.facing.set(x, y).nor();
+		setOrientation(EntityAssetOrientation.fromFacing(this.facing));
 	}
 
 	public void setOrientation(EntityAssetOrientation newOrientation) {
@@ -174,7 +214,7 @@ public class LocationComponent implements ParentDependentEntityComponent {
 	}
 
 	public void setLinearVelocity(Vector2 linearVelocity) {
-		this.linearVelocity = linearVelocity;
+		this.linearVelocity.set(linearVelocity);
 	}
 
 	public float getMaxLinearSpeed() {
@@ -272,7 +312,7 @@ public class LocationComponent implements ParentDependentEntityComponent {
 		}
 
 		JSONObject linearVelocityJson = asJson.getJSONObject("linearVelocity");
-		this.linearVelocity = new Vector2();
+		this.linearVelocity.setZero();
 		if (linearVelocityJson != null) {
 			this.linearVelocity.set(linearVelocityJson.getFloatValue("x"), linearVelocityJson.getFloatValue("y"));
 		}
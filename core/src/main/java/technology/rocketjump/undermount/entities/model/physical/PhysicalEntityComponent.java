@@ -33,6 +33,7 @@ public class PhysicalEntityComponent implements EntityComponent {
 	private final Map<EntityAssetType, EntityAsset> typeMap = new HashMap<>();
 
 	private float animationProgress; // Interpolates to range of frames for animated assets
+	private int assetRevision; // Incremented whenever the assets change, so cached rendering of them can be refreshed
 
 	@Override
 	public PhysicalEntityComponent clone(MessageDispatcher messageDispatcher, GameContext gameContext) {
@@ -56,6 +57,18 @@ public class PhysicalEntityComponent implements EntityComponent {
 	public void setBaseAsset(EntityAsset baseAsset) {
 		this.baseAsset = baseAsset;
 		typeMap.clear();
+		assetRevision++;
+	}
+
+	public int getAssetRevision() {
+		return assetRevision;
+	}
+
+	/**
+	 * To be called after the typeMap has been changed directly
+	 */
+	public void assetsChanged() {
+		assetRevision++;
 	}
 
 	public EntityAttributes getAttributes() {
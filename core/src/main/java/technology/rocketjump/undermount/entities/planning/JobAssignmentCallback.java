@@ -9,4 +9,12 @@ public interface JobAssignmentCallback {
 
 	void jobCallback(List<Job> potentialJobs, GameContext gameContext);
 
+	/**
+	 * Checked before a job is offered to jobCallback(), so jobs which would be turned down don't take the place of
+	 * ones which would be accepted in the limited number offered
+	 */
+	default boolean canAccept(Job potentialJob, GameContext gameContext) {
+		return true;
+	}
+
 }
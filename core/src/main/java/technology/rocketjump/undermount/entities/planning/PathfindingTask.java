@@ -1,24 +1,29 @@
 package technology.rocketjump.undermount.entities.planning;
 
-import com.badlogic.gdx.ai.msg.PriorityQueue;
 import com.badlogic.gdx.ai.pfa.GraphPath;
 import com.badlogic.gdx.math.Vector2;
-import technology.rocketjump.undermount.entities.ai.pathfinding.Map2DCollection;
-import technology.rocketjump.undermount.entities.ai.pathfinding.MapPathfindingNode;
+import com.badlogic.gdx.utils.IntSet;
+import technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingChunkGraph;
+import technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingSearchContext;
 import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.CompassDirection;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
-import technology.rocketjump.undermount.mapping.tile.TileNeighbours;
 import technology.rocketjump.undermount.messaging.async.BackgroundTaskResult;
 import technology.rocketjump.undermount.messaging.types.PathfindingRequestMessage;
 import technology.rocketjump.undermount.misc.VectorGraphPath;
 
-import java.util.Map;
 import java.util.concurrent.Callable;
 
+import static technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingSearchContext.NO_NODE;
+import static technology.rocketjump.undermount.mapping.tile.CompassDirection.*;
+
 public class PathfindingTask implements Callable<BackgroundTaskResult> {
 
+	private static final CompassDirection[] DIRECTIONS = CompassDirection.values();
+	// Below this many chunks apart, searching the whole grid is cheap enough not to bother with the chunk graph
+	private static final int MIN_CHUNK_DISTANCE_FOR_HIERARCHICAL_SEARCH = 3;
+
 	private final PathfindingCallback callback;
 	private final MapTile originCell;
 	private final MapTile destinationCell;
@@ -26,8 +31,10 @@ public class PathfindingTask implements Callable<BackgroundTaskResult> {
 	private final Vector2 destination;
 
 	private final TiledMap map;
-	private final PriorityQueue<MapPathfindingNode> frontier = new PriorityQueue<>();
-	private final Map2DCollection<MapPathfindingNode> explored;
+	private final MapTile[] neighbourTiles = new MapTile[DIRECTIONS.length];
+	private final boolean[] navigableNeighbours = new boolean[DIRECTIONS.length];
+	private PathfindingSearchContext searchContext;
+	private IntSet chunkCorridor;
 	private final long relatedId;
 	private final Entity parentEntity;
 
@@ -35,7 +42,6 @@ public class PathfindingTask implements Callable<BackgroundTaskResult> {
 		this.parentEntity = requestMessage.getRequestingEntity();
 		this.callback = requestMessage.getCallback();
 		this.map = requestMessage.getMap();
-		this.explored = new Map2DCollection<>(map.getWidth());
 		this.relatedId = requestMessage.getRelatedId();
 
 		this.origin = requestMessage.getOrigin();
@@ -72,113 +78,122 @@ public class PathfindingTask implements Callable<BackgroundTaskResult> {
 			return BackgroundTaskResult.success();
 		}
 
-		TileNeighbours navigableNeighbours = filterToNavigable(map.getNeighbours(originCell.getTileX(), originCell.getTileY()));
-		for (MapTile neighbourCell : navigableNeighbours.values()) {
-			Vector2 tileWorldPosition = neighbourCell.getWorldPositionOfCenter();
-			MapPathfindingNode node = new MapPathfindingNode(
-					tileWorldPosition,
-					getDistance(origin, tileWorldPosition),
-					null,
-					getDistance(tileWorldPosition, destination));
-			frontier.add(node);
-			explored.add(neighbourCell.getTileX(), neighbourCell.getTileY(), node);
+		IntSet abstractPathChunks = null;
+		if (PathfindingChunkGraph.chunkDistance(originCell, destinationCell) >= MIN_CHUNK_DISTANCE_FOR_HIERARCHICAL_SEARCH) {
+			abstractPathChunks = map.getPathfindingChunkGraph().findChunkCorridor(originCell, destinationCell);
 		}
 
-		while (frontier.size() > 0) {
-			processNode(frontier.poll());
+		int nodeToNavigateVia = search(abstractPathChunks);
+		if (nodeToNavigateVia == NO_NODE && abstractPathChunks != null) {
+			// The chunk graph ignores entity-specific navigability (e.g. doorways for creatures), so fall back to the whole map
+			nodeToNavigateVia = search(null);
 		}
 
-		MapPathfindingNode nodeToNavigateVia = explored.get(destinationCell.getTileX(), destinationCell.getTileY());
-		if (nodeToNavigateVia != null) {
-			nodeToNavigateVia.setWorldPosition(destination);
+		if (nodeToNavigateVia != NO_NODE) {
+			path.add(destination);
+			nodeToNavigateVia = searchContext.getPreviousNodeInPath(nodeToNavigateVia);
 		}
-		while (nodeToNavigateVia != null) {
-			path.add(nodeToNavigateVia.getWorldPosition());
-			nodeToNavigateVia = nodeToNavigateVia.getPreviousNodeInPath();
+		while (nodeToNavigateVia != NO_NODE) {
+			int tileIndex = searchContext.getTileIndex(nodeToNavigateVia);
+			path.add(new Vector2(0.5f + searchContext.toTileX(tileIndex), 0.5f + searchContext.toTileY(tileIndex)));
+			nodeToNavigateVia = searchContext.getPreviousNodeInPath(nodeToNavigateVia);
 		}
 		path.reverse();
 		callback.pathfindingComplete(path, relatedId);
 		return BackgroundTaskResult.success();
 	}
 
-	private void processNode(MapPathfindingNode node) {
-		MapTile nodeCell = map.getTile(node.getWorldPosition());
-		if (nodeCell.equals(destinationCell)) {
-			frontier.clear();
-		} else {
-			TileNeighbours neighbours = map.getNeighbours(nodeCell.getTileX(), nodeCell.getTileY());
-			neighbours = filterToNavigable(neighbours);
-			for (Map.Entry<CompassDirection, MapTile> neighboursEntry : neighbours.entrySet()) {
-				float costToNeighbourTile = neighboursEntry.getKey().distance() * (1 / neighboursEntry.getValue().getFloor().getFloorType().getSpeedModifier());
-				float newCostToGetHere = node.getCostToGetHere() + costToNeighbourTile;
-				MapTile neighbourCell = neighboursEntry.getValue();
-				MapPathfindingNode previouslyExploredNode = explored.get(neighbourCell.getTileX(), neighbourCell.getTileY());
-				if (previouslyExploredNode == null || previouslyExploredNode.getCostToGetHere() > newCostToGetHere) {
-					Vector2 positionOfNeighbourCell = neighbourCell.getWorldPositionOfCenter();
-					MapPathfindingNode nextNode = new MapPathfindingNode(positionOfNeighbourCell, newCostToGetHere, node, getDistance(positionOfNeighbourCell, destination));
-					explored.add(neighbourCell.getTileX(), neighbourCell.getTileY(),
-							nextNode
-					);
-					frontier.add(nextNode);
-				}
-
+	/**
+	 * Runs A* from the origin, only expanding into tiles within chunkCorridor if it is not null
+	 *
+	 * @return the search node which reached the destination, or NO_NODE if it could not be reached
+	 */
+	private int search(IntSet chunkCorridor) {
+		this.chunkCorridor = chunkCorridor;
+		searchContext = PathfindingSearchContext.forMap(map);
+
+		findNavigableNeighbours(originCell);
+		for (int directionCursor = 0; directionCursor < DIRECTIONS.length; directionCursor++) {
+			if (navigableNeighbours[directionCursor]) {
+				MapTile neighbourCell = neighbourTiles[directionCursor];
+				float tileCenterX = 0.5f + neighbourCell.getTileX();
+				float tileCenterY = 0.5f + neighbourCell.getTileY();
+				searchContext.explore(searchContext.toTileIndex(neighbourCell.getTileX(), neighbourCell.getTileY()),
+						getDistance(origin.x, origin.y, tileCenterX, tileCenterY),
+						NO_NODE,
+						getDistance(tileCenterX, tileCenterY, destination.x, destination.y));
 			}
+		}
 
-
+		int nodeToProcess = searchContext.pollOpen();
+		while (nodeToProcess != NO_NODE) {
+			processNode(nodeToProcess);
+			nodeToProcess = searchContext.pollOpen();
 		}
 
+		return searchContext.getExploredNode(searchContext.toTileIndex(destinationCell.getTileX(), destinationCell.getTileY()));
 	}
 
-	private TileNeighbours filterToNavigable(TileNeighbours tileNeighbours) {
-		TileNeighbours filtered = new TileNeighbours();
-
-		for (Map.Entry<CompassDirection, MapTile> compassDirectionMapCellEntry : tileNeighbours.entrySet()) {
-			CompassDirection direction = compassDirectionMapCellEntry.getKey();
-			MapTile cellInDirection = compassDirectionMapCellEntry.getValue();
-			if (cellInDirection.isNavigable(parentEntity, originCell)) {
-				if (direction.isDiagonal()) {
-					// Needs both orthogonal neighbours to be navigable
-					// Assuming that if there is a diagonal neighbour, both the orthogonal neighbours must not be null
-					switch (direction) {
-						case NORTH_EAST: {
-							if (tileNeighbours.get(CompassDirection.NORTH).isNavigable(parentEntity, originCell) && tileNeighbours.get(CompassDirection.EAST).isNavigable(parentEntity, originCell)) {
-								filtered.put(direction, cellInDirection);
-							}
-							break;
-						}
-						case NORTH_WEST: {
-							if (tileNeighbours.get(CompassDirection.NORTH).isNavigable(parentEntity, originCell) && tileNeighbours.get(CompassDirection.WEST).isNavigable(parentEntity, originCell)) {
-								filtered.put(direction, cellInDirection);
-							}
-							break;
-						}
-						case SOUTH_WEST: {
-							if (tileNeighbours.get(CompassDirection.SOUTH).isNavigable(parentEntity, originCell) && tileNeighbours.get(CompassDirection.WEST).isNavigable(parentEntity, originCell)) {
-								filtered.put(direction, cellInDirection);
-							}
-							break;
-						}
-						case SOUTH_EAST: {
-							if (tileNeighbours.get(CompassDirection.SOUTH).isNavigable(parentEntity, originCell) && tileNeighbours.get(CompassDirection.EAST).isNavigable(parentEntity, originCell)) {
-								filtered.put(direction, cellInDirection);
-							}
-							break;
-						}
-						default: {
-							throw new RuntimeException("Diagonal direction is incorrect, thought " + direction.name() + " is diagonal");
-						}
-					}
-				} else {
-					filtered.put(direction, cellInDirection);
+	private void processNode(int node) {
+		int nodeTileIndex = searchContext.getTileIndex(node);
+		MapTile nodeCell = map.getTile(searchContext.toTileX(nodeTileIndex), searchContext.toTileY(nodeTileIndex));
+		if (nodeCell.equals(destinationCell)) {
+			searchContext.clearFrontier();
+		} else {
+			float nodeCostToGetHere = searchContext.getCostToGetHere(node);
+			findNavigableNeighbours(nodeCell);
+			for (int directionCursor = 0; directionCursor < DIRECTIONS.length; directionCursor++) {
+				if (!navigableNeighbours[directionCursor]) {
+					continue;
+				}
+				MapTile neighbourCell = neighbourTiles[directionCursor];
+				float costToNeighbourTile = DIRECTIONS[directionCursor].distance() * (1 / neighbourCell.getFloor().getFloorType().getSpeedModifier());
+				float newCostToGetHere = nodeCostToGetHere + costToNeighbourTile;
+				int neighbourTileIndex = searchContext.toTileIndex(neighbourCell.getTileX(), neighbourCell.getTileY());
+				int previouslyExploredNode = searchContext.getExploredNode(neighbourTileIndex);
+				if (previouslyExploredNode == NO_NODE || searchContext.getCostToGetHere(previouslyExploredNode) > newCostToGetHere) {
+					float tileCenterX = 0.5f + neighbourCell.getTileX();
+					float tileCenterY = 0.5f + neighbourCell.getTileY();
+					searchContext.explore(neighbourTileIndex, newCostToGetHere, node,
+							getDistance(tileCenterX, tileCenterY, destination.x, destination.y));
 				}
 			}
 		}
+	}
 
-		return filtered;
+	/**
+	 * Fills neighbourTiles and navigableNeighbours (indexed by CompassDirection ordinal) for the given tile,
+	 * where diagonals are only navigable if both adjacent orthogonal neighbours are also navigable
+	 */
+	private void findNavigableNeighbours(MapTile tile) {
+		for (int directionCursor = 0; directionCursor < DIRECTIONS.length; directionCursor++) {
+			CompassDirection direction = DIRECTIONS[directionCursor];
+			MapTile cellInDirection = map.getTile(tile.getTileX() + direction.getXOffset(), tile.getTileY() + direction.getYOffset());
+			neighbourTiles[directionCursor] = cellInDirection;
+			navigableNeighbours[directionCursor] = cellInDirection != null && cellInDirection.isNavigable(parentEntity, originCell);
+		}
+
+		// Assuming that if there is a diagonal neighbour, both the orthogonal neighbours must not be null
+		navigableNeighbours[NORTH_EAST.ordinal()] &= navigableNeighbours[NORTH.ordinal()] && navigableNeighbours[EAST.ordinal()];
+		navigableNeighbours[NORTH_WEST.ordinal()] &= navigableNeighbours[NORTH.ordinal()] && navigableNeighbours[WEST.ordinal()];
+		navigableNeighbours[SOUTH_WEST.ordinal()] &= navigableNeighbours[SOUTH.ordinal()] && navigableNeighbours[WEST.ordinal()];
+		navigableNeighbours[SOUTH_EAST.ordinal()] &= navigableNeighbours[SOUTH.ordinal()] && navigableNeighbours[EAST.ordinal()];
+
+		if (chunkCorridor != null) {
+			PathfindingChunkGraph chunkGraph = map.getPathfindingChunkGraph();
+			for (int directionCursor = 0; directionCursor < DIRECTIONS.length; directionCursor++) {
+				if (navigableNeighbours[directionCursor] && !chunkCorridor.contains(
+						chunkGraph.getChunkIndex(neighbourTiles[directionCursor].getTileX(), neighbourTiles[directionCursor].getTileY()))) {
+					navigableNeighbours[directionCursor] = false;
+				}
+			}
+		}
 	}
 
-	private float getDistance(Vector2 a, Vector2 b) {
-		return b.cpy().sub(a).len();
+	private static float getDistance(float fromX, float fromY, float toX, float toY) {
+		float x = toX - fromX;
+		float y = toY - fromY;
+		return (float) Math.sqrt(x * x + y * y);
 	}
 
 }
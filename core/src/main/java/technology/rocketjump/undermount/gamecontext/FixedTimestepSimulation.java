@@ -0,0 +1,146 @@
+package technology.rocketjump.undermount.gamecontext;
+
+import com.google.inject.Singleton;
+import org.pmw.tinylog.Logger;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the game simulation in ticks of a fixed length, as many per rendered frame as are needed to keep up with the
+ * game speed, rather than as one step of the frame time multiplied by the game speed.
+ *
+ * The ticks of a frame are limited to a time budget. When that is used up the rest of the frame's time is dropped,
+ * so the game runs slower than the requested speed instead of the frame rate collapsing.
+ *
+ * The entity updater records where entities were at the start of each tick, for rendering to interpolate between
+ * that and their current position by how far the frame is between the last tick and the next. While running, the
+ * achieved ticks per second are logged periodically so slowdown can be spotted in the log.
+ */
+@Singleton
+public class FixedTimestepSimulation {
+
+	public static final float TICK_SECONDS = 1f / 60f;
+	private static final long DEFAULT_BUDGET_NANOS = 20_000_000L; // Time per frame to spend on ticks
+	private static final int MAX_BACKLOG_TICKS = 4; // Frame time carried over after running out of budget
+	private static final float SUMMARY_PERIOD_SECONDS = 60f;
+
+	private long currentTick;
+	private float interpolationAlpha = 1f;
+	private boolean enabled;
+
+	private final long budgetNanos;
+	private final LongSupplier nanoTime;
+	private float accumulatedSeconds;
+
+	private float secondsInWindow;
+	private int ticksInWindow;
+	private float achievedTicksPerSecond;
+
+	private float secondsInSummary;
+	private int ticksInSummary;
+	private float targetTicksInSummary;
+
+	public FixedTimestepSimulation() {
+		this(DEFAULT_BUDGET_NANOS, System::nanoTime);
+	}
+
+	FixedTimestepSimulation(long budgetNanos, LongSupplier nanoTime) {
+		this.budgetNanos = budgetNanos;
+		this.nanoTime = nanoTime;
+	}
+
+	public interface Tick {
+		void tick(float tickSeconds);
+	}
+
+	/**
+	 * Runs the ticks which fall within this frame at the given game speed
+	 *
+	 * @return the number of ticks run
+	 */
+	public int advance(float realDeltaTime, float speedMultiplier, Tick tick) {
+		enabled = true;
+		accumulatedSeconds += realDeltaTime * speedMultiplier;
+
+		long startTime = nanoTime.getAsLong();
+		int ticksRun = 0;
+		while (accumulatedSeconds >= TICK_SECONDS) {
+			if (ticksRun > 0 && nanoTime.getAsLong() - startTime > budgetNanos) {
+				// Out of time this frame, so let the simulation fall behind rather than build up a backlog
+				accumulatedSeconds = Math.min(accumulatedSeconds, TICK_SECONDS * MAX_BACKLOG_TICKS);
+				break;
+			}
+			tick.tick(TICK_SECONDS);
+			accumulatedSeconds -= TICK_SECONDS;
+			currentTick++;
+			ticksRun++;
+		}
+		interpolationAlpha = Math.min(1f, accumulatedSeconds / TICK_SECONDS);
+
+		ticksInWindow += ticksRun;
+		ticksInSummary += ticksRun;
+		targetTicksInSummary += realDeltaTime * getTargetTicksPerSecond(speedMultiplier);
+		updateAchievedTicks(realDeltaTime);
+		return ticksRun;
+	}
+
+	/**
+	 * For when the simulation is not running this frame e.g. while paused
+	 */
+	public void skipFrame(float realDeltaTime) {
+		accumulatedSeconds = 0;
+		interpolationAlpha = 1f;
+		updateAchievedTicks(realDeltaTime);
+	}
+
+	public void disable() {
+		enabled = false;
+		accumulatedSeconds = 0;
+		interpolationAlpha = 1f;
+		secondsInSummary = 0;
+		ticksInSummary = 0;
+		targetTicksInSummary = 0;
+	}
+
+	private void updateAchievedTicks(float realDeltaTime) {
+		secondsInWindow += realDeltaTime;
+		if (secondsInWindow >= 1f) {
+			achievedTicksPerSecond = ticksInWindow / secondsInWindow;
+			ticksInWindow = 0;
+			secondsInWindow = 0;
+		}
+
+		secondsInSummary += realDeltaTime;
+		if (secondsInSummary >= SUMMARY_PERIOD_SECONDS) {
+			// Paused time counts towards neither the achieved nor the target ticks
+			Logger.info("Simulation ran " + Math.round(ticksInSummary / secondsInSummary) + " ticks/sec of a target " +
+					Math.round(targetTicksInSummary / secondsInSummary) + " over the last " + Math.round(secondsInSummary) + " seconds");
+			secondsInSummary = 0;
+			ticksInSummary = 0;
+			targetTicksInSummary = 0;
+		}
+	}
+
+	public float getAchievedTicksPerSecond() {
+		return achievedTicksPerSecond;
+	}
+
+	public static float getTargetTicksPerSecond(float speedMultiplier) {
+		return speedMultiplier / TICK_SECONDS;
+	}
+
+	public long getCurrentTick() {
+		return currentTick;
+	}
+
+	/**
+	 * @return how far between the previous tick and the next the current frame is, from 0 to 1
+	 */
+	public float getInterpolationAlpha() {
+		return interpolationAlpha;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+}
@@ -0,0 +1,101 @@
+package technology.rocketjump.undermount.jobs;
+
+import technology.rocketjump.undermount.jobs.model.Job;
+import technology.rocketjump.undermount.jobs.model.PotentialJob;
+
+import java.util.*;
+
+/**
+ * This class resolves the candidate jobs of several job requests together, so that each requester is offered a
+ * different job first rather than all of them being offered (and racing for) the same best job.
+ *
+ * It is a greedy auction - every pairing of request and candidate job is ranked in the same order as
+ * PotentialJobSorter, with the more skilled requester winning a tie, and pairings are accepted in that order
+ * while neither the request nor the job has been matched yet.
+ */
+public class JobAssignmentBatch {
+
+	private final Comparator<? super PotentialJob> potentialJobSorter;
+	private final List<List<PotentialJob>> candidatesByRequest = new ArrayList<>();
+	private final List<Bid> bids = new ArrayList<>();
+
+	public JobAssignmentBatch(Comparator<? super PotentialJob> potentialJobSorter) {
+		this.potentialJobSorter = potentialJobSorter;
+	}
+
+	/**
+	 * @return the index of the new request, to add its candidates with
+	 */
+	public int addRequest() {
+		candidatesByRequest.add(new ArrayList<>());
+		return candidatesByRequest.size() - 1;
+	}
+
+	/**
+	 * Candidates should be added for each request in the order they would be offered if this request was on its own
+	 */
+	public void addCandidate(int requestIndex, PotentialJob potentialJob, float skillLevel) {
+		candidatesByRequest.get(requestIndex).add(potentialJob);
+		bids.add(new Bid(requestIndex, potentialJob, skillLevel));
+	}
+
+	/**
+	 * @return for each request in the order they were added, the jobs to offer it - its matched job (if any) first,
+	 * then the rest of its candidates, with the jobs matched to other requests last
+	 */
+	public List<List<Job>> resolve() {
+		bids.sort((a, b) -> {
+			int result = potentialJobSorter.compare(a.potentialJob, b.potentialJob);
+			if (result == 0) {
+				result = Float.compare(b.skillLevel, a.skillLevel);
+			}
+			return result;
+		});
+
+		Job[] matchedJobs = new Job[candidatesByRequest.size()];
+		Set<Job> claimedJobs = new HashSet<>();
+		for (Bid bid : bids) {
+			if (matchedJobs[bid.requestIndex] == null && claimedJobs.add(bid.potentialJob.job)) {
+				matchedJobs[bid.requestIndex] = bid.potentialJob.job;
+			}
+		}
+
+		List<List<Job>> jobsByRequest = new ArrayList<>(candidatesByRequest.size());
+		for (int requestIndex = 0; requestIndex < candidatesByRequest.size(); requestIndex++) {
+			Job matchedJob = matchedJobs[requestIndex];
+			List<Job> jobsToOffer = new ArrayList<>();
+			List<Job> matchedToOthers = new ArrayList<>();
+			if (matchedJob != null) {
+				jobsToOffer.add(matchedJob);
+			}
+			for (PotentialJob candidate : candidatesByRequest.get(requestIndex)) {
+				if (candidate.job == matchedJob) {
+					continue;
+				}
+				if (claimedJobs.contains(candidate.job)) {
+					// Only taken if the request it was matched to turns it down
+					matchedToOthers.add(candidate.job);
+				} else {
+					jobsToOffer.add(candidate.job);
+				}
+			}
+			jobsToOffer.addAll(matchedToOthers);
+			jobsByRequest.add(jobsToOffer);
+		}
+		return jobsByRequest;
+	}
+
+	private static class Bid {
+
+		private final int requestIndex;
+		private final PotentialJob potentialJob;
+		private final float skillLevel;
+
+		private Bid(int requestIndex, PotentialJob potentialJob, float skillLevel) {
+			this.requestIndex = requestIndex;
+			this.potentialJob = potentialJob;
+			this.skillLevel = skillLevel;
+		}
+	}
+
+}
@@ -9,20 +9,21 @@ import com.badlogic.gdx.utils.Disposable;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import technology.rocketjump.undermount.entities.components.humanoid.ProfessionsComponent;
+import technology.rocketjump.undermount.entities.planning.JobAssignmentCallback;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.Updatable;
 import technology.rocketjump.undermount.jobs.model.Job;
 import technology.rocketjump.undermount.jobs.model.JobPriority;
+import technology.rocketjump.undermount.jobs.model.JobSpatialIndex;
 import technology.rocketjump.undermount.jobs.model.JobState;
 import technology.rocketjump.undermount.jobs.model.PotentialJob;
 import technology.rocketjump.undermount.messaging.MessageType;
 import technology.rocketjump.undermount.messaging.types.JobRequestMessage;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 /**
  * This class deals with dishing out jobs to entities requesting them
@@ -30,6 +31,8 @@ import java.util.stream.Collectors;
 @Singleton
 public class JobRequestHandler implements Updatable, Telegraph, Disposable {
 
+	private static final int MAX_CANDIDATE_JOBS = 64;
+
 	private final MessageDispatcher messageDispatcher;
 	private final JobStore jobStore;
 
@@ -67,43 +70,71 @@ public class JobRequestHandler implements Updatable, Telegraph, Disposable {
 		int outstandingRequests = gameContext.getJobRequestQueue().size();
 		int requestsToProcess = Math.max(2, outstandingRequests / 2); // either 2 or half of outstanding requests
 
+		// Requests handled in the same update are matched to jobs together so they don't all go for the same job
+		List<JobRequestMessage> batchedRequests = new ArrayList<>();
+		JobAssignmentBatch batch = new JobAssignmentBatch(potentialJobSorter);
 		for (int processed = 0; processed < requestsToProcess; processed++) {
 			if (!gameContext.getJobRequestQueue().isEmpty()) {
 				JobRequestMessage jobRequest = gameContext.getJobRequestQueue().pop();
 				if (!jobRequest.isCancelled()) {
-					handle(jobRequest);
+					batchedRequests.add(jobRequest);
+					addCandidates(jobRequest, batch, batch.addRequest());
 				}
 			}
 		}
+
+		if (!batchedRequests.isEmpty()) {
+			List<List<Job>> jobsByRequest = batch.resolve();
+			for (int cursor = 0; cursor < batchedRequests.size(); cursor++) {
+				// FIXME Should maybe prioritise jobs that need equipment so they are worked on when a settler has the item,
+				// rather than picking up the item and then going and working on something else
+				batchedRequests.get(cursor).getCallback().jobCallback(jobsByRequest.get(cursor), gameContext);
+			}
+		}
 	}
 
-	private boolean handle(JobRequestMessage jobRequestMessage) {
+	private void addCandidates(JobRequestMessage jobRequestMessage, JobAssignmentBatch batch, int requestIndex) {
 		ProfessionsComponent professionsComponent = jobRequestMessage.getRequestingEntity().getComponent(ProfessionsComponent.class);
 		Vector2 entityWorldPosition = jobRequestMessage.getRequestingEntity().getLocationComponent().getWorldPosition();
 		GridPoint2 requesterLocation = new GridPoint2((int)Math.floor(entityWorldPosition.x), (int)Math.floor(entityWorldPosition.y));
 
-		List<PotentialJob> potentialJobs = new ArrayList<>();
+		JobSpatialIndex assignableJobs = jobStore.getCollectionByState(JobState.ASSIGNABLE).getSpatialIndex();
+		int candidatesRemaining = MAX_CANDIDATE_JOBS;
+		List<PotentialJob> jobsAtPriority = new ArrayList<>();
+		// Jobs the requester would turn down are skipped rather than counted, so they can't crowd out one it would accept
+		JobAssignmentCallback callback = jobRequestMessage.getCallback();
+		jobRequestMessage.setFirstRejectedJob(null);
+		Predicate<Job> acceptable = job -> {
+			if (callback.canAccept(job, gameContext)) {
+				return true;
+			}
+			if (jobRequestMessage.getFirstRejectedJob() == null) {
+				jobRequestMessage.setFirstRejectedJob(job);
+			}
+			return false;
+		};
 
-		for (ProfessionsComponent.QuantifiedProfession professionToFindJobFor : professionsComponent.getActiveProfessions()) {
-			Collection<Job> byProfession = jobStore.getCollectionByState(JobState.ASSIGNABLE).getByProfession(professionToFindJobFor.getProfession()).values();
-			if (byProfession.isEmpty()) {
+		// Priorities are in order from highest to lowest, so the closest jobs of each priority are added in turn
+		// until there are enough candidates, giving the same order as sorting every job with PotentialJobSorter
+		for (JobPriority priority : JobPriority.values()) {
+			if (priority.equals(JobPriority.DISABLED)) {
 				continue;
 			}
+			if (candidatesRemaining <= 0) {
+				break;
+			}
 
-			for (Job job : byProfession) {
-				if (job.getAssignedToEntityId() == null && !job.getJobPriority().equals(JobPriority.DISABLED)) {
-					float distanceToJob = job.getJobLocation().dst(requesterLocation);
-					potentialJobs.add(new PotentialJob(job, distanceToJob));
-				}
+			jobsAtPriority.clear();
+			for (ProfessionsComponent.QuantifiedProfession professionToFindJobFor : professionsComponent.getActiveProfessions()) {
+				assignableJobs.findNearest(professionToFindJobFor.getProfession(), priority, requesterLocation, candidatesRemaining, acceptable, jobsAtPriority);
+			}
+			jobsAtPriority.sort(potentialJobSorter);
+			for (int cursor = 0; cursor < jobsAtPriority.size() && candidatesRemaining > 0; cursor++) {
+				PotentialJob potentialJob = jobsAtPriority.get(cursor);
+				batch.addCandidate(requestIndex, potentialJob, professionsComponent.getSkillLevel(potentialJob.job.getRequiredProfession()));
+				candidatesRemaining--;
 			}
 		}
-
-		potentialJobs.sort(potentialJobSorter);
-
-		// FIXME Should maybe prioritise jobs that need equipment so they are worked on when a settler has the item,
-		// rather than picking up the item and then going and working on something else
-		jobRequestMessage.getCallback().jobCallback(potentialJobs.stream().map(p -> p.job).collect(Collectors.toList()), gameContext);
-		return true;
 	}
 
 	@Override
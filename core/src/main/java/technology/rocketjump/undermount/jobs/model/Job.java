@@ -57,6 +57,8 @@ public class Job implements Persistable {
 	private CraftingRecipe craftingRecipe;
 	private CookingRecipe cookingRecipe;
 
+	JobSpatialIndex spatialIndex; // Set while this is in a JobCollection so it can be re-indexed when it changes
+
 	public Job() {
 
 	}
@@ -185,7 +187,14 @@ public class Job implements Persistable {
 	}
 
 	public void setJobLocation(GridPoint2 jobLocation) {
+		JobSpatialIndex index = this.spatialIndex;
+		if (index != null) {
+			index.remove(this);
+		}
 		this.jobLocation = jobLocation;
+		if (index != null) {
+			index.add(this);
+		}
 	}
 
 	public Profession getRequiredProfession() {
@@ -193,7 +202,14 @@ public class Job implements Persistable {
 	}
 
 	public void setRequiredProfession(Profession requiredProfession) {
+		JobSpatialIndex index = this.spatialIndex;
+		if (index != null) {
+			index.remove(this);
+		}
 		this.requiredProfession = requiredProfession;
+		if (index != null) {
+			index.add(this);
+		}
 	}
 
 	@Override
@@ -218,7 +234,14 @@ public class Job implements Persistable {
 	}
 
 	public void setJobPriority(JobPriority jobPriority) {
+		JobSpatialIndex index = this.spatialIndex;
+		if (index != null) {
+			index.remove(this);
+		}
 		this.jobPriority = jobPriority;
+		if (index != null) {
+			index.add(this);
+		}
 	}
 
 	public HaulingAllocation getHaulingAllocation() {
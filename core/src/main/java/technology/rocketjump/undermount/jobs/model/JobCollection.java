@@ -17,6 +17,7 @@ public class JobCollection {
 	private final JobState collectionJobState;
 	private Map<Profession, Map<Long, Job>> byProfession = new ConcurrentHashMap<>();
 	private Map<Long, Job> byId = new ConcurrentHashMap<>();
+	private final JobSpatialIndex spatialIndex = new JobSpatialIndex();
 
 	private int iterationCursor = 0;
 	private List<Job> iterableCollection = emptyList;
@@ -34,6 +35,10 @@ public class JobCollection {
 		return byProfession.get(profession);
 	}
 
+	public JobSpatialIndex getSpatialIndex() {
+		return spatialIndex;
+	}
+
 	private static final List<Job> emptyList = new ArrayList<>();
 
 	public List<Job> getAll() {
@@ -62,11 +67,13 @@ public class JobCollection {
 		job.setJobState(collectionJobState); // This isn't technically required, but included here as a guard against bad programming
 		byProfession.get(job.getRequiredProfession()).put(job.getJobId(), job);
 		byId.put(job.getJobId(), job);
+		spatialIndex.add(job);
 	}
 
 	public void remove(Job jobToRemove) {
 		byProfession.get(jobToRemove.getRequiredProfession()).remove(jobToRemove.getJobId());
 		byId.remove(jobToRemove.getJobId());
+		spatialIndex.remove(jobToRemove);
 	}
 
 	public int size() {
@@ -0,0 +1,167 @@
+package technology.rocketjump.undermount.jobs.model;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Buckets the jobs in a JobCollection by required profession, priority, and a coarse grid over their location,
+ * so the nearest jobs of a given profession and priority can be found without going through every job.
+ *
+ * Job calls back into this when its profession, priority or location is changed while it is indexed.
+ */
+public class JobSpatialIndex {
+
+	private static final int CELL_SIZE = 8;
+	private static final Comparator<PotentialJob> BY_DISTANCE = (a, b) -> Float.compare(a.distance, b.distance);
+
+	private final Map<Profession, EnumMap<JobPriority, JobGrid>> grids = new HashMap<>();
+
+	synchronized void add(Job job) {
+		job.spatialIndex = this;
+		if (job.getJobLocation() != null) {
+			grids.computeIfAbsent(job.getRequiredProfession(), p -> new EnumMap<>(JobPriority.class))
+					.computeIfAbsent(job.getJobPriority(), p -> new JobGrid())
+					.add(job);
+		}
+	}
+
+	synchronized void remove(Job job) {
+		if (job.spatialIndex == this) {
+			job.spatialIndex = null;
+		}
+		if (job.getJobLocation() != null) {
+			JobGrid grid = getGrid(job.getRequiredProfession(), job.getJobPriority());
+			if (grid != null) {
+				grid.remove(job);
+			}
+		}
+	}
+
+	/**
+	 * Adds up to maxResults of the unassigned jobs with this profession and priority which are nearest to origin,
+	 * nearest first
+	 */
+	public void findNearest(Profession profession, JobPriority priority, GridPoint2 origin, int maxResults, List<PotentialJob> results) {
+		findNearest(profession, priority, origin, maxResults, job -> true, results);
+	}
+
+	/**
+	 * As above but only counting jobs which pass the filter, so any number of nearer jobs which don't can be skipped
+	 */
+	public synchronized void findNearest(Profession profession, JobPriority priority, GridPoint2 origin, int maxResults,
+										 Predicate<Job> filter, List<PotentialJob> results) {
+		JobGrid grid = getGrid(profession, priority);
+		if (grid != null) {
+			grid.findNearest(origin, maxResults, filter, results);
+		}
+	}
+
+	private JobGrid getGrid(Profession profession, JobPriority priority) {
+		EnumMap<JobPriority, JobGrid> byPriority = grids.get(profession);
+		return byPriority == null ? null : byPriority.get(priority);
+	}
+
+	private static class JobGrid {
+
+		private final IntMap<Array<Job>> cells = new IntMap<>();
+		private int numJobs;
+		private int minCellX = Integer.MAX_VALUE;
+		private int minCellY = Integer.MAX_VALUE;
+		private int maxCellX = Integer.MIN_VALUE;
+		private int maxCellY = Integer.MIN_VALUE;
+
+		void add(Job job) {
+			int cellX = job.getJobLocation().x / CELL_SIZE;
+			int cellY = job.getJobLocation().y / CELL_SIZE;
+			int cellKey = toCellKey(cellX, cellY);
+			Array<Job> cell = cells.get(cellKey);
+			if (cell == null) {
+				cell = new Array<>(false, 4);
+				cells.put(cellKey, cell);
+			}
+			cell.add(job);
+			numJobs++;
+
+			// Bounds only ever grow, they just limit how far out a search goes
+			minCellX = Math.min(minCellX, cellX);
+			minCellY = Math.min(minCellY, cellY);
+			maxCellX = Math.max(maxCellX, cellX);
+			maxCellY = Math.max(maxCellY, cellY);
+		}
+
+		void remove(Job job) {
+			int cellKey = toCellKey(job.getJobLocation().x / CELL_SIZE, job.getJobLocation().y / CELL_SIZE);
+			Array<Job> cell = cells.get(cellKey);
+			if (cell != null && cell.removeValue(job, true)) {
+				numJobs--;
+				if (cell.isEmpty()) {
+					cells.remove(cellKey);
+				}
+			}
+		}
+
+		/**
+		 * Searches outwards ring by ring of cells, until the next ring is too far away to contain anything
+		 * nearer than the furthest of the maxResults nearest jobs found so far
+		 */
+		void findNearest(GridPoint2 origin, int maxResults, Predicate<Job> filter, List<PotentialJob> results) {
+			if (numJobs == 0 || maxResults <= 0) {
+				return;
+			}
+			int originCellX = origin.x / CELL_SIZE;
+			int originCellY = origin.y / CELL_SIZE;
+			int maxRing = Math.max(Math.max(originCellX - minCellX, maxCellX - originCellX),
+					Math.max(originCellY - minCellY, maxCellY - originCellY));
+
+			List<PotentialJob> found = new ArrayList<>();
+			for (int ring = 0; ring <= maxRing; ring++) {
+				if (found.size() >= maxResults) {
+					// Every tile in this ring or further out is more than (ring - 1) cells away
+					found.sort(BY_DISTANCE);
+					if (found.get(maxResults - 1).distance <= (ring - 1) * CELL_SIZE) {
+						break;
+					}
+				}
+
+				for (int cellX = originCellX - ring; cellX <= originCellX + ring; cellX++) {
+					if (cellX < minCellX || cellX > maxCellX) {
+						continue;
+					}
+					boolean edgeColumn = cellX == originCellX - ring || cellX == originCellX + ring;
+					int cellYStep = edgeColumn ? 1 : ring * 2;
+					for (int cellY = originCellY - ring; cellY <= originCellY + ring; cellY += cellYStep) {
+						if (cellY >= minCellY && cellY <= maxCellY) {
+							addJobsInCell(cells.get(toCellKey(cellX, cellY)), origin, filter, found);
+						}
+					}
+				}
+			}
+
+			found.sort(BY_DISTANCE);
+			for (int cursor = 0; cursor < found.size() && cursor < maxResults; cursor++) {
+				results.add(found.get(cursor));
+			}
+		}
+
+		private void addJobsInCell(Array<Job> cell, GridPoint2 origin, Predicate<Job> filter, List<PotentialJob> found) {
+			if (cell == null) {
+				return;
+			}
+			for (Job job : cell) {
+				if (job.getAssignedToEntityId() == null && filter.test(job)) {
+					found.add(new PotentialJob(job, job.getJobLocation().dst(origin)));
+				}
+			}
+		}
+
+		private static int toCellKey(int cellX, int cellY) {
+			return (cellY << 16) | cellX;
+		}
+
+	}
+
+}
@@ -0,0 +1,147 @@
+package technology.rocketjump.undermount.mapping;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.IntArray;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.mapping.tile.CompassDirection;
+import technology.rocketjump.undermount.mapping.tile.MapTile;
+
+import static technology.rocketjump.undermount.mapping.tile.TileExploration.*;
+
+/**
+ * Reveals the area connected to a tile, a limited number of tiles at a time so revealing a large cave can be spread
+ * over several frames.
+ *
+ * Floor tiles spread the fill to all 8 neighbours which are not yet explored (only those in the same region unless
+ * includeOtherRegions, so diagonally-touching regions are not revealed), walls are revealed but do not spread it any
+ * further other than marking neighbouring walls as partially explored.
+ *
+ * Tiles which have been added to the frontier are marked in a bitmap for the size of the map, which is reused by every
+ * fill. Revealed tiles with a designation are collected for the caller to deal with in one go after each step.
+ */
+class ExplorationFloodFill {
+
+	private static final CompassDirection[] DIRECTIONS = CompassDirection.values();
+
+	private final TiledMap areaMap;
+	private final int width;
+	private final long[] queued;
+	// Tile indices (y * width + x) in the order they were queued, only read from frontierHead onwards
+	private final IntArray frontier = new IntArray();
+	private int frontierHead;
+	private final IntArray revealedWithDesignation = new IntArray();
+
+	private final GridPoint2 origin = new GridPoint2();
+	private int originRegionId;
+	private boolean includeOtherRegions;
+
+	ExplorationFloodFill(TiledMap areaMap) {
+		this.areaMap = areaMap;
+		this.width = areaMap.getWidth();
+		this.queued = new long[(width * areaMap.getHeight() + 63) / 64];
+	}
+
+	public void start(GridPoint2 originPosition, boolean includeOtherRegions) {
+		reset();
+		MapTile initialTile = areaMap.getTile(originPosition);
+		if (initialTile == null) {
+			return;
+		}
+		this.origin.set(originPosition);
+		this.originRegionId = initialTile.getRegionId();
+		this.includeOtherRegions = includeOtherRegions;
+		enqueue(originPosition.x, originPosition.y);
+	}
+
+	public boolean isFinished() {
+		return frontierHead >= frontier.size;
+	}
+
+	/**
+	 * Reveals up to maxTiles tiles from the frontier
+	 *
+	 * @return the number of tiles revealed
+	 */
+	public int step(int maxTiles) {
+		int processed = 0;
+		while (!isFinished() && processed < maxTiles) {
+			int tileIndex = frontier.get(frontierHead++);
+			MapTile currentTile = areaMap.getTile(tileIndex % width, tileIndex / width);
+			reveal(currentTile);
+			processed++;
+
+			for (CompassDirection direction : DIRECTIONS) {
+				int neighbourX = currentTile.getTileX() + direction.getXOffset();
+				int neighbourY = currentTile.getTileY() + direction.getYOffset();
+				MapTile neighbour = areaMap.getTile(neighbourX, neighbourY);
+				if (neighbour == null) {
+					continue;
+				}
+				if (currentTile.hasWall()) {
+					if (neighbour.hasWall() && neighbour.getExploration().equals(UNEXPLORED)) {
+						neighbour.setExploration(PARTIAL);
+					}
+				} else if (!isQueued(neighbourX, neighbourY) && !neighbour.getExploration().equals(EXPLORED)) {
+					// If this is a floor tile in a different region, do not add it to frontier so diagonally-different regions are not explored
+					if (neighbour.hasWall() || includeOtherRegions || neighbour.getRegionId() == originRegionId) {
+						enqueue(neighbourX, neighbourY);
+					}
+				}
+			}
+		}
+
+		if (isFinished()) {
+			reset();
+		}
+		return processed;
+	}
+
+	public GridPoint2 getOrigin() {
+		return origin;
+	}
+
+	/**
+	 * @return tile indices (y * width + x) of revealed tiles with a designation since this was last cleared
+	 */
+	public IntArray getRevealedWithDesignation() {
+		return revealedWithDesignation;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	private void reveal(MapTile tile) {
+		tile.setExploration(EXPLORED);
+		int x = tile.getTileX();
+		int y = tile.getTileY();
+		areaMap.getVertex(x, y).setExplorationVisibility(1f);
+		areaMap.getVertex(x, y + 1).setExplorationVisibility(1f);
+		areaMap.getVertex(x + 1, y + 1).setExplorationVisibility(1f);
+		areaMap.getVertex(x + 1, y).setExplorationVisibility(1f);
+		if (tile.getDesignation() != null) {
+			revealedWithDesignation.add(y * width + x);
+		}
+	}
+
+	private void enqueue(int tileX, int tileY) {
+		int tileIndex = tileY * width + tileX;
+		queued[tileIndex >>> 6] |= 1L << tileIndex;
+		frontier.add(tileIndex);
+	}
+
+	private boolean isQueued(int tileX, int tileY) {
+		int tileIndex = tileY * width + tileX;
+		return (queued[tileIndex >>> 6] & (1L << tileIndex)) != 0;
+	}
+
+	private void reset() {
+		// Only the bits of tiles this fill queued need clearing, rather than the whole map
+		for (int cursor = 0; cursor < frontier.size; cursor++) {
+			queued[frontier.get(cursor) >>> 6] = 0L;
+		}
+		frontier.clear();
+		frontierHead = 0;
+	}
+
+}
@@ -4,31 +4,31 @@ import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.IntArray;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import technology.rocketjump.undermount.gamecontext.GameContext;
-import technology.rocketjump.undermount.gamecontext.GameContextAware;
+import technology.rocketjump.undermount.gamecontext.Updatable;
 import technology.rocketjump.undermount.jobs.JobStore;
 import technology.rocketjump.undermount.jobs.model.Job;
 import technology.rocketjump.undermount.jobs.model.JobState;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
-import technology.rocketjump.undermount.mapping.tile.MapVertex;
 import technology.rocketjump.undermount.messaging.MessageType;
 import technology.rocketjump.undermount.messaging.types.JobStateMessage;
 import technology.rocketjump.undermount.messaging.types.RemoveDesignationMessage;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
-import java.util.Set;
-
-import static technology.rocketjump.undermount.mapping.tile.TileExploration.*;
 
 @Singleton
-public class ExplorationMessageHandler implements Telegraph, GameContextAware {
+public class ExplorationMessageHandler implements Telegraph, Updatable {
+
+	private static final int MAX_TILES_PER_FRAME = 4096;
 
 	private final MessageDispatcher messageDispatcher;
 	private final JobStore jobStore;
+	private final Deque<PendingFill> pendingFills = new ArrayDeque<>();
+	private ExplorationFloodFill floodFill;
 	private GameContext gameContext;
 
 	@Inject
@@ -45,12 +45,14 @@ public class ExplorationMessageHandler implements Telegraph, GameContextAware {
 		switch (msg.message) {
 			case MessageType.WALL_REMOVED: {
 				GridPoint2 tileLocation = (GridPoint2) msg.extraInfo;
-				floodFillExploration(tileLocation, false);
+				// Anything left over from breaking into a large area carries on being revealed over the next frames
+				floodFillExploration(tileLocation, false, MAX_TILES_PER_FRAME);
 				return true;
 			}
 			case MessageType.FLOOD_FILL_EXPLORATION: {
 				GridPoint2 tileLocation = (GridPoint2) msg.extraInfo;
-				floodFillExploration(tileLocation, true);
+				floodFillExploration(tileLocation, true, MAX_TILES_PER_FRAME);
+				completePendingExploration();
 				return true;
 			}
 			default:
@@ -58,59 +60,76 @@ public class ExplorationMessageHandler implements Telegraph, GameContextAware {
 		}
 	}
 
-	private void floodFillExploration(GridPoint2 tileLocation, boolean includeOtherRegions) {
-		MapTile initialTile = gameContext.getAreaMap().getTile(tileLocation);
-		Deque<MapTile> frontier = new ArrayDeque<>();
-		Set<MapTile> explored = new HashSet<>();
-		frontier.add(initialTile);
-
-		while (!frontier.isEmpty()) {
-			MapTile currentTile = frontier.pop();
-			explored.add(currentTile);
-			setToExplored(currentTile, tileLocation);
-
-			for (MapTile neighbour : gameContext.getAreaMap().getNeighbours(currentTile.getTileX(), currentTile.getTileY()).values()) {
-				if (!explored.contains(neighbour)) {
-					if (currentTile.hasWall()) {
-						if (neighbour.hasWall() && neighbour.getExploration().equals(UNEXPLORED)) {
-							neighbour.setExploration(PARTIAL);
-						}
-					} else {
-						// If this is a floor tile in a different region, do not add it to frontier so diagonally-different regions are not explored
-						if (!frontier.contains(neighbour) && !neighbour.getExploration().equals(EXPLORED)) {
-							if (neighbour.hasWall() || includeOtherRegions || neighbour.getRegionId() == initialTile.getRegionId()) {
-								frontier.add(neighbour);
-							}
-						}
-					}
-				}
-			}
+	/**
+	 * Finishes revealing everything which has been requested, for when the whole result is needed now, e.g. saving
+	 */
+	public void completePendingExploration() {
+		if (floodFill != null) {
+			continueFloodFills(Integer.MAX_VALUE);
 		}
+	}
 
+	private void floodFillExploration(GridPoint2 tileLocation, boolean includeOtherRegions, int maxTiles) {
+		if (floodFill == null) {
+			floodFill = new ExplorationFloodFill(gameContext.getAreaMap());
+		}
+		pendingFills.add(new PendingFill(new GridPoint2(tileLocation), includeOtherRegions));
+		continueFloodFills(maxTiles);
 	}
 
-	private void setToExplored(MapTile currentTile, GridPoint2 initialTilePosition) {
-		currentTile.setExploration(EXPLORED);
-		for (MapVertex mapVertex : gameContext.getAreaMap().getVertexNeighboursOfCell(currentTile).values()) {
-			mapVertex.setExplorationVisibility(1f);
+	private void continueFloodFills(int maxTiles) {
+		int remainingTiles = maxTiles;
+		while (remainingTiles > 0) {
+			if (floodFill.isFinished()) {
+				if (pendingFills.isEmpty()) {
+					break;
+				}
+				PendingFill next = pendingFills.poll();
+				floodFill.start(next.tileLocation, next.includeOtherRegions);
+			}
+			remainingTiles -= floodFill.step(remainingTiles);
+			processRevealedDesignations();
 		}
-		if (currentTile.getDesignation() != null) {
-			if (currentTile.hasWall()) {
-				for (Job job : jobStore.getJobsAtLocation(currentTile.getTilePosition())) {
-					if (job.getJobState().equals(JobState.INACCESSIBLE) && !isAdjacent(currentTile.getTilePosition(), initialTilePosition)) {
+	}
+
+	private void processRevealedDesignations() {
+		IntArray revealed = floodFill.getRevealedWithDesignation();
+		GridPoint2 initialTilePosition = floodFill.getOrigin();
+		for (int cursor = 0; cursor < revealed.size; cursor++) {
+			int tileIndex = revealed.get(cursor);
+			MapTile revealedTile = gameContext.getAreaMap().getTile(tileIndex % floodFill.getWidth(), tileIndex / floodFill.getWidth());
+			if (revealedTile.getDesignation() == null) {
+				continue;
+			}
+			if (revealedTile.hasWall()) {
+				for (Job job : jobStore.getJobsAtLocation(revealedTile.getTilePosition())) {
+					if (job.getJobState().equals(JobState.INACCESSIBLE) && !isAdjacent(revealedTile.getTilePosition(), initialTilePosition)) {
 						messageDispatcher.dispatchMessage(MessageType.JOB_STATE_CHANGE, new JobStateMessage(job, JobState.POTENTIALLY_ACCESSIBLE));
 					}
 				}
 			} else {
-				messageDispatcher.dispatchMessage(MessageType.REMOVE_DESIGNATION, new RemoveDesignationMessage(currentTile));
+				messageDispatcher.dispatchMessage(MessageType.REMOVE_DESIGNATION, new RemoveDesignationMessage(revealedTile));
 			}
 		}
+		revealed.clear();
 	}
 
 	private boolean isAdjacent(GridPoint2 a, GridPoint2 b) {
 		return Math.abs(a.x - b.x) <= 1 && Math.abs(a.y - b.y) <= 1;
 	}
 
+	@Override
+	public void update(float deltaTime) {
+		if (floodFill != null) {
+			continueFloodFills(MAX_TILES_PER_FRAME);
+		}
+	}
+
+	@Override
+	public boolean runWhilePaused() {
+		return false;
+	}
+
 	@Override
 	public void onContextChange(GameContext gameContext) {
 		this.gameContext = gameContext;
@@ -118,6 +137,18 @@ public class ExplorationMessageHandler implements Telegraph, GameContextAware {
 
 	@Override
 	public void clearContextRelatedState() {
+		pendingFills.clear();
+		floodFill = null;
+	}
+
+	private static class PendingFill {
 
+		private final GridPoint2 tileLocation;
+		private final boolean includeOtherRegions;
+
+		private PendingFill(GridPoint2 tileLocation, boolean includeOtherRegions) {
+			this.tileLocation = tileLocation;
+			this.includeOtherRegions = includeOtherRegions;
+		}
 	}
 }
@@ -4,12 +4,14 @@ import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.Updatable;
-import technology.rocketjump.undermount.mapping.factories.WaterFlowCalculator;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.CompassDirection;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.mapping.tile.MapVertex;
@@ -19,21 +21,53 @@ import technology.rocketjump.undermount.materials.GameMaterialDictionary;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
 import technology.rocketjump.undermount.messaging.MessageType;
 import technology.rocketjump.undermount.rendering.ScreenWriter;
+import technology.rocketjump.undermount.settlement.SettlementState;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static technology.rocketjump.undermount.mapping.factories.WaterFlowCalculator.CHANCE_SINGLE_WATER_EVAPORATES;
 import static technology.rocketjump.undermount.mapping.tile.underground.TileLiquidFlow.MAX_LIQUID_FLOW_PER_TILE;
 
+/**
+ * Moves liquid between the tiles of channels and pipes.
+ *
+ * Each pass takes every tile activated during the previous one (SettlementState.activeLiquidFlowTiles) and groups
+ * them by chunk of the map. Every chunk with tiles left in the pass updates up to MAX_UPDATES_PER_SECOND of them per
+ * second, in order of tile index. Each tile update reseeds the chunk's Random from the map seed, the number of passes
+ * so far and the tile index, which along with the tiles left in the pass (SettlementState.liquidFlowPassTiles) is all
+ * that needs saving for a loaded game to carry on flowing exactly as it would have done. Liquid only moves
+ * between orthogonal neighbours, so chunks are updated in 4 phases of a checkerboard, the chunks of a phase being
+ * far enough apart to run in parallel. Tiles activated and vertices touched are collected by each chunk and applied
+ * afterwards in chunk order, so the result does not depend on how the work was split between threads.
+ *
+ * Liquid amounts are kept in a primitive array indexed by (mapWidth * tileY) + tileX alongside each TileLiquidFlow,
+ * which is written through to whenever liquid moves. Tiles changed from outside (via the messages below) are
+ * re-read at the start of the next update.
+ */
 @Singleton
 public class LiquidFlowProcessor implements Updatable, Telegraph {
 
 	private static final float MAX_UPDATES_PER_SECOND = 200f;
+	private static final int CHUNK_SIZE = 16;
+	private static final int NUM_PHASES = 4;
+	private static final CompassDirection[] CARDINAL_DIRECTIONS = CompassDirection.CARDINAL_DIRECTIONS.toArray(new CompassDirection[0]);
 	private final GameMaterial waterMaterial;
 	private GameContext gameContext;
-	private Deque<MapTile> currentLiquidFlowTiles = new ArrayDeque<>();
-	private List<WaterFlowCalculator.FlowTransition> transitionsToApply = new ArrayList<>();
-	private final Set<MapVertex> verticesToUpdate = new HashSet<>();
+
+	private TiledMap areaMap;
+	private int chunksWide;
+	private byte[] liquidAmounts;
+	private LiquidFlowChunk[] chunks;
+	private long passSeed;
+	// Chunks with tiles left to update in the current pass, in ascending chunk index
+	private final IntArray dirtyChunks = new IntArray();
+	private final List<LiquidFlowChunk> phaseChunks = new ArrayList<>();
+	private final IntArray tilesToResync = new IntArray();
+	private final Set<MapVertex> verticesToUpdate = new LinkedHashSet<>();
 
 	@Inject
 	public LiquidFlowProcessor(GameMaterialDictionary gameMaterialDictionary, MessageDispatcher messageDispatcher, ScreenWriter screenWriter) {
@@ -50,132 +84,219 @@ public class LiquidFlowProcessor implements Updatable, Telegraph {
 
 	@Override
 	public void update(float deltaTime) {
-		// gameContext.settlementState.activeLiquidFlowTiles are actually the tiles that should be active *next* frame
+		resyncChangedTiles();
+
+		if (dirtyChunks.isEmpty()) {
+			// gameContext.settlementState.activeLiquidFlowTiles are actually the tiles that should be active *next* pass
+			startNextPass();
+		} else {
+			int tilesPerChunk = Math.max(1, Math.round(MAX_UPDATES_PER_SECOND * deltaTime));
+			for (int phase = 0; phase < NUM_PHASES; phase++) {
+				phaseChunks.clear();
+				for (int cursor = 0; cursor < dirtyChunks.size; cursor++) {
+					LiquidFlowChunk chunk = chunks[dirtyChunks.get(cursor)];
+					if (chunk.phase == phase) {
+						chunk.tilesToUpdate = tilesPerChunk;
+						phaseChunks.add(chunk);
+					}
+				}
+				updateChunks(phaseChunks);
+			}
 
-		transitionsToApply.clear();
+			for (int cursor = 0; cursor < dirtyChunks.size; cursor++) {
+				LiquidFlowChunk chunk = chunks[dirtyChunks.get(cursor)];
+				chunk.applyActivationsAndVertices();
+				if (chunk.isPassComplete()) {
+					dirtyChunks.removeIndex(cursor);
+					cursor--;
+				}
+			}
+		}
+
+		// Vertices are shared by up to 4 tiles so are only updated once per frame, after all transitions
+		for (MapVertex mapVertex : verticesToUpdate) {
+			updateVertexFlow(mapVertex);
+		}
 		verticesToUpdate.clear();
-		int numPerFrame = Math.round(MAX_UPDATES_PER_SECOND * deltaTime);
-		int numTilesToUpdateThisFrame = Math.min(numPerFrame, Math.max(1, currentLiquidFlowTiles.size()));
+	}
+
+	private void startNextPass() {
+		SettlementState settlementState = gameContext.getSettlementState();
+		Set<MapTile> nextActiveTiles = settlementState.activeLiquidFlowTiles;
+		if (nextActiveTiles.isEmpty()) {
+			return;
+		}
+		settlementState.setLiquidFlowPassCount(settlementState.getLiquidFlowPassCount() + 1);
+		settlementState.liquidFlowPassTiles.addAll(nextActiveTiles);
+		nextActiveTiles.clear();
+		loadPass(settlementState);
+	}
+
+	private void loadPass(SettlementState settlementState) {
+		passSeed = areaMap.getSeed() + (settlementState.getLiquidFlowPassCount() << 32);
+		for (MapTile tile : settlementState.liquidFlowPassTiles) {
+			int chunkIndex = getChunkIndex(tile.getTileX(), tile.getTileY());
+			LiquidFlowChunk chunk = chunks[chunkIndex];
+			if (chunk == null) {
+				chunk = new LiquidFlowChunk(chunkIndex);
+				chunks[chunkIndex] = chunk;
+			}
+			if (chunk.passTiles.isEmpty()) {
+				dirtyChunks.add(chunkIndex);
+			}
+			chunk.passTiles.add(toTileIndex(tile.getTileX(), tile.getTileY()));
+		}
+
+		dirtyChunks.sort();
+		for (int cursor = 0; cursor < dirtyChunks.size; cursor++) {
+			chunks[dirtyChunks.get(cursor)].passTiles.sort();
+		}
+	}
 
-		if (currentLiquidFlowTiles.isEmpty()) {
-			if (!gameContext.getSettlementState().activeLiquidFlowTiles.isEmpty()) {
-				currentLiquidFlowTiles.addAll(gameContext.getSettlementState().activeLiquidFlowTiles);
-				gameContext.getSettlementState().activeLiquidFlowTiles.clear();
+	private void updateChunks(List<LiquidFlowChunk> chunksToUpdate) {
+		if (chunksToUpdate.size() < 2) {
+			for (LiquidFlowChunk chunk : chunksToUpdate) {
+				chunk.call();
 			}
 		} else {
-			while (numTilesToUpdateThisFrame > 0) {
-				if (currentLiquidFlowTiles.isEmpty()) {
-					break;
-				} else {
-					MapTile tileToUpdate = currentLiquidFlowTiles.pop();
-					updateTile(tileToUpdate);
+			for (Future<Void> result : ForkJoinPool.commonPool().invokeAll(chunksToUpdate)) {
+				try {
+					result.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException("Interrupted while updating liquid flow", e);
+				} catch (ExecutionException e) {
+					// Rethrown here on the update thread, as it would have been if the chunk was updated sequentially
+					throw new RuntimeException("Error while updating liquid flow", e.getCause());
 				}
-				numTilesToUpdateThisFrame--;
 			}
 		}
-
-		transitionsToApply.forEach(this::transitionFlow);
 	}
 
-	private void updateTile(MapTile tileToUpdate) {
-		if (tileToUpdate.getUnderTile().getLiquidFlow() == null) {
+	private void updateTile(LiquidFlowChunk chunk, int tileIndex) {
+		MapTile tileToUpdate = areaMap.getTile(toTileX(tileIndex), toTileY(tileIndex));
+		if (tileToUpdate.getUnderTile() == null || tileToUpdate.getUnderTile().getLiquidFlow() == null) {
+			liquidAmounts[tileIndex] = 0;
 			return;
 		}
-		int cursorTileWaterAmount = tileToUpdate.getUnderTile().getLiquidFlow().getLiquidAmount();
+		int cursorTileWaterAmount = liquidAmounts[tileIndex];
 		if (cursorTileWaterAmount == 0) {
 			return;
 		}
-		GridPoint2 cursorPosition = tileToUpdate.getTilePosition();
-
-		List<CompassDirection> randomisedDirections = new ArrayList<>(CompassDirection.CARDINAL_DIRECTIONS);
-		Collections.shuffle(randomisedDirections, gameContext.getRandom());
 
+		chunk.random.setSeed(passSeed + tileIndex);
+		CompassDirection[] randomisedDirections = chunk.shuffleDirections();
 		for (CompassDirection directionToTry : randomisedDirections) {
-			MapTile tileInDirection = gameContext.getAreaMap().getTile(cursorPosition.x + directionToTry.getXOffset(), cursorPosition.y + directionToTry.getYOffset());
+			MapTile tileInDirection = areaMap.getTile(tileToUpdate.getTileX() + directionToTry.getXOffset(), tileToUpdate.getTileY() + directionToTry.getYOffset());
 
 			if (tileInDirection != null && tileInDirection.getUnderTile() != null && tileInDirection.getUnderTile().liquidCanFlowFrom(tileToUpdate)) {
 				// Liquid flow tile to move to
-				TileLiquidFlow liquidFlowInDirection = tileInDirection.getUnderTile().getOrCreateLiquidFlow();
-				int liquidAmountInDirection = liquidFlowInDirection.getLiquidAmount();
-
-//				if (liquidAmountInDirection != MAX_LIQUID_FLOW_PER_TILE) {
-//					surroundedByMaxLiquid = false;
-//				}
+				int indexInDirection = toTileIndex(tileInDirection.getTileX(), tileInDirection.getTileY());
+				int liquidAmountInDirection = liquidAmounts[indexInDirection];
 
 				// Only one water transition per tile
 				if (liquidAmountInDirection < cursorTileWaterAmount) {
-					transitionsToApply.add(new WaterFlowCalculator.FlowTransition(tileToUpdate, tileInDirection, directionToTry));
+					transitionFlow(chunk, tileToUpdate, tileIndex, tileInDirection, indexInDirection, directionToTry);
 					if (liquidAmountInDirection < cursorTileWaterAmount / 2) {
 						// Double move for more than twice different
-						transitionsToApply.add(new WaterFlowCalculator.FlowTransition(tileToUpdate, tileInDirection, directionToTry));
+						transitionFlow(chunk, tileToUpdate, tileIndex, tileInDirection, indexInDirection, directionToTry);
 					}
 					break;
 				}
 			}
 		}
-
-		transitionsToApply.forEach(this::transitionFlow);
-		verticesToUpdate.forEach(this::updateVertexFlow);
 	}
 
-	private void transitionFlow(WaterFlowCalculator.FlowTransition transition) {
-		if (transition.source.getUnderTile().getLiquidFlow().getLiquidAmount() <= transition.target.getUnderTile().getOrCreateLiquidFlow().getLiquidAmount()) {
+	private void transitionFlow(LiquidFlowChunk chunk, MapTile source, int sourceIndex, MapTile target, int targetIndex, CompassDirection flowDirection) {
+		if (liquidAmounts[sourceIndex] <= liquidAmounts[targetIndex]) {
 			// This transition is no longer valid
 			return;
 		}
+		TileLiquidFlow sourceFlow = source.getUnderTile().getLiquidFlow();
+		TileLiquidFlow targetFlow = target.getUnderTile().getOrCreateLiquidFlow();
 
-
-		transition.source.getUnderTile().getLiquidFlow().decrementWater(transition.flowDirection, gameContext.getRandom());
-		Collections.addAll(verticesToUpdate, gameContext.getAreaMap().getVertices(transition.source.getTileX(), transition.source.getTileY()));
+		sourceFlow.decrementWater(flowDirection, chunk.random);
+		liquidAmounts[sourceIndex] = (byte) sourceFlow.getLiquidAmount();
+		chunk.touchedTiles.add(sourceIndex);
 		// activate tiles around source
-		activateTile(transition.source);
-		for (CompassDirection neighbourDirection : CompassDirection.CARDINAL_DIRECTIONS) {
-			MapTile neighbourTile = gameContext.getAreaMap().getTile(transition.source.getTileX() + neighbourDirection.getXOffset(), transition.source.getTileY() + neighbourDirection.getYOffset());
+		chunk.activateTileAndNeighbours(source);
+
+		boolean liquidEvaporated = sourceFlow.getLiquidAmount() == 0 && chunk.random.nextFloat() < CHANCE_SINGLE_WATER_EVAPORATES;
+		if (!liquidEvaporated) {
+			targetFlow.incrementWater(flowDirection);
+			liquidAmounts[targetIndex] = (byte) targetFlow.getLiquidAmount();
+			chunk.touchedTiles.add(targetIndex);
+			targetFlow.setLiquidMaterial(sourceFlow.getLiquidMaterial());
+			// activate tiles around target
+			chunk.activateTileAndNeighbours(target);
+		}
+
+		if (sourceFlow.getLiquidAmount() == 0) {
+			sourceFlow.setLiquidMaterial(null);
+		}
+	}
+
+	private void activateTileAndNeighbours(MapTile tile) {
+		if (tile == null) {
+			return;
+		}
+		activateTile(tile);
+		for (CompassDirection neighbourDirection : CARDINAL_DIRECTIONS) {
+			MapTile neighbourTile = areaMap.getTile(tile.getTileX() + neighbourDirection.getXOffset(), tile.getTileY() + neighbourDirection.getYOffset());
 			if (neighbourTile != null && neighbourTile.getUnderTile() != null && neighbourTile.getUnderTile().liquidCanFlow()) {
 				activateTile(neighbourTile);
 			}
 		}
+	}
 
-		boolean liquidEvaporated = transition.source.getUnderTile().getLiquidFlow().getLiquidAmount() == 0 && gameContext.getRandom().nextFloat() < CHANCE_SINGLE_WATER_EVAPORATES;
-		if (!liquidEvaporated) {
-			transition.target.getUnderTile().getOrCreateLiquidFlow().incrementWater(transition.flowDirection);
-			Collections.addAll(verticesToUpdate, gameContext.getAreaMap().getVertices(transition.target.getTileX(), transition.target.getTileY()));
-			transition.target.getUnderTile().getLiquidFlow().setLiquidMaterial(transition.source.getUnderTile().getLiquidFlow().getLiquidMaterial());
-			// activate tiles around target
-			activateTile(transition.target);
-			for (CompassDirection neighbourDirection : CompassDirection.CARDINAL_DIRECTIONS) {
-				MapTile neighbourTile = gameContext.getAreaMap().getTile(transition.target.getTileX() + neighbourDirection.getXOffset(), transition.target.getTileY() + neighbourDirection.getYOffset());
-				if (neighbourTile != null && neighbourTile.getUnderTile() != null && neighbourTile.getUnderTile().liquidCanFlow()) {
-					activateTile(neighbourTile);
-				}
-			}
+	private void resyncChangedTiles() {
+		for (int cursor = 0; cursor < tilesToResync.size; cursor++) {
+			int tileIndex = tilesToResync.get(cursor);
+			liquidAmounts[tileIndex] = (byte) getLiquidAmount(areaMap.getTile(toTileX(tileIndex), toTileY(tileIndex)));
 		}
+		tilesToResync.clear();
+	}
 
-		if (transition.source.getUnderTile().getLiquidFlow().getLiquidAmount() == 0) {
-			transition.source.getUnderTile().getLiquidFlow().setLiquidMaterial(null);
+	private static int getLiquidAmount(MapTile tile) {
+		if (tile.getUnderTile() == null || tile.getUnderTile().getLiquidFlow() == null) {
+			return 0;
+		} else {
+			return tile.getUnderTile().getLiquidFlow().getLiquidAmount();
 		}
 	}
 
 	private void updateVertexFlow(MapVertex mapVertex) {
-		Vector2 flowDirection = new Vector2();
-		List<Float> nearbyFlowDepths = new ArrayList<>();
-		for (MapTile tileNeighbour : gameContext.getAreaMap().getTileNeighboursOfVertex(mapVertex).values()) {
-			if (tileNeighbour != null && tileNeighbour.getUnderTile() != null) {
-				TileLiquidFlow liquidFlow = tileNeighbour.getUnderTile().getLiquidFlow();
-				if (liquidFlow != null) {
-					flowDirection.add(liquidFlow.getAveragedFlowDirection());
-					nearbyFlowDepths.add((float) liquidFlow.getLiquidAmount());
+		Vector2 flowDirection = mapVertex.getWaterFlowDirection();
+		if (flowDirection == Vector2.Zero) {
+			// Vertices start off sharing Vector2.Zero which must not be modified
+			flowDirection = new Vector2();
+			mapVertex.setWaterFlowDirection(flowDirection);
+		}
+		flowDirection.setZero();
+		float totalFlowDepth = 0;
+		int numNearbyFlows = 0;
+
+		// These are the 4 tiles which share this vertex, as in TiledMap.getTileNeighboursOfVertex()
+		for (int offsetX = -1; offsetX <= 0; offsetX++) {
+			for (int offsetY = -1; offsetY <= 0; offsetY++) {
+				MapTile tileNeighbour = areaMap.getTile(mapVertex.getVertexX() + offsetX, mapVertex.getVertexY() + offsetY);
+				if (tileNeighbour != null && tileNeighbour.getUnderTile() != null) {
+					TileLiquidFlow liquidFlow = tileNeighbour.getUnderTile().getLiquidFlow();
+					if (liquidFlow != null) {
+						flowDirection.add(liquidFlow.getAveragedFlowDirection());
+						totalFlowDepth += liquidFlow.getLiquidAmount();
+						numNearbyFlows++;
+					}
 				}
 			}
 		}
 		flowDirection.scl(0.125f); // divide by 4 so flow is slower at edges, divide by 2 again
-		mapVertex.setWaterFlowDirection(flowDirection);
 
-		if (nearbyFlowDepths.isEmpty()) {
+		if (numNearbyFlows == 0) {
 			mapVertex.setAverageWaterDepth(0);
 		} else {
 			// else set to average of values
-			mapVertex.setAverageWaterDepth(nearbyFlowDepths.stream().reduce(0f, Float::sum) / (float)nearbyFlowDepths.size());
+			mapVertex.setAverageWaterDepth(totalFlowDepth / numNearbyFlows);
 		}
 	}
 
@@ -191,6 +312,7 @@ public class LiquidFlowProcessor implements Updatable, Telegraph {
 						liquidFlow.setLiquidAmount(liquidFlow.getLiquidAmount() + 1);
 						liquidFlow.setLiquidMaterial(waterMaterial);
 					}
+					liquidAmounts[toTileIndex(targetTile.getTileX(), targetTile.getTileY())] = (byte) liquidFlow.getLiquidAmount();
 					activateTile(targetTile);
 				}
 				return true;
@@ -201,12 +323,10 @@ public class LiquidFlowProcessor implements Updatable, Telegraph {
 			case MessageType.REMOVE_PIPE:
 			case MessageType.LIQUID_REMOVED_FROM_FLOW:
 				GridPoint2 targetTile = (GridPoint2) msg.extraInfo;
-				activateTile(gameContext.getAreaMap().getTile(targetTile));
-				for (CompassDirection neighbourDirection : CompassDirection.CARDINAL_DIRECTIONS) {
-					MapTile neighbourTile = gameContext.getAreaMap().getTile(targetTile.x + neighbourDirection.getXOffset(), targetTile.y + neighbourDirection.getYOffset());
-					if (neighbourTile != null && neighbourTile.getUnderTile() != null && neighbourTile.getUnderTile().liquidCanFlow()) {
-						activateTile(neighbourTile);
-					}
+				if (areaMap.getTile(targetTile) != null) {
+					// Other handlers of these messages may still change the flow, so it is re-read in the next update
+					tilesToResync.add(toTileIndex(targetTile.x, targetTile.y));
+					activateTileAndNeighbours(areaMap.getTile(targetTile));
 				}
 				return true;
 			default:
@@ -217,21 +337,147 @@ public class LiquidFlowProcessor implements Updatable, Telegraph {
 	@Override
 	public void onContextChange(GameContext gameContext) {
 		this.gameContext = gameContext;
+		this.areaMap = gameContext.getAreaMap();
+		if (areaMap == null) {
+			return;
+		}
+		this.chunksWide = (areaMap.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		int chunksHigh = (areaMap.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunks = new LiquidFlowChunk[chunksWide * chunksHigh];
+		this.liquidAmounts = new byte[areaMap.getWidth() * areaMap.getHeight()];
+		for (int y = 0; y < areaMap.getHeight(); y++) {
+			for (int x = 0; x < areaMap.getWidth(); x++) {
+				liquidAmounts[toTileIndex(x, y)] = (byte) getLiquidAmount(areaMap.getTile(x, y));
+			}
+		}
+		// Carries on with the pass in progress when the game was saved
+		loadPass(gameContext.getSettlementState());
 	}
 
 	private void activateTile(MapTile tileToUpdate) {
-		if (!gameContext.getSettlementState().activeLiquidFlowTiles.contains(tileToUpdate)) {
-			gameContext.getSettlementState().activeLiquidFlowTiles.add(tileToUpdate);
-		}
+		gameContext.getSettlementState().activeLiquidFlowTiles.add(tileToUpdate);
 	}
 
 	@Override
 	public void clearContextRelatedState() {
-		currentLiquidFlowTiles.clear();
+		dirtyChunks.clear();
+		tilesToResync.clear();
+		verticesToUpdate.clear();
+		chunks = null;
+		liquidAmounts = null;
+		areaMap = null;
 	}
 
 	@Override
 	public boolean runWhilePaused() {
 		return false;
 	}
+
+	private int getChunkIndex(int tileX, int tileY) {
+		return ((tileY / CHUNK_SIZE) * chunksWide) + (tileX / CHUNK_SIZE);
+	}
+
+	private int toTileIndex(int tileX, int tileY) {
+		return (areaMap.getWidth() * tileY) + tileX;
+	}
+
+	private int toTileX(int tileIndex) {
+		return tileIndex % areaMap.getWidth();
+	}
+
+	private int toTileY(int tileIndex) {
+		return tileIndex / areaMap.getWidth();
+	}
+
+	/**
+	 * The tiles of one chunk in the current pass, and everything its update would otherwise write to shared state
+	 */
+	private class LiquidFlowChunk implements Callable<Void> {
+
+		private final int phase;
+		private final Random random = new RandomXS128();
+		private final CompassDirection[] randomisedDirections = CARDINAL_DIRECTIONS.clone();
+		// Tile indices in ascending order
+		private final IntArray passTiles = new IntArray();
+		private int passCursor;
+		private int appliedCursor;
+		private int tilesToUpdate;
+
+		private final IntArray activatedTiles = new IntArray();
+		private final IntArray touchedTiles = new IntArray();
+
+		private LiquidFlowChunk(int chunkIndex) {
+			int chunkX = chunkIndex % chunksWide;
+			int chunkY = chunkIndex / chunksWide;
+			this.phase = (chunkX % 2) + ((chunkY % 2) * 2);
+		}
+
+		@Override
+		public Void call() {
+			while (tilesToUpdate > 0 && passCursor < passTiles.size) {
+				updateTile(this, passTiles.get(passCursor));
+				passCursor++;
+				tilesToUpdate--;
+			}
+			return null;
+		}
+
+		private boolean isPassComplete() {
+			if (passCursor < passTiles.size) {
+				return false;
+			}
+			passTiles.clear();
+			passCursor = 0;
+			appliedCursor = 0;
+			return true;
+		}
+
+		private CompassDirection[] shuffleDirections() {
+			// Starts from the same order every time so the result only depends on the seed for the tile
+			System.arraycopy(CARDINAL_DIRECTIONS, 0, randomisedDirections, 0, CARDINAL_DIRECTIONS.length);
+			for (int cursor = randomisedDirections.length - 1; cursor > 0; cursor--) {
+				int swapWith = random.nextInt(cursor + 1);
+				CompassDirection swapped = randomisedDirections[cursor];
+				randomisedDirections[cursor] = randomisedDirections[swapWith];
+				randomisedDirections[swapWith] = swapped;
+			}
+			return randomisedDirections;
+		}
+
+		private void activateTileAndNeighbours(MapTile tile) {
+			activatedTiles.add(toTileIndex(tile.getTileX(), tile.getTileY()));
+			for (CompassDirection neighbourDirection : CARDINAL_DIRECTIONS) {
+				MapTile neighbourTile = areaMap.getTile(tile.getTileX() + neighbourDirection.getXOffset(), tile.getTileY() + neighbourDirection.getYOffset());
+				if (neighbourTile != null && neighbourTile.getUnderTile() != null && neighbourTile.getUnderTile().liquidCanFlow()) {
+					activatedTiles.add(toTileIndex(neighbourTile.getTileX(), neighbourTile.getTileY()));
+				}
+			}
+		}
+
+		/**
+		 * Called on the main thread once every chunk has been updated
+		 */
+		private void applyActivationsAndVertices() {
+			Set<MapTile> tilesLeftInPass = gameContext.getSettlementState().liquidFlowPassTiles;
+			while (appliedCursor < passCursor) {
+				int tileIndex = passTiles.get(appliedCursor);
+				tilesLeftInPass.remove(areaMap.getTile(toTileX(tileIndex), toTileY(tileIndex)));
+				appliedCursor++;
+			}
+			for (int cursor = 0; cursor < activatedTiles.size; cursor++) {
+				int tileIndex = activatedTiles.get(cursor);
+				activateTile(areaMap.getTile(toTileX(tileIndex), toTileY(tileIndex)));
+			}
+			activatedTiles.clear();
+			for (int cursor = 0; cursor < touchedTiles.size; cursor++) {
+				int tileX = toTileX(touchedTiles.get(cursor));
+				int tileY = toTileY(touchedTiles.get(cursor));
+				verticesToUpdate.add(areaMap.getVertex(tileX, tileY));
+				verticesToUpdate.add(areaMap.getVertex(tileX, tileY + 1));
+				verticesToUpdate.add(areaMap.getVertex(tileX + 1, tileY + 1));
+				verticesToUpdate.add(areaMap.getVertex(tileX + 1, tileY));
+			}
+			touchedTiles.clear();
+		}
+	}
 }
@@ -5,7 +5,9 @@ import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.pmw.tinylog.Logger;
@@ -19,6 +21,7 @@ import technology.rocketjump.undermount.entities.behaviour.furniture.Prioritisab
 import technology.rocketjump.undermount.entities.factories.MechanismEntityAttributesFactory;
 import technology.rocketjump.undermount.entities.factories.MechanismEntityFactory;
 import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.entities.model.EntityType;
 import technology.rocketjump.undermount.entities.model.physical.item.ItemType;
 import technology.rocketjump.undermount.entities.model.physical.mechanism.MechanismEntityAttributes;
 import technology.rocketjump.undermount.entities.model.physical.mechanism.MechanismType;
@@ -29,6 +32,7 @@ import technology.rocketjump.undermount.jobs.JobStore;
 import technology.rocketjump.undermount.jobs.model.Job;
 import technology.rocketjump.undermount.jobs.model.JobPriority;
 import technology.rocketjump.undermount.jobs.model.JobTarget;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.*;
 import technology.rocketjump.undermount.mapping.tile.designation.Designation;
 import technology.rocketjump.undermount.mapping.tile.floor.TileFloor;
@@ -40,11 +44,13 @@ import technology.rocketjump.undermount.mapping.tile.underground.UnderTile;
 import technology.rocketjump.undermount.mapping.tile.wall.Wall;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
 import technology.rocketjump.undermount.messaging.MessageType;
+import technology.rocketjump.undermount.messaging.async.BackgroundTaskManager;
 import technology.rocketjump.undermount.messaging.types.*;
 import technology.rocketjump.undermount.particles.ParticleEffectTypeDictionary;
 import technology.rocketjump.undermount.particles.model.ParticleEffectType;
 import technology.rocketjump.undermount.rooms.*;
 import technology.rocketjump.undermount.rooms.components.StockpileComponent;
+import technology.rocketjump.undermount.settlement.ItemTracker;
 import technology.rocketjump.undermount.settlement.notifications.Notification;
 import technology.rocketjump.undermount.ui.GameInteractionMode;
 import technology.rocketjump.undermount.ui.GameInteractionStateContainer;
@@ -71,6 +77,12 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 	private final MechanismEntityFactory mechanismEntityFactory;
 	private final MechanismType pipeMechanismType;
 	private final I18nTranslator i18nTranslator;
+	private final BackgroundTaskManager backgroundTaskManager;
+	private final ItemTracker itemTracker;
+
+	// Above this, checking whether a region has been split is passed to a background thread
+	private static final int MAX_TILES_FOR_IMMEDIATE_SPLIT_SEARCH = 2048;
+	private static final CompassDirection[] ORTHOGONAL_DIRECTIONS = { CompassDirection.NORTH, CompassDirection.EAST, CompassDirection.SOUTH, CompassDirection.WEST };
 
 	private GameContext gameContext;
 
@@ -85,7 +97,8 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 							 RoofConstructionManager roofConstructionManager, ParticleEffectTypeDictionary particleEffectTypeDictionary,
 							 SoundAssetDictionary soundAssetDictionary, FloorTypeDictionary floorTypeDictionary,
 							 MechanismTypeDictionary mechanismTypeDictionary, MechanismEntityAttributesFactory mechanismEntityAttributesFactory,
-							 MechanismEntityFactory mechanismEntityFactory, I18nTranslator i18nTranslator) {
+							 MechanismEntityFactory mechanismEntityFactory, I18nTranslator i18nTranslator,
+							 BackgroundTaskManager backgroundTaskManager, ItemTracker itemTracker) {
 		this.messageDispatcher = messageDispatcher;
 		this.outdoorLightProcessor = outdoorLightProcessor;
 		this.interactionStateContainer = interactionStateContainer;
@@ -102,6 +115,8 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 		this.mechanismEntityFactory = mechanismEntityFactory;
 		this.pipeMechanismType = mechanismTypeDictionary.getByName("Pipe");
 		this.i18nTranslator = i18nTranslator;
+		this.backgroundTaskManager = backgroundTaskManager;
+		this.itemTracker = itemTracker;
 
 		for (FloorType floorType : floorTypeDictionary.getAllDefinitions()) {
 			if (floorType.isConstructed()) {
@@ -119,6 +134,7 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 		messageDispatcher.addListener(this, MessageType.REPLACE_FLOOR);
 		messageDispatcher.addListener(this, MessageType.UNDO_REPLACE_FLOOR);
 		messageDispatcher.addListener(this, MessageType.REPLACE_REGION);
+		messageDispatcher.addListener(this, MessageType.REGION_SPLIT_SEARCH_COMPLETED);
 		messageDispatcher.addListener(this, MessageType.FLOORING_CONSTRUCTED);
 		messageDispatcher.addListener(this, MessageType.ADD_CHANNEL);
 		messageDispatcher.addListener(this, MessageType.REMOVE_CHANNEL);
@@ -187,6 +203,13 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 				replaceRegion(message.tileToReplace, message.replacementRegionId);
 				return true;
 			}
+			case MessageType.REGION_SPLIT_SEARCH_COMPLETED: {
+				RegionSplitSearch splitSearch = (RegionSplitSearch) msg.extraInfo;
+				if (gameContext != null && splitSearch.map == gameContext.getAreaMap() && splitSearch.getOutcome() == RegionSplitSearch.Outcome.SPLIT) {
+					applyRegionSplit(splitSearch);
+				}
+				return true;
+			}
 			case MessageType.FLOORING_CONSTRUCTED: {
 				FloorConstructionMessage message = (FloorConstructionMessage) msg.extraInfo;
 				FloorType floorType = floorTypesByInputRequirement.get(message.constructionItem);
@@ -498,6 +521,10 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 			}
 
 		}
+
+		if (entity.getType().equals(EntityType.ITEM)) {
+			itemTracker.itemMoved(entity, message.newPosition);
+		}
 		return true;
 	}
 
@@ -562,7 +589,7 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 					modifiedTile.setRegionId(neighbourRegionId);
 				} else if (neighbourTile.getRegionId() != neighbourRegionId) {
 					// Encountered a different neighbour region ID, merge together
-					replaceRegion(neighbourTile, neighbourRegionId);
+					gameContext.getAreaMap().mergeRegions(neighbourTile.getRegionId(), neighbourRegionId);
 				}
 			} else if (neighbourTile != null && neighbourTile.hasRoom()) {
 				neighbourTile.getRoomTile().getRoom().checkIfEnclosed(gameContext.getAreaMap());
@@ -599,38 +626,73 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 		}
 
 		if (emptyEitherSide) {
-			// Flood fill from one side until the other side is found, otherwise set all area of flood fill to new region
-			Set<MapTile> explored = new HashSet<>();
-			Deque<MapTile> frontier = new ArrayDeque<>();
-			frontier.add(sideA);
-
-			boolean otherSideFound = false;
+			TiledMap areaMap = gameContext.getAreaMap();
+			RegionSplitSearch splitSearch = new RegionSplitSearch(areaMap, areaMap.getNavigationGrid(), sideA, sideB, MAX_TILES_FOR_IMMEDIATE_SPLIT_SEARCH);
+			RegionSplitSearch.Outcome outcome = splitSearch.run();
+			if (outcome == RegionSplitSearch.Outcome.SPLIT) {
+				applyRegionSplit(splitSearch);
+			} else if (outcome == RegionSplitSearch.Outcome.GAVE_UP) {
+				// Both sides are large, so finish checking in the background rather than pausing the game
+				backgroundTaskManager.runTask(new RegionSplitSearch(areaMap, areaMap.getNavigationGrid().snapshot(), sideA, sideB, Integer.MAX_VALUE));
+			}
+		}
+	}
 
-			while (!frontier.isEmpty()) {
-				MapTile current = frontier.pop();
+	/**
+	 * Gives the tiles cut off by a split a new region ID. As the search may have run in the background, this first checks
+	 * the tiles are still a separate area of the same region, and if not, searches again.
+	 */
+	private void applyRegionSplit(RegionSplitSearch splitSearch) {
+		TiledMap areaMap = splitSearch.map;
+		IntArray isolatedTiles = splitSearch.getIsolatedTiles();
+		IntSet isolatedTileSet = new IntSet(isolatedTiles.size);
+		for (int cursor = 0; cursor < isolatedTiles.size; cursor++) {
+			isolatedTileSet.add(isolatedTiles.get(cursor));
+		}
 
-				if (current.equals(sideB)) {
-					otherSideFound = true;
+		MapTile firstTile = areaMap.getTile(isolatedTiles.get(0) % areaMap.getWidth(), isolatedTiles.get(0) / areaMap.getWidth());
+		int regionToSplit = firstTile.getRegionId();
+		boolean stillIsolated = true;
+		List<MapTile> tilesToMove = new ArrayList<>(isolatedTiles.size);
+		for (int cursor = 0; cursor < isolatedTiles.size && stillIsolated; cursor++) {
+			MapTile tile = areaMap.getTile(isolatedTiles.get(cursor) % areaMap.getWidth(), isolatedTiles.get(cursor) / areaMap.getWidth());
+			if (!tile.getRegionType().equals(splitSearch.regionType) || tile.getRegionId() != regionToSplit) {
+				stillIsolated = false;
+				break;
+			}
+			for (CompassDirection direction : ORTHOGONAL_DIRECTIONS) {
+				MapTile neighbour = areaMap.getTile(tile.getTileX() + direction.getXOffset(), tile.getTileY() + direction.getYOffset());
+				if (neighbour != null && neighbour.getRegionType().equals(splitSearch.regionType) &&
+						!isolatedTileSet.contains((areaMap.getWidth() * neighbour.getTileY()) + neighbour.getTileX())) {
+					stillIsolated = false;
 					break;
 				}
-
-				explored.add(current);
-
-				for (MapTile orthogonalNeighbour : gameContext.getAreaMap().getOrthogonalNeighbours(current.getTileX(), current.getTileY()).values()) {
-					if (!explored.contains(orthogonalNeighbour) && !frontier.contains(orthogonalNeighbour)) {
-						if (orthogonalNeighbour.getRegionType().equals(sideA.getRegionType())) {
-							frontier.add(orthogonalNeighbour);
-						}
-					}
-				}
-
 			}
+			tilesToMove.add(tile);
+		}
 
-			if (!otherSideFound) {
-				int newRegionId = gameContext.getAreaMap().createNewRegionId();
-				replaceRegion(sideA, newRegionId);
+		if (!stillIsolated) {
+			MapTile sideA = splitSearch.sideA;
+			MapTile sideB = splitSearch.sideB;
+			if (sideA.getRegionId() == sideB.getRegionId() && sideA.getRegionType().equals(splitSearch.regionType) && sideB.getRegionType().equals(splitSearch.regionType)) {
+				backgroundTaskManager.runTask(new RegionSplitSearch(areaMap, areaMap.getNavigationGrid().snapshot(), sideA, sideB, Integer.MAX_VALUE));
 			}
+			return;
+		}
+
+		MapTile otherSide = isolatedTileSet.contains((areaMap.getWidth() * splitSearch.sideA.getTileY()) + splitSearch.sideA.getTileX()) ? splitSearch.sideB : splitSearch.sideA;
+		if (otherSide.getRegionId() != regionToSplit) {
+			// Already given a separate region
+			return;
+		}
+
+		int newRegionId = areaMap.createNewRegionId();
+		Set<Zone> zonesEncountered = new HashSet<>();
+		for (MapTile tile : tilesToMove) {
+			tile.setRegionId(newRegionId);
+			zonesEncountered.addAll(tile.getZones());
 		}
+		areaMap.relocateZones(zonesEncountered, newRegionId);
 	}
 
 	public static void propagateDarknessFromTile(MapTile tile, GameContext gameContext, OutdoorLightProcessor outdoorLightProcessor) {
@@ -686,7 +748,7 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 						tile.setRegionId(neighbourRegionId);
 					} else if (neighbourTile.getRegionId() != neighbourRegionId) {
 						// Encountered a different neighbour region ID, merge together
-						replaceRegion(neighbourTile, neighbourRegionId);
+						gameContext.getAreaMap().mergeRegions(neighbourTile.getRegionId(), neighbourRegionId);
 					}
 				}
 				if (neighbourTile.hasDoorway()) {
@@ -733,7 +795,7 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 						tile.setRegionId(neighbourRegionId);
 					} else if (neighbourTile.getRegionId() != neighbourRegionId) {
 						// Encountered a different neighbour region ID, merge together
-						replaceRegion(neighbourTile, neighbourRegionId);
+						gameContext.getAreaMap().mergeRegions(neighbourTile.getRegionId(), neighbourRegionId);
 					}
 				}
 				if (neighbourTile.hasDoorway()) {
@@ -756,42 +818,37 @@ public class MapMessageHandler implements Telegraph, GameContextAware {
 	 * This method flood-fills the region specified in targetTile with replacementRegionId
 	 */
 	private void replaceRegion(MapTile initialTargetTile, int replacementRegionId) {
+		TiledMap areaMap = gameContext.getAreaMap();
 		int regionToReplace = initialTargetTile.getRegionId();
-		Set<MapTile> visited = new HashSet<>();
-		Queue<MapTile> frontier = new LinkedList<>();
+		initialTargetTile.setRegionId(replacementRegionId);
+		int newRegionId = initialTargetTile.getRegionId();
+		if (newRegionId == regionToReplace) {
+			return;
+		}
+
+		// Tiles are given the new region ID as they are added to the frontier, so it doubles as the visited check
 		Set<Zone> zonesEncountered = new HashSet<>();
+		Deque<MapTile> frontier = new ArrayDeque<>();
 		frontier.add(initialTargetTile);
-
 		while (!frontier.isEmpty()) {
 			MapTile currentTile = frontier.poll();
-			if (visited.contains(currentTile)) {
-				continue;
-			}
-			currentTile.setRegionId(replacementRegionId);
 			zonesEncountered.addAll(currentTile.getZones());
-			visited.add(currentTile);
 
-			for (MapTile neighbourTile : gameContext.getAreaMap().getOrthogonalNeighbours(currentTile.getTileX(), currentTile.getTileY()).values()) {
-				if (visited.contains(neighbourTile)) {
-					continue;
-				}
-				if (neighbourTile.getRegionId() == regionToReplace) {
+			for (CompassDirection direction : ORTHOGONAL_DIRECTIONS) {
+				MapTile neighbourTile = areaMap.getTile(currentTile.getTileX() + direction.getXOffset(), currentTile.getTileY() + direction.getYOffset());
+				if (neighbourTile != null && neighbourTile.getRegionId() == regionToReplace) {
+					neighbourTile.setRegionId(newRegionId);
 					frontier.add(neighbourTile);
 				}
 			}
 		}
 
-		for (Zone movedZone : zonesEncountered) {
-			gameContext.getAreaMap().removeZone(movedZone);
-			movedZone.recalculate(gameContext.getAreaMap());
-			movedZone.setRegionId(replacementRegionId);
-			if (!movedZone.isEmpty()) {
-				gameContext.getAreaMap().addZone(movedZone);
-			}
-		}
+		areaMap.relocateZones(zonesEncountered, newRegionId);
 	}
 
 	public static void updateTile(MapTile tile, GameContext gameContext, MessageDispatcher messageDispatcher) {
+		gameContext.getAreaMap().getPathfindingChunkGraph().tileChanged(tile.getTileX(), tile.getTileY());
+
 		TileNeighbours neighbours = gameContext.getAreaMap().getNeighbours(tile.getTileX(), tile.getTileY());
 		tile.update(neighbours, gameContext.getAreaMap().getVertices(tile.getTileX(), tile.getTileY()), messageDispatcher);
 
@@ -0,0 +1,145 @@
+package technology.rocketjump.undermount.mapping;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+import technology.rocketjump.undermount.mapping.model.NavigationGrid;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.mapping.tile.MapTile;
+import technology.rocketjump.undermount.messaging.MessageType;
+import technology.rocketjump.undermount.messaging.async.BackgroundTaskResult;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Checks whether two tiles of the same region type, either side of a tile which has just changed type,
+ * are still connected to each other.
+ *
+ * This flood fills outwards from both tiles at once, always growing whichever fill is smaller, until the fills meet
+ * or one of them runs out of tiles. The side which runs out first is cut off from the other and is the smaller of the
+ * two, so it is the side to give a new region ID. If the search is bounded and gives up it can be re-run without
+ * a bound on a background thread, in which case the result is passed back to the main thread as a
+ * REGION_SPLIT_SEARCH_COMPLETED message.
+ *
+ * Region types are read from the map's NavigationGrid flags rather than from the tiles themselves, so a search on a
+ * background thread can be given a snapshot of the grid taken on the main thread and never touches the live map.
+ */
+public class RegionSplitSearch implements Callable<BackgroundTaskResult> {
+
+	public enum Outcome {
+		CONNECTED, SPLIT, GAVE_UP
+	}
+
+	private static final int[] ORTHOGONAL_X_OFFSETS = {0, 1, 0, -1};
+	private static final int[] ORTHOGONAL_Y_OFFSETS = {1, 0, -1, 0};
+
+	public final TiledMap map;
+	public final MapTile sideA;
+	public final MapTile sideB;
+	public final MapTile.RegionType regionType;
+	private final NavigationGrid navigationGrid;
+	private final int maxTilesToExplore;
+
+	private Outcome outcome;
+	private IntArray isolatedTiles;
+
+	/**
+	 * @param navigationGrid the map's own grid if run immediately on the main thread, otherwise a snapshot of it
+	 */
+	public RegionSplitSearch(TiledMap map, NavigationGrid navigationGrid, MapTile sideA, MapTile sideB, int maxTilesToExplore) {
+		this.map = map;
+		this.navigationGrid = navigationGrid;
+		this.sideA = sideA;
+		this.sideB = sideB;
+		this.regionType = sideA.getRegionType();
+		this.maxTilesToExplore = maxTilesToExplore;
+	}
+
+	@Override
+	public BackgroundTaskResult call() {
+		run();
+		return BackgroundTaskResult.success(MessageType.REGION_SPLIT_SEARCH_COMPLETED, this);
+	}
+
+	public Outcome run() {
+		int width = map.getWidth();
+		int height = map.getHeight();
+		IntArray fillA = new IntArray();
+		IntArray fillB = new IntArray();
+		IntSet visitedA = new IntSet();
+		IntSet visitedB = new IntSet();
+		int startA = (width * sideA.getTileY()) + sideA.getTileX();
+		int startB = (width * sideB.getTileY()) + sideB.getTileX();
+		fillA.add(startA);
+		visitedA.add(startA);
+		fillB.add(startB);
+		visitedB.add(startB);
+		int cursorA = 0;
+		int cursorB = 0;
+
+		while (true) {
+			if (cursorA == fillA.size) {
+				return finish(Outcome.SPLIT, fillA);
+			} else if (cursorB == fillB.size) {
+				return finish(Outcome.SPLIT, fillB);
+			} else if (fillA.size + fillB.size > maxTilesToExplore) {
+				return finish(Outcome.GAVE_UP, null);
+			}
+
+			boolean expandA = fillA.size <= fillB.size;
+			int tileIndex = expandA ? fillA.get(cursorA++) : fillB.get(cursorB++);
+			IntArray fill = expandA ? fillA : fillB;
+			IntSet visited = expandA ? visitedA : visitedB;
+			IntSet otherVisited = expandA ? visitedB : visitedA;
+
+			int tileX = tileIndex % width;
+			int tileY = tileIndex / width;
+			for (int direction = 0; direction < ORTHOGONAL_X_OFFSETS.length; direction++) {
+				int neighbourX = tileX + ORTHOGONAL_X_OFFSETS[direction];
+				int neighbourY = tileY + ORTHOGONAL_Y_OFFSETS[direction];
+				if (neighbourX < 0 || neighbourX >= width || neighbourY < 0 || neighbourY >= height ||
+						regionTypeOf(navigationGrid.getFlags(neighbourX, neighbourY)) != regionType) {
+					continue;
+				}
+				int neighbourIndex = (width * neighbourY) + neighbourX;
+				if (otherVisited.contains(neighbourIndex)) {
+					return finish(Outcome.CONNECTED, null);
+				} else if (visited.add(neighbourIndex)) {
+					fill.add(neighbourIndex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The same as MapTile.getRegionType(), from the flags MapTile.refreshNavigationFlags() sets
+	 */
+	private static MapTile.RegionType regionTypeOf(int navigationFlags) {
+		if ((navigationFlags & NavigationGrid.RIVER) != 0) {
+			return MapTile.RegionType.RIVER;
+		} else if ((navigationFlags & NavigationGrid.WALL) != 0) {
+			return MapTile.RegionType.WALL;
+		} else if ((navigationFlags & NavigationGrid.CHANNEL) != 0) {
+			return MapTile.RegionType.CHANNEL;
+		} else {
+			return MapTile.RegionType.GENERIC;
+		}
+	}
+
+	private Outcome finish(Outcome outcome, IntArray isolatedTiles) {
+		this.outcome = outcome;
+		this.isolatedTiles = isolatedTiles;
+		return outcome;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * @return the indices, (mapWidth * tileY) + tileX, of the tiles which are cut off when the outcome is SPLIT
+	 */
+	public IntArray getIsolatedTiles() {
+		return isolatedTiles;
+	}
+
+}
@@ -221,9 +221,6 @@ public class GameMapConverter {
 			}
 		}
 
-		// Randomise order of infrequent update entities so you don't see them change left to right
-		entityStore.shuffle();
-
 		GameMapTile gameMapTile = pickEmbarkPoint(generatedSourceMap);
 		targetMap.setEmbarkPoint(gameMapTile.getPosition().cpy());
 
@@ -0,0 +1,112 @@
+package technology.rocketjump.undermount.mapping.model;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.entities.model.EntityType;
+
+import java.util.Arrays;
+
+/**
+ * A snapshot of which tile each creature on the map is in, rebuilt once per frame before any entity is updated, so
+ * steering can find nearby creatures without going through every entity in the tiles around it.
+ *
+ * Each tile holds a linked list of creatures threaded through flat arrays, which only grow, so rebuilding and querying
+ * don't allocate once the settlement has settled in. Nothing changes it between rebuilds, so it is safe to query from
+ * several threads at once. Creatures which move to another tile during the frame are found in their old tile until the
+ * next rebuild, so callers should still read the current position of anything they find.
+ */
+public class CreatureSpatialHash {
+
+	private static final int NONE = -1;
+
+	private final int width;
+	private final int height;
+	private final int[] firstInTile;
+	private final IntArray occupiedTiles = new IntArray();
+
+	private Entity[] creatures = new Entity[64];
+	private int[] nextInTile = new int[64];
+	private int numCreatures;
+
+	public CreatureSpatialHash(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.firstInTile = new int[width * height];
+		Arrays.fill(firstInTile, NONE);
+	}
+
+	public void rebuild(Iterable<Entity> entities) {
+		clear();
+		for (Entity entity : entities) {
+			if (entity == null || !entity.getType().equals(EntityType.CREATURE)) {
+				continue;
+			}
+			Vector2 position = entity.getLocationComponent().getWorldPosition();
+			if (position == null) {
+				continue;
+			}
+			int tileIndex = tileIndex((int) Math.floor(position.x), (int) Math.floor(position.y));
+			if (tileIndex == NONE) {
+				continue;
+			}
+			if (numCreatures == creatures.length) {
+				creatures = Arrays.copyOf(creatures, numCreatures * 2);
+				nextInTile = Arrays.copyOf(nextInTile, numCreatures * 2);
+			}
+			if (firstInTile[tileIndex] == NONE) {
+				occupiedTiles.add(tileIndex);
+			}
+			creatures[numCreatures] = entity;
+			nextInTile[numCreatures] = firstInTile[tileIndex];
+			firstInTile[tileIndex] = numCreatures;
+			numCreatures++;
+		}
+	}
+
+	/**
+	 * Replaces the contents of result with the creatures in the 4 nearest tiles to position (see TiledMap.getNearestTiles())
+	 * using the given points as scratch space
+	 */
+	public void getCreaturesNear(Vector2 position, GridPoint2[] nearestTiles, Array<Entity> result) {
+		result.clear();
+		TiledMap.getNearestTilePositions(position, nearestTiles);
+		for (GridPoint2 tile : nearestTiles) {
+			addCreaturesInTile(tile.x, tile.y, result);
+		}
+	}
+
+	public void addCreaturesInTile(int tileX, int tileY, Array<Entity> result) {
+		int tileIndex = tileIndex(tileX, tileY);
+		if (tileIndex == NONE) {
+			return;
+		}
+		for (int cursor = firstInTile[tileIndex]; cursor != NONE; cursor = nextInTile[cursor]) {
+			result.add(creatures[cursor]);
+		}
+	}
+
+	public int size() {
+		return numCreatures;
+	}
+
+	public void clear() {
+		for (int cursor = 0; cursor < occupiedTiles.size; cursor++) {
+			firstInTile[occupiedTiles.get(cursor)] = NONE;
+		}
+		occupiedTiles.clear();
+		// Drop references so removed entities can be collected
+		Arrays.fill(creatures, 0, numCreatures, null);
+		numCreatures = 0;
+	}
+
+	private int tileIndex(int tileX, int tileY) {
+		if (tileX < 0 || tileX >= width || tileY < 0 || tileY >= height) {
+			return NONE;
+		}
+		return tileY * width + tileX;
+	}
+
+}
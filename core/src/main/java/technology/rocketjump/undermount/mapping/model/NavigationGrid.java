@@ -0,0 +1,79 @@
+package technology.rocketjump.undermount.mapping.model;
+
+import technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingChunkGraph;
+
+/**
+ * Flat per-map copy of what each tile contains that matters for movement, indexed by (mapWidth * tileY) + tileX
+ *
+ * Each MapTile keeps its own flags up to date as walls, floors, doorways and entities are added or removed
+ * (see MapTile.refreshNavigationFlags()) and mirrors them into this grid, so navigability checks never need to
+ * iterate over the entities in a tile. Any change is passed on to the PathfindingChunkGraph.
+ */
+public class NavigationGrid {
+
+	public static final int WALL = 1;
+	public static final int TREE = 1 << 1;
+	public static final int RIVER = 1 << 2;
+	public static final int CHANNEL = 1 << 3;
+	public static final int BRIDGE = 1 << 4;
+	public static final int NAVIGABLE_BRIDGE = 1 << 5;
+	public static final int DOORWAY = 1 << 6;
+	public static final int BLOCKING_FURNITURE = 1 << 7;
+	public static final int BLOCKING_ITEM = 1 << 8;
+
+	private final int width;
+	private final int height;
+	private final short[] flags;
+	private final PathfindingChunkGraph pathfindingChunkGraph;
+
+	public NavigationGrid(int width, int height, PathfindingChunkGraph pathfindingChunkGraph) {
+		this.width = width;
+		this.height = height;
+		this.flags = new short[width * height];
+		this.pathfindingChunkGraph = pathfindingChunkGraph;
+	}
+
+	public int getFlags(int tileX, int tileY) {
+		return flags[(width * tileY) + tileX];
+	}
+
+	public void setFlags(int tileX, int tileY, int newFlags) {
+		int index = (width * tileY) + tileX;
+		if (flags[index] != newFlags) {
+			flags[index] = (short) newFlags;
+			if (pathfindingChunkGraph != null) {
+				pathfindingChunkGraph.tileChanged(tileX, tileY);
+			}
+		}
+	}
+
+	/**
+	 * @return a copy of the current flags which is not updated as the map changes, so can be read from another thread
+	 */
+	public NavigationGrid snapshot() {
+		NavigationGrid snapshot = new NavigationGrid(width, height, null);
+		System.arraycopy(flags, 0, snapshot.flags, 0, flags.length);
+		return snapshot;
+	}
+
+	/**
+	 * Navigability for no particular entity, from no particular starting point, i.e. MapTile.isNavigable(null)
+	 */
+	public boolean isNavigable(int tileX, int tileY) {
+		if (tileX < 0 || tileX >= width || tileY < 0 || tileY >= height) {
+			return false;
+		}
+		return isNavigable(flags[(width * tileY) + tileX]);
+	}
+
+	public static boolean isNavigable(int flags) {
+		if ((flags & (WALL | TREE | BLOCKING_FURNITURE | BLOCKING_ITEM)) != 0) {
+			return false;
+		}
+		if ((flags & (RIVER | CHANNEL | BRIDGE)) != 0) {
+			return (flags & NAVIGABLE_BRIDGE) != 0;
+		}
+		return true;
+	}
+
+}
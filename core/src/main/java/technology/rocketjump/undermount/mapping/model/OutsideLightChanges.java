@@ -0,0 +1,49 @@
+package technology.rocketjump.undermount.mapping.model;
+
+/**
+ * Tracks the region of map vertices whose outside light amount has changed since it was last cleared, so a renderer
+ * holding the light amounts in a texture only needs to update that region.
+ *
+ * Each MapVertex extends the region when its outside light amount is set to a different value.
+ */
+public class OutsideLightChanges {
+
+	private int minX = Integer.MAX_VALUE;
+	private int minY = Integer.MAX_VALUE;
+	private int maxX = Integer.MIN_VALUE;
+	private int maxY = Integer.MIN_VALUE;
+
+	public void vertexChanged(int vertexX, int vertexY) {
+		minX = Math.min(minX, vertexX);
+		minY = Math.min(minY, vertexY);
+		maxX = Math.max(maxX, vertexX);
+		maxY = Math.max(maxY, vertexY);
+	}
+
+	public boolean isEmpty() {
+		return maxX < minX;
+	}
+
+	public void clear() {
+		minX = Integer.MAX_VALUE;
+		minY = Integer.MAX_VALUE;
+		maxX = Integer.MIN_VALUE;
+		maxY = Integer.MIN_VALUE;
+	}
+
+	public int getMinX() {
+		return minX;
+	}
+
+	public int getMinY() {
+		return minY;
+	}
+
+	public int getMaxX() {
+		return maxX;
+	}
+
+	public int getMaxY() {
+		return maxY;
+	}
+}
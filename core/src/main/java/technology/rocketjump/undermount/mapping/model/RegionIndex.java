@@ -0,0 +1,52 @@
+package technology.rocketjump.undermount.mapping.model;
+
+import java.util.Arrays;
+
+/**
+ * Union-find over region IDs, so when two regions become connected one can be merged into the other without
+ * visiting all of its tiles. Each MapTile stores the region ID it was last assigned and resolves it through this.
+ *
+ * Region IDs are never un-merged, a region which is split has a new ID assigned to the tiles on one side instead.
+ *
+ * This is read by pathfinding threads. Only ancestors are ever written into a slot, so a reader racing with a merge
+ * resolves to the ID which was correct just before the merge.
+ */
+public class RegionIndex {
+
+	private static final int NOT_MERGED = 0; // Region IDs start at 1
+
+	private int[] mergedInto = new int[64];
+
+	/**
+	 * @return the region that regionId has (possibly indirectly) been merged into, or regionId itself
+	 */
+	public int find(int regionId) {
+		int[] mergedInto = this.mergedInto;
+		int current = regionId;
+		while (current > 0 && current < mergedInto.length && mergedInto[current] != NOT_MERGED) {
+			int parent = mergedInto[current];
+			if (parent < mergedInto.length && mergedInto[parent] != NOT_MERGED) {
+				// Path halving, skip over the parent next time
+				mergedInto[current] = mergedInto[parent];
+			}
+			current = parent;
+		}
+		return current;
+	}
+
+	/**
+	 * @return the region which the two regions now resolve to, which is always that of intoRegionId
+	 */
+	public int merge(int regionId, int intoRegionId) {
+		int from = find(regionId);
+		int into = find(intoRegionId);
+		if (from != into && from > 0) {
+			if (from >= mergedInto.length) {
+				mergedInto = Arrays.copyOf(mergedInto, Math.max(from + 1, mergedInto.length * 2));
+			}
+			mergedInto[from] = into;
+		}
+		return into;
+	}
+
+}
@@ -0,0 +1,38 @@
+package technology.rocketjump.undermount.mapping.model;
+
+/**
+ * Counts the changes to the floors, walls and exploration of each chunk of the map, so that a renderer can cache
+ * what it draws for a chunk until that chunk's revision moves on.
+ *
+ * Each MapTile bumps the revision of its chunk when it changes.
+ */
+public class TerrainRevisions {
+
+	public static final int CHUNK_SIZE = 32;
+
+	private final int chunksWide;
+	private final int chunksHigh;
+	private final int[] revisions;
+
+	public TerrainRevisions(int mapWidth, int mapHeight) {
+		this.chunksWide = (mapWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunksHigh = (mapHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.revisions = new int[chunksWide * chunksHigh];
+	}
+
+	public void tileChanged(int tileX, int tileY) {
+		revisions[(tileY / CHUNK_SIZE) * chunksWide + (tileX / CHUNK_SIZE)]++;
+	}
+
+	public int getRevision(int chunkX, int chunkY) {
+		return revisions[chunkY * chunksWide + chunkX];
+	}
+
+	public int getChunksWide() {
+		return chunksWide;
+	}
+
+	public int getChunksHigh() {
+		return chunksHigh;
+	}
+}
@@ -6,6 +6,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import org.pmw.tinylog.Logger;
 import technology.rocketjump.undermount.assets.model.FloorType;
+import technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingChunkGraph;
 import technology.rocketjump.undermount.mapping.tile.*;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
 import technology.rocketjump.undermount.zones.Zone;
@@ -45,6 +46,13 @@ public class TiledMap {
 	private final FloorType defaultFloor;
 	private final GameMaterial defaultFloorMaterial;
 
+	private final PathfindingChunkGraph pathfindingChunkGraph;
+	private final NavigationGrid navigationGrid;
+	private final RegionIndex regionIndex = new RegionIndex();
+	private final TerrainRevisions terrainRevisions;
+	private final OutsideLightChanges outsideLightChanges = new OutsideLightChanges();
+	private final CreatureSpatialHash creatureSpatialHash;
+
 	public TiledMap(long seed, int width, int height, FloorType defaultFloor, GameMaterial defaultFloorMaterial) {
 		this.seed = seed;
 		this.width = width;
@@ -77,6 +85,22 @@ public class TiledMap {
 		}
 		mapVertices.add(vertexColumn);
 
+		pathfindingChunkGraph = new PathfindingChunkGraph(this);
+		navigationGrid = new NavigationGrid(width, height, pathfindingChunkGraph);
+		terrainRevisions = new TerrainRevisions(width, height);
+		creatureSpatialHash = new CreatureSpatialHash(width, height);
+		for (Array<MapTile> column : cells) {
+			for (MapTile mapTile : column) {
+				mapTile.setNavigationGrid(navigationGrid);
+				mapTile.setRegionIndex(regionIndex);
+				mapTile.setTerrainRevisions(terrainRevisions);
+			}
+		}
+		for (Array<MapVertex> column : mapVertices) {
+			for (MapVertex mapVertex : column) {
+				mapVertex.setOutsideLightChanges(outsideLightChanges);
+			}
+		}
 	}
 
 	public long getSeed() {
@@ -91,6 +115,26 @@ public class TiledMap {
 		return defaultFloorMaterial;
 	}
 
+	public PathfindingChunkGraph getPathfindingChunkGraph() {
+		return pathfindingChunkGraph;
+	}
+
+	public NavigationGrid getNavigationGrid() {
+		return navigationGrid;
+	}
+
+	public TerrainRevisions getTerrainRevisions() {
+		return terrainRevisions;
+	}
+
+	public OutsideLightChanges getOutsideLightChanges() {
+		return outsideLightChanges;
+	}
+
+	public CreatureSpatialHash getCreatureSpatialHash() {
+		return creatureSpatialHash;
+	}
+
 	public MapTile getTile(int tileX, int tileY) {
 		if (tileX < 0 || tileX >= width) {
 			return null;
@@ -221,6 +265,20 @@ public class TiledMap {
 			return nearest;
 		}
 
+		GridPoint2[] positions = new GridPoint2[] { new GridPoint2(), new GridPoint2(), new GridPoint2(), new GridPoint2() };
+		getNearestTilePositions(worldPosition, positions);
+		for (GridPoint2 position : positions) {
+			addTileTo(nearest, position.x, position.y);
+		}
+
+		return nearest;
+	}
+
+	/**
+	 * Writes the positions of the 4 nearest tiles to worldPosition into the 4 given points, which may be off the map,
+	 * so that callers checking this every frame don't need to allocate anything
+	 */
+	public static void getNearestTilePositions(Vector2 worldPosition, GridPoint2[] nearest) {
 		int worldTileX = MathUtils.floor(worldPosition.x);
 		int worldTileY = MathUtils.floor(worldPosition.y);
 
@@ -230,12 +288,10 @@ public class TiledMap {
 		int xOffset = (subTileOffsetX < 0.5f) ? -1 : +1;
 		int yOffset = (subTileOffsetY < 0.5f) ? -1 : +1;
 
-		addTileTo(nearest, worldTileX, 				worldTileY);
-		addTileTo(nearest, worldTileX + xOffset, 	worldTileY);
-		addTileTo(nearest, worldTileX, 				worldTileY + yOffset);
-		addTileTo(nearest, worldTileX + xOffset, 	worldTileY + yOffset);
-
-		return nearest;
+		nearest[0].set(worldTileX, 				worldTileY);
+		nearest[1].set(worldTileX + xOffset, 	worldTileY);
+		nearest[2].set(worldTileX, 				worldTileY + yOffset);
+		nearest[3].set(worldTileX + xOffset, 	worldTileY + yOffset);
 	}
 
 	private void addTileTo(Array<MapTile> nearest, int tileX, int tileY) {
@@ -267,6 +323,39 @@ public class TiledMap {
 		return ++numRegions;
 	}
 
+	/**
+	 * For when two separate regions have become connected, so that all tiles and zones in regionId now belong to
+	 * intoRegionId, without having to visit each tile
+	 */
+	public void mergeRegions(int regionId, int intoRegionId) {
+		int from = regionIndex.find(regionId);
+		int into = regionIndex.merge(from, intoRegionId);
+		if (from != into) {
+			Map<Long, Zone> movedZones = regionsToZonesMap.remove(from);
+			if (movedZones != null) {
+				relocateZones(movedZones.values(), into);
+			}
+		}
+	}
+
+	/**
+	 * Moves a batch of zones to a new region, dropping any zone tiles which are no longer navigable
+	 */
+	public void relocateZones(Collection<Zone> zones, int newRegionId) {
+		Map<Long, Zone> zonesInNewRegion = regionsToZonesMap.computeIfAbsent(newRegionId, x -> new HashMap<>());
+		for (Zone movedZone : new ArrayList<>(zones)) {
+			Map<Long, Zone> zonesInOldRegion = regionsToZonesMap.get(movedZone.getRegionId());
+			if (zonesInOldRegion != null) {
+				zonesInOldRegion.remove(movedZone.getZoneId());
+			}
+			movedZone.recalculate(this);
+			movedZone.setRegionId(newRegionId);
+			if (!movedZone.isEmpty()) {
+				zonesInNewRegion.put(movedZone.getZoneId(), movedZone);
+			}
+		}
+	}
+
 	public Collection<Zone> getZonesInRegion(int regionId) {
 		return regionsToZonesMap.computeIfAbsent(regionId, x -> new HashMap<>()).values();
 	}
@@ -31,6 +31,9 @@ import technology.rocketjump.undermount.mapping.tile.underground.PipeLayout;
 import technology.rocketjump.undermount.mapping.tile.underground.UnderTile;
 import technology.rocketjump.undermount.mapping.tile.wall.Wall;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
+import technology.rocketjump.undermount.mapping.model.NavigationGrid;
+import technology.rocketjump.undermount.mapping.model.RegionIndex;
+import technology.rocketjump.undermount.mapping.model.TerrainRevisions;
 import technology.rocketjump.undermount.materials.model.GameMaterialType;
 import technology.rocketjump.undermount.messaging.MessageType;
 import technology.rocketjump.undermount.particles.model.ParticleEffectInstance;
@@ -50,6 +53,7 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static technology.rocketjump.undermount.entities.model.Entity.NULL_ENTITY;
+import static technology.rocketjump.undermount.mapping.model.NavigationGrid.*;
 import static technology.rocketjump.undermount.mapping.tile.TileExploration.EXPLORED;
 import static technology.rocketjump.undermount.mapping.tile.TileExploration.UNEXPLORED;
 
@@ -60,7 +64,7 @@ public class MapTile implements Persistable {
 
 	private final long seed;
 	private final GridPoint2 tilePosition;
-	private int regionId = -1; // -1 for unset
+	private int regionId = -1; // -1 for unset, otherwise resolved through regionIndex
 
 	private final Map<Long, Entity> entities = new ConcurrentHashMap<>(); // Concurrent for access by PathfindingTask
 	private final Map<Long, ParticleEffectInstance> particleEffects = new HashMap<>();
@@ -77,6 +81,11 @@ public class MapTile implements Persistable {
 	private Construction construction = null;
 	private TileExploration exploration = UNEXPLORED;
 
+	private int navigationFlags; // See NavigationGrid
+	private NavigationGrid navigationGrid;
+	private RegionIndex regionIndex;
+	private TerrainRevisions terrainRevisions;
+
 	public static final MapTile NULL_TILE = new MapTile(-1L, 0, 0, FloorType.NULL_FLOOR, GameMaterial.NULL_MATERIAL);
 
 	public MapTile(long seed, int tileX, int tileY, FloorType floorType, GameMaterial floorMaterial) {
@@ -148,6 +157,9 @@ public class MapTile implements Persistable {
 				wallConstruction.setLayout(new WallConstructionLayout(neighbours));
 			}
 		}
+
+		refreshNavigationFlags();
+		terrainChanged();
 	}
 
 	public Collection<Entity> getEntities() {
@@ -178,54 +190,38 @@ public class MapTile implements Persistable {
 		if (this.equals(startingPoint)) {
 			// Can always navigate if this tile is the starting point
 			return true;
-		} else if (getFloor().isRiverTile() && !getFloor().isBridgeNavigable()) {
-			if (startingPoint != null && startingPoint.getFloor().isRiverTile()) {
-				return true; // Can navigate from a river tile to another river tile
-			} else {
-				return false; // Otherwise rivers are not navigable
-			}
-		} else if (hasChannel() && !getFloor().isBridgeNavigable()) {
-			if (startingPoint != null && startingPoint.hasChannel()) {
-				return true; // Can navigate from a channel tile to another channel tile
-			} else {
-				return false; // Otherwise channels are not navigable
+		}
+		int flags = navigationFlags;
+		boolean navigableBridge = (flags & NAVIGABLE_BRIDGE) != 0;
+		if ((flags & RIVER) != 0 && !navigableBridge) {
+			// Can navigate from a river tile to another river tile, otherwise rivers are not navigable
+			return startingPoint != null && (startingPoint.navigationFlags & RIVER) != 0;
+		} else if ((flags & CHANNEL) != 0 && !navigableBridge) {
+			// Can navigate from a channel tile to another channel tile, otherwise channels are not navigable
+			return startingPoint != null && (startingPoint.navigationFlags & CHANNEL) != 0;
+		} else if ((flags & (WALL | TREE)) == 0) {
+			if ((flags & BRIDGE) != 0 && !navigableBridge) {
+				return false;
 			}
-		} else if (!hasWall() && !hasTree()) {
-			if (getFloor().hasBridge() && !getFloor().isBridgeNavigable()) {
+			if ((flags & DOORWAY) != 0 && requestingEntity != null && requestingEntity.getBehaviourComponent() instanceof CreatureBehaviour) {
 				return false;
 			}
-			if (hasDoorway() && requestingEntity != null && requestingEntity.getBehaviourComponent() instanceof CreatureBehaviour) {
+			if ((flags & BLOCKING_ITEM) != 0) {
 				return false;
 			}
-			for (Entity entity : getEntities()) {
-				if (entity.getType().equals(EntityType.FURNITURE)) {
-					if (entity.getPhysicalEntityComponent().getAttributes() instanceof DoorwayEntityAttributes) {
-						continue;
-					}
-					FurnitureEntityAttributes attributes = (FurnitureEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
-					if (attributes.getFurnitureType().getFurnitureCategory().isBlocksMovement()) {
-						// This piece of furniture blocks movement but if it is also in the startingPoint, ignore it
-						if (startingPoint != null) {
-							boolean startingPointHasSameEntity = startingPoint.getEntity(entity.getId()) != null;
-							if (startingPointHasSameEntity) {
-								continue; // go on to next entity
-							} else {
-								// Not also in starting point, so this blocks movement
-								return false;
-							}
-						} else {
-							return false;
-						}
-					}
-				} else if (entity.getType().equals(EntityType.ITEM)) {
-					ItemEntityAttributes attributes = (ItemEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
-					if (attributes.getItemType().blocksMovement()) {
+			if ((flags & BLOCKING_FURNITURE) != 0) {
+				if (startingPoint == null) {
+					return false;
+				}
+				// Furniture which blocks movement is ignored if it is also in the startingPoint
+				for (Entity entity : getEntities()) {
+					if ((navigationFlagsOf(entity) & BLOCKING_FURNITURE) != 0 && startingPoint.getEntity(entity.getId()) == null) {
 						return false;
 					}
 				}
 			}
 			return true;
-		} else if (startingPoint != null && startingPoint.hasWall() && this.hasWall()) {
+		} else if (startingPoint != null && (startingPoint.navigationFlags & WALL) != 0 && (flags & WALL) != 0) {
 			// FIXME Possibly bug-prone hack allowing navigation through walls if starting inside one
 			return true;
 		} else {
@@ -233,6 +229,93 @@ public class MapTile implements Persistable {
 		}
 	}
 
+	public int getNavigationFlags() {
+		return navigationFlags;
+	}
+
+	public void setRegionIndex(RegionIndex regionIndex) {
+		this.regionIndex = regionIndex;
+	}
+
+	public void setTerrainRevisions(TerrainRevisions terrainRevisions) {
+		this.terrainRevisions = terrainRevisions;
+	}
+
+	public void setNavigationGrid(NavigationGrid navigationGrid) {
+		this.navigationGrid = navigationGrid;
+		refreshNavigationFlags();
+	}
+
+	/**
+	 * Recalculates the navigation flags from scratch, this needs calling after anything other than adding
+	 * or removing an entity changes the tile
+	 */
+	public void refreshNavigationFlags() {
+		int flags = 0;
+		if (hasWall()) {
+			flags |= WALL;
+		}
+		if (hasDoorway()) {
+			flags |= DOORWAY;
+		}
+		if (hasChannel()) {
+			flags |= CHANNEL;
+		}
+		TileFloor floor = getFloor();
+		if (floor != null) {
+			if (floor.isRiverTile()) {
+				flags |= RIVER;
+			}
+			if (floor.hasBridge()) {
+				flags |= BRIDGE;
+				if (floor.isBridgeNavigable()) {
+					flags |= NAVIGABLE_BRIDGE;
+				}
+			}
+		}
+		for (Entity entity : entities.values()) {
+			flags |= navigationFlagsOf(entity);
+		}
+		setNavigationFlags(flags);
+	}
+
+	private void setNavigationFlags(int flags) {
+		this.navigationFlags = flags;
+		if (navigationGrid != null) {
+			navigationGrid.setFlags(tilePosition.x, tilePosition.y, flags);
+		}
+	}
+
+	private static int navigationFlagsOf(Entity entity) {
+		if (entity == NULL_ENTITY || entity.getType() == null) {
+			// Placeholder while loading a saved game
+			return 0;
+		}
+		switch (entity.getType()) {
+			case PLANT: {
+				PlantEntityAttributes attributes = (PlantEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
+				PlantSpeciesType plantType = attributes.getSpecies().getPlantType();
+				if (plantType.equals(PlantSpeciesType.TREE) || plantType.equals(PlantSpeciesType.MUSHROOM_TREE)) {
+					return TREE;
+				}
+				return 0;
+			}
+			case FURNITURE: {
+				if (entity.getPhysicalEntityComponent().getAttributes() instanceof DoorwayEntityAttributes) {
+					return 0;
+				}
+				FurnitureEntityAttributes attributes = (FurnitureEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
+				return attributes.getFurnitureType().getFurnitureCategory().isBlocksMovement() ? BLOCKING_FURNITURE : 0;
+			}
+			case ITEM: {
+				ItemEntityAttributes attributes = (ItemEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
+				return attributes.getItemType().blocksMovement() ? BLOCKING_ITEM : 0;
+			}
+			default:
+				return 0;
+		}
+	}
+
 	public boolean hasFloor() {
 		return this.wall == null;
 	}
@@ -244,10 +327,14 @@ public class MapTile implements Persistable {
 	public void setWall(Wall wall, TileRoof roof) {
 		this.wall = wall;
 		this.roof = roof;
+		refreshNavigationFlags();
+		terrainChanged();
 	}
 
 	public void addWall(TileNeighbours neighbours, GameMaterial material, WallType wallType) {
 		this.wall = new Wall(new WallLayout(neighbours), wallType, material);
+		refreshNavigationFlags();
+		terrainChanged();
 	}
 
 	public long getSeed() {
@@ -281,11 +368,19 @@ public class MapTile implements Persistable {
 				return pipeEntity;
 			}
 		}
-		return entities.remove(entityId);
+		Entity removed = entities.remove(entityId);
+		if (removed != null && navigationFlagsOf(removed) != 0) {
+			refreshNavigationFlags();
+		}
+		return removed;
 	}
 
 	public void addEntity(Entity entity) {
 		entities.put(entity.getId(), entity);
+		int entityFlags = navigationFlagsOf(entity);
+		if ((navigationFlags | entityFlags) != navigationFlags) {
+			setNavigationFlags(navigationFlags | entityFlags);
+		}
 	}
 
 	public boolean hasPlant() {
@@ -308,15 +403,7 @@ public class MapTile implements Persistable {
 
 	public boolean hasTree() {
 		// Currently stuff can go behind trees, to disable this, check for trees in tiles to south as well
-		for (Entity entity : entities.values()) {
-			if (entity.getType().equals(EntityType.PLANT)) {
-				PlantEntityAttributes attributes = (PlantEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
-				if (attributes.getSpecies().getPlantType().equals(PlantSpeciesType.TREE) || attributes.getSpecies().getPlantType().equals(PlantSpeciesType.MUSHROOM_TREE)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return (navigationFlags & TREE) != 0;
 	}
 
 	public boolean hasShrub() {
@@ -446,6 +533,7 @@ public class MapTile implements Persistable {
 
 	public void setDoorway(Doorway doorway) {
 		this.doorway = doorway;
+		refreshNavigationFlags();
 	}
 
 	public boolean hasConstruction() {
@@ -465,7 +553,7 @@ public class MapTile implements Persistable {
 	}
 
 	public int getRegionId() {
-		return regionId;
+		return regionIndex == null ? regionId : regionIndex.find(regionId);
 	}
 
 	public void setRegionId(int regionId) {
@@ -501,7 +589,7 @@ public class MapTile implements Persistable {
 		// Don't need to check if already in state holder?
 		JSONObject asJson = new JSONObject(true);
 
-		asJson.put("regionId", regionId);
+		asJson.put("regionId", getRegionId());
 
 		if (!entities.isEmpty()) {
 			JSONArray entities = new JSONArray();
@@ -660,6 +748,7 @@ public class MapTile implements Persistable {
 		}
 
 		this.exploration = EnumParser.getEnumValue(asJson, "exploration", TileExploration.class, TileExploration.EXPLORED);
+		refreshNavigationFlags();
 
 		savedGameStateHolder.tiles.put(tilePosition, this);
 	}
@@ -670,6 +759,7 @@ public class MapTile implements Persistable {
 
 	public void setExploration(TileExploration exploration) {
 		this.exploration = exploration;
+		terrainChanged();
 	}
 
 	public Map<Long, ParticleEffectInstance> getParticleEffects() {
@@ -678,10 +768,20 @@ public class MapTile implements Persistable {
 
 	public void replaceFloor(TileFloor newFloor) {
 		this.floors.push(newFloor);
+		refreshNavigationFlags();
+		terrainChanged();
 	}
 
 	public void popFloor() {
 		this.floors.pop();
+		refreshNavigationFlags();
+		terrainChanged();
+	}
+
+	private void terrainChanged() {
+		if (terrainRevisions != null) {
+			terrainRevisions.tileChanged(tilePosition.x, tilePosition.y);
+		}
 	}
 
 	public UnderTile getUnderTile() {
@@ -697,6 +797,7 @@ public class MapTile implements Persistable {
 
 	public void setUnderTile(UnderTile underTile) {
 		this.underTile = underTile;
+		refreshNavigationFlags();
 	}
 
 	public boolean hasChannel() {
@@ -3,6 +3,7 @@ package technology.rocketjump.undermount.mapping.tile;
 import com.alibaba.fastjson.JSONObject;
 import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.Vector2;
+import technology.rocketjump.undermount.mapping.model.OutsideLightChanges;
 import technology.rocketjump.undermount.persistence.JSONUtils;
 import technology.rocketjump.undermount.persistence.SavedGameDependentDictionaries;
 import technology.rocketjump.undermount.persistence.model.InvalidSaveException;
@@ -27,6 +28,7 @@ public class MapVertex implements Persistable {
 	private final int vertexX;
 	private final int vertexY;
 	private float explorationVisibility = 0f; // 0 to 1 for unexplored to explored
+	private OutsideLightChanges outsideLightChanges;
 
 	public MapVertex(int vertexX, int vertexY) {
 		this.vertexX = vertexX;
@@ -38,9 +40,16 @@ public class MapVertex implements Persistable {
 	}
 
 	public void setOutsideLightAmount(float outsideLightAmount) {
+		if (outsideLightChanges != null && this.outsideLightAmount != outsideLightAmount) {
+			outsideLightChanges.vertexChanged(vertexX, vertexY);
+		}
 		this.outsideLightAmount = outsideLightAmount;
 	}
 
+	public void setOutsideLightChanges(OutsideLightChanges outsideLightChanges) {
+		this.outsideLightChanges = outsideLightChanges;
+	}
+
 	public int getVertexX() {
 		return vertexX;
 	}
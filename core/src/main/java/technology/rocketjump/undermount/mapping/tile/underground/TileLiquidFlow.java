@@ -74,14 +74,18 @@ public class TileLiquidFlow implements ChildPersistable {
 	}
 
 	private void addFlowDirection(CompassDirection inputDirection) {
-		lastFlowDirections.add(inputDirection.toVector().cpy().nor());
-		if (lastFlowDirections.size() > MAX_FLOW_DIRECTION_STORAGE) {
-			lastFlowDirections.remove(0);
+		Vector2 flowDirection;
+		if (lastFlowDirections.size() >= MAX_FLOW_DIRECTION_STORAGE) {
+			// Reuse the oldest direction rather than allocating a new one
+			flowDirection = lastFlowDirections.remove(0);
+		} else {
+			flowDirection = new Vector2();
 		}
+		lastFlowDirections.add(flowDirection.set(inputDirection.getXOffset(), inputDirection.getYOffset()).nor());
 
-		averagedFlowDirection = new Vector2();
-		for (Vector2 lastFlowDirection : lastFlowDirections) {
-			averagedFlowDirection.add(lastFlowDirection);
+		averagedFlowDirection.setZero();
+		for (int cursor = 0; cursor < lastFlowDirections.size(); cursor++) {
+			averagedFlowDirection.add(lastFlowDirections.get(cursor));
 		}
 		averagedFlowDirection.nor().scl(0.5f);
 	}
@@ -120,7 +124,11 @@ public class TileLiquidFlow implements ChildPersistable {
 
 		this.liquidAmount = asJson.getIntValue("liquidAmount");
 
-		this.averagedFlowDirection = JSONUtils.vector2(asJson.getJSONObject("averagedFlowDirection"));
+		Vector2 savedFlowDirection = JSONUtils.vector2(asJson.getJSONObject("averagedFlowDirection"));
+		if (savedFlowDirection != null) {
+			// Not present in older saves
+			this.averagedFlowDirection.set(savedFlowDirection);
+		}
 
 		JSONArray lastFlowDirectionsJson = asJson.getJSONArray("lastFlowDirections");
 		if (lastFlowDirectionsJson != null) {
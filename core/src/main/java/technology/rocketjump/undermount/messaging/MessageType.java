@@ -145,6 +145,7 @@ public class MessageType {
 	public static final int LOOKUP_ITEM_TYPES_BY_TAG_CLASS = 705;
 	public static final int SELECT_AVAILABLE_MATERIAL_FOR_ITEM_TYPE = 706;
 	public static final int CANCEL_ITEM_ALLOCATION = 707;
+	public static final int ITEM_ALLOCATION_CANCELLED = 708;
 
 	// Furniture & doorway specific messages
 	public static final int CREATE_DOORWAY = 801;
@@ -226,6 +227,7 @@ public class MessageType {
 	public static final int REPLACE_REGION = 1302;
 	public static final int AMBIENCE_UPDATE = 1303;
 	public static final int AMBIENCE_PAUSE = 1304;
+	public static final int REGION_SPLIT_SEARCH_COMPLETED = 1305;
 
 	// Sound/audio messages
 	public static final int REQUEST_SOUND = 1400;
@@ -17,7 +17,7 @@ import technology.rocketjump.undermount.persistence.model.InvalidSaveException;
 import technology.rocketjump.undermount.persistence.model.Persistable;
 import technology.rocketjump.undermount.persistence.model.SavedGameStateHolder;
 
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -25,7 +25,12 @@ import java.util.concurrent.PriorityBlockingQueue;
 /**
  * For now this just replaces usages of "Poolable<Telegram>.getInstance()" with "new Telegram()" as Poolable isn't threadsafe
  * <p>
- * Otherwise it is a copy and paste of the LibGDX MessageDispatcher class
+ * Otherwise it is a copy and paste of the LibGDX MessageDispatcher class, except that listeners are looked up in an array
+ * indexed by message code, and immediate telegrams are reused - they are only referenced while being discharged, so each
+ * thread keeps one per level of nested dispatch. Delayed telegrams are still created individually so they can be persisted.
+ * <p>
+ * When statistics are enabled the number of dispatches and the time spent in handlers (including any nested dispatches)
+ * is recorded per message code.
  */
 public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Persistable {
 
@@ -33,12 +38,22 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 
 	private BlockingQueue<Telegram> queue = new PriorityBlockingQueue<>();
 
-	private Map<Integer, Array<Telegraph>> msgListeners = new ConcurrentHashMap<>();
+	private static final int INITIAL_MESSAGE_CODE_CAPACITY = 2048;
+
+	private volatile Array<Telegraph>[] msgListeners = newListenerTable(INITIAL_MESSAGE_CODE_CAPACITY);
+
+	private final Map<Integer, Array<Telegraph>> listenersView = new ListenersView();
 
 	private Map<Integer, Array<TelegramProvider>> msgProviders = new ConcurrentHashMap<>();
 
 	private boolean debugEnabled;
 
+	private final ThreadLocal<ImmediateTelegrams> immediateTelegrams = ThreadLocal.withInitial(ImmediateTelegrams::new);
+
+	private boolean statisticsEnabled;
+	private long[] dispatchCounts = new long[INITIAL_MESSAGE_CODE_CAPACITY];
+	private long[] dispatchNanos = new long[INITIAL_MESSAGE_CODE_CAPACITY];
+
 	/**
 	 * Returns true if debug mode is on; false otherwise.
 	 */
@@ -61,11 +76,11 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 	 * @param msg      the message code
 	 */
 	public void addListener(Telegraph listener, int msg) {
-		Array<Telegraph> listeners = msgListeners.get(msg);
+		Array<Telegraph> listeners = getListeners(msg);
 		if (listeners == null) {
 			// Associate an empty unordered array with the message code
 			listeners = new Array<Telegraph>(false, 16);
-			msgListeners.put(msg, listeners);
+			setListeners(msg, listeners);
 		}
 		listeners.add(listener);
 
@@ -95,8 +110,33 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 			addListener(listener, msg);
 	}
 
+	/**
+	 * @return a read-only view of the listeners by message code, backed by the listener table rather than copied from it
+	 */
 	public Map<Integer, Array<Telegraph>> getListeners() {
-		return msgListeners;
+		return listenersView;
+	}
+
+	private Array<Telegraph> getListeners(int msg) {
+		Array<Telegraph>[] msgListeners = this.msgListeners;
+		return msg >= 0 && msg < msgListeners.length ? msgListeners[msg] : null;
+	}
+
+	private synchronized void setListeners(int msg, Array<Telegraph> listeners) {
+		if (msg < 0) {
+			throw new IllegalArgumentException("Message code can not be negative: " + msg);
+		}
+		if (msg >= msgListeners.length) {
+			Array<Telegraph>[] resized = newListenerTable(Math.max(msg + 1, msgListeners.length * 2));
+			System.arraycopy(msgListeners, 0, resized, 0, msgListeners.length);
+			msgListeners = resized;
+		}
+		msgListeners[msg] = listeners;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Array<Telegraph>[] newListenerTable(int size) {
+		return (Array<Telegraph>[]) new Array[size];
 	}
 
 	/**
@@ -133,7 +173,7 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 	 * @param msg      the message code
 	 */
 	public void removeListener(Telegraph listener, int msg) {
-		Array<Telegraph> listeners = msgListeners.get(msg);
+		Array<Telegraph> listeners = getListeners(msg);
 		if (listeners != null) {
 			listeners.removeValue(listener, true);
 		}
@@ -156,7 +196,9 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 	 * @param msg the message code
 	 */
 	public void clearListeners(int msg) {
-		msgListeners.remove(msg);
+		if (getListeners(msg) != null) {
+			setListeners(msg, null);
+		}
 	}
 
 	/**
@@ -173,7 +215,7 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 	 * Removes all the registered listeners for all the message codes.
 	 */
 	public void clearListeners() {
-		msgListeners.clear();
+		msgListeners = newListenerTable(INITIAL_MESSAGE_CODE_CAPACITY);
 	}
 
 	/**
@@ -533,14 +575,6 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 			if (sender == null && needsReturnReceipt)
 				throw new IllegalArgumentException("Sender cannot be null when a return receipt is needed");
 
-			// Get a telegram from the pool
-			Telegram telegram = new PersistableTelegram();
-			telegram.sender = sender;
-			telegram.receiver = receiver;
-			telegram.message = msg;
-			telegram.extraInfo = extraInfo;
-			telegram.returnReceiptStatus = needsReturnReceipt ? Telegram.RETURN_RECEIPT_NEEDED : Telegram.RETURN_RECEIPT_UNNEEDED;
-
 			// If there is no delay, route telegram immediately
 			if (delay <= 0.0f) {
 
@@ -552,9 +586,18 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 									+ ". Message code is " + msg);
 				}
 
-				// Send the telegram to the recipient
-				discharge(telegram);
+				ImmediateTelegrams telegrams = immediateTelegrams.get();
+				Telegram telegram = telegrams.obtain();
+				try {
+					populate(telegram, sender, receiver, msg, extraInfo, needsReturnReceipt);
+					// Send the telegram to the recipient
+					discharge(telegram);
+				} finally {
+					telegrams.release(telegram);
+				}
 			} else {
+				Telegram telegram = new PersistableTelegram();
+				populate(telegram, sender, receiver, msg, extraInfo, needsReturnReceipt);
 				float currentTime = GdxAI.getTimepiece().getTime();
 
 				// Set the timestamp for the delayed telegram
@@ -632,7 +675,29 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 		}
 	}
 
+	private void populate(Telegram telegram, Telegraph sender, Telegraph receiver, int msg, Object extraInfo, boolean needsReturnReceipt) {
+		telegram.sender = sender;
+		telegram.receiver = receiver;
+		telegram.message = msg;
+		telegram.extraInfo = extraInfo;
+		telegram.returnReceiptStatus = needsReturnReceipt ? Telegram.RETURN_RECEIPT_NEEDED : Telegram.RETURN_RECEIPT_UNNEEDED;
+	}
+
 	private void discharge(Telegram telegram) {
+		if (statisticsEnabled) {
+			int msg = telegram.message;
+			long startTime = System.nanoTime();
+			try {
+				dischargeTelegram(telegram);
+			} finally {
+				recordDispatch(msg, System.nanoTime() - startTime);
+			}
+		} else {
+			dischargeTelegram(telegram);
+		}
+	}
+
+	private void dischargeTelegram(Telegram telegram) {
 		if (telegram.receiver != null) {
 			// Dispatch the telegram to the receiver specified by the telegram itself
 			if (!telegram.receiver.handleMessage(telegram)) {
@@ -642,7 +707,7 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 		} else {
 			// Dispatch the telegram to all the registered receivers
 			int handledCount = 0;
-			Array<Telegraph> listeners = msgListeners.get(telegram.message);
+			Array<Telegraph> listeners = getListeners(telegram.message);
 			if (listeners != null) {
 				for (int i = 0; i < listeners.size; i++) {
 					if (listeners.get(i).handleMessage(telegram)) {
@@ -663,7 +728,54 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 			telegram.receiver = telegram.sender;
 			telegram.sender = this;
 			telegram.returnReceiptStatus = Telegram.RETURN_RECEIPT_SENT;
-			discharge(telegram);
+			dischargeTelegram(telegram);
+		}
+	}
+
+	public boolean isStatisticsEnabled() {
+		return statisticsEnabled;
+	}
+
+	public void setStatisticsEnabled(boolean statisticsEnabled) {
+		this.statisticsEnabled = statisticsEnabled;
+	}
+
+	/**
+	 * Counts are not synchronised so dispatches from background threads at the same time as the main thread may be missed
+	 */
+	private void recordDispatch(int msg, long nanos) {
+		if (msg < 0) {
+			return;
+		}
+		if (msg >= dispatchCounts.length) {
+			int newSize = Math.max(msg + 1, dispatchCounts.length * 2);
+			dispatchCounts = Arrays.copyOf(dispatchCounts, newSize);
+			dispatchNanos = Arrays.copyOf(dispatchNanos, newSize);
+		}
+		dispatchCounts[msg]++;
+		dispatchNanos[msg] += nanos;
+	}
+
+	public long getDispatchCount(int msg) {
+		return msg >= 0 && msg < dispatchCounts.length ? dispatchCounts[msg] : 0;
+	}
+
+	public void resetStatistics() {
+		Arrays.fill(dispatchCounts, 0);
+		Arrays.fill(dispatchNanos, 0);
+	}
+
+	public void logStatistics(int maxMessageCodes) {
+		List<Integer> dispatchedCodes = new ArrayList<>();
+		for (int msg = 0; msg < dispatchCounts.length; msg++) {
+			if (dispatchCounts[msg] > 0) {
+				dispatchedCodes.add(msg);
+			}
+		}
+		dispatchedCodes.sort((a, b) -> Long.compare(dispatchNanos[b], dispatchNanos[a]));
+		for (int cursor = 0; cursor < dispatchedCodes.size() && cursor < maxMessageCodes; cursor++) {
+			int msg = dispatchedCodes.get(cursor);
+			Logger.info("Message type " + msg + " dispatched " + dispatchCounts[msg] + " times taking " + (dispatchNanos[msg] / 1000000L) + "ms");
 		}
 	}
 
@@ -708,6 +820,26 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 		}
 	}
 
+	private static class ImmediateTelegrams {
+
+		private final Array<Telegram> byDepth = new Array<>();
+		private int depth;
+
+		private Telegram obtain() {
+			if (depth == byDepth.size) {
+				byDepth.add(new Telegram());
+			}
+			return byDepth.get(depth++);
+		}
+
+		private void release(Telegram telegram) {
+			telegram.sender = null;
+			telegram.receiver = null;
+			telegram.extraInfo = null;
+			depth--;
+		}
+	}
+
 	/**
 	 * A {@code PendingMessageCallback} is used by the {@link MessageDispatcher#scanQueue(MessageDispatcher.PendingMessageCallback) scanQueue} method
 	 * of the {@link MessageDispatcher} to report its pending messages individually.
@@ -730,4 +862,67 @@ public class ThreadSafeMessageDispatcher extends MessageDispatcher implements Pe
 						   int returnReceiptStatus);
 	}
 
+	/**
+	 * Map view over msgListeners, only iterating (and so allocating entries) when used for debugging or statistics
+	 */
+	private class ListenersView extends AbstractMap<Integer, Array<Telegraph>> {
+
+		@Override
+		public Array<Telegraph> get(Object key) {
+			return key instanceof Integer ? getListeners((Integer) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Set<Entry<Integer, Array<Telegraph>>> entrySet() {
+			return new AbstractSet<Entry<Integer, Array<Telegraph>>>() {
+				@Override
+				public Iterator<Entry<Integer, Array<Telegraph>>> iterator() {
+					Array<Telegraph>[] table = msgListeners;
+					return new Iterator<Entry<Integer, Array<Telegraph>>>() {
+						private int nextMsg = nextRegistered(table, 0);
+
+						@Override
+						public boolean hasNext() {
+							return nextMsg < table.length;
+						}
+
+						@Override
+						public Entry<Integer, Array<Telegraph>> next() {
+							if (!hasNext()) {
+								throw new NoSuchElementException();
+							}
+							int msg = nextMsg;
+							nextMsg = nextRegistered(table, msg + 1);
+							return new SimpleImmutableEntry<>(msg, table[msg]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					int size = 0;
+					for (Array<Telegraph> listeners : msgListeners) {
+						if (listeners != null) {
+							size++;
+						}
+					}
+					return size;
+				}
+			};
+		}
+
+		private int nextRegistered(Array<Telegraph>[] table, int fromMsg) {
+			int msg = fromMsg;
+			while (msg < table.length && table[msg] == null) {
+				msg++;
+			}
+			return msg;
+		}
+	}
+
 }
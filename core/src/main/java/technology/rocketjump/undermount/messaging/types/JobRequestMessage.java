@@ -5,6 +5,7 @@ import technology.rocketjump.undermount.entities.SequentialIdGenerator;
 import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.entities.planning.JobAssignmentCallback;
 import technology.rocketjump.undermount.environment.GameClock;
+import technology.rocketjump.undermount.jobs.model.Job;
 import technology.rocketjump.undermount.persistence.SavedGameDependentDictionaries;
 import technology.rocketjump.undermount.persistence.model.InvalidSaveException;
 import technology.rocketjump.undermount.persistence.model.Persistable;
@@ -17,6 +18,7 @@ public class JobRequestMessage implements Persistable {
 	private JobAssignmentCallback callback; // This is not persisted, instead the SelectJobAction which references this sets it again
 	private Entity requestingEntity;
 	private boolean cancelled;
+	private Job firstRejectedJob; // Not persisted, only relates to the most recent search for jobs
 
 	public JobRequestMessage() {
 
@@ -45,6 +47,17 @@ public class JobRequestMessage implements Persistable {
 		this.cancelled = cancelled;
 	}
 
+	/**
+	 * @return the first job turned down by the callback's canAccept() in the most recent search for jobs, or null
+	 */
+	public Job getFirstRejectedJob() {
+		return firstRejectedJob;
+	}
+
+	public void setFirstRejectedJob(Job firstRejectedJob) {
+		this.firstRejectedJob = firstRejectedJob;
+	}
+
 	public long getRequestId() {
 		return requestId;
 	}
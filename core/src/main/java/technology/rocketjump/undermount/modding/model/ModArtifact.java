@@ -19,13 +19,24 @@ public class ModArtifact {
 	}
 
 	public long checksum() throws IOException {
+		return checksum(null);
+	}
+
+	/**
+	 * @param fileChecksums cache of the hash of each file's contents, or null to hash every file
+	 */
+	public long checksum(ModFileChecksums fileChecksums) throws IOException {
 		if (sourceFiles.isEmpty()) {
 			throw new RuntimeException("Attempting to calculate checksum of empty " + getClass().getSimpleName());
 		}
 		long total = 0L;
 		for (Path relatedFile : sourceFiles) {
 			LongHashFunction hashFunction = LongHashFunction.xx();
-			total += hashFunction.hashBytes(Files.readAllBytes(relatedFile));
+			if (fileChecksums == null) {
+				total += hashFunction.hashBytes(Files.readAllBytes(relatedFile));
+			} else {
+				total += fileChecksums.checksum(relatedFile);
+			}
 			total += hashFunction.hashChars(relatedFile.getFileName().toString());
 		}
 		return total;
@@ -20,11 +20,15 @@ public class ModCollection {
 	}
 
 	public long getChecksum(ModArtifactDefinition artifactDefinition) throws IOException {
+		return getChecksum(artifactDefinition, null);
+	}
+
+	public long getChecksum(ModArtifactDefinition artifactDefinition, ModFileChecksums fileChecksums) throws IOException {
 		long total = 0;
 		for (ParsedMod mod : modsInOrder) {
 			ModArtifact artifact = mod.get(artifactDefinition);
 			if (artifact != null) {
-				total += artifact.checksum();
+				total += artifact.checksum(fileChecksums);
 			}
 		}
 		return total;
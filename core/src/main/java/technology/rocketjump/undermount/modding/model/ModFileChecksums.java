@@ -0,0 +1,81 @@
+package technology.rocketjump.undermount.modding.model;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import net.openhft.hashing.LongHashFunction;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The hash of the contents of each mod input file, kept between runs along with the file's size and modified time
+ * so that only the files which have changed since the last packaging need to be read and hashed again.
+ *
+ * Safe to use from several threads at once.
+ */
+public class ModFileChecksums {
+
+	private final Map<String, FileChecksum> previous = new ConcurrentHashMap<>();
+	private final Map<String, FileChecksum> current = new ConcurrentHashMap<>();
+
+	public long checksum(Path file) throws IOException {
+		String key = file.toAbsolutePath().normalize().toString();
+		long size = Files.size(file);
+		long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+		FileChecksum checksum = current.get(key);
+		if (checksum == null) {
+			checksum = previous.get(key);
+		}
+		if (checksum == null || checksum.size != size || checksum.lastModified != lastModified) {
+			checksum = new FileChecksum(size, lastModified, LongHashFunction.xx().hashBytes(Files.readAllBytes(file)));
+		}
+		current.put(key, checksum);
+		return checksum.hash;
+	}
+
+	public void read(Path jsonFile) throws IOException {
+		if (!Files.exists(jsonFile)) {
+			return;
+		}
+		JSONObject json = JSON.parseObject(FileUtils.readFileToString(jsonFile.toFile()));
+		for (String key : json.keySet()) {
+			JSONArray values = json.getJSONArray(key);
+			previous.put(key, new FileChecksum(values.getLongValue(0), values.getLongValue(1), values.getLongValue(2)));
+		}
+	}
+
+	/**
+	 * Writes out the checksums of the files used in this run
+	 */
+	public void write(Path jsonFile) throws IOException {
+		JSONObject json = new JSONObject(new TreeMap<>());
+		for (Map.Entry<String, FileChecksum> entry : current.entrySet()) {
+			JSONArray values = new JSONArray();
+			values.add(entry.getValue().size);
+			values.add(entry.getValue().lastModified);
+			values.add(entry.getValue().hash);
+			json.put(entry.getKey(), values);
+		}
+		FileUtils.writeStringToFile(jsonFile.toFile(), json.toJSONString());
+	}
+
+	private static class FileChecksum {
+
+		private final long size;
+		private final long lastModified;
+		private final long hash;
+
+		private FileChecksum(long size, long lastModified, long hash) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.hash = hash;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package technology.rocketjump.undermount.persistence;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import org.apache.commons.compress.archivers.zip.*;
+import org.apache.commons.io.IOUtils;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.persistence.model.InvalidSaveException;
+import technology.rocketjump.undermount.persistence.model.SavedGameStateHolder;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.ZipEntry;
+
+import static technology.rocketjump.undermount.persistence.SavedGameStore.ARCHIVE_HEADER_ENTRY_NAME;
+
+/**
+ * Reads and writes the zip archive of a saved game.
+ *
+ * The tiles and vertices of the map make up most of a save, so rather than being part of the main JSON entry they are
+ * split into bands of rows, each its own entry, which are serialised and compressed in parallel when saving and
+ * parsed in parallel when loading (see Reader). The header and main entries are streamed straight to and from the
+ * archive, although saving still builds the whole JSON of the save in memory first.
+ *
+ * Saves written as a single JSON entry (as older saves were) are still read, and can still be written as an export.
+ */
+public class SavedGameArchive {
+
+	public static final int CHUNKED_SAVE_FORMAT = 2;
+
+	private static final int ROWS_PER_CHUNK = 32;
+	private static final String TILE_CHUNK_PREFIX = "tiles/";
+	private static final String VERTEX_CHUNK_PREFIX = "vertices/";
+	private static final String CHUNK_SUFFIX = ".json";
+
+	/**
+	 * Note that when chunking, the tiles and vertices are removed from mainJson
+	 */
+	public static void write(File saveFile, String mainEntryName, JSONObject headerJson, JSONObject mainJson,
+							 boolean singleJsonEntry) throws IOException, InterruptedException, ExecutionException {
+		try (ZipArchiveOutputStream archive = new ZipArchiveOutputStream(saveFile)) {
+			if (singleJsonEntry) {
+				writeJsonEntry(headerJson, ARCHIVE_HEADER_ENTRY_NAME, archive);
+				writeJsonEntry(mainJson, mainEntryName, archive);
+				return;
+			}
+
+			int mapWidth = mainJson.getJSONObject("map").getIntValue("width");
+			JSONArray tiles = (JSONArray) mainJson.remove("tiles");
+			JSONArray vertices = (JSONArray) mainJson.remove("vertices");
+			mainJson.put("saveFormat", CHUNKED_SAVE_FORMAT);
+			headerJson.put("saveFormat", CHUNKED_SAVE_FORMAT);
+
+			ParallelScatterZipCreator chunkWriter = new ParallelScatterZipCreator();
+			addChunks(tiles, mapWidth * ROWS_PER_CHUNK, TILE_CHUNK_PREFIX, chunkWriter);
+			addChunks(vertices, (mapWidth + 1) * ROWS_PER_CHUNK, VERTEX_CHUNK_PREFIX, chunkWriter);
+
+			writeJsonEntry(headerJson, ARCHIVE_HEADER_ENTRY_NAME, archive);
+			writeJsonEntry(mainJson, mainEntryName, archive);
+			chunkWriter.writeTo(archive);
+		}
+	}
+
+	private static void writeJsonEntry(JSONObject json, String entryName, ZipArchiveOutputStream archive) throws IOException {
+		archive.putArchiveEntry(new ZipArchiveEntry(entryName));
+		Writer writer = new BufferedWriter(new OutputStreamWriter(archive, Charset.defaultCharset()));
+		JSON.writeJSONStringTo(json, writer, SerializerFeature.DisableCircularReferenceDetect);
+		writer.flush();
+		archive.closeArchiveEntry();
+	}
+
+	private static void addChunks(JSONArray elements, int elementsPerChunk, String prefix, ParallelScatterZipCreator chunkWriter) {
+		for (int chunkIndex = 0; chunkIndex * elementsPerChunk < elements.size(); chunkIndex++) {
+			int start = chunkIndex * elementsPerChunk;
+			List<Object> chunk = elements.subList(start, Math.min(start + elementsPerChunk, elements.size()));
+
+			ZipArchiveEntry chunkEntry = new ZipArchiveEntry(prefix + chunkIndex + CHUNK_SUFFIX);
+			chunkEntry.setMethod(ZipEntry.DEFLATED);
+			chunkWriter.addArchiveEntry(chunkEntry, () -> new ByteArrayInputStream(
+					JSON.toJSONBytes(chunk, SerializerFeature.DisableCircularReferenceDetect)));
+		}
+	}
+
+	private static int toChunkIndex(String entryName, String prefix) throws IOException {
+		try {
+			return Integer.parseInt(entryName.substring(prefix.length(), entryName.length() - CHUNK_SUFFIX.length()));
+		} catch (NumberFormatException | IndexOutOfBoundsException e) {
+			throw new IOException("Unrecognised save entry " + entryName);
+		}
+	}
+
+	/**
+	 * Reads a save back, the main entry first so the state holder can be created, then the tiles and vertices
+	 * of the map as part of SavedGameStateHolder.jsonToObjects().
+	 *
+	 * Each chunk of a chunked save is parsed in parallel and read into the map as soon as it is ready, so at most
+	 * a few chunks are held as JSON at once rather than the whole map. Chunks are stored in no particular order.
+	 */
+	public static class Reader implements SavedGameStateHolder.MapContentsReader, Closeable {
+
+		private static final int MAX_CHUNKS_IN_FLIGHT = Runtime.getRuntime().availableProcessors();
+
+		private final File saveFile;
+		private final ZipArchiveInputStream archive;
+		private final Deque<PendingChunk> pendingChunks = new ArrayDeque<>();
+		private int mapWidth;
+
+		public Reader(File saveFile) throws IOException {
+			this.saveFile = saveFile;
+			this.archive = new ZipArchiveInputStream(new BufferedInputStream(new FileInputStream(saveFile)));
+		}
+
+		/**
+		 * @return the main JSON of the save, which for a single JSON entry save also contains its tiles and vertices
+		 */
+		public JSONObject readMainJson() throws IOException {
+			ZipArchiveEntry archiveEntry;
+			while ((archiveEntry = archive.getNextZipEntry()) != null) {
+				String entryName = archiveEntry.getName();
+				if (entryName.equals(ARCHIVE_HEADER_ENTRY_NAME)) {
+					continue;
+				} else if (isChunk(entryName)) {
+					throw new IOException("Found " + entryName + " before main entry in " + saveFile.getName());
+				}
+				// Not closed as that would close the archive
+				JSONReader reader = new JSONReader(new BufferedReader(new InputStreamReader(archive, Charset.defaultCharset())));
+				JSONObject mainJson = reader.readObject(JSONObject.class);
+				mapWidth = mainJson.getJSONObject("map").getIntValue("width");
+				return mainJson;
+			}
+			throw new IOException("Could not find main entry in " + saveFile.getName());
+		}
+
+		@Override
+		public void readInto(SavedGameStateHolder stateHolder, SavedGameDependentDictionaries relatedStores) throws InvalidSaveException, IOException {
+			int[] numTilesRead = new int[1];
+			int[] numVerticesRead = new int[1];
+			readChunks((tiles, firstIndex) -> {
+				stateHolder.readTiles(tiles, firstIndex, relatedStores);
+				numTilesRead[0] += tiles.size();
+			}, (vertices, firstIndex) -> {
+				stateHolder.readVertices(vertices, firstIndex, relatedStores);
+				numVerticesRead[0] += vertices.size();
+			});
+
+			TiledMap map = stateHolder.getMap();
+			if (numTilesRead[0] != map.getWidth() * map.getHeight() ||
+					numVerticesRead[0] != (map.getWidth() + 1) * (map.getHeight() + 1)) {
+				throw new InvalidSaveException("Missing map tiles or vertices in " + saveFile.getName());
+			}
+		}
+
+		/**
+		 * Passes each chunk of tiles and vertices to the given consumer as it is parsed, along with the index of its
+		 * first element. Must be called after readMainJson().
+		 */
+		public void readChunks(ChunkConsumer tileConsumer, ChunkConsumer vertexConsumer) throws InvalidSaveException, IOException {
+			ZipArchiveEntry archiveEntry;
+			while ((archiveEntry = archive.getNextZipEntry()) != null) {
+				String entryName = archiveEntry.getName();
+				if (entryName.startsWith(TILE_CHUNK_PREFIX)) {
+					addPendingChunk(IOUtils.toByteArray(archive), toChunkIndex(entryName, TILE_CHUNK_PREFIX) * mapWidth * ROWS_PER_CHUNK, tileConsumer);
+				} else if (entryName.startsWith(VERTEX_CHUNK_PREFIX)) {
+					addPendingChunk(IOUtils.toByteArray(archive), toChunkIndex(entryName, VERTEX_CHUNK_PREFIX) * (mapWidth + 1) * ROWS_PER_CHUNK, vertexConsumer);
+				}
+			}
+			while (!pendingChunks.isEmpty()) {
+				consumeOldestChunk();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			pendingChunks.clear();
+			archive.close();
+		}
+
+		private void addPendingChunk(byte[] chunkBytes, int firstIndex, ChunkConsumer consumer) throws InvalidSaveException, IOException {
+			if (pendingChunks.size() >= MAX_CHUNKS_IN_FLIGHT) {
+				consumeOldestChunk();
+			}
+			pendingChunks.add(new PendingChunk(CompletableFuture.supplyAsync(() -> (JSONArray) JSON.parse(chunkBytes)), firstIndex, consumer));
+		}
+
+		private void consumeOldestChunk() throws InvalidSaveException, IOException {
+			PendingChunk chunk = pendingChunks.poll();
+			JSONArray elements;
+			try {
+				elements = chunk.parsing.join();
+			} catch (CompletionException e) {
+				throw new IOException("Could not parse chunk of " + saveFile.getName(), e.getCause());
+			}
+			chunk.consumer.accept(elements, chunk.firstIndex);
+		}
+
+		private boolean isChunk(String entryName) {
+			return entryName.startsWith(TILE_CHUNK_PREFIX) || entryName.startsWith(VERTEX_CHUNK_PREFIX);
+		}
+	}
+
+	public interface ChunkConsumer {
+
+		void accept(JSONArray elements, int firstIndex) throws InvalidSaveException;
+
+	}
+
+	private static class PendingChunk {
+
+		private final CompletableFuture<JSONArray> parsing;
+		private final int firstIndex;
+		private final ChunkConsumer consumer;
+
+		private PendingChunk(CompletableFuture<JSONArray> parsing, int firstIndex, ChunkConsumer consumer) {
+			this.parsing = parsing;
+			this.firstIndex = firstIndex;
+			this.consumer = consumer;
+		}
+	}
+
+}
@@ -2,16 +2,13 @@ package technology.rocketjump.undermount.persistence;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
-import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import org.apache.commons.compress.archivers.*;
-import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.pmw.tinylog.Logger;
 import technology.rocketjump.undermount.assets.AssetDisposable;
 import technology.rocketjump.undermount.constants.ConstantsRepo;
@@ -20,6 +17,7 @@ import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.gamecontext.*;
 import technology.rocketjump.undermount.jobs.model.Job;
 import technology.rocketjump.undermount.logging.CrashHandler;
+import technology.rocketjump.undermount.mapping.ExplorationMessageHandler;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
@@ -34,6 +32,7 @@ import technology.rocketjump.undermount.modding.model.ParsedMod;
 import technology.rocketjump.undermount.persistence.model.InvaidSaveOrModsMissingException;
 import technology.rocketjump.undermount.persistence.model.InvalidSaveException;
 import technology.rocketjump.undermount.persistence.model.SavedGameStateHolder;
+import technology.rocketjump.undermount.rendering.camera.GlobalSettings;
 import technology.rocketjump.undermount.rendering.camera.PrimaryCameraWrapper;
 import technology.rocketjump.undermount.rooms.Room;
 import technology.rocketjump.undermount.rooms.constructions.Construction;
@@ -42,15 +41,15 @@ import technology.rocketjump.undermount.ui.i18n.I18nTranslator;
 import technology.rocketjump.undermount.ui.widgets.GameDialogDictionary;
 import technology.rocketjump.undermount.ui.widgets.ModalDialog;
 
-import java.io.*;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
-import static technology.rocketjump.undermount.persistence.SavedGameStore.ARCHIVE_HEADER_ENTRY_NAME;
-
 @Singleton
 public class SavedGameMessageHandler implements Telegraph, GameContextAware, AssetDisposable {
 
@@ -66,6 +65,7 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 	private final ConstantsRepo constantsRepo;
 	private final SavedGameStore savedGameStore;
 	private final I18nTranslator i18nTranslator;
+	private final ExplorationMessageHandler explorationMessageHandler;
 	private GameContext gameContext;
 
 	private boolean savingInProgress;
@@ -77,7 +77,8 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 								   BackgroundTaskManager backgroundTaskManager, PrimaryCameraWrapper primaryCameraWrapper,
 								   GameContextRegister gameContextRegister, GameContextFactory gameContextFactory,
 								   LocalModRepository localModRepository, GameDialogDictionary gameDialogDictionary,
-								   ConstantsRepo constantsRepo, SavedGameStore savedGameStore, I18nTranslator i18nTranslator) {
+								   ConstantsRepo constantsRepo, SavedGameStore savedGameStore, I18nTranslator i18nTranslator,
+								   ExplorationMessageHandler explorationMessageHandler) {
 		this.relatedStores = savedGameDependentDictionaries;
 		this.messageDispatcher = messageDispatcher;
 		this.userFileManager = userFileManager;
@@ -90,6 +91,7 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 		this.constantsRepo = constantsRepo;
 		this.savedGameStore = savedGameStore;
 		this.i18nTranslator = i18nTranslator;
+		this.explorationMessageHandler = explorationMessageHandler;
 
 		messageDispatcher.addListener(this, MessageType.REQUEST_SAVE);
 		messageDispatcher.addListener(this, MessageType.PERFORM_LOAD);
@@ -208,6 +210,8 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 		}
 		String saveFileName = toAlphanumeric(settlementName);
 		backgroundTaskManager.waitForOutstandingTasks();
+		// Exploration still being revealed over the next few frames would otherwise be lost
+		explorationMessageHandler.completePendingExploration();
 
 		SavedGameStateHolder stateHolder = new SavedGameStateHolder();
 
@@ -262,22 +266,8 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 				JSONObject headerJson = produceHeaderFrom(fileContents);
 
 				File saveFile = userFileManager.getOrCreateSaveFile(saveFileName);
-				File tempMainFile = userFileManager.getOrCreateSaveFile("body.temp");
-				File tempHeaderFile = userFileManager.getOrCreateSaveFile("header.temp");
-				writeJsonToFile(fileContents, tempMainFile);
-				writeJsonToFile(headerJson, tempHeaderFile);
-
-				OutputStream archiveStream = new FileOutputStream(saveFile);
-				ArchiveOutputStream archive = new ArchiveStreamFactory().createArchiveOutputStream(ArchiveStreamFactory.ZIP, archiveStream);
-
-				addArchiveEntry(tempHeaderFile, ARCHIVE_HEADER_ENTRY_NAME, archive);
-				addArchiveEntry(tempMainFile, saveFileName + ".json", archive);
+				SavedGameArchive.write(saveFile, saveFileName + ".json", headerJson, fileContents, GlobalSettings.EXPORT_SAVES_AS_SINGLE_JSON);
 
-				archive.finish();
-				IOUtils.closeQuietly(archiveStream);
-
-				tempMainFile.delete();
-				tempHeaderFile.delete();
 				messageDispatcher.dispatchMessage(MessageType.SAVE_COMPLETED, new SavedGameInfo(saveFile, headerJson, i18nTranslator));
 				return BackgroundTaskResult.success();
 			} catch (Exception e) {
@@ -304,18 +294,6 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 		return result.toString();
 	}
 
-	private void writeJsonToFile(JSONObject json, File targetFile) throws IOException {
-		targetFile.delete();
-		targetFile.createNewFile();
-		BufferedWriter tempFileWriter = new BufferedWriter(new FileWriter(targetFile));
-		try {
-			JSON.writeJSONStringTo(json, tempFileWriter,
-					SerializerFeature.DisableCircularReferenceDetect);
-		} finally {
-			IOUtils.closeQuietly(tempFileWriter);
-		}
-	}
-
 	private JSONObject produceHeaderFrom(JSONObject mainJsonContent) {
 		JSONObject headerJson = new JSONObject(true);
 		headerJson.put("name", mainJsonContent.getJSONObject("settlementState").getString("settlementName"));
@@ -325,15 +303,6 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 		return headerJson;
 	}
 
-	private void addArchiveEntry(File sourceFile, String entryName, ArchiveOutputStream archive) throws IOException {
-		ZipArchiveEntry headerEntry = new ZipArchiveEntry(entryName);
-		archive.putArchiveEntry(headerEntry);
-		BufferedInputStream headerInputStream = new BufferedInputStream(new FileInputStream(sourceFile));
-		IOUtils.copy(headerInputStream, archive);
-		IOUtils.closeQuietly(headerInputStream);
-		archive.closeArchiveEntry();
-	}
-
 
 	public void load(SavedGameInfo savedGameInfo) throws IOException, InvalidSaveException, ArchiveException {
 		if (savingInProgress) {
@@ -344,40 +313,15 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 			throw new FileNotFoundException("Save file does not exist: " + savedGameInfo.file.getName() + ".save");
 		}
 
-		String jsonString;
+		SavedGameStateHolder stateHolder;
 		if (savedGameInfo.isCompressed()) {
-			InputStream archiveStream = new FileInputStream(saveFile);
-			ArchiveInputStream archive = new ArchiveStreamFactory().createArchiveInputStream(ArchiveStreamFactory.ZIP, archiveStream);
-			ArchiveEntry archiveEntry = archive.getNextEntry();
-			StringWriter stringWriter = new StringWriter();
-			while (archiveEntry != null && archiveEntry.getName().equals(ARCHIVE_HEADER_ENTRY_NAME)) {
-				archiveEntry = archive.getNextEntry();
-			}
-
-			if (archiveEntry == null) {
-				throw new IOException("Could not find main entry in " + saveFile.getName());
+			try (SavedGameArchive.Reader archiveReader = new SavedGameArchive.Reader(saveFile)) {
+				stateHolder = new SavedGameStateHolder(archiveReader.readMainJson());
+				jsonToObjects(stateHolder, archiveReader);
 			}
-
-			IOUtils.copy(archive, stringWriter);
-			jsonString = stringWriter.toString();
-			IOUtils.closeQuietly(stringWriter);
-			IOUtils.closeQuietly(archive);
-			IOUtils.closeQuietly(archiveStream);
 		} else {
-			jsonString = FileUtils.readFileToString(savedGameInfo.file);
-		}
-
-		JSONObject storedJson = JSON.parseObject(jsonString);
-		SavedGameStateHolder stateHolder = new SavedGameStateHolder(storedJson);
-		try {
-			stateHolder.jsonToObjects(relatedStores);
-		} catch (InvalidSaveException e) {
-			List<String> missingModNames = getMissingModNames(stateHolder);
-			if (!missingModNames.isEmpty()) {
-				throw new InvaidSaveOrModsMissingException(missingModNames, e.getMessage());
-			} else {
-				throw e;
-			}
+			stateHolder = new SavedGameStateHolder(JSON.parseObject(FileUtils.readFileToString(savedGameInfo.file)));
+			jsonToObjects(stateHolder, null);
 		}
 
 		GameContext gameContext = gameContextFactory.create(stateHolder);
@@ -410,6 +354,19 @@ public class SavedGameMessageHandler implements Telegraph, GameContextAware, Ass
 		}
 	}
 
+	private void jsonToObjects(SavedGameStateHolder stateHolder, SavedGameStateHolder.MapContentsReader mapContentsReader) throws InvalidSaveException, IOException {
+		try {
+			stateHolder.jsonToObjects(relatedStores, mapContentsReader);
+		} catch (InvalidSaveException e) {
+			List<String> missingModNames = getMissingModNames(stateHolder);
+			if (!missingModNames.isEmpty()) {
+				throw new InvaidSaveOrModsMissingException(missingModNames, e.getMessage());
+			} else {
+				throw e;
+			}
+		}
+	}
+
 	private List<String> getMissingModNames(SavedGameStateHolder savedGameStateHolder) {
 		List<ParsedMod> currentlyActiveMods = localModRepository.getActiveMods();
 		List<String> currentlyActiveModNames = currentlyActiveMods.stream().map(mod -> mod.getInfo().getName()).collect(Collectors.toList());
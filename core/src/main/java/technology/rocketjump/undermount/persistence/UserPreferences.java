@@ -63,10 +63,14 @@ public class UserPreferences {
 		ZOOM_TO_CURSOR,
 		TREE_TRANSPARENCY,
 		PAUSE_FOR_NOTIFICATIONS,
+		PARALLEL_ENTITY_UPDATES,
+		FIXED_TIMESTEP_SIMULATION,
 		ACTIVE_MODS,
 		ALLOW_HINTS,
 		ENABLE_TUTORIAL,
 		MAIN_MENU_BACKGROUND_SCROLLING,
+		MESSAGE_STATISTICS,
+		EXPORT_SAVES_AS_SINGLE_JSON,
 
 		TWITCH_TOKEN,
 		TWITCH_INTEGRATION_ENABLED,
@@ -35,6 +35,7 @@ import technology.rocketjump.undermount.settlement.SettlementState;
 import technology.rocketjump.undermount.settlement.production.ProductionAssignment;
 import technology.rocketjump.undermount.zones.Zone;
 
+import java.io.IOException;
 import java.util.*;
 
 public class SavedGameStateHolder {
@@ -177,8 +178,11 @@ public class SavedGameStateHolder {
 
 	/**
 	 * This is the inverse of turning in-game instances into json
+	 *
+	 * @param mapContentsReader reads the tiles and vertices into the map when they are not part of the combined
+	 *                          JSON (i.e. chunked saves), may be null otherwise
 	 */
-	public void jsonToObjects(SavedGameDependentDictionaries relatedStores) throws InvalidSaveException {
+	public void jsonToObjects(SavedGameDependentDictionaries relatedStores, MapContentsReader mapContentsReader) throws InvalidSaveException, IOException {
 		// Load in mod info first in case this is responsible for a later error
 		for (Map.Entry<String, Object> entry : modsJson.entrySet()) {
 			String modName = entry.getKey();
@@ -216,17 +220,13 @@ public class SavedGameStateHolder {
 		}
 
 		map = createMap(relatedStores);
-		for (int y = 0; y < map.getHeight(); y++) {
-			for (int x = 0; x < map.getWidth(); x++) {
-				JSONObject tileAsJson = tileJson.getJSONObject(x + (y * map.getWidth()));
-				map.getTile(x, y).readFrom(tileAsJson, this, relatedStores);
-			}
-		}
-		for (int y = 0; y <= map.getHeight(); y++) {
-			for (int x = 0; x <= map.getWidth(); x++) {
-				JSONObject vertexAsJson = vertexJson.getJSONObject(x + (y * (map.getWidth() + 1)));
-				map.getVertex(x, y).readFrom(vertexAsJson, this, relatedStores);
-			}
+		if (tileJson != null) {
+			readTiles(tileJson, 0, relatedStores);
+			readVertices(vertexJson, 0, relatedStores);
+		} else if (mapContentsReader != null) {
+			mapContentsReader.readInto(this, relatedStores);
+		} else {
+			throw new InvalidSaveException("Save does not contain any map tiles");
 		}
 
 		mapEnvironment = new MapEnvironment();
@@ -247,6 +247,27 @@ public class SavedGameStateHolder {
 		// PrimaryCameraWrapper handled elsewhere
 	}
 
+	/**
+	 * Reads tiles into the map, the first element of tilesJson being the tile at (y * mapWidth) + x = firstTileIndex
+	 */
+	public void readTiles(JSONArray tilesJson, int firstTileIndex, SavedGameDependentDictionaries relatedStores) throws InvalidSaveException {
+		for (int cursor = 0; cursor < tilesJson.size(); cursor++) {
+			int tileIndex = firstTileIndex + cursor;
+			map.getTile(tileIndex % map.getWidth(), tileIndex / map.getWidth()).readFrom(tilesJson.getJSONObject(cursor), this, relatedStores);
+		}
+	}
+
+	/**
+	 * As readTiles(), with vertices indexed by (y * (mapWidth + 1)) + x
+	 */
+	public void readVertices(JSONArray verticesJson, int firstVertexIndex, SavedGameDependentDictionaries relatedStores) throws InvalidSaveException {
+		int verticesWide = map.getWidth() + 1;
+		for (int cursor = 0; cursor < verticesJson.size(); cursor++) {
+			int vertexIndex = firstVertexIndex + cursor;
+			map.getVertex(vertexIndex % verticesWide, vertexIndex / verticesWide).readFrom(verticesJson.getJSONObject(cursor), this, relatedStores);
+		}
+	}
+
 	private TiledMap createMap(SavedGameDependentDictionaries relatedStores) throws InvalidSaveException {
 		long seed = mapJson.getLongValue("seed");
 		int width = mapJson.getIntValue("width");
@@ -344,4 +365,14 @@ public class SavedGameStateHolder {
 	public MapEnvironment getMapEnvironment() {
 		return mapEnvironment;
 	}
+
+	/**
+	 * Reads the tiles and vertices of a save (see readTiles() and readVertices()) from somewhere other than the
+	 * combined JSON, once everything they may refer to has been read and the map has been created
+	 */
+	public interface MapContentsReader {
+
+		void readInto(SavedGameStateHolder stateHolder, SavedGameDependentDictionaries relatedStores) throws InvalidSaveException, IOException;
+
+	}
 }
@@ -134,12 +134,14 @@ public class GameRenderer implements AssetDisposable {
 		}
 
 
+		VisibleScene visibleScene = worldRenderer.gatherVisibleScene(worldMap, camera);
+
 		diffuseFrameBuffer.begin();
-		worldRenderer.renderWorld(worldMap, camera, diffuseSpriteCache, RenderMode.DIFFUSE, lightsToRenderThisFrame, particlesToRenderAsUI);
+		worldRenderer.renderWorld(visibleScene, worldMap, camera, diffuseSpriteCache, RenderMode.DIFFUSE, lightsToRenderThisFrame, particlesToRenderAsUI);
 		diffuseFrameBuffer.end();
 
 		bumpMapFrameBuffer.begin();
-		worldRenderer.renderWorld(worldMap, camera, normalSpriteCache, RenderMode.NORMALS, null, null);
+		worldRenderer.renderWorld(visibleScene, worldMap, camera, normalSpriteCache, RenderMode.NORMALS, null, null);
 		bumpMapFrameBuffer.end();
 
 		/////// Draw lighting info ///
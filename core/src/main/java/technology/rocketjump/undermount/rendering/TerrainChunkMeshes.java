@@ -0,0 +1,152 @@
+package technology.rocketjump.undermount.rendering;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import technology.rocketjump.undermount.mapping.model.TerrainRevisions;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.rendering.custom_libgdx.VertexColorSpriteBatch;
+
+/**
+ * Static meshes of the floors and walls of each chunk of the map, per render mode, so the terrain in view can be drawn
+ * as a handful of meshes rather than every tile's sprites being put through the batch each frame.
+ *
+ * The vertices of a chunk are recorded from the same drawing code as before, and it is only recorded again once the
+ * map's TerrainRevisions for that chunk has moved on.
+ */
+public class TerrainChunkMeshes implements Disposable {
+
+	public enum Layer {
+		FLOORS, WALLS
+	}
+
+	private static final int VERTEX_SIZE = 2 + 1 + 2;
+	private static final int SPRITE_SIZE = 4 * VERTEX_SIZE;
+	private static final int MAX_SPRITES_PER_MESH = 5460; // Same limit on indices as the batch
+	private static final short[] INDICES = new short[MAX_SPRITES_PER_MESH * 6];
+
+	static {
+		short j = 0;
+		for (int i = 0; i < INDICES.length; i += 6, j += 4) {
+			INDICES[i] = j;
+			INDICES[i + 1] = (short) (j + 1);
+			INDICES[i + 2] = (short) (j + 2);
+			INDICES[i + 3] = (short) (j + 2);
+			INDICES[i + 4] = (short) (j + 3);
+			INDICES[i + 5] = j;
+		}
+	}
+
+	private TiledMap currentMap;
+	private ChunkMesh[][] chunkMeshes; // by render mode and layer, then by chunk
+
+	/**
+	 * @return the mesh for this chunk, which will need recording if it is not up to date with the map
+	 */
+	public ChunkMesh get(TiledMap map, int chunkX, int chunkY, RenderMode renderMode, Layer layer) {
+		if (map != currentMap) {
+			reset(map);
+		}
+		TerrainRevisions revisions = map.getTerrainRevisions();
+		ChunkMesh[] meshes = chunkMeshes[renderMode.ordinal() * Layer.values().length + layer.ordinal()];
+		int chunkIndex = chunkY * revisions.getChunksWide() + chunkX;
+		ChunkMesh chunkMesh = meshes[chunkIndex];
+		if (chunkMesh == null) {
+			chunkMesh = new ChunkMesh();
+			meshes[chunkIndex] = chunkMesh;
+		}
+		return chunkMesh;
+	}
+
+	private void reset(TiledMap map) {
+		dispose();
+		currentMap = map;
+		TerrainRevisions revisions = map.getTerrainRevisions();
+		int numChunks = revisions.getChunksWide() * revisions.getChunksHigh();
+		chunkMeshes = new ChunkMesh[RenderMode.values().length * Layer.values().length][numChunks];
+	}
+
+	@Override
+	public void dispose() {
+		if (chunkMeshes != null) {
+			for (ChunkMesh[] meshes : chunkMeshes) {
+				for (ChunkMesh chunkMesh : meshes) {
+					if (chunkMesh != null) {
+						chunkMesh.dispose();
+					}
+				}
+			}
+		}
+		chunkMeshes = null;
+		currentMap = null;
+	}
+
+	public static class ChunkMesh implements VertexColorSpriteBatch.VertexRecorder, Disposable {
+
+		private int revision = -1;
+		private final Array<Texture> textures = new Array<>();
+		private final Array<Mesh> meshes = new Array<>();
+		private final Array<FloatArray> recording = new Array<>();
+
+		public boolean isUpToDate(int currentRevision) {
+			return revision == currentRevision;
+		}
+
+		/**
+		 * Clears the existing geometry, to be followed by drawing the chunk with this set as the batch's recorder
+		 */
+		public void startRecording() {
+			dispose();
+		}
+
+		@Override
+		public void record(Texture texture, float[] vertices, int count) {
+			FloatArray current = recording.isEmpty() ? null : recording.peek();
+			if (current == null || textures.peek() != texture || current.size + count > MAX_SPRITES_PER_MESH * SPRITE_SIZE) {
+				current = new FloatArray(false, count);
+				recording.add(current);
+				textures.add(texture);
+			}
+			current.addAll(vertices, 0, count);
+		}
+
+		public void finishRecording(int currentRevision) {
+			for (FloatArray vertices : recording) {
+				int numSprites = vertices.size / SPRITE_SIZE;
+				Mesh mesh = new Mesh(true, numSprites * 4, numSprites * 6,
+						new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+						new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
+						new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"));
+				mesh.setVertices(vertices.items, 0, vertices.size);
+				mesh.setIndices(INDICES, 0, numSprites * 6);
+				meshes.add(mesh);
+			}
+			recording.clear();
+			revision = currentRevision;
+		}
+
+		public void draw(VertexColorSpriteBatch batch) {
+			for (int cursor = 0; cursor < meshes.size; cursor++) {
+				Mesh mesh = meshes.get(cursor);
+				batch.draw(textures.get(cursor), mesh, mesh.getNumIndices());
+			}
+		}
+
+		@Override
+		public void dispose() {
+			for (Mesh mesh : meshes) {
+				mesh.dispose();
+			}
+			meshes.clear();
+			textures.clear();
+			recording.clear();
+			revision = -1;
+		}
+	}
+
+}
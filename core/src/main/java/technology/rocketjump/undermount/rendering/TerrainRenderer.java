@@ -1,6 +1,5 @@
 package technology.rocketjump.undermount.rendering;
 
-import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Batch;
@@ -13,6 +12,7 @@ import com.google.inject.Singleton;
 import technology.rocketjump.undermount.assets.ChannelTypeDictionary;
 import technology.rocketjump.undermount.assets.model.ChannelType;
 import technology.rocketjump.undermount.assets.model.WallType;
+import technology.rocketjump.undermount.mapping.model.TerrainRevisions;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.mapping.tile.floor.BridgeTile;
@@ -22,6 +22,9 @@ import technology.rocketjump.undermount.mapping.tile.underground.ChannelLayout;
 import technology.rocketjump.undermount.mapping.tile.wall.Wall;
 import technology.rocketjump.undermount.materials.GameMaterialDictionary;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
+import technology.rocketjump.undermount.rendering.TerrainChunkMeshes.ChunkMesh;
+import technology.rocketjump.undermount.rendering.TerrainChunkMeshes.Layer;
+import technology.rocketjump.undermount.rendering.camera.TileBoundingBox;
 import technology.rocketjump.undermount.rendering.custom_libgdx.AlphaMaskSpriteBatch;
 import technology.rocketjump.undermount.rendering.custom_libgdx.VertexColorSpriteBatch;
 import technology.rocketjump.undermount.rooms.Bridge;
@@ -39,6 +42,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static technology.rocketjump.undermount.mapping.model.TerrainRevisions.CHUNK_SIZE;
+import static technology.rocketjump.undermount.mapping.tile.TileExploration.UNEXPLORED;
 import static technology.rocketjump.undermount.rendering.WorldRenderer.CONSTRUCTION_COLOR;
 
 @Singleton
@@ -54,6 +59,7 @@ public class TerrainRenderer implements Disposable {
 	private final FloorOverlapRenderer floorOverlapRenderer;
 
 	private final VertexColorSpriteBatch vertexColorSpriteBatch = new VertexColorSpriteBatch();
+	private final TerrainChunkMeshes terrainChunkMeshes = new TerrainChunkMeshes();
 	private final AlphaMaskSpriteBatch alphaMaskSpriteBatch = new AlphaMaskSpriteBatch();
 	private final WaterRenderer waterRenderer;
 	private final TerrainSpriteCache diffuseTerrainSpriteCache;
@@ -74,17 +80,8 @@ public class TerrainRenderer implements Disposable {
 		this.diffuseTerrainSpriteCache = diffuseTerrainSpriteCacheProvider.get();
 	}
 
-	public void renderFloors(List<MapTile> mapTiles, Camera camera, TerrainSpriteCache spriteCache, RenderMode renderMode) {
-		vertexColorSpriteBatch.setProjectionMatrix(camera.combined);
-		vertexColorSpriteBatch.enableBlending();
-		vertexColorSpriteBatch.begin();
-		vertexColorSpriteBatch.setColor(Color.WHITE);
-		for (MapTile terrainTile : mapTiles) {
-			if (terrainTile.hasFloor()) {
-				render(terrainTile, vertexColorSpriteBatch, spriteCache, renderMode);
-			}
-		}
-		vertexColorSpriteBatch.end();
+	public void renderFloors(TiledMap map, OrthographicCamera camera, TerrainSpriteCache spriteCache, RenderMode renderMode) {
+		renderTerrainChunks(map, camera, spriteCache, renderMode, Layer.FLOORS);
 	}
 
 	public void renderChannels(TiledMap map, List<MapTile> terrainTiles, OrthographicCamera camera, TerrainSpriteCache spriteCache, RenderMode renderMode) {
@@ -148,19 +145,49 @@ public class TerrainRenderer implements Disposable {
 		return t.getUnderTile() != null && t.getUnderTile().getLiquidFlow() != null && t.getUnderTile().getLiquidFlow().getLiquidAmount() > 0;
 	}
 
-	public void renderWalls(List<MapTile> mapTiles, Camera camera, TerrainSpriteCache spriteCache, RenderMode renderMode) {
+	public void renderWalls(TiledMap map, OrthographicCamera camera, TerrainSpriteCache spriteCache, RenderMode renderMode) {
+		renderTerrainChunks(map, camera, spriteCache, renderMode, Layer.WALLS);
+	}
+
+	private void renderTerrainChunks(TiledMap map, OrthographicCamera camera, TerrainSpriteCache spriteCache, RenderMode renderMode, Layer layer) {
+		TileBoundingBox bounds = new TileBoundingBox(camera, map);
+		TerrainRevisions revisions = map.getTerrainRevisions();
+
 		vertexColorSpriteBatch.setProjectionMatrix(camera.combined);
 		vertexColorSpriteBatch.enableBlending();
 		vertexColorSpriteBatch.begin();
-		vertexColorSpriteBatch.setColor(Color.WHITE);
-		for (MapTile terrainTile : mapTiles) {
-			if (terrainTile.hasWall()) {
-				render(terrainTile, vertexColorSpriteBatch, spriteCache, renderMode);
+		for (int chunkY = bounds.maxY / CHUNK_SIZE; chunkY >= bounds.minY / CHUNK_SIZE; chunkY--) {
+			for (int chunkX = bounds.minX / CHUNK_SIZE; chunkX <= bounds.maxX / CHUNK_SIZE; chunkX++) {
+				ChunkMesh chunkMesh = terrainChunkMeshes.get(map, chunkX, chunkY, renderMode, layer);
+				int revision = revisions.getRevision(chunkX, chunkY);
+				if (!chunkMesh.isUpToDate(revision)) {
+					chunkMesh.startRecording();
+					vertexColorSpriteBatch.setVertexRecorder(chunkMesh);
+					vertexColorSpriteBatch.setColor(Color.WHITE);
+					recordChunk(map, chunkX, chunkY, spriteCache, renderMode, layer);
+					vertexColorSpriteBatch.setVertexRecorder(null);
+					chunkMesh.finishRecording(revision);
+				}
+				chunkMesh.draw(vertexColorSpriteBatch);
 			}
 		}
 		vertexColorSpriteBatch.end();
 	}
 
+	private void recordChunk(TiledMap map, int chunkX, int chunkY, TerrainSpriteCache spriteCache, RenderMode renderMode, Layer layer) {
+		for (int tileY = (chunkY + 1) * CHUNK_SIZE - 1; tileY >= chunkY * CHUNK_SIZE; tileY--) {
+			for (int tileX = chunkX * CHUNK_SIZE; tileX < (chunkX + 1) * CHUNK_SIZE; tileX++) {
+				MapTile mapTile = map.getTile(tileX, tileY);
+				if (mapTile == null || mapTile.getExploration().equals(UNEXPLORED) || mapTile.getFloor().isRiverTile()) {
+					continue;
+				}
+				if (layer.equals(Layer.FLOORS) ? mapTile.hasFloor() : mapTile.hasWall()) {
+					render(mapTile, vertexColorSpriteBatch, spriteCache, renderMode);
+				}
+			}
+		}
+	}
+
 	public void render(Collection<Construction> terrainConstructionsToRender, OrthographicCamera camera, TerrainSpriteCache spriteCache, RenderMode renderMode) {
 		if (!renderMode.equals(RenderMode.DIFFUSE)) {
 			return;
@@ -496,5 +523,6 @@ public class TerrainRenderer implements Disposable {
 	@Override
 	public void dispose() {
 		vertexColorSpriteBatch.dispose();
+		terrainChunkMeshes.dispose();
 	}
 }
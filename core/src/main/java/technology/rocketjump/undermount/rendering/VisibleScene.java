@@ -0,0 +1,78 @@
+package technology.rocketjump.undermount.rendering;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.mapping.tile.MapTile;
+import technology.rocketjump.undermount.particles.model.ParticleEffectInstance;
+import technology.rocketjump.undermount.rendering.entities.InWorldRenderable;
+import technology.rocketjump.undermount.rooms.Bridge;
+import technology.rocketjump.undermount.rooms.constructions.Construction;
+
+import java.util.*;
+
+/**
+ * Everything within the camera's view in a frame, gathered once by WorldRenderer and then replayed by each
+ * render pass (diffuse and normals) rather than each pass walking the visible tiles again.
+ */
+public class VisibleScene {
+
+	private static final Comparator<InWorldRenderable> BACK_TO_FRONT = new InWorldRenderable.YDepthEntityComparator();
+
+	final Array<InWorldRenderable> renderables = new Array<>(); // Sorted back to front once gathered
+	final List<ParticleEffectInstance> ignoreDepthParticleEffects = new ArrayList<>();
+	final List<MapTile> terrainTiles = new ArrayList<>();
+	final List<MapTile> riverTiles = new ArrayList<>();
+	final Map<Bridge, List<MapTile>> bridgeTiles = new HashMap<>();
+	final List<MapTile> roomTiles = new ArrayList<>();
+	final List<MapTile> unexploredTiles = new ArrayList<>();
+	final Set<GridPoint2> settlerLocations = new HashSet<>();
+	final Map<Long, Construction> terrainConstructions = new TreeMap<>();
+	final Map<Long, Construction> otherConstructions = new TreeMap<>(); // This needs to behave like a set and have consistent yet unimportant ordering
+	int totalTiles;
+	int outdoorTiles;
+
+	private final Set<Long> gatheredEntityIds = new HashSet<>();
+	private final Pool<InWorldRenderable> renderablePool = new Pool<InWorldRenderable>() {
+		@Override
+		protected InWorldRenderable newObject() {
+			return new InWorldRenderable();
+		}
+	};
+
+	void clear() {
+		renderablePool.freeAll(renderables);
+		renderables.clear();
+		gatheredEntityIds.clear();
+		ignoreDepthParticleEffects.clear();
+		terrainTiles.clear();
+		riverTiles.clear();
+		bridgeTiles.clear();
+		roomTiles.clear();
+		unexploredTiles.clear();
+		settlerLocations.clear();
+		terrainConstructions.clear();
+		otherConstructions.clear();
+		totalTiles = 0;
+		outdoorTiles = 0;
+	}
+
+	/**
+	 * Entities which are on more than one tile are only added once
+	 */
+	void addRenderable(Entity entity) {
+		if (gatheredEntityIds.add(entity.getId())) {
+			renderables.add(renderablePool.obtain().set(entity));
+		}
+	}
+
+	void addRenderable(ParticleEffectInstance particleEffect) {
+		renderables.add(renderablePool.obtain().set(particleEffect));
+	}
+
+	void sortRenderables() {
+		renderables.sort(BACK_TO_FRONT);
+	}
+
+}
@@ -29,10 +29,9 @@ import technology.rocketjump.undermount.rendering.camera.GlobalSettings;
 import technology.rocketjump.undermount.rendering.camera.TileBoundingBox;
 import technology.rocketjump.undermount.rendering.entities.EntityRenderer;
 import technology.rocketjump.undermount.rendering.entities.InWorldRenderable;
-import technology.rocketjump.undermount.rendering.lighting.LightProcessor;
+import technology.rocketjump.undermount.rendering.lighting.AttachedLightSourceProcessor;
 import technology.rocketjump.undermount.rendering.lighting.PointLight;
 import technology.rocketjump.undermount.rendering.utils.HexColors;
-import technology.rocketjump.undermount.rooms.Bridge;
 import technology.rocketjump.undermount.rooms.constructions.Construction;
 import technology.rocketjump.undermount.rooms.constructions.ConstructionType;
 import technology.rocketjump.undermount.sprites.TerrainSpriteCache;
@@ -63,20 +62,11 @@ public class WorldRenderer implements Disposable {
 
 	private final SpriteBatch basicSpriteBatch = new SpriteBatch();
 
-	private final PriorityQueue<InWorldRenderable> renderables = new PriorityQueue<>(new InWorldRenderable.YDepthEntityComparator());
-	private final List<ParticleEffectInstance> ignoreDepthParticleEffects = new ArrayList<>();
-	private final List<MapTile> terrainTiles = new LinkedList<>();
-	private final List<MapTile> riverTiles = new LinkedList<>();
-	private final Map<Bridge, List<MapTile>> bridgeTiles = new HashMap<>();
-	private final List<MapTile> roomTiles = new LinkedList<>();
-	private final List<MapTile> unexploredTiles = new LinkedList<>();
-	private final Set<Long> entitiesRenderedThisFrame = new HashSet<>();
-	private final Set<GridPoint2> settlerLocations = new HashSet<>();
-	private final Map<Long, Construction> terrainConstructionsToRender = new TreeMap<>();
-	private final Map<Long, Construction> otherConstructionsToRender = new TreeMap<>(); // This needs to behave like a set and have consistent yet unimportant ordering
+	private final VisibleScene visibleScene = new VisibleScene();
+	private final List<ParticleEffectInstance> attachedIgnoreDepthParticleEffects = new ArrayList<>();
 	private final List<ParticleEffectInstance> particlesInFrontOfEntity = new ArrayList<>();
 
-	private final LightProcessor lightProcessor;
+	private final AttachedLightSourceProcessor attachedLightSourceProcessor;
 	public static final Color CONSTRUCTION_COLOR = HexColors.get("#EEEEEE99");
 
 	private static final List<ConstructionType> terrainConstructionTypes = Arrays.asList(WALL_CONSTRUCTION, BRIDGE_CONSTRUCTION);
@@ -85,7 +75,7 @@ public class WorldRenderer implements Disposable {
 	public WorldRenderer(RenderingOptions renderingOptions, TerrainRenderer terrainRenderer, EntityRenderer entityRenderer,
 						 WaterRenderer waterRenderer, FloorOverlapRenderer floorOverlapRenderer, RoomRenderer roomRenderer,
 						 ExplorationRenderer explorationRenderer, MessageDispatcher messageDispatcher,
-						 ParticleEffectStore particleEffectStore, WeatherEffectUpdater weatherEffectUpdater, LightProcessor lightProcessor) {
+						 ParticleEffectStore particleEffectStore, WeatherEffectUpdater weatherEffectUpdater, AttachedLightSourceProcessor attachedLightSourceProcessor) {
 		this.renderingOptions = renderingOptions;
 		this.terrainRenderer = terrainRenderer;
 		this.entityRenderer = entityRenderer;
@@ -96,26 +86,15 @@ public class WorldRenderer implements Disposable {
 		this.messageDispatcher = messageDispatcher;
 		this.particleEffectStore = particleEffectStore;
 		this.weatherEffectUpdater = weatherEffectUpdater;
-		this.lightProcessor = lightProcessor;
+		this.attachedLightSourceProcessor = attachedLightSourceProcessor;
 	}
 
-	public void renderWorld(TiledMap tiledMap, OrthographicCamera camera, TerrainSpriteCache spriteCache, RenderMode renderMode,
-							List<PointLight> lightsToRenderThisFrame, List<ParticleEffectInstance> particlesToRenderAsUI) {
-		Gdx.gl.glClearColor(0.4f, 0.4f, 0.4f, 1); // MODDING expose default background color
-		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-		renderables.clear();
-		entitiesRenderedThisFrame.clear();
-		terrainConstructionsToRender.clear();
-		otherConstructionsToRender.clear();
-		ignoreDepthParticleEffects.clear();
-		terrainTiles.clear();
-		riverTiles.clear();
-		bridgeTiles.clear();
-		roomTiles.clear();
-		unexploredTiles.clear();
-		settlerLocations.clear();
-		int totalTiles = 0;
-		int outdoorTiles = 0;
+	/**
+	 * Collects what is in view of the camera this frame, to then be drawn by renderWorld() for each render mode
+	 */
+	public VisibleScene gatherVisibleScene(TiledMap tiledMap, OrthographicCamera camera) {
+		VisibleScene scene = visibleScene;
+		scene.clear();
 
 		TileBoundingBox bounds = new TileBoundingBox(camera, tiledMap);
 
@@ -126,95 +105,90 @@ public class WorldRenderer implements Disposable {
 					continue;
 				}
 				if (mapTile.getExploration().equals(UNEXPLORED)) {
-					unexploredTiles.add(mapTile);
+					scene.unexploredTiles.add(mapTile);
 					continue;
 				}
 				if (mapTile.getExploration().equals(PARTIAL)) {
-					unexploredTiles.add(mapTile);
+					scene.unexploredTiles.add(mapTile);
 				}
 				if (mapTile.getFloor().isRiverTile()) {
-					riverTiles.add(mapTile);
+					scene.riverTiles.add(mapTile);
 				} else {
-					terrainTiles.add(mapTile);
+					scene.terrainTiles.add(mapTile);
 				}
 				if (mapTile.getFloor().hasBridge()) {
-					bridgeTiles.computeIfAbsent(mapTile.getFloor().getBridge(), (a) -> new LinkedList<>()).add(mapTile);
+					scene.bridgeTiles.computeIfAbsent(mapTile.getFloor().getBridge(), (a) -> new ArrayList<>()).add(mapTile);
 				}
 				weatherEffectUpdater.updateVisibleTile(mapTile);
 
-				mapTile.getEntities().forEach(e -> renderables.add(new InWorldRenderable(e)));
-				mapTile.getParticleEffects().values().forEach(p -> {
-					if (p.getType().isOverrideYDepth()) {
-						ignoreDepthParticleEffects.add(p);
-					} else {
-						renderables.add(new InWorldRenderable(p));
-					}
-				});
 				for (Entity entity : mapTile.getEntities()) {
+					scene.addRenderable(entity);
 					if (entity.getType().equals(EntityType.CREATURE)) {
-						settlerLocations.add(toGridPoint(entity.getLocationComponent().getWorldOrParentPosition()));
+						scene.settlerLocations.add(toGridPoint(entity.getLocationComponent().getWorldOrParentPosition()));
+					}
+				}
+				for (ParticleEffectInstance particleEffect : mapTile.getParticleEffects().values()) {
+					if (particleEffect.getType().isOverrideYDepth()) {
+						scene.ignoreDepthParticleEffects.add(particleEffect);
+					} else {
+						scene.addRenderable(particleEffect);
 					}
 				}
 				if (mapTile.hasDoorway()) {
-					mapTile.getDoorway().getFrameEntities().forEach(e -> renderables.add(new InWorldRenderable(e)));
-					renderables.add(new InWorldRenderable(mapTile.getDoorway().getDoorEntity()));
-					mapTile.getDoorway().getWallCapEntities().forEach(e -> renderables.add(new InWorldRenderable(e)));
+					mapTile.getDoorway().getFrameEntities().forEach(scene::addRenderable);
+					scene.addRenderable(mapTile.getDoorway().getDoorEntity());
+					mapTile.getDoorway().getWallCapEntities().forEach(scene::addRenderable);
 				}
 				if (mapTile.hasRoom()) {
-					roomTiles.add(mapTile);
-				}
-				Construction construction = mapTile.getConstruction();
-				if (construction != null) {
-					if (terrainConstructionTypes.contains(construction.getConstructionType())) {
-						terrainConstructionsToRender.put(construction.getId(), construction);
- 					} else {
-						otherConstructionsToRender.put(construction.getId(), construction);
-					}
+					scene.roomTiles.add(mapTile);
 				}
+				addConstruction(mapTile, scene);
 
-				totalTiles++;
+				scene.totalTiles++;
 				if (mapTile.getRoof().getState().equals(TileRoofState.OPEN)) {
-					outdoorTiles++;
+					scene.outdoorTiles++;
 				}
 			}
 		}
 
-		waterRenderer.updateElapsedTime();
-		if (!riverTiles.isEmpty()) {
-			waterRenderer.render(tiledMap, riverTiles, camera, renderMode);
-		}
-
-		terrainRenderer.renderFloors(terrainTiles, camera, spriteCache, renderMode);
-		if (renderingOptions.isFloorOverlapRenderingEnabled()) {
-			floorOverlapRenderer.render(riverTiles, camera, renderMode, spriteCache);
-			floorOverlapRenderer.render(terrainTiles, camera, renderMode, spriteCache);
-		}
-		terrainRenderer.renderChannels(tiledMap, terrainTiles, camera, spriteCache, renderMode);
-		terrainRenderer.renderWalls(terrainTiles, camera, spriteCache, renderMode);
-
-
 		// Also need to pick up entities up to X tiles below minX due to tree heights
-		for (int worldY = bounds.minY; worldY >= bounds.minY - 4; worldY--) {
+		for (int worldY = bounds.minY - 1; worldY >= bounds.minY - 4; worldY--) {
 			for (int worldX = bounds.minX; worldX <= bounds.maxX; worldX++) {
 				MapTile mapTile = tiledMap.getTile(worldX, worldY);
 				if (mapTile == null || mapTile.getExploration().equals(UNEXPLORED)) {
 					continue;
 				}
-				mapTile.getEntities().forEach(e -> renderables.add(new InWorldRenderable(e)));
-				Construction construction = mapTile.getConstruction();
-				if (construction != null) {
-					if (terrainConstructionTypes.contains(construction.getConstructionType())) {
-						terrainConstructionsToRender.put(construction.getId(), construction);
-					} else {
-						otherConstructionsToRender.put(construction.getId(), construction);
-					}
-				}
+				mapTile.getEntities().forEach(scene::addRenderable);
+				addConstruction(mapTile, scene);
 			}
 		}
 
+		scene.sortRenderables();
+		return scene;
+	}
+
+	public void renderWorld(VisibleScene scene, TiledMap tiledMap, OrthographicCamera camera, TerrainSpriteCache spriteCache, RenderMode renderMode,
+							List<PointLight> lightsToRenderThisFrame, List<ParticleEffectInstance> particlesToRenderAsUI) {
+		Gdx.gl.glClearColor(0.4f, 0.4f, 0.4f, 1); // MODDING expose default background color
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		attachedIgnoreDepthParticleEffects.clear();
+
+		waterRenderer.updateElapsedTime();
+		if (!scene.riverTiles.isEmpty()) {
+			waterRenderer.render(tiledMap, scene.riverTiles, camera, renderMode);
+		}
+
+		terrainRenderer.renderFloors(tiledMap, camera, spriteCache, renderMode);
+		if (renderingOptions.isFloorOverlapRenderingEnabled()) {
+			floorOverlapRenderer.render(scene.riverTiles, camera, renderMode, spriteCache);
+			floorOverlapRenderer.render(scene.terrainTiles, camera, renderMode, spriteCache);
+		}
+		terrainRenderer.renderChannels(tiledMap, scene.terrainTiles, camera, spriteCache, renderMode);
+		terrainRenderer.renderWalls(tiledMap, camera, spriteCache, renderMode);
+
 		// Render constructions under entities
-		if (!terrainConstructionsToRender.isEmpty()) {
-			terrainRenderer.render(terrainConstructionsToRender.values(), camera, spriteCache, renderMode);
+		if (!scene.terrainConstructions.isEmpty()) {
+			terrainRenderer.render(scene.terrainConstructions.values(), camera, spriteCache, renderMode);
 		}
 
 
@@ -223,7 +197,7 @@ public class WorldRenderer implements Disposable {
 		basicSpriteBatch.begin();
 		if (renderMode.equals(RenderMode.DIFFUSE)) {
 
-			for (MapTile mapTile : roomTiles) {
+			for (MapTile mapTile : scene.roomTiles) {
 				if (!mapTile.getRoomTile().getRoom().getRoomType().getRoomName().equals(VIRTUAL_PLACING_ROOM.getRoomName())) {
 					roomRenderer.render(mapTile, basicSpriteBatch, spriteCache);
 				}
@@ -232,53 +206,47 @@ public class WorldRenderer implements Disposable {
 
 
 		basicSpriteBatch.setColor(Color.WHITE);
-		if (!bridgeTiles.isEmpty()) {
-			terrainRenderer.renderBridgeTiles(bridgeTiles, spriteCache, basicSpriteBatch, renderMode);
+		if (!scene.bridgeTiles.isEmpty()) {
+			terrainRenderer.renderBridgeTiles(scene.bridgeTiles, spriteCache, basicSpriteBatch, renderMode);
 		}
 
-		for (Construction construction : otherConstructionsToRender.values()) {
+		for (Construction construction : scene.otherConstructions.values()) {
 			if (construction.getEntity() != null) {
 				entityRenderer.render(construction.getEntity(), basicSpriteBatch, renderMode, null, CONSTRUCTION_COLOR, null);
 			}
 		}
 
-		while (!renderables.isEmpty()) {
-			InWorldRenderable renderable = renderables.poll();
+		for (InWorldRenderable renderable : scene.renderables) {
 			Entity entity = renderable.entity;
 			if (entity != null) {
-				if (!entitiesRenderedThisFrame.contains(entity.getId())) {
-					entitiesRenderedThisFrame.add(entity.getId());
-
-					particlesInFrontOfEntity.clear();
-					particleEffectStore.getParticlesAttachedToEntity(entity).forEach(p -> {
-						if (p.getType().getIsAffectedByLighting()) {
-							if (p.getType().isRenderBehindParent()) {
-								p.getWrappedInstance().draw(basicSpriteBatch, null, renderMode);
-							} else if (p.getType().isOverrideYDepth()) {
-								ignoreDepthParticleEffects.add(p);
-							} else {
-								particlesInFrontOfEntity.add(p);
-							}
+				particlesInFrontOfEntity.clear();
+				particleEffectStore.getParticlesAttachedToEntity(entity).forEach(p -> {
+					if (p.getType().getIsAffectedByLighting()) {
+						if (p.getType().isRenderBehindParent()) {
+							p.getWrappedInstance().draw(basicSpriteBatch, null, renderMode);
+						} else if (p.getType().isOverrideYDepth()) {
+							attachedIgnoreDepthParticleEffects.add(p);
 						} else {
-							if (particlesToRenderAsUI != null) { // will be null for normals
-								particlesToRenderAsUI.add(p);
-							}
+							particlesInFrontOfEntity.add(p);
 						}
-					});
-
-					Color multiplyColor = null;
-					if (GlobalSettings.TREE_TRANSPARENCY_ENABLED) {
-						if (entity.getType().equals(EntityType.PLANT) && isPlantOccludingHumanoid(entity)) {
-							multiplyColor = TREE_TRANSPARENCY;
+					} else {
+						if (particlesToRenderAsUI != null) { // will be null for normals
+							particlesToRenderAsUI.add(p);
 						}
 					}
+				});
 
-					entityRenderer.render(entity, basicSpriteBatch, renderMode, null, null, multiplyColor);
-					addLightSourcesFromEntity(entity, tiledMap, lightsToRenderThisFrame);
+				Color multiplyColor = null;
+				if (GlobalSettings.TREE_TRANSPARENCY_ENABLED) {
+					if (entity.getType().equals(EntityType.PLANT) && isPlantOccludingHumanoid(entity, scene)) {
+						multiplyColor = TREE_TRANSPARENCY;
+					}
+				}
 
-					particlesInFrontOfEntity.forEach(p -> p.getWrappedInstance().draw(basicSpriteBatch, null, renderMode));
+				entityRenderer.render(entity, basicSpriteBatch, renderMode, null, null, multiplyColor);
+				addLightSourcesFromEntity(entity, tiledMap, lightsToRenderThisFrame);
 
-				}
+				particlesInFrontOfEntity.forEach(p -> p.getWrappedInstance().draw(basicSpriteBatch, null, renderMode));
 			} else if (renderable.particleEffect != null) {
 				if (renderable.particleEffect.getType().getIsAffectedByLighting()) {
 					renderable.particleEffect.getWrappedInstance().draw(basicSpriteBatch, null, renderMode);
@@ -288,20 +256,32 @@ public class WorldRenderer implements Disposable {
 			}
 		}
 
-		ignoreDepthParticleEffects.forEach(p -> p.getWrappedInstance().draw(basicSpriteBatch, null, renderMode));
+		scene.ignoreDepthParticleEffects.forEach(p -> p.getWrappedInstance().draw(basicSpriteBatch, null, renderMode));
+		attachedIgnoreDepthParticleEffects.forEach(p -> p.getWrappedInstance().draw(basicSpriteBatch, null, renderMode));
 
 		basicSpriteBatch.end();
-		explorationRenderer.render(unexploredTiles, camera, tiledMap, renderMode);
+		explorationRenderer.render(scene.unexploredTiles, camera, tiledMap, renderMode);
 
 		if (renderMode.equals(RenderMode.DIFFUSE)) { // So this only happens once per frame
-			messageDispatcher.dispatchMessage(MessageType.AMBIENCE_UPDATE, new AmbienceMessage(outdoorTiles, riverTiles.size(), totalTiles));
+			messageDispatcher.dispatchMessage(MessageType.AMBIENCE_UPDATE, new AmbienceMessage(scene.outdoorTiles, scene.riverTiles.size(), scene.totalTiles));
+		}
+	}
+
+	private void addConstruction(MapTile mapTile, VisibleScene scene) {
+		Construction construction = mapTile.getConstruction();
+		if (construction != null) {
+			if (terrainConstructionTypes.contains(construction.getConstructionType())) {
+				scene.terrainConstructions.put(construction.getId(), construction);
+			} else {
+				scene.otherConstructions.put(construction.getId(), construction);
+			}
 		}
 	}
 
 	private void addLightSourcesFromEntity(Entity entity, TiledMap tiledMap, List<PointLight> lightsToRenderThisFrame) {
 		AttachedLightSourceComponent attachedLightSourceComponent = entity.getComponent(AttachedLightSourceComponent.class);
 		if (lightsToRenderThisFrame != null && attachedLightSourceComponent != null && attachedLightSourceComponent.isEnabled()) {
-			lightsToRenderThisFrame.add(attachedLightSourceComponent.getLightForRendering(tiledMap, lightProcessor));
+			lightsToRenderThisFrame.add(attachedLightSourceComponent.getLightForRendering(tiledMap, attachedLightSourceProcessor));
 		}
 
 		AttachedEntitiesComponent attachedEntitiesComponent = entity.getComponent(AttachedEntitiesComponent.class);
@@ -312,7 +292,7 @@ public class WorldRenderer implements Disposable {
 		}
 	}
 
-	private boolean isPlantOccludingHumanoid(Entity entity) {
+	private boolean isPlantOccludingHumanoid(Entity entity, VisibleScene scene) {
 		PlantEntityAttributes attributes = (PlantEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
 		if (attributes.getSpecies().getPlantType().equals(PlantSpeciesType.TREE)) {
 			GridPoint2 treePosition = toGridPoint(entity.getLocationComponent().getWorldOrParentPosition());
@@ -320,7 +300,7 @@ public class WorldRenderer implements Disposable {
 			PlantSpeciesGrowthStage growthStage = attributes.getSpecies().getGrowthStages().get(attributes.getGrowthStageCursor());
 			for (int checkX = treePosition.x - 1; checkX <= treePosition.x + 1; checkX++) {
 				for (int checkY = treePosition.y + 1; checkY <= treePosition.y + growthStage.getTileHeight(); checkY++) {
-					if (settlerLocations.contains(new GridPoint2(checkX, checkY))) {
+					if (scene.settlerLocations.contains(new GridPoint2(checkX, checkY))) {
 						return true;
 					}
 				}
@@ -17,6 +17,9 @@ public class GlobalSettings {
 	public static boolean ZOOM_TO_CURSOR = true;
 	public static boolean PAUSE_FOR_NOTIFICATIONS = true;
 	public static boolean TREE_TRANSPARENCY_ENABLED = true;
+	public static boolean EXPORT_SAVES_AS_SINGLE_JSON = false;
+	public static boolean PARALLEL_ENTITY_UPDATES = false;
+	public static boolean FIXED_TIMESTEP_SIMULATION = false;
 	public static final Version VERSION;
 
 	static {
@@ -45,6 +45,8 @@ public class VertexColorSpriteBatch implements Disposable {
 
 	private Color tempColor = new Color(1, 1, 1, 1);
 
+	private VertexRecorder vertexRecorder;
+
 	/**
 	 * Number of render calls since the last {@link #begin()}.
 	 **/
@@ -932,6 +934,11 @@ public class VertexColorSpriteBatch implements Disposable {
 
 	public void flush() {
 		if (idx == 0) return;
+		if (vertexRecorder != null) {
+			vertexRecorder.record(lastTexture, vertices, idx);
+			idx = 0;
+			return;
+		}
 
 		renderCalls++;
 		totalRenderCalls++;
@@ -957,6 +964,40 @@ public class VertexColorSpriteBatch implements Disposable {
 		idx = 0;
 	}
 
+	/**
+	 * Draws a mesh with the same vertex attributes as this batch, such as one built from recorded vertices
+	 */
+	public void draw(Texture texture, Mesh mesh, int indexCount) {
+		if (!drawing) throw new IllegalStateException("SpriteBatch.begin must be called before draw.");
+		flush();
+
+		renderCalls++;
+		totalRenderCalls++;
+		texture.bind();
+		if (blendingDisabled) {
+			Gdx.gl.glDisable(GL20.GL_BLEND);
+		} else {
+			Gdx.gl.glEnable(GL20.GL_BLEND);
+			if (blendSrcFunc != -1) Gdx.gl.glBlendFunc(blendSrcFunc, blendDstFunc);
+		}
+
+		mesh.render(customShader != null ? customShader : shader, GL20.GL_TRIANGLES, 0, indexCount);
+	}
+
+	/**
+	 * While a recorder is set, flushed vertices are passed to it instead of being rendered
+	 */
+	public void setVertexRecorder(VertexRecorder vertexRecorder) {
+		flush();
+		this.vertexRecorder = vertexRecorder;
+	}
+
+	public interface VertexRecorder {
+
+		void record(Texture texture, float[] vertices, int count);
+
+	}
+
 	public void disableBlending() {
 		if (blendingDisabled) return;
 		flush();
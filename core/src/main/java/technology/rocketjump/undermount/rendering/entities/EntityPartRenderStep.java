@@ -13,6 +13,7 @@ public class EntityPartRenderStep {
 	private final Entity entity;
 
 	private Entity otherEntity;
+	private final Vector2 otherEntityWorldPosition = new Vector2(); // Held by the other entity's location while it is rendered
 
 	public EntityPartRenderStep(SpriteDescriptor spriteDescriptor, Vector2 parentWorldPosition, Entity entity) {
 		this.entity = entity;
@@ -46,6 +47,10 @@ public class EntityPartRenderStep {
 		this.otherEntity = otherEntity;
 	}
 
+	public Vector2 getOtherEntityWorldPosition() {
+		return otherEntityWorldPosition;
+	}
+
 	public Entity getEntity() {
 		return entity;
 	}
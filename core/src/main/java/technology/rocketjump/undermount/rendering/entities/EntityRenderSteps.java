@@ -16,14 +16,6 @@ public class EntityRenderSteps {
 	private final HashMap<EntityAssetType, AttachmentDescriptor> attachmentPoints;
 	private final HashMap<EntityAssetType, Entity> attachedEntities;
 
-	public EntityRenderSteps clone() {
-		return new EntityRenderSteps(
-			(TreeMap) this.partsToRender.clone(),
-				(HashMap) attachmentPoints.clone(),
-				(HashMap) attachedEntities.clone()
-		);
-	}
-
 	public EntityRenderSteps(TreeMap<Integer, EntityPartRenderStep> partsToRender,
 							 HashMap<EntityAssetType, AttachmentDescriptor> attachmentPoints,
 							 HashMap<EntityAssetType, Entity> attachedEntities) {
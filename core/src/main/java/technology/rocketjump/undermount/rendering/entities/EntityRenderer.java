@@ -10,6 +10,7 @@ import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.pmw.tinylog.Logger;
@@ -22,12 +23,15 @@ import technology.rocketjump.undermount.entities.model.physical.EntityAttributes
 import technology.rocketjump.undermount.entities.model.physical.LocationComponent;
 import technology.rocketjump.undermount.entities.model.physical.plant.PlantEntityAttributes;
 import technology.rocketjump.undermount.entities.model.physical.plant.PlantSpeciesGrowthStage;
+import technology.rocketjump.undermount.gamecontext.FixedTimestepSimulation;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.GameContextAware;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.rendering.RenderMode;
 import technology.rocketjump.undermount.rendering.custom_libgdx.ShaderLoader;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import static technology.rocketjump.undermount.assets.entities.model.NullEntityAsset.NULL_ASSET;
@@ -39,9 +43,14 @@ public class EntityRenderer implements GameContextAware, Disposable {
 
 	public static float PIXELS_PER_TILE = 64f;
 
-	private EntityRenderSteps entityRenderSteps = new EntityRenderSteps();
+	private static final int FRAMES_TO_KEEP_UNUSED_RENDER_STEPS = 600;
+
+	private final EntityRenderSteps entityRenderSteps = new EntityRenderSteps(); // Working space while resolving render steps
+	private final LongMap<CachedRenderSteps> cachedRenderSteps = new LongMap<>();
+	private long lastCachePurgeFrame;
 	private final CompleteAssetDictionary assetDictionary;
 	private final RenderLayerDictionary renderLayerDictionary;
+	private final FixedTimestepSimulation fixedTimestepSimulation;
 
 	private boolean usingNormalMapInverseShader = false;
 	private ShaderProgram defaultShader;
@@ -51,9 +60,10 @@ public class EntityRenderer implements GameContextAware, Disposable {
 
 	@Inject
 	public EntityRenderer(CompleteAssetDictionary completeAssetDictionary,
-						  RenderLayerDictionary renderLayerDictionary) {
+						  RenderLayerDictionary renderLayerDictionary, FixedTimestepSimulation fixedTimestepSimulation) {
 		this.assetDictionary = completeAssetDictionary;
 		this.renderLayerDictionary = renderLayerDictionary;
+		this.fixedTimestepSimulation = fixedTimestepSimulation;
 
 		FileHandle defaultVertexShaderFile = Gdx.files.classpath("shaders/default_vertex_shader.glsl");
 		FileHandle fragmentShaderFile = Gdx.files.classpath("shaders/invert_normal_map_red_channel_fragment_shader.glsl");
@@ -83,19 +93,14 @@ public class EntityRenderer implements GameContextAware, Disposable {
 			defaultShader = basicSpriteBatch.getShader();
 		}
 
-		entityRenderSteps.clear();
-
 		LocationComponent locationComponent = entity.getLocationComponent();
 
-		EntityAsset baseAsset = entity.getPhysicalEntityComponent().getBaseAsset();
-		if (baseAsset != NULL_ASSET) {
-			addToRenderParts(baseAsset, entity, new Vector2(), assetDictionary, parentEntity);
-		}
-
-		addAttachedEntitiesAsRenderSteps(entity);
+		// Attached entities are positioned relative to their parent, which has already been interpolated
+		Vector2 entityPosition = parentEntity == null ? locationComponent.getRenderPosition(renderPosition, fixedTimestepSimulation) : locationComponent.getWorldPosition();
 
-		for (EntityPartRenderStep renderStep : entityRenderSteps.clone().getRenderSteps()) {
-			render(renderStep, basicSpriteBatch, locationComponent, renderMode, overrideColor, extraMultiplyColor);
+		Array<EntityPartRenderStep> renderSteps = getRenderSteps(entity, parentEntity);
+		for (int cursor = 0; cursor < renderSteps.size; cursor++) {
+			render(renderSteps.get(cursor), basicSpriteBatch, locationComponent, entityPosition, renderMode, overrideColor, extraMultiplyColor);
 		}
 
 		if (renderMode.equals(RenderMode.NORMALS) && usingNormalMapInverseShader) {
@@ -104,8 +109,50 @@ public class EntityRenderer implements GameContextAware, Disposable {
 		}
 	}
 
-	private void addAttachedEntitiesAsRenderSteps(Entity entity) {
-		for (AttachedEntity attachedEntity : entity.getAttachedEntities()) {
+	/**
+	 * The resolved render steps of an entity only change when its assets, orientation or attached entities do,
+	 * (or those of the parent entity it is attached to), so they are cached per entity until then
+	 */
+	private Array<EntityPartRenderStep> getRenderSteps(Entity entity, Entity parentEntity) {
+		long currentFrame = Gdx.graphics.getFrameId();
+		purgeUnusedRenderSteps(currentFrame);
+
+		List<AttachedEntity> attachedEntities = entity.getAttachedEntities();
+		CachedRenderSteps cached = cachedRenderSteps.get(entity.getId());
+		if (cached == null) {
+			cached = new CachedRenderSteps();
+			cachedRenderSteps.put(entity.getId(), cached);
+		}
+		cached.lastRenderedFrame = currentFrame;
+
+		if (!cached.isValidFor(entity, parentEntity, attachedEntities)) {
+			entityRenderSteps.clear();
+			EntityAsset baseAsset = entity.getPhysicalEntityComponent().getBaseAsset();
+			if (baseAsset != NULL_ASSET) {
+				addToRenderParts(baseAsset, entity, new Vector2(), assetDictionary, parentEntity);
+			}
+			addAttachedEntitiesAsRenderSteps(entity, attachedEntities);
+
+			cached.update(entity, parentEntity, attachedEntities, entityRenderSteps.getRenderSteps());
+		}
+		return cached.renderSteps;
+	}
+
+	private void purgeUnusedRenderSteps(long currentFrame) {
+		if (currentFrame - lastCachePurgeFrame < FRAMES_TO_KEEP_UNUSED_RENDER_STEPS) {
+			return;
+		}
+		lastCachePurgeFrame = currentFrame;
+		LongMap.Values<CachedRenderSteps> iterator = cachedRenderSteps.values();
+		while (iterator.hasNext()) {
+			if (currentFrame - iterator.next().lastRenderedFrame > FRAMES_TO_KEEP_UNUSED_RENDER_STEPS) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private void addAttachedEntitiesAsRenderSteps(Entity entity, List<AttachedEntity> attachedEntities) {
+		for (AttachedEntity attachedEntity : attachedEntities) {
 			entityRenderSteps.addAttachedEntity(attachedEntity);
 		}
 
@@ -187,23 +234,21 @@ public class EntityRenderer implements GameContextAware, Disposable {
 		return asset;
 	}
 
-	private void render(EntityPartRenderStep renderStep, Batch spriteBatch, LocationComponent locationComponent, RenderMode renderMode,
+	private void render(EntityPartRenderStep renderStep, Batch spriteBatch, LocationComponent locationComponent, Vector2 entityPosition, RenderMode renderMode,
 						Color overrideColor, Color extraMultiplyColor) {
 		if (renderStep.isAnotherEntity()) {
 			Entity entity = renderStep.getEntity();
 			LocationComponent otherEntityLocation = renderStep.getOtherEntity().getLocationComponent();
-			Vector2 worldPosition = entity.getLocationComponent().getWorldPosition();
+			Vector2 worldPosition = entityPosition;
 			Vector2 offset = renderStep.getOffsetFromEntity();
 			float originalRotation = otherEntityLocation.getRotation();
 			Vector2 otherEntityLocationOriginalPosition = otherEntityLocation.getWorldPosition();
 			if (entity.getLocationComponent().getRotation() != 0) {
-				offset.cpy().rotate(entity.getLocationComponent().getRotation());
+				// FIXME The offset to the attached entity is not rotated along with the entity
 				otherEntityLocation.setRotation(originalRotation + entity.getLocationComponent().getRotation());
 			}
-			otherEntityLocation.setWorldPosition(worldPosition.cpy().add(offset), false, false);
-			EntityRenderSteps cloned = entityRenderSteps.clone();
+			otherEntityLocation.setWorldPosition(renderStep.getOtherEntityWorldPosition().set(worldPosition).add(offset), false, false);
 			this.render(renderStep.getOtherEntity(), spriteBatch, renderMode, renderStep.getEntity(), overrideColor, extraMultiplyColor);
-			entityRenderSteps = cloned;
 			otherEntityLocation.setWorldPosition(otherEntityLocationOriginalPosition, false, false);
 			otherEntityLocation.setRotation(originalRotation);
 			return;
@@ -215,7 +260,7 @@ public class EntityRenderer implements GameContextAware, Disposable {
 			spriteBatch.setColor(overrideColor);
 		}
 		if (extraMultiplyColor != null) {
-			spriteBatch.setColor(spriteBatch.getColor().cpy().mul(extraMultiplyColor));
+			spriteBatch.setColor(multipliedColor.set(spriteBatch.getColor()).mul(extraMultiplyColor));
 		}
 
 
@@ -228,7 +273,7 @@ public class EntityRenderer implements GameContextAware, Disposable {
 				if (color != null) {
 					spriteBatch.setColor(color);
 					if (extraMultiplyColor != null) {
-						spriteBatch.setColor(spriteBatch.getColor().cpy().mul(extraMultiplyColor));
+						spriteBatch.setColor(multipliedColor.set(spriteBatch.getColor()).mul(extraMultiplyColor));
 					}
 				}
 			}
@@ -284,11 +329,11 @@ public class EntityRenderer implements GameContextAware, Disposable {
 		);
 		affine.idt(); // Reset affine transformation
 		if (locationComponent.getRotation() == 0) {
-			affine.translate(locationComponent.getWorldPosition())
+			affine.translate(entityPosition)
 					.translate(renderStep.getOffsetFromEntity());
 		} else {
-			Vector2 offsetFromEntity = renderStep.getOffsetFromEntity().cpy().rotate(locationComponent.getRotation());
-			affine.translate(locationComponent.getWorldPosition())
+			Vector2 offsetFromEntity = rotatedOffset.set(renderStep.getOffsetFromEntity()).rotate(locationComponent.getRotation());
+			affine.translate(entityPosition)
 					.translate(offsetFromEntity)
 					.rotate(locationComponent.getRotation());
 		}
@@ -331,6 +376,9 @@ public class EntityRenderer implements GameContextAware, Disposable {
 	}
 
 	private Vector2 spriteWorldSize = new Vector2(); // Private member to avoid new instance on every render call
+	private Vector2 rotatedOffset = new Vector2(); // Private member to avoid new instance on every render call
+	private Vector2 renderPosition = new Vector2(); // Private member to avoid new instance on every render call
+	private Color multipliedColor = new Color(); // Private member to avoid new instance on every render call
 
 	private boolean snowRenderingEnabled() {
 		return gameContext != null && gameContext.getMapEnvironment().getFallenSnow() > 0;
@@ -358,6 +406,64 @@ public class EntityRenderer implements GameContextAware, Disposable {
 
 	@Override
 	public void clearContextRelatedState() {
+		cachedRenderSteps.clear();
+	}
 
+	private static class CachedRenderSteps {
+
+		private final Array<EntityPartRenderStep> renderSteps = new Array<>();
+		private final Array<Entity> attachedEntities = new Array<>();
+		private final Array<EntityAssetType> attachmentTypes = new Array<>();
+		private Entity entity;
+		private int assetRevision;
+		private EntityAssetOrientation orientation;
+		private Entity parentEntity;
+		private int parentAssetRevision;
+		private EntityAssetOrientation parentOrientation;
+		private long lastRenderedFrame;
+
+		public boolean isValidFor(Entity entity, Entity parentEntity, List<AttachedEntity> currentAttachedEntities) {
+			if (this.entity != entity || assetRevision != entity.getPhysicalEntityComponent().getAssetRevision() ||
+					orientation != entity.getLocationComponent().getOrientation() || this.parentEntity != parentEntity) {
+				return false;
+			}
+			if (parentEntity != null && (parentAssetRevision != parentEntity.getPhysicalEntityComponent().getAssetRevision() ||
+					parentOrientation != parentEntity.getLocationComponent().getOrientation())) {
+				return false;
+			}
+			if (attachedEntities.size != currentAttachedEntities.size()) {
+				return false;
+			}
+			for (int cursor = 0; cursor < attachedEntities.size; cursor++) {
+				AttachedEntity attachedEntity = currentAttachedEntities.get(cursor);
+				if (attachedEntities.get(cursor) != attachedEntity.entity ||
+						attachmentTypes.get(cursor) != attachedEntity.holdPosition.getAttachmentType()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public void update(Entity entity, Entity parentEntity, List<AttachedEntity> currentAttachedEntities,
+						   Collection<EntityPartRenderStep> resolvedRenderSteps) {
+			this.entity = entity;
+			this.assetRevision = entity.getPhysicalEntityComponent().getAssetRevision();
+			this.orientation = entity.getLocationComponent().getOrientation();
+			this.parentEntity = parentEntity;
+			if (parentEntity != null) {
+				this.parentAssetRevision = parentEntity.getPhysicalEntityComponent().getAssetRevision();
+				this.parentOrientation = parentEntity.getLocationComponent().getOrientation();
+			}
+			attachedEntities.clear();
+			attachmentTypes.clear();
+			for (AttachedEntity attachedEntity : currentAttachedEntities) {
+				attachedEntities.add(attachedEntity.entity);
+				attachmentTypes.add(attachedEntity.holdPosition.getAttachmentType());
+			}
+			renderSteps.clear();
+			for (EntityPartRenderStep renderStep : resolvedRenderSteps) {
+				renderSteps.add(renderStep);
+			}
+		}
 	}
 }
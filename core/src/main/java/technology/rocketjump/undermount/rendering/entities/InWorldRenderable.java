@@ -1,5 +1,6 @@
 package technology.rocketjump.undermount.rendering.entities;
 
+import com.badlogic.gdx.utils.Pool;
 import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.particles.model.ParticleEffectInstance;
 
@@ -8,35 +9,51 @@ import java.util.Comparator;
 import static technology.rocketjump.undermount.entities.model.EntityType.ITEM;
 import static technology.rocketjump.undermount.entities.model.EntityType.PLANT;
 
-public class InWorldRenderable {
+public class InWorldRenderable implements Pool.Poolable {
 
-	public final Entity entity;
-	public final ParticleEffectInstance particleEffect;
+	public Entity entity;
+	public ParticleEffectInstance particleEffect;
+	public float yDepth;
+
+	public InWorldRenderable() {
+
+	}
 
 	public InWorldRenderable(Entity entity) {
+		set(entity);
+	}
+
+	public InWorldRenderable(ParticleEffectInstance particleEffect) {
+		set(particleEffect);
+	}
+
+	public InWorldRenderable set(Entity entity) {
 		this.entity = entity;
 		this.particleEffect = null;
+		this.yDepth = entity.getLocationComponent().getWorldPosition().y;
+		if (entity.getType().equals(ITEM) || entity.getType().equals(PLANT)) {
+			this.yDepth += 0.5f;
+		}
+		return this;
 	}
 
-	public InWorldRenderable(ParticleEffectInstance particleEffect) {
+	public InWorldRenderable set(ParticleEffectInstance particleEffect) {
 		this.entity = null;
 		this.particleEffect = particleEffect;
+		this.yDepth = particleEffect.getWorldPosition().y;
+		return this;
+	}
+
+	@Override
+	public void reset() {
+		this.entity = null;
+		this.particleEffect = null;
 	}
 
 	public static class YDepthEntityComparator implements Comparator<InWorldRenderable> {
 		@Override
 		public int compare(InWorldRenderable o1, InWorldRenderable o2) {
-			float o1Position = (o1.entity != null ? o1.entity.getLocationComponent().getWorldPosition() : o1.particleEffect.getWorldPosition()).y;
-			float o2Position = (o2.entity != null ? o2.entity.getLocationComponent().getWorldPosition() : o2.particleEffect.getWorldPosition()).y;
-
-
-			if (o1.entity != null && (o1.entity.getType().equals(ITEM) || o1.entity.getType().equals(PLANT))) {
-				o1Position += 0.5f;
-			}
-			if (o2.entity != null && (o2.entity.getType().equals(ITEM) || o2.entity.getType().equals(PLANT))) {
-				o2Position += 0.5f;
-			}
-			return (int)(100000f * (o2Position - o1Position));
+			return Float.compare(o2.yDepth, o1.yDepth);
 		}
 	}
 
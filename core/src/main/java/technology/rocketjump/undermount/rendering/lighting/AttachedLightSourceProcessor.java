@@ -4,19 +4,22 @@ import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import technology.rocketjump.undermount.entities.components.AttachedLightSourceComponent;
-import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.Updatable;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
-import technology.rocketjump.undermount.mapping.tile.MapTile;
+import technology.rocketjump.undermount.mapping.tile.wall.Edge;
 import technology.rocketjump.undermount.messaging.MessageType;
+import technology.rocketjump.undermount.messaging.async.BackgroundTaskManager;
 import technology.rocketjump.undermount.messaging.types.DoorwayPlacementMessage;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.Future;
 
 import static technology.rocketjump.undermount.rendering.lighting.PointLight.LIGHT_RADIUS;
 
@@ -24,16 +27,26 @@ import static technology.rocketjump.undermount.rendering.lighting.PointLight.LIG
  * This class is to keep track of all changes which would change the visibility polygon of a light source
  * And set those lights to requiring an update
  *
- * Works by pushing affected tiles into tilesToCheck via messages notifying changes of scenery and
- * then iterating those tiles in the update step
+ * Works by keeping a spatial index of the lights which have been drawn, bucketed by their position, so that when a
+ * wall or door changes only the lights within LIGHT_RADIUS of it are marked as stale. Stale lights have their
+ * visibility polygon recalculated on the background task pool and keep drawing their previous geometry until then.
  */
 @Singleton
 public class AttachedLightSourceProcessor implements Updatable, Telegraph {
 
+	private static final int BUCKET_SIZE = 8;
+
+	private final LightProcessor lightProcessor;
+	private final BackgroundTaskManager backgroundTaskManager;
+	private final IntMap<Array<AttachedLightSourceComponent>> lightsByBucket = new IntMap<>();
+	private final ObjectIntMap<AttachedLightSourceComponent> bucketByLight = new ObjectIntMap<>();
 	private GameContext gameContext;
 
 	@Inject
-	public AttachedLightSourceProcessor(MessageDispatcher messageDispatcher) {
+	public AttachedLightSourceProcessor(MessageDispatcher messageDispatcher, LightProcessor lightProcessor,
+										BackgroundTaskManager backgroundTaskManager) {
+		this.lightProcessor = lightProcessor;
+		this.backgroundTaskManager = backgroundTaskManager;
 		messageDispatcher.addListener(this, MessageType.DOOR_OPENED_OR_CLOSED);
 		messageDispatcher.addListener(this, MessageType.WALL_CREATED);
 		messageDispatcher.addListener(this, MessageType.WALL_REMOVED);
@@ -47,56 +60,112 @@ public class AttachedLightSourceProcessor implements Updatable, Telegraph {
 			case MessageType.WALL_CREATED:
 			case MessageType.WALL_REMOVED:
 				GridPoint2 doorPosition = (GridPoint2) msg.extraInfo;
-				markTilesToCheckAround(doorPosition);
+				markLightsStaleAround(doorPosition);
 				return true;
 			case MessageType.CREATE_DOORWAY:
 				DoorwayPlacementMessage message = (DoorwayPlacementMessage) msg.extraInfo;
-				markTilesToCheckAround(message.getTilePosition());
+				markLightsStaleAround(message.getTilePosition());
 				return false; // This is not the primary consumer of CREATE_DOORWAY messages
 			default:
 				throw new IllegalArgumentException("Unexpected message type " + msg.message + " received by " + this.toString() + ", " + msg.toString());
 		}
 	}
 
-	private Set<GridPoint2> tilesToCheck = new HashSet<>();
+	/**
+	 * Recalculates the light's geometry immediately, for a light which has moved, and indexes it by its new position
+	 */
+	public void updateLightGeometry(AttachedLightSourceComponent component, PointLight light, TiledMap tiledMap) {
+		lightProcessor.updateLightGeometry(light, tiledMap);
+		indexLight(component, light.getWorldPosition());
+	}
 
-	private void markTilesToCheckAround(GridPoint2 gridPosition) {
-		for (int y = gridPosition.y - (int)LIGHT_RADIUS; y <= gridPosition.y + (int)LIGHT_RADIUS; y++) {
-			for (int x = gridPosition.x - (int)LIGHT_RADIUS; x <= gridPosition.x + (int)LIGHT_RADIUS; x++) {
-				tilesToCheck.add(new GridPoint2(x, y));
+	/**
+	 * Recalculates the geometry of a light which has not moved on the background task pool, only collecting the
+	 * nearby wall edges on this thread
+	 */
+	public Future<Array<Edge>> updateLightGeometryInBackground(PointLight light, TiledMap tiledMap) {
+		Array<Edge> occludingEdges = lightProcessor.collectOccludingEdges(light.getWorldPosition(), tiledMap);
+		return backgroundTaskManager.postUntrackedCallable(() -> {
+			Array<Edge> lightGeometry = new Array<>();
+			if (lightProcessor.computeVisibilityPolygon(occludingEdges, lightGeometry)) {
+				return lightGeometry;
+			} else {
+				return null;
 			}
-		}
+		});
 	}
 
-	private boolean isOnMap(GridPoint2 positionToCheck) {
-		if (gameContext == null) {
-			return false;
-		} else {
-			TiledMap areaMap = gameContext.getAreaMap();
-			return positionToCheck.x >= 0 && positionToCheck.x < areaMap.getWidth() &&
-					positionToCheck.y >= 0 && positionToCheck.y < areaMap.getHeight();
+	/**
+	 * Removes a light from the spatial index, for when it is disposed of
+	 */
+	public void removeLight(AttachedLightSourceComponent component) {
+		int bucket = bucketByLight.remove(component, Integer.MIN_VALUE);
+		if (bucket != Integer.MIN_VALUE) {
+			Array<AttachedLightSourceComponent> bucketLights = lightsByBucket.get(bucket);
+			if (bucketLights != null) {
+				bucketLights.removeValue(component, true);
+			}
 		}
 	}
 
-	@Override
-	public void update(float deltaTime) {
-		if (gameContext == null) {
+	private void indexLight(AttachedLightSourceComponent component, Vector2 lightPosition) {
+		int bucket = bucketKey(toBucket(lightPosition.x), toBucket(lightPosition.y));
+		int previousBucket = bucketByLight.get(component, Integer.MIN_VALUE);
+		if (previousBucket == bucket) {
 			return;
+		} else if (previousBucket != Integer.MIN_VALUE) {
+			lightsByBucket.get(previousBucket).removeValue(component, true);
+		}
+		Array<AttachedLightSourceComponent> bucketLights = lightsByBucket.get(bucket);
+		if (bucketLights == null) {
+			bucketLights = new Array<>();
+			lightsByBucket.put(bucket, bucketLights);
 		}
-		TiledMap areaMap = gameContext.getAreaMap();
-		for (GridPoint2 tileToCheckPosition : tilesToCheck) {
-			if (isOnMap(tileToCheckPosition)) {
-				MapTile tileToCheck = areaMap.getTile(tileToCheckPosition);
-				for (Entity entity : tileToCheck.getEntities()) {
-					AttachedLightSourceComponent component = entity.getComponent(AttachedLightSourceComponent.class);
-					if (component != null) {
-						component.setUpdateRequired();
+		bucketLights.add(component);
+		bucketByLight.put(component, bucket);
+	}
+
+	private void markLightsStaleAround(GridPoint2 gridPosition) {
+		// Edges of the changed tile can be up to one tile further away than the light radius
+		float reach = LIGHT_RADIUS + 1;
+		int minBucketX = toBucket(gridPosition.x - reach);
+		int maxBucketX = toBucket(gridPosition.x + reach);
+		int minBucketY = toBucket(gridPosition.y - reach);
+		int maxBucketY = toBucket(gridPosition.y + reach);
+		for (int bucketY = minBucketY; bucketY <= maxBucketY; bucketY++) {
+			for (int bucketX = minBucketX; bucketX <= maxBucketX; bucketX++) {
+				Array<AttachedLightSourceComponent> bucketLights = lightsByBucket.get(bucketKey(bucketX, bucketY));
+				if (bucketLights == null) {
+					continue;
+				}
+				for (int cursor = bucketLights.size - 1; cursor >= 0; cursor--) {
+					AttachedLightSourceComponent component = bucketLights.get(cursor);
+					if (component.isDisposed()) {
+						bucketLights.removeIndex(cursor);
+						bucketByLight.remove(component, 0);
+						continue;
+					}
+					Vector2 lightPosition = component.getLightPosition();
+					if (Math.abs(lightPosition.x - (gridPosition.x + 0.5f)) <= reach &&
+							Math.abs(lightPosition.y - (gridPosition.y + 0.5f)) <= reach) {
+						component.setGeometryStale();
 					}
 				}
 			}
 		}
+	}
 
-		tilesToCheck.clear(); // Clear for next frame
+	private static int toBucket(float position) {
+		return (int) Math.floor(position / BUCKET_SIZE);
+	}
+
+	private static int bucketKey(int bucketX, int bucketY) {
+		return (bucketY << 16) ^ (bucketX & 0xFFFF);
+	}
+
+	@Override
+	public void update(float deltaTime) {
+		// Lights are marked as stale as messages arrive, and recalculated as they are next rendered
 	}
 
 	@Override
@@ -111,6 +180,7 @@ public class AttachedLightSourceProcessor implements Updatable, Telegraph {
 
 	@Override
 	public void clearContextRelatedState() {
-
+		lightsByBucket.clear();
+		bucketByLight.clear();
 	}
 }
@@ -30,13 +30,60 @@ public class LightProcessor {
 	}
 
 	public void updateLightGeometry(PointLight light, TiledMap worldMap) {
-		Array<Edge> lightGeometry = light.getLightPolygonEdges();
+		Array<Edge> occludingEdges = collectOccludingEdges(light.getWorldPosition(), worldMap);
+		if (computeVisibilityPolygon(occludingEdges, light.getLightPolygonEdges())) {
+			light.updateMesh();
+		}
+	}
+
+	/**
+	 * Gathers the edges of walls and doorways around the light position, relative to the light. This reads the map
+	 * so must be called from the main thread, while the result can be passed to computeVisibilityPolygon() on any thread.
+	 */
+	public Array<Edge> collectOccludingEdges(Vector2 lightPosition, TiledMap worldMap) {
+		Array<Edge> occludingEdges = new Array<>();
+		addBoundingBoxEdges(lightPosition, worldMap, occludingEdges);
+
+		int lightTileX = (int)Math.floor(lightPosition.x);
+		int lightTileY = (int)Math.floor(lightPosition.y);
+		for (int yCursor = lightTileY - Math.round(PointLight.LIGHT_RADIUS); yCursor <= lightTileY + PointLight.LIGHT_RADIUS; yCursor++) {
+			for (int xCursor = lightTileX - Math.round(PointLight.LIGHT_RADIUS); xCursor <= lightTileX + PointLight.LIGHT_RADIUS; xCursor++) {
+				MapTile mapTile = worldMap.getTile(xCursor, yCursor);
+				if (mapTile != null && mapTile.hasWall()) {
+
+					int simplifiedLayoutId = tileLayoutAtlas.simplifyLayoutId(mapTile.getWall().getTrueLayout().getId());
+					WallEdgeDefinition edgeDefinition = wallEdgeAtlas.getForLayoutId(simplifiedLayoutId);
+
+					addEdgeDefinition(occludingEdges, lightPosition, yCursor, xCursor, edgeDefinition);
+				} else if (mapTile != null && mapTile.hasDoorway()) {
+					WallEdgeDefinition edgeDefinition = wallEdgeAtlas.getForDoorway(mapTile.getDoorway());
+					addEdgeDefinition(occludingEdges, lightPosition, yCursor, xCursor, edgeDefinition);
+
+					if (mapTile.getDoorway().getDoorState().equals(DoorState.CLOSED)) {
+						WallEdgeDefinition closedDoorEdgeDefinition = wallEdgeAtlas.getForClosedDoor(mapTile.getDoorway());
+						addEdgeDefinition(occludingEdges, lightPosition, yCursor, xCursor, closedDoorEdgeDefinition);
+					}
+
+				}
+			}
+		}
+		return occludingEdges;
+	}
+
+	/**
+	 * Sweeps clockwise around the light to find the visibility polygon formed by the occluding edges, only using the
+	 * arguments so it is safe to run off the main thread
+	 *
+	 * @return false if there is no geometry to draw, i.e. the light is outside of the map
+	 */
+	public boolean computeVisibilityPolygon(Array<Edge> occludingEdges, Array<Edge> lightGeometry) {
 		lightGeometry.clear();
 
 		TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges = new TreeMap<>(new ClockwisePointComparator());
-		Set<Edge> allEdges = new HashSet<>();
-
-		buildSortedPointToEdgeMap(light, worldMap, sortedPointsToWallEdges, allEdges);
+		for (Edge edge : occludingEdges) {
+			addPointToMap(edge.getPointA(), edge, sortedPointsToWallEdges);
+			addPointToMap(edge.getPointB(), edge, sortedPointsToWallEdges);
+		}
 
 		// Now we have a clockwise-sorted map of points to the edges they are a start or endpoint of
 		// Also the edges have potentially been set so that pointA comes before pointB as we sweep around clockwise
@@ -47,20 +94,20 @@ public class LightProcessor {
 		Edge currentEdge;
 
 		// First (current) edge needs to be the nearest edge that has y > 0 and x points across x = 0, i.e. the first edge directly up
-		PriorityQueue<Edge> nearestStartingEdges = getEdgesAboveOriginThatCrossXAxis(allEdges);
+		PriorityQueue<Edge> nearestStartingEdges = getEdgesAboveOriginThatCrossXAxis(occludingEdges);
 		currentEdge = nearestStartingEdges.peek();
 		if (currentEdge == null) {
 			// This should only happen if we go outside the map, so don't draw any geometry
-			return;
+			return false;
 		}
 		// Initially consider the edges above the origin that go across the X-axis - these will be removed as their pointB
 		// is encountered, but then added back in again later when their pointA is encountered as we finish processing clockwise
 		nearestEdgesToConsider.addAll(nearestStartingEdges);
 
-		Vector2 previousVisiblePoint = calculateInitialPreviouslyVisiblePoint(light, sortedPointsToWallEdges, currentEdge);
+		Vector2 previousVisiblePoint = calculateInitialPreviouslyVisiblePoint(sortedPointsToWallEdges, currentEdge);
 		if (previousVisiblePoint == null) {
 			// Don't know why this is happening, when debugging the above returns non-null but later previousVisiblePoint is then null
-			return;
+			return false;
 		}
 
 		for (Map.Entry<Vector2, List<Edge>> sortedMapEntry : sortedPointsToWallEdges.entrySet()) {
@@ -106,39 +153,10 @@ public class LightProcessor {
 			visitedPoints.add(currentPoint);
 		}
 
-		light.updateMesh();
-	}
-
-	private void buildSortedPointToEdgeMap(PointLight light, TiledMap worldMap, TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges, Set<Edge> allEdges) {
-		addBoundingBoxEdges(light, sortedPointsToWallEdges, worldMap, allEdges);
-
-		Vector2 lightPosition = light.getWorldPosition();
-		int lightTileX = (int)Math.floor(lightPosition.x);
-		int lightTileY = (int)Math.floor(lightPosition.y);
-		for (int yCursor = lightTileY - Math.round(PointLight.LIGHT_RADIUS); yCursor <= lightTileY + PointLight.LIGHT_RADIUS; yCursor++) {
-			for (int xCursor = lightTileX - Math.round(PointLight.LIGHT_RADIUS); xCursor <= lightTileX + PointLight.LIGHT_RADIUS; xCursor++) {
-				MapTile mapTile = worldMap.getTile(xCursor, yCursor);
-				if (mapTile != null && mapTile.hasWall()) {
-
-					int simplifiedLayoutId = tileLayoutAtlas.simplifyLayoutId(mapTile.getWall().getTrueLayout().getId());
-					WallEdgeDefinition edgeDefinition = wallEdgeAtlas.getForLayoutId(simplifiedLayoutId);
-
-					addEdgeDefinitionToEdgeMap(light, sortedPointsToWallEdges, allEdges, lightPosition, yCursor, xCursor, edgeDefinition);
-				} else if (mapTile != null && mapTile.hasDoorway()) {
-					WallEdgeDefinition edgeDefinition = wallEdgeAtlas.getForDoorway(mapTile.getDoorway());
-					addEdgeDefinitionToEdgeMap(light, sortedPointsToWallEdges, allEdges, lightPosition, yCursor, xCursor, edgeDefinition);
-
-					if (mapTile.getDoorway().getDoorState().equals(DoorState.CLOSED)) {
-						WallEdgeDefinition closedDoorEdgeDefinition = wallEdgeAtlas.getForClosedDoor(mapTile.getDoorway());
-						addEdgeDefinitionToEdgeMap(light, sortedPointsToWallEdges, allEdges, lightPosition, yCursor, xCursor, closedDoorEdgeDefinition);
-					}
-
-				}
-			}
-		}
+		return true;
 	}
 
-	private void addEdgeDefinitionToEdgeMap(PointLight light, TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges, Set<Edge> allEdges, Vector2 lightPosition, int yCursor, int xCursor, WallEdgeDefinition edgeDefinition) {
+	private void addEdgeDefinition(Array<Edge> occludingEdges, Vector2 lightPosition, int yCursor, int xCursor, WallEdgeDefinition edgeDefinition) {
 		Array<Edge> edges = edgeDefinition.getEdgesForVisibilityPolygon(new Vector2(lightPosition.x - xCursor, lightPosition.y - yCursor));
 		for (Edge edge : edges) {
 			Edge edgeRelativeToLight = new Edge(
@@ -146,7 +164,7 @@ public class LightProcessor {
 					new Vector2(xCursor, yCursor).add(edge.getPointB()).sub(lightPosition)
 			);
 			if (withinRadiusBounds(edgeRelativeToLight, PointLight.LIGHT_RADIUS)) {
-				addEdgeToMap(edgeRelativeToLight, sortedPointsToWallEdges, allEdges);
+				occludingEdges.add(edgeRelativeToLight.reorderPointsClockwiseAroundOrigin());
 			}
 		}
 	}
@@ -156,7 +174,7 @@ public class LightProcessor {
 				(Math.abs(edge.getPointB().x) < radius && Math.abs(edge.getPointB().y) < radius);
 	}
 
-	private PriorityQueue<Edge> getEdgesAboveOriginThatCrossXAxis(Set<Edge> allEdges) {
+	private PriorityQueue<Edge> getEdgesAboveOriginThatCrossXAxis(Array<Edge> allEdges) {
 		PriorityQueue<Edge> nearestStartingEdges = new PriorityQueue<>(new NearestEdgeComparator());
 		for (Edge edge : allEdges) {
 			if ((edge.getPointA().y > 0 && edge.getPointB().y > 0 && edge.getPointA().x < 0 && edge.getPointB().x >= 0) ||
@@ -171,7 +189,7 @@ public class LightProcessor {
 	 * The initial previous visible point is either the left of the initial edge,
 	 * or the intersection of the initial edge with the most-clockwise point in front of it
 	 */
-	private Vector2 calculateInitialPreviouslyVisiblePoint(PointLight light, TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges, Edge initialEdge) {
+	private Vector2 calculateInitialPreviouslyVisiblePoint(TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges, Edge initialEdge) {
 		Vector2 previousVisiblePoint = null;
 		NavigableSet<Vector2> sortedPointsInReverse = sortedPointsToWallEdges.descendingKeySet();
 		for (Vector2 pointToCheck : sortedPointsInReverse) {
@@ -212,9 +230,7 @@ public class LightProcessor {
 	 * This method adds edges for a square around light.worldPosition of size LIGHT_RADIUS*2 by LIGHT_RADIUS*2, limited by the world edges if the
 	 * light is within LIGHT_RADIUS distance of a world edge
 	 */
-	private void addBoundingBoxEdges(PointLight light, TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges,
-									 TiledMap worldMap, Set<Edge> allEdges) {
-		Vector2 lightWorldPosition = light.getWorldPosition();
+	private void addBoundingBoxEdges(Vector2 lightWorldPosition, TiledMap worldMap, Array<Edge> occludingEdges) {
 		float left = 0f - Math.min(PointLight.LIGHT_RADIUS, lightWorldPosition.x);
 		float right = 0f + Math.min(PointLight.LIGHT_RADIUS, worldMap.getWidth() - lightWorldPosition.x);
 		float bottom = 0f - Math.min(PointLight.LIGHT_RADIUS, lightWorldPosition.y);
@@ -226,17 +242,10 @@ public class LightProcessor {
 		Vector2 lowerRight = new Vector2(right, bottom);
 
 		// Add bounding box edges
-		addEdgeToMap(new Edge(lowerLeft, upperLeft), sortedPointsToWallEdges, allEdges);
-		addEdgeToMap(new Edge(upperLeft, upperRight), sortedPointsToWallEdges, allEdges);
-		addEdgeToMap(new Edge(upperRight, lowerRight), sortedPointsToWallEdges, allEdges);
-		addEdgeToMap(new Edge(lowerRight, lowerLeft), sortedPointsToWallEdges, allEdges);
-	}
-
-	private void addEdgeToMap(Edge edge, TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges, Set<Edge> allEdges) {
-		edge = edge.reorderPointsClockwiseAroundOrigin();
-		addPointToMap(edge.getPointA(), edge, sortedPointsToWallEdges);
-		addPointToMap(edge.getPointB(), edge, sortedPointsToWallEdges);
-		allEdges.add(edge);
+		occludingEdges.add(new Edge(lowerLeft, upperLeft).reorderPointsClockwiseAroundOrigin());
+		occludingEdges.add(new Edge(upperLeft, upperRight).reorderPointsClockwiseAroundOrigin());
+		occludingEdges.add(new Edge(upperRight, lowerRight).reorderPointsClockwiseAroundOrigin());
+		occludingEdges.add(new Edge(lowerRight, lowerLeft).reorderPointsClockwiseAroundOrigin());
 	}
 
 	private void addPointToMap(Vector2 point, Edge edge, TreeMap<Vector2, List<Edge>> sortedPointsToWallEdges) {
@@ -0,0 +1,130 @@
+package technology.rocketjump.undermount.rendering.lighting;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+import technology.rocketjump.undermount.mapping.model.OutsideLightChanges;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.rendering.custom_libgdx.ShaderLoader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Holds the outside light amount of every MapVertex as one texel of a map-sized texture, so that outdoor lighting can
+ * be drawn as a single quad over the view with the texture's linear filtering blending between the vertices.
+ *
+ * The texture is only rewritten for the region of vertices in the map's OutsideLightChanges, which is only extended
+ * when OutdoorLightProcessor propagates light or darkness (or a roof is otherwise opened).
+ */
+public class OutdoorLightTexture implements Disposable {
+
+	private static final short[] QUAD_INDICES = {0, 1, 2, 2, 3, 0};
+
+	private final ShaderProgram shader;
+	private final Mesh quad;
+	private final float[] quadVertices = new float[4 * 2];
+
+	private TiledMap currentMap;
+	private Pixmap pixmap;
+	private Texture texture;
+
+	public OutdoorLightTexture() {
+		FileHandle vertexShaderFile = Gdx.files.classpath("shaders/outdoor_lighting_vertex_shader.glsl");
+		FileHandle fragmentShaderFile = Gdx.files.classpath("shaders/outdoor_lighting_fragment_shader.glsl");
+		shader = ShaderLoader.createShader(vertexShaderFile, fragmentShaderFile);
+
+		quad = new Mesh(true, 4, QUAD_INDICES.length,
+				new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE));
+		quad.setIndices(QUAD_INDICES);
+	}
+
+	public void render(TiledMap tiledMap, OrthographicCamera camera, Color lightColor) {
+		update(tiledMap);
+
+		float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+		float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+		float minX = Math.max(0, camera.position.x - halfWidth);
+		float maxX = Math.min(tiledMap.getWidth(), camera.position.x + halfWidth);
+		float minY = Math.max(0, camera.position.y - halfHeight);
+		float maxY = Math.min(tiledMap.getHeight(), camera.position.y + halfHeight);
+		if (maxX <= minX || maxY <= minY) {
+			return;
+		}
+		quadVertices[0] = minX;
+		quadVertices[1] = minY;
+		quadVertices[2] = minX;
+		quadVertices[3] = maxY;
+		quadVertices[4] = maxX;
+		quadVertices[5] = maxY;
+		quadVertices[6] = maxX;
+		quadVertices[7] = minY;
+		quad.setVertices(quadVertices);
+
+		texture.bind(0);
+		shader.begin();
+		shader.setUniformMatrix("u_projTrans", camera.combined);
+		shader.setUniformf("u_lightColor", lightColor.r, lightColor.g, lightColor.b);
+		shader.setUniformf("u_vertexMapSize", pixmap.getWidth(), pixmap.getHeight());
+		shader.setUniformi("u_outsideLight", 0);
+		quad.render(shader, GL20.GL_TRIANGLES);
+		shader.end();
+	}
+
+	private void update(TiledMap tiledMap) {
+		OutsideLightChanges changes = tiledMap.getOutsideLightChanges();
+		if (tiledMap != currentMap) {
+			disposeTexture();
+			currentMap = tiledMap;
+			pixmap = new Pixmap(tiledMap.getWidth() + 1, tiledMap.getHeight() + 1, Pixmap.Format.Alpha);
+			pixmap.setBlending(Pixmap.Blending.None);
+			writeVertices(tiledMap, pixmap, 0, 0);
+			texture = new Texture(pixmap);
+			texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+			texture.setWrap(Texture.TextureWrap.ClampToEdge, Texture.TextureWrap.ClampToEdge);
+			changes.clear();
+		} else if (!changes.isEmpty()) {
+			Pixmap changedRegion = new Pixmap(changes.getMaxX() - changes.getMinX() + 1, changes.getMaxY() - changes.getMinY() + 1, Pixmap.Format.Alpha);
+			changedRegion.setBlending(Pixmap.Blending.None);
+			writeVertices(tiledMap, changedRegion, changes.getMinX(), changes.getMinY());
+			texture.draw(changedRegion, changes.getMinX(), changes.getMinY());
+			changedRegion.dispose();
+			changes.clear();
+		}
+	}
+
+	/**
+	 * Writes the outside light amount of the vertices starting at offsetX, offsetY into the alpha pixmap, where row n of
+	 * the pixmap is uploaded as row n of the texture so vertexY maps directly to the texture's v coordinate
+	 */
+	private void writeVertices(TiledMap tiledMap, Pixmap target, int offsetX, int offsetY) {
+		ByteBuffer pixels = target.getPixels();
+		int width = target.getWidth();
+		for (int y = 0; y < target.getHeight(); y++) {
+			for (int x = 0; x < width; x++) {
+				float outsideLight = tiledMap.getVertex(offsetX + x, offsetY + y).getOutsideLightAmount();
+				pixels.put(y * width + x, (byte) Math.round(Math.min(1f, Math.max(0f, outsideLight)) * 255f));
+			}
+		}
+	}
+
+	private void disposeTexture() {
+		if (texture != null) {
+			texture.dispose();
+			texture = null;
+		}
+		if (pixmap != null) {
+			pixmap.dispose();
+			pixmap = null;
+		}
+		currentMap = null;
+	}
+
+	@Override
+	public void dispose() {
+		disposeTexture();
+		quad.dispose();
+		shader.dispose();
+	}
+}
@@ -52,6 +52,11 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 	private final Map<GridPoint2, StockpileAllocation> allocations = new HashMap<>();
 	private JobPriority priority = JobPriority.NORMAL;
 
+	// Indexes over allocations so requestAllocation doesn't need to go through every tile, rebuilt when room tiles are added
+	private final Map<StackKey, Set<GridPoint2>> partiallyFilledAllocations = new HashMap<>();
+	private final Set<GridPoint2> unallocatedTiles = new LinkedHashSet<>();
+	private int indexedRoomTileCount = -1;
+
 	public StockpileComponent(Room parent, MessageDispatcher messageDispatcher) {
 		super(parent, messageDispatcher);
 	}
@@ -74,6 +79,7 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 		for (Map.Entry<GridPoint2, StockpileAllocation> entry : this.allocations.entrySet()) {
 			cloned.allocations.put(entry.getKey(), entry.getValue());
 		}
+		cloned.invalidateIndex();
 		return cloned;
 	}
 
@@ -83,6 +89,7 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 		for (Map.Entry<GridPoint2, StockpileAllocation> entry : other.allocations.entrySet()) {
 			this.allocations.put(entry.getKey(), entry.getValue());
 		}
+		invalidateIndex();
 
 		this.enabledGroups.addAll(other.enabledGroups);
 		this.enabledItemTypes.addAll(other.enabledItemTypes);
@@ -96,7 +103,13 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 
 	@Override
 	public void tileRemoved(GridPoint2 location) {
-		allocations.remove(location);
+		// The room's size before this tile was removed, whether or not the room has removed it yet
+		int roomTileCountBeforeRemoval = parent.getRoomTiles().size() + (parent.getRoomTiles().containsKey(location) ? 0 : 1);
+		if (indexedRoomTileCount == roomTileCountBeforeRemoval) {
+			unallocatedTiles.remove(location);
+			indexedRoomTileCount = roomTileCountBeforeRemoval - 1;
+		}
+		removeAllocation(location);
 		messageDispatcher.dispatchMessage(MessageType.REMOVE_HAULING_JOBS_TO_POSITION, location);
 	}
 
@@ -105,7 +118,9 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 		if (allocationAtTile != null) {
 			allocationAtTile.refreshQuantityInTile(targetTile);
 			if (allocationAtTile.getTotalQuantity() <= 0 && allocationAtTile.getIncomingHaulingQuantity() <= 0) {
-				allocations.remove(targetTile.getTilePosition());
+				removeAllocation(targetTile.getTilePosition());
+			} else {
+				refreshSpaceIn(allocationAtTile);
 			}
 		}
 	}
@@ -117,6 +132,7 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 			// Matches existing allocation, cancel incoming hauling and refresh
 			existingAllocation.decrementIncomingHaulingQuantity(quantityPlaced);
 			existingAllocation.refreshQuantityInTile(targetTile);
+			refreshSpaceIn(existingAllocation);
 		} else {
 			// Placed an item which does match the existing allocation
 			StockpileAllocation replacementAllocation = new StockpileAllocation(targetTile.getTilePosition());
@@ -124,7 +140,7 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 			replacementAllocation.setItemType(placedItemAttributes.getItemType());
 			replacementAllocation.refreshQuantityInTile(targetTile);
 
-			this.allocations.put(targetTile.getTilePosition(), replacementAllocation);
+			putAllocation(replacementAllocation);
 		}
 	}
 
@@ -134,13 +150,14 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 			// Matches existing allocation, cancel incoming hauling and refresh
 			existingAllocation.decrementIncomingHaulingQuantity(1);
 			existingAllocation.refreshQuantityInTile(targetTile);
+			refreshSpaceIn(existingAllocation);
 		} else {
 			// Placed an item which does not match the existing allocation
 			StockpileAllocation replacementAllocation = new StockpileAllocation(targetTile.getTilePosition());
 			replacementAllocation.setRaceCorpse(attributes.getRace());
 			replacementAllocation.refreshQuantityInTile(targetTile);
 
-			this.allocations.put(targetTile.getTilePosition(), replacementAllocation);
+			putAllocation(replacementAllocation);
 		}
 	}
 
@@ -160,70 +177,64 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 		int numUnallocated = entity.getComponent(ItemAllocationComponent.class).getNumUnallocated();
 		int quantityToAllocate = Math.min(numUnallocated, isCorpse ? 1 : itemType.getMaxHauledAtOnce());
 
+		ensureIndexed();
 		StockpileAllocation allocationToUse = null;
 
-		List<GridPoint2> pointsToTraverse = new ArrayList<>(parent.getRoomTiles().keySet());
-		// Randomly traverse to see if we can fit into existing
-		Collections.shuffle(pointsToTraverse);
-		// First try to find a matching allocation
-		for (GridPoint2 position : pointsToTraverse) {
-			MapTile tileAtPosition = map.getTile(position);
-			StockpileAllocation allocationAtPosition = allocations.get(position);
-			if (allocationAtPosition == null) {
-				// No allocation here yet
-				if (!tileAtPosition.isEmpty()) {
-					Entity itemAlreadyInTile = tileAtPosition.getFirstItem();
-					if (itemAlreadyInTile != null) {
-						// There is already an item here but no existing allocation, so add a new allocation matching it
-						// This is for pre-existing items where a stockpile is placed
-						allocationAtPosition = new StockpileAllocation(position);
-						ItemEntityAttributes attributesItemAlreadyInTile = (ItemEntityAttributes) itemAlreadyInTile.getPhysicalEntityComponent().getAttributes();
-
-						allocationAtPosition.setGameMaterial(attributesItemAlreadyInTile.getPrimaryMaterial());
-						allocationAtPosition.setItemType(attributesItemAlreadyInTile.getItemType());
-						allocationAtPosition.refreshQuantityInTile(tileAtPosition);
-						allocations.put(position, allocationAtPosition);
-						continue;
-					}
-
-					Entity corpseEntity = tileAtPosition.getFirstCorpse();
-					if (corpseEntity != null) {
-						allocationAtPosition = new StockpileAllocation(position);
-						allocationAtPosition.setRaceCorpse(((CreatureEntityAttributes)corpseEntity.getPhysicalEntityComponent().getAttributes()).getRace());
-						allocationAtPosition.refreshQuantityInTile(tileAtPosition);
-						allocations.put(position, allocationAtPosition);
-						continue;
-					}
+		// First try to find a matching allocation with space
+		Set<GridPoint2> matchingPositions = partiallyFilledAllocations.get(new StackKey(itemType, itemMaterial, race));
+		if (matchingPositions != null) {
+			for (GridPoint2 position : matchingPositions) {
+				StockpileAllocation allocationAtPosition = allocations.get(position);
+				if (allocationAtPosition.getTotalQuantity() + quantityToAllocate <= maxStackSize &&
+						allocationIsCorrectForTileContents(map.getTile(position), allocationAtPosition)) {
+					allocationToUse = allocationAtPosition;
+					break;
 				}
-			} else if (matches(entity, allocationAtPosition) &&
-					allocationAtPosition.getTotalQuantity() + quantityToAllocate <= maxStackSize &&
-					allocationIsCorrectForTileContents(tileAtPosition, allocationAtPosition)) {
-				allocationToUse = allocationAtPosition;
-				break;
 			}
 		}
+
 		if (allocationToUse == null) {
-			// Not found one yet so use a new allocation
+			// Not found one yet so use a new allocation, going through unallocated tiles in a deterministic order
+			List<StockpileAllocation> preExistingAllocations = new ArrayList<>();
+			for (GridPoint2 position : unallocatedTiles) {
+				MapTile tileAtPosition = map.getTile(position);
+				if (tileAtPosition.isEmpty()) {
+					allocationToUse = new StockpileAllocation(position);
+					allocationToUse.setItemType(itemType);
+					allocationToUse.setGameMaterial(itemMaterial);
+					allocationToUse.setRaceCorpse(race);
+					break;
+				}
 
-			// Deterministically go through points to traverse for a new location
-			pointsToTraverse = new ArrayList<>(parent.getRoomTiles().keySet());
-			Random random = new RandomXS128(parent.getRoomId());
-			Collections.shuffle(pointsToTraverse, random);
+				Entity itemAlreadyInTile = tileAtPosition.getFirstItem();
+				if (itemAlreadyInTile != null) {
+					// There is already an item here but no existing allocation, so add a new allocation matching it
+					// This is for pre-existing items where a stockpile is placed
+					StockpileAllocation allocationAtPosition = new StockpileAllocation(position);
+					ItemEntityAttributes attributesItemAlreadyInTile = (ItemEntityAttributes) itemAlreadyInTile.getPhysicalEntityComponent().getAttributes();
+
+					allocationAtPosition.setGameMaterial(attributesItemAlreadyInTile.getPrimaryMaterial());
+					allocationAtPosition.setItemType(attributesItemAlreadyInTile.getItemType());
+					allocationAtPosition.refreshQuantityInTile(tileAtPosition);
+					preExistingAllocations.add(allocationAtPosition);
+					continue;
+				}
 
-			for (GridPoint2 position : pointsToTraverse) {
-				MapTile tileAtPosition = map.getTile(position);
-				StockpileAllocation allocationAtPosition = allocations.get(position);
-				if (allocationAtPosition == null) {
-					if (tileAtPosition.isEmpty()) {
-						allocationToUse = new StockpileAllocation(position);
-						allocationToUse.setItemType(itemType);
-						allocationToUse.setGameMaterial(itemMaterial);
-						allocationToUse.setRaceCorpse(race);
-						allocations.put(position, allocationToUse);
-						break;
-					}
+				Entity corpseEntity = tileAtPosition.getFirstCorpse();
+				if (corpseEntity != null) {
+					StockpileAllocation allocationAtPosition = new StockpileAllocation(position);
+					allocationAtPosition.setRaceCorpse(((CreatureEntityAttributes)corpseEntity.getPhysicalEntityComponent().getAttributes()).getRace());
+					allocationAtPosition.refreshQuantityInTile(tileAtPosition);
+					preExistingAllocations.add(allocationAtPosition);
 				}
 			}
+
+			for (StockpileAllocation preExistingAllocation : preExistingAllocations) {
+				putAllocation(preExistingAllocation);
+			}
+			if (allocationToUse != null) {
+				putAllocation(allocationToUse);
+			}
 		}
 
 		if (allocationToUse != null) {
@@ -235,6 +246,7 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 			quantityToAllocate = Math.min(quantityToAllocate, spaceInAllocation);
 
 			allocationToUse.incrementIncomingHaulingQuantity(quantityToAllocate);
+			refreshSpaceIn(allocationToUse);
 
 			return new StockpileAllocationResponse(allocationToUse.getPosition(), quantityToAllocate);
 		}
@@ -242,18 +254,6 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 		return null;
 	}
 
-	private boolean matches(Entity entity, StockpileAllocation stockpileAllocation) {
-		if (entity.getType().equals(EntityType.CREATURE)) {
-			return ((CreatureEntityAttributes) entity.getPhysicalEntityComponent().getAttributes()).getRace().equals(stockpileAllocation.getRaceCorpse());
-		} else if (entity.getType().equals(EntityType.ITEM)) {
-			ItemEntityAttributes attributes = (ItemEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
-			return attributes.getItemType().equals(stockpileAllocation.getItemType()) &&
-					attributes.getPrimaryMaterial().equals(stockpileAllocation.getGameMaterial());
-		} else {
-			return false;
-		}
-	}
-
 	private boolean allocationIsCorrectForTileContents(MapTile tileAtPosition, StockpileAllocation allocationAtPosition) {
 		Entity itemAtPosition = null;
 		Entity corpseAtPosition = null;
@@ -299,7 +299,89 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 		ItemAllocation itemAllocation = allocation.getItemAllocation();
 		positionalAllocation.decrementIncomingHaulingQuantity(itemAllocation.getAllocationAmount());
 		if (positionalAllocation.getTotalQuantity() <= 0) {
-			allocations.remove(allocation.getTargetPosition());
+			removeAllocation(allocation.getTargetPosition());
+		} else {
+			refreshSpaceIn(positionalAllocation);
+		}
+	}
+
+	private void putAllocation(StockpileAllocation allocation) {
+		StockpileAllocation replaced = allocations.put(allocation.getPosition(), allocation);
+		if (indexIsValid()) {
+			if (replaced != null) {
+				removeFromIndex(replaced);
+			}
+			unallocatedTiles.remove(allocation.getPosition());
+			refreshSpaceIn(allocation);
+		}
+	}
+
+	private void removeAllocation(GridPoint2 position) {
+		StockpileAllocation removed = allocations.remove(position);
+		if (indexIsValid()) {
+			if (removed != null) {
+				removeFromIndex(removed);
+			}
+			if (parent.getRoomTiles().containsKey(position)) {
+				unallocatedTiles.add(position);
+			}
+		}
+	}
+
+	private void refreshSpaceIn(StockpileAllocation allocation) {
+		if (!indexIsValid()) {
+			return;
+		}
+		int maxStackSize = allocation.getItemType() == null ? 1 : allocation.getItemType().getMaxStackSize();
+		if (allocation.getTotalQuantity() < maxStackSize) {
+			partiallyFilledAllocations.computeIfAbsent(StackKey.of(allocation), a -> new LinkedHashSet<>()).add(allocation.getPosition());
+		} else {
+			removeFromIndex(allocation);
+		}
+	}
+
+	private void removeFromIndex(StockpileAllocation allocation) {
+		StackKey stackKey = StackKey.of(allocation);
+		Set<GridPoint2> positions = partiallyFilledAllocations.get(stackKey);
+		if (positions != null) {
+			positions.remove(allocation.getPosition());
+			if (positions.isEmpty()) {
+				partiallyFilledAllocations.remove(stackKey);
+			}
+		}
+	}
+
+	private boolean indexIsValid() {
+		return indexedRoomTileCount == parent.getRoomTiles().size();
+	}
+
+	private void invalidateIndex() {
+		indexedRoomTileCount = -1;
+	}
+
+	/**
+	 * Room tiles can be added without this component being told (unlike removals which come through tileRemoved),
+	 * so a change in the number of room tiles means the index needs rebuilding
+	 */
+	private void ensureIndexed() {
+		if (indexIsValid()) {
+			return;
+		}
+		partiallyFilledAllocations.clear();
+		unallocatedTiles.clear();
+
+		List<GridPoint2> roomTilePositions = new ArrayList<>(parent.getRoomTiles().keySet());
+		Random random = new RandomXS128(parent.getRoomId());
+		Collections.shuffle(roomTilePositions, random);
+		indexedRoomTileCount = roomTilePositions.size();
+
+		for (GridPoint2 position : roomTilePositions) {
+			StockpileAllocation allocation = allocations.get(position);
+			if (allocation == null) {
+				unallocatedTiles.add(position);
+			} else {
+				refreshSpaceIn(allocation);
+			}
 		}
 	}
 
@@ -540,6 +622,7 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 				allocations.put(position, allocation);
 			}
 		}
+		invalidateIndex();
 
 		this.priority = EnumParser.getEnumValue(asJson, "priority", JobPriority.class, JobPriority.NORMAL);
 	}
@@ -551,4 +634,36 @@ public class StockpileComponent extends RoomComponent implements SelectableDescr
 	public Set<StockpileGroup> getEnabledGroups() {
 		return enabledGroups;
 	}
+
+	private static class StackKey {
+
+		private final ItemType itemType;
+		private final GameMaterial gameMaterial;
+		private final Race raceCorpse;
+
+		private StackKey(ItemType itemType, GameMaterial gameMaterial, Race raceCorpse) {
+			this.itemType = itemType;
+			this.gameMaterial = gameMaterial;
+			this.raceCorpse = raceCorpse;
+		}
+
+		private static StackKey of(StockpileAllocation allocation) {
+			return new StackKey(allocation.getItemType(), allocation.getGameMaterial(), allocation.getRaceCorpse());
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			StackKey stackKey = (StackKey) o;
+			return Objects.equals(itemType, stackKey.itemType) &&
+					Objects.equals(gameMaterial, stackKey.gameMaterial) &&
+					Objects.equals(raceCorpse, stackKey.raceCorpse);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(itemType, gameMaterial, raceCorpse);
+		}
+	}
 }
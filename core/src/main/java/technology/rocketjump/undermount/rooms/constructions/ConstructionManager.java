@@ -1,6 +1,8 @@
 package technology.rocketjump.undermount.rooms.constructions;
 
 import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.math.GridPoint2;
 import com.badlogic.gdx.math.Vector2;
 import com.google.inject.Inject;
@@ -13,6 +15,7 @@ import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.entities.model.EntityType;
 import technology.rocketjump.undermount.entities.model.physical.furniture.FurnitureEntityAttributes;
 import technology.rocketjump.undermount.entities.model.physical.item.ItemEntityAttributes;
+import technology.rocketjump.undermount.entities.model.physical.item.ItemType;
 import technology.rocketjump.undermount.entities.model.physical.item.QuantifiedItemTypeWithMaterial;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.Updatable;
@@ -25,15 +28,16 @@ import technology.rocketjump.undermount.jobs.model.JobType;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.materials.model.GameMaterialType;
 import technology.rocketjump.undermount.messaging.MessageType;
+import technology.rocketjump.undermount.messaging.types.EntityPositionChangedMessage;
 import technology.rocketjump.undermount.messaging.types.ItemMaterialSelectionMessage;
+import technology.rocketjump.undermount.messaging.types.ItemPrimaryMaterialChangedMessage;
 import technology.rocketjump.undermount.messaging.types.RequestHaulingAllocationMessage;
 import technology.rocketjump.undermount.messaging.types.RequestHaulingMessage;
 import technology.rocketjump.undermount.messaging.types.RequestPlantRemovalMessage;
 import technology.rocketjump.undermount.rooms.HaulingAllocation;
 import technology.rocketjump.undermount.settlement.ItemTracker;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 import static technology.rocketjump.undermount.entities.ItemEntityMessageHandler.createHaulingJob;
 import static technology.rocketjump.undermount.entities.components.ItemAllocation.Purpose.ON_FIRE;
@@ -43,8 +47,17 @@ import static technology.rocketjump.undermount.misc.VectorUtils.toVector;
 import static technology.rocketjump.undermount.rooms.HaulingAllocation.AllocationPositionType.CONSTRUCTION;
 import static technology.rocketjump.undermount.rooms.constructions.ConstructionState.*;
 
+/**
+ * Updates constructions when something happens which could change their state - items placed on or removed from their tiles,
+ * hauling allocations to them being cancelled, or items they are waiting for being created or having their allocations cancelled -
+ * rather than visiting each in turn. A sweep over all constructions catches anything not covered by those events.
+ */
 @Singleton
-public class ConstructionManager implements Updatable {
+public class ConstructionManager implements Updatable, Telegraph {
+
+	private static final int MAX_UPDATES_PER_FRAME = 16;
+	private static final float SWEEP_PERIOD_SECONDS = 60f;
+	private static final float LATENCY_SMOOTHING = 0.1f;
 
 	private final ConstructionStore constructionStore;
 	private final ItemTracker itemTracker;
@@ -55,6 +68,14 @@ public class ConstructionManager implements Updatable {
 	private final JobType constructStoneFurnitureJobType;
 	private GameContext gameContext;
 
+	private float elapsedSeconds;
+	private float timeSinceLastSweep;
+	private final Map<Long, Float> resourcesAvailableSince = new HashMap<>();
+	private final Set<ItemType> awaitedItemTypes = new HashSet<>();
+	private int haulingJobsCreated;
+	private float averageResourceToJobLatency;
+	private boolean latencyRecorded;
+
 	@Inject
 	public ConstructionManager(ConstructionStore constructionStore, ItemTracker itemTracker, MessageDispatcher messageDispatcher,
 							   JobFactory jobFactory, JobTypeDictionary jobTypeDictionary) {
@@ -65,15 +86,167 @@ public class ConstructionManager implements Updatable {
 		this.haulingJobType = jobTypeDictionary.getByName("HAULING");
 		this.constructWoodenFurnitureJobType = jobTypeDictionary.getByName("CONSTRUCT_WOODEN_FURNITURE");
 		this.constructStoneFurnitureJobType = jobTypeDictionary.getByName("CONSTRUCT_STONE_FURNITURE");
+
+		messageDispatcher.addListener(this, MessageType.ENTITY_POSITION_CHANGED);
+		messageDispatcher.addListener(this, MessageType.ENTITY_CREATED);
+		messageDispatcher.addListener(this, MessageType.DESTROY_ENTITY);
+		messageDispatcher.addListener(this, MessageType.ITEM_PRIMARY_MATERIAL_CHANGED);
+		messageDispatcher.addListener(this, MessageType.HAULING_ALLOCATION_CANCELLED);
+		messageDispatcher.addListener(this, MessageType.ITEM_ALLOCATION_CANCELLED);
+		messageDispatcher.addListener(this, MessageType.JOB_REMOVED);
+		messageDispatcher.addListener(this, MessageType.JOB_CANCELLED);
 	}
 
 	@Override
 	public void update(float deltaTime) {
 		if (gameContext != null) {
-			Construction construction = constructionStore.next();
-			if (construction != null) {
-				update(construction);
+			elapsedSeconds += deltaTime;
+
+			int numToUpdate = Math.min(MAX_UPDATES_PER_FRAME, constructionStore.getNumDirty());
+			for (int count = 0; count < numToUpdate; count++) {
+				Construction construction = constructionStore.nextDirty();
+				if (construction == null) {
+					break;
+				}
+				if (gameContext.getConstructions().containsKey(construction.getId())) {
+					updateAndRequeueIfChanged(construction);
+				}
+			}
+
+			timeSinceLastSweep += deltaTime;
+			if (timeSinceLastSweep > SWEEP_PERIOD_SECONDS / Math.max(1, gameContext.getConstructions().size())) {
+				timeSinceLastSweep = 0f;
+				Construction construction = constructionStore.next();
+				if (construction != null) {
+					updateAndRequeueIfChanged(construction);
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean handleMessage(Telegram msg) {
+		// None of these are the primary handler for the message type, so always return false
+		switch (msg.message) {
+			case MessageType.ENTITY_POSITION_CHANGED: {
+				EntityPositionChangedMessage message = (EntityPositionChangedMessage) msg.extraInfo;
+				if (message.movingEntity != null && isPartOfWorkSite(message.movingEntity)) {
+					markDirtyAt(message.oldPosition);
+					markDirtyAt(message.newPosition);
+				}
+				return false;
+			}
+			case MessageType.ENTITY_CREATED: {
+				Entity entity = (Entity) msg.extraInfo;
+				if (entity.getType().equals(EntityType.ITEM)) {
+					itemTypeAvailable(entity);
+				}
+				return false;
+			}
+			case MessageType.DESTROY_ENTITY: {
+				Entity entity = (Entity) msg.extraInfo;
+				if (entity != null && isPartOfWorkSite(entity)) {
+					markDirtyAt(entity.getLocationComponent().getWorldPosition());
+				}
+				return false;
+			}
+			case MessageType.ITEM_PRIMARY_MATERIAL_CHANGED: {
+				itemTypeAvailable(((ItemPrimaryMaterialChangedMessage) msg.extraInfo).item);
+				return false;
+			}
+			case MessageType.ITEM_ALLOCATION_CANCELLED: {
+				itemTypeAvailable((Entity) msg.extraInfo);
+				return false;
+			}
+			case MessageType.HAULING_ALLOCATION_CANCELLED: {
+				HaulingAllocation allocation = (HaulingAllocation) msg.extraInfo;
+				if (CONSTRUCTION.equals(allocation.getTargetPositionType()) && gameContext != null) {
+					Construction construction = constructionStore.getById(allocation.getTargetId());
+					if (construction != null) {
+						constructionStore.markDirty(construction);
+					}
+				}
+				if (EntityType.ITEM.equals(allocation.getHauledEntityType()) && gameContext != null) {
+					Entity hauledEntity = gameContext.getEntities().get(allocation.getHauledEntityId());
+					if (hauledEntity != null) {
+						itemTypeAvailable(hauledEntity);
+						// Might have been hauling it off a work site, which needs to ask for it to be moved again
+						markDirtyAt(hauledEntity.getLocationComponent().getWorldOrParentPosition());
+					}
+				}
+				return false;
 			}
+			case MessageType.JOB_REMOVED:
+			case MessageType.JOB_CANCELLED: {
+				Job job = (Job) msg.extraInfo;
+				if (job.getTargetId() != null && gameContext != null) {
+					// Plant removal jobs clearing a work site need requesting again
+					Entity targetEntity = gameContext.getEntities().get(job.getTargetId());
+					if (targetEntity != null && targetEntity.getType().equals(EntityType.PLANT)) {
+						markDirtyAt(targetEntity.getLocationComponent().getWorldPosition());
+					}
+				}
+				return false;
+			}
+			default:
+				throw new IllegalArgumentException("Unexpected message type " + msg.message + " received by " + this.toString() + ", " + msg.toString());
+		}
+	}
+
+	/**
+	 * Smoothed game time between an item becoming available and a construction awaiting it creating a hauling job for it
+	 */
+	public float getAverageResourceToJobLatency() {
+		return averageResourceToJobLatency;
+	}
+
+	private boolean isPartOfWorkSite(Entity entity) {
+		return entity.getType().equals(EntityType.ITEM) || entity.getType().equals(EntityType.PLANT);
+	}
+
+	private void markDirtyAt(Vector2 worldPosition) {
+		if (worldPosition == null || gameContext == null) {
+			return;
+		}
+		MapTile tile = gameContext.getAreaMap().getTile(worldPosition);
+		if (tile != null && tile.hasConstruction()) {
+			constructionStore.markDirty(tile.getConstruction());
+		}
+	}
+
+	private void itemTypeAvailable(Entity itemEntity) {
+		ItemType itemType = ((ItemEntityAttributes) itemEntity.getPhysicalEntityComponent().getAttributes()).getItemType();
+		for (Construction construction : constructionStore.itemTypeAvailable(itemType)) {
+			resourcesAvailableSince.putIfAbsent(construction.getId(), elapsedSeconds);
+		}
+	}
+
+	private void updateAndRequeueIfChanged(Construction construction) {
+		ConstructionState initialState = construction.getState();
+		awaitedItemTypes.clear();
+		haulingJobsCreated = 0;
+
+		update(construction);
+
+		Float availableSince = resourcesAvailableSince.remove(construction.getId());
+		if (availableSince != null && haulingJobsCreated > 0) {
+			recordLatency(elapsedSeconds - availableSince);
+		}
+		for (ItemType itemType : awaitedItemTypes) {
+			constructionStore.awaitItemType(construction, itemType);
+		}
+		if (!construction.getState().equals(initialState) && !construction.getState().equals(REMOVED)) {
+			// Most state transitions need another update to act on the new state
+			constructionStore.markDirty(construction);
+		}
+	}
+
+	private void recordLatency(float latency) {
+		if (latencyRecorded) {
+			averageResourceToJobLatency += (latency - averageResourceToJobLatency) * LATENCY_SMOOTHING;
+		} else {
+			averageResourceToJobLatency = latency;
+			latencyRecorded = true;
 		}
 	}
 
@@ -150,6 +323,7 @@ public class ConstructionManager implements Updatable {
 
 			if (requirement.getMaterial() == null) {
 				allMaterialsSelected = false;
+				awaitedItemTypes.add(requirement.getItemType());
 			}
 		}
 
@@ -250,6 +424,7 @@ public class ConstructionManager implements Updatable {
 			while (amountRequired > 0) {
 				Job haulingJobForNewAllocation = createNewIncomingHaulingAllocation(construction, requirement, amountRequired);
 				if (haulingJobForNewAllocation == null) {
+					awaitedItemTypes.add(requirement.getItemType());
 					if (amountRequired == requirement.getQuantity()) {
 						// None of this item available, go back to selecting materials
 						construction.setState(SELECTING_MATERIALS);
@@ -258,6 +433,7 @@ public class ConstructionManager implements Updatable {
 					break;
 				} else {
 					messageDispatcher.dispatchMessage(MessageType.JOB_CREATED, haulingJobForNewAllocation);
+					haulingJobsCreated++;
 					amountRequired -= haulingJobForNewAllocation.getHaulingAllocation().getItemAllocation().getAllocationAmount();
 				}
 			}
@@ -483,6 +659,7 @@ public class ConstructionManager implements Updatable {
 
 	@Override
 	public void clearContextRelatedState() {
-
+		resourcesAvailableSince.clear();
+		timeSinceLastSweep = 0f;
 	}
 }
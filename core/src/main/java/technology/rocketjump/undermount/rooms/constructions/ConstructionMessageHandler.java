@@ -465,6 +465,7 @@ public class ConstructionMessageHandler implements GameContextAware, Telegraph {
 					Optional.empty(), Optional.of(new JobTarget(tile)), (p) -> {}));
 
 			tile.getFloor().setBridgeTile(construction.getBridge(), bridgeEntry.getValue());
+			tile.refreshNavigationFlags();
 
 			if (!tile.getFloor().isRiverTile()) {
 				landTilesByRegion.put(tile.getRegionId(), tile);
@@ -603,6 +604,7 @@ public class ConstructionMessageHandler implements GameContextAware, Telegraph {
 			MapTile bridgeTile = gameContext.getAreaMap().getTile(bridgeLocation);
 			bridgeTile.setDesignation(null);
 			bridgeTile.getFloor().setBridgeTile(null, null);
+			bridgeTile.refreshNavigationFlags();
 
 			messageDispatcher.dispatchMessage(MessageType.PARTICLE_REQUEST, new ParticleRequestMessage(dustCloudParticleEffect,
 					Optional.empty(), Optional.of(new JobTarget(bridgeTile)), (p) -> {}));
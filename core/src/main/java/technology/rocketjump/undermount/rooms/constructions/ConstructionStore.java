@@ -6,15 +6,14 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import org.pmw.tinylog.Logger;
 import technology.rocketjump.undermount.entities.behaviour.furniture.Prioritisable;
+import technology.rocketjump.undermount.entities.model.physical.item.ItemType;
+import technology.rocketjump.undermount.entities.model.physical.item.QuantifiedItemTypeWithMaterial;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.GameContextAware;
 import technology.rocketjump.undermount.jobs.model.JobPriority;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Singleton
 public class ConstructionStore implements GameContextAware {
@@ -26,6 +25,9 @@ public class ConstructionStore implements GameContextAware {
 	private GameContext gameContext;
 	private int iterationCursor = 0;
 
+	private final Map<JobPriority, Set<Construction>> dirtyByPriority = new EnumMap<>(JobPriority.class);
+	private final Map<ItemType, Set<Construction>> awaitingItemTypes = new HashMap<>();
+
 	@Inject
 	public ConstructionStore(MessageDispatcher messageDispatcher) {
 		this.messageDispatcher = messageDispatcher;
@@ -56,6 +58,7 @@ public class ConstructionStore implements GameContextAware {
 		}
 
 		gameContext.getConstructions().put(construction.getId(), construction);
+		markDirty(construction);
 	}
 
 	/**
@@ -67,6 +70,7 @@ public class ConstructionStore implements GameContextAware {
 
 	public void addExisting(Construction construction) {
 		gameContext.getConstructions().put(construction.getId(), construction);
+		markDirty(construction);
 	}
 
 	public void remove(Construction construction) {
@@ -78,11 +82,86 @@ public class ConstructionStore implements GameContextAware {
 			}
 		}
 		construction.setState(ConstructionState.REMOVED);
+
+		for (Set<Construction> dirty : dirtyByPriority.values()) {
+			dirty.remove(construction);
+		}
+		for (QuantifiedItemTypeWithMaterial requirement : construction.getRequirements()) {
+			Set<Construction> awaiting = awaitingItemTypes.get(requirement.getItemType());
+			if (awaiting != null) {
+				awaiting.remove(construction);
+			}
+		}
+	}
+
+	/**
+	 * Queues the construction to be updated by ConstructionManager, after anything already queued at the same priority
+	 */
+	public void markDirty(Construction construction) {
+		dirtyByPriority.computeIfAbsent(construction.getPriority(), a -> new LinkedHashSet<>()).add(construction);
+	}
+
+	/**
+	 * @return the next queued construction, highest priority first, or null if none need updating.
+	 * Disabled constructions stay queued until their priority is changed.
+	 */
+	public Construction nextDirty() {
+		for (JobPriority priority : JobPriority.values()) {
+			Set<Construction> dirty = dirtyByPriority.get(priority);
+			if (priority.equals(JobPriority.DISABLED) || dirty == null || dirty.isEmpty()) {
+				continue;
+			}
+			Iterator<Construction> iterator = dirty.iterator();
+			Construction construction = iterator.next();
+			iterator.remove();
+			return construction;
+		}
+		return null;
+	}
+
+	public int getNumDirty() {
+		int total = 0;
+		for (Set<Construction> dirty : dirtyByPriority.values()) {
+			total += dirty.size();
+		}
+		return total;
+	}
+
+	/**
+	 * Records that the construction can't progress until more of the given item type becomes available
+	 */
+	public void awaitItemType(Construction construction, ItemType itemType) {
+		awaitingItemTypes.computeIfAbsent(itemType, a -> new LinkedHashSet<>()).add(construction);
+	}
+
+	/**
+	 * Queues all constructions awaiting the item type, which stop awaiting it until they record so again
+	 *
+	 * @return the constructions which were awaiting the item type
+	 */
+	public Collection<Construction> itemTypeAvailable(ItemType itemType) {
+		Set<Construction> awaiting = awaitingItemTypes.remove(itemType);
+		if (awaiting == null) {
+			return Collections.emptySet();
+		}
+		for (Construction construction : awaiting) {
+			markDirty(construction);
+		}
+		return awaiting;
 	}
 
 	public void priorityChanged() {
 		// Set to end of list to force refresh next update
 		iterationCursor = iterableArray.size();
+
+		List<Construction> queued = new ArrayList<>();
+		for (Set<Construction> dirty : dirtyByPriority.values()) {
+			queued.addAll(dirty);
+		}
+		dirtyByPriority.clear();
+		for (Construction construction : queued) {
+			markDirty(construction);
+		}
 	}
 
 	public Construction next() {
@@ -128,11 +207,17 @@ public class ConstructionStore implements GameContextAware {
 	@Override
 	public void onContextChange(GameContext gameContext) {
 		this.gameContext = gameContext;
+		// Loaded constructions need to be brought up to date before relying on events
+		for (Construction construction : gameContext.getConstructions().values()) {
+			markDirty(construction);
+		}
 	}
 
 	@Override
 	public void clearContextRelatedState() {
 		iterationCursor = 0;
 		iterableArray.clear();
+		dirtyByPriority.clear();
+		awaitingItemTypes.clear();
 	}
 }
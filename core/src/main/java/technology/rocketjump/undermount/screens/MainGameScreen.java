@@ -11,6 +11,7 @@ import com.badlogic.gdx.ai.msg.Telegraph;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import technology.rocketjump.undermount.environment.model.GameSpeed;
+import technology.rocketjump.undermount.gamecontext.FixedTimestepSimulation;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.GameContextAware;
 import technology.rocketjump.undermount.gamecontext.GameUpdateRegister;
@@ -20,8 +21,10 @@ import technology.rocketjump.undermount.particles.ParticleEffectUpdater;
 import technology.rocketjump.undermount.rendering.GameRenderer;
 import technology.rocketjump.undermount.rendering.ScreenWriter;
 import technology.rocketjump.undermount.rendering.camera.DisplaySettings;
+import technology.rocketjump.undermount.rendering.camera.GlobalSettings;
 import technology.rocketjump.undermount.rendering.camera.PrimaryCameraWrapper;
 import technology.rocketjump.undermount.rendering.camera.TileBoundingBox;
+import technology.rocketjump.undermount.rooms.constructions.ConstructionManager;
 import technology.rocketjump.undermount.ui.GuiContainer;
 import technology.rocketjump.undermount.ui.widgets.GameDialog;
 import technology.rocketjump.undermount.ui.widgets.ModalDialog;
@@ -39,6 +42,8 @@ public class MainGameScreen implements GameContextAware, GameScreen, Telegraph {
 	private final GameWorldInputHandler gameWorldInputHandler;
 	private final MessageDispatcher messageDispatcher;
 	private final ParticleEffectUpdater particleEffectUpdater;
+	private final FixedTimestepSimulation fixedTimestepSimulation;
+	private final ConstructionManager constructionManager;
 
 	private GameContext gameContext;
 	private GameUpdateRegister gameUpdateRegister;
@@ -50,7 +55,8 @@ public class MainGameScreen implements GameContextAware, GameScreen, Telegraph {
 	@Inject
 	public MainGameScreen(GameRenderer gameRenderer, PrimaryCameraWrapper primaryCameraWrapper, GuiContainer guiContainer,
 						  ScreenWriter screenWriter, GameWorldInputHandler gameWorldInputHandler,
-						  MessageDispatcher messageDispatcher, ParticleEffectUpdater particleEffectUpdater, GameUpdateRegister gameUpdateRegister) {
+						  MessageDispatcher messageDispatcher, ParticleEffectUpdater particleEffectUpdater, GameUpdateRegister gameUpdateRegister,
+						  FixedTimestepSimulation fixedTimestepSimulation, ConstructionManager constructionManager) {
 		this.gameRenderer = gameRenderer;
 		this.primaryCameraWrapper = primaryCameraWrapper;
 		this.guiContainer = guiContainer;
@@ -59,6 +65,8 @@ public class MainGameScreen implements GameContextAware, GameScreen, Telegraph {
 		this.messageDispatcher = messageDispatcher;
 		this.particleEffectUpdater = particleEffectUpdater;
 		this.gameUpdateRegister = gameUpdateRegister;
+		this.fixedTimestepSimulation = fixedTimestepSimulation;
+		this.constructionManager = constructionManager;
 
 		messageDispatcher.addListener(this, MessageType.BEGIN_SPAWN_SETTLEMENT);
 	}
@@ -76,14 +84,24 @@ public class MainGameScreen implements GameContextAware, GameScreen, Telegraph {
 	private void updateGameLogic(float deltaTime) {
 		screenWriter.clearText();
 		float multipliedDeltaTime = deltaTime * gameContext.getGameClock().getSpeedMultiplier();
-		GdxAI.getTimepiece().update(multipliedDeltaTime); // This is used for message delays, not actual AI, so runs when paused
-		if (!gameContext.getGameClock().isPaused() && !gameContext.getSettlementState().getGameState().equals(SELECT_SPAWN_LOCATION) &&
-				!gameContext.getSettlementState().getGameState().equals(STARTING_SPAWN)) {
-			gameContext.getGameClock().update(multipliedDeltaTime, messageDispatcher);
+		if (GlobalSettings.FIXED_TIMESTEP_SIMULATION) {
+			updateInFixedTicks(deltaTime, multipliedDeltaTime);
+			particleEffectUpdater.update(multipliedDeltaTime, new TileBoundingBox(primaryCameraWrapper.getCamera(), gameContext.getAreaMap()), primaryCameraWrapper.nearMaxZoom());
+			primaryCameraWrapper.update(deltaTime);
+		} else {
+			fixedTimestepSimulation.disable();
+			GdxAI.getTimepiece().update(multipliedDeltaTime); // This is used for message delays, not actual AI, so runs when paused
+			if (isGameClockRunning()) {
+				gameContext.getGameClock().update(multipliedDeltaTime, messageDispatcher);
+			}
+			particleEffectUpdater.update(multipliedDeltaTime, new TileBoundingBox(primaryCameraWrapper.getCamera(), gameContext.getAreaMap()), primaryCameraWrapper.nearMaxZoom());
+			primaryCameraWrapper.update(deltaTime);
+			gameUpdateRegister.update(multipliedDeltaTime, gameContext.getGameClock().isPaused());
+		}
+
+		if (GlobalSettings.DEV_MODE) {
+			screenWriter.printLine("Construction resource-to-job latency: " + String.format("%.2f", constructionManager.getAverageResourceToJobLatency()) + "s");
 		}
-		particleEffectUpdater.update(multipliedDeltaTime, new TileBoundingBox(primaryCameraWrapper.getCamera(), gameContext.getAreaMap()), primaryCameraWrapper.nearMaxZoom());
-		primaryCameraWrapper.update(deltaTime);
-		gameUpdateRegister.update(multipliedDeltaTime, gameContext.getGameClock().isPaused());
 
 //		screenWriter.printLine("Day " + gameContext.getGameClock().getDayOfSeason() + " " + gameContext.getAreaMap().getEnvironment().getCurrentSeason().name());
 //		screenWriter.printLine(gameContext.getGameClock().getFormattedGameTime());
@@ -99,6 +117,37 @@ public class MainGameScreen implements GameContextAware, GameScreen, Telegraph {
 		updateScreenFade(deltaTime);
 	}
 
+	/**
+	 * Runs the simulation in as many fixed length ticks as the game speed calls for, so that the behaviour of steering,
+	 * liquids, fire etc. does not depend on the game speed or frame rate
+	 */
+	private void updateInFixedTicks(float deltaTime, float multipliedDeltaTime) {
+		boolean paused = gameContext.getGameClock().isPaused();
+		if (paused) {
+			fixedTimestepSimulation.skipFrame(deltaTime);
+			GdxAI.getTimepiece().update(multipliedDeltaTime);
+			gameUpdateRegister.update(multipliedDeltaTime, true);
+		} else {
+			fixedTimestepSimulation.advance(deltaTime, gameContext.getGameClock().getSpeedMultiplier(), tickSeconds -> {
+				GdxAI.getTimepiece().update(tickSeconds);
+				if (isGameClockRunning()) {
+					gameContext.getGameClock().update(tickSeconds, messageDispatcher);
+				}
+				gameUpdateRegister.update(tickSeconds, false);
+			});
+		}
+
+		if (GlobalSettings.DEV_MODE) {
+			screenWriter.printLine("Ticks/sec: " + Math.round(fixedTimestepSimulation.getAchievedTicksPerSecond()) + " of " +
+					Math.round(FixedTimestepSimulation.getTargetTicksPerSecond(gameContext.getGameClock().getSpeedMultiplier())));
+		}
+	}
+
+	private boolean isGameClockRunning() {
+		return !gameContext.getGameClock().isPaused() && !gameContext.getSettlementState().getGameState().equals(SELECT_SPAWN_LOCATION) &&
+				!gameContext.getSettlementState().getGameState().equals(STARTING_SPAWN);
+	}
+
 	private void updateScreenFade(float deltaTime) {
 		if (fadingOut) {
 			fadeAmount += deltaTime;
@@ -30,6 +30,8 @@ public class GameplayOptionsTab implements OptionsTab, Telegraph {
 	private final I18nCheckbox zoomToCursorCheckbox;
 	private final I18nCheckbox treeTransparencyCheckbox;
 	private final I18nCheckbox pauseOnNotificationCheckbox;
+	private final I18nCheckbox parallelEntityUpdatesCheckbox;
+	private final I18nCheckbox fixedTimestepCheckbox;
 	private final I18nCheckbox enableHintsCheckbox;
 	private final I18nCheckbox enableTutorialCheckbox;
 	private final UserPreferences userPreferences;
@@ -89,6 +91,30 @@ public class GameplayOptionsTab implements OptionsTab, Telegraph {
 			return true;
 		});
 
+		parallelEntityUpdatesCheckbox = i18NWidgetFactory.createCheckbox("GUI.OPTIONS.GAMEPLAY.PARALLEL_ENTITY_UPDATES");
+		GlobalSettings.PARALLEL_ENTITY_UPDATES = Boolean.valueOf(userPreferences.getPreference(UserPreferences.PreferenceKey.PARALLEL_ENTITY_UPDATES, "false"));
+		parallelEntityUpdatesCheckbox.setChecked(GlobalSettings.PARALLEL_ENTITY_UPDATES);
+		parallelEntityUpdatesCheckbox.addListener((event) -> {
+			if (event instanceof ChangeListener.ChangeEvent) {
+				messageDispatcher.dispatchMessage(MessageType.REQUEST_SOUND, new RequestSoundMessage(clickSoundAsset));
+				GlobalSettings.PARALLEL_ENTITY_UPDATES = parallelEntityUpdatesCheckbox.isChecked();
+				userPreferences.setPreference(UserPreferences.PreferenceKey.PARALLEL_ENTITY_UPDATES, String.valueOf(GlobalSettings.PARALLEL_ENTITY_UPDATES));
+			}
+			return true;
+		});
+
+		fixedTimestepCheckbox = i18NWidgetFactory.createCheckbox("GUI.OPTIONS.GAMEPLAY.FIXED_TIMESTEP_SIMULATION");
+		GlobalSettings.FIXED_TIMESTEP_SIMULATION = Boolean.valueOf(userPreferences.getPreference(UserPreferences.PreferenceKey.FIXED_TIMESTEP_SIMULATION, "false"));
+		fixedTimestepCheckbox.setChecked(GlobalSettings.FIXED_TIMESTEP_SIMULATION);
+		fixedTimestepCheckbox.addListener((event) -> {
+			if (event instanceof ChangeListener.ChangeEvent) {
+				messageDispatcher.dispatchMessage(MessageType.REQUEST_SOUND, new RequestSoundMessage(clickSoundAsset));
+				GlobalSettings.FIXED_TIMESTEP_SIMULATION = fixedTimestepCheckbox.isChecked();
+				userPreferences.setPreference(UserPreferences.PreferenceKey.FIXED_TIMESTEP_SIMULATION, String.valueOf(GlobalSettings.FIXED_TIMESTEP_SIMULATION));
+			}
+			return true;
+		});
+
 		enableHintsCheckbox = i18NWidgetFactory.createCheckbox("GUI.OPTIONS.MISC.HINTS_ENABLED");
 		enableHintsCheckbox.setProgrammaticChangeEvents(false); // Used so that message triggered below does not loop endlessly
 		enableHintsCheckbox.setChecked(Boolean.parseBoolean(userPreferences.getPreference(ALLOW_HINTS, "true")));
@@ -130,6 +156,10 @@ public class GameplayOptionsTab implements OptionsTab, Telegraph {
 		menuTable.add(new Container<>()); // pad out 1 cell
 		menuTable.add(pauseOnNotificationCheckbox).colspan(2).left().pad(10).row();
 		menuTable.add(new Container<>()); // pad out 1 cell
+		menuTable.add(parallelEntityUpdatesCheckbox).colspan(2).left().pad(10).row();
+		menuTable.add(new Container<>()); // pad out 1 cell
+		menuTable.add(fixedTimestepCheckbox).colspan(2).left().pad(10).row();
+		menuTable.add(new Container<>()); // pad out 1 cell
 		menuTable.add(enableHintsCheckbox).colspan(2).left().pad(10).row();
 		menuTable.add(new Container<>()); // pad out 1 cell
 		menuTable.add(enableTutorialCheckbox).colspan(2).left().pad(10).row();
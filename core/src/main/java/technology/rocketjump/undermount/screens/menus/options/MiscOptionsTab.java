@@ -16,6 +16,7 @@ import technology.rocketjump.undermount.audio.model.SoundAssetDictionary;
 import technology.rocketjump.undermount.gamecontext.GameContext;
 import technology.rocketjump.undermount.gamecontext.GameContextAware;
 import technology.rocketjump.undermount.messaging.MessageType;
+import technology.rocketjump.undermount.messaging.ThreadSafeMessageDispatcher;
 import technology.rocketjump.undermount.messaging.types.RequestSoundMessage;
 import technology.rocketjump.undermount.persistence.UserPreferences;
 import technology.rocketjump.undermount.rendering.camera.GlobalSettings;
@@ -28,14 +29,21 @@ import java.awt.*;
 import java.awt.datatransfer.StringSelection;
 
 import static technology.rocketjump.undermount.persistence.UserPreferences.PreferenceKey.CRASH_REPORTING;
+import static technology.rocketjump.undermount.persistence.UserPreferences.PreferenceKey.EXPORT_SAVES_AS_SINGLE_JSON;
 import static technology.rocketjump.undermount.persistence.UserPreferences.PreferenceKey.MAIN_MENU_BACKGROUND_SCROLLING;
+import static technology.rocketjump.undermount.persistence.UserPreferences.PreferenceKey.MESSAGE_STATISTICS;
 
 @Singleton
 public class MiscOptionsTab implements OptionsTab, Telegraph, GameContextAware {
 
+	private static final int MAX_MESSAGE_TYPES_IN_STATISTICS = 20;
+
 	private final I18nLabel miscTitle;
 	private final I18nCheckbox crashReportingCheckbox;
 	private final I18nCheckbox mainMenuScrollingCheckbox;
+	private final I18nCheckbox messageStatisticsCheckbox;
+	private final I18nCheckbox exportSavesAsSingleJsonCheckbox;
+	private final ThreadSafeMessageDispatcher messageDispatcher;
 	private final CheckBox stressTestCheckbox;
 	private final I18nTranslator i18nTranslator;
 	private final Skin uiSkin;
@@ -49,6 +57,7 @@ public class MiscOptionsTab implements OptionsTab, Telegraph, GameContextAware {
 		uiSkin = guiSkinRepository.getDefault();
 		final SoundAsset clickSoundAsset = soundAssetDictionary.getByName("MenuClick");
 		this.i18nTranslator = i18nTranslator;
+		this.messageDispatcher = (ThreadSafeMessageDispatcher) messageDispatcher;
 
 		miscTitle = i18NWidgetFactory.createLabel("GUI.OPTIONS.MISC.TITLE");
 
@@ -98,7 +107,40 @@ public class MiscOptionsTab implements OptionsTab, Telegraph, GameContextAware {
 			return true;
 		});
 
+		messageStatisticsCheckbox = i18NWidgetFactory.createCheckbox("GUI.OPTIONS.MISC.MESSAGE_STATISTICS");
+		this.messageDispatcher.setStatisticsEnabled(Boolean.parseBoolean(userPreferences.getPreference(MESSAGE_STATISTICS, "false")));
+		messageStatisticsCheckbox.setChecked(this.messageDispatcher.isStatisticsEnabled());
+		messageStatisticsCheckbox.addListener((event) -> {
+			if (event instanceof ChangeListener.ChangeEvent) {
+				messageDispatcher.dispatchMessage(MessageType.REQUEST_SOUND, new RequestSoundMessage(clickSoundAsset));
+				if (!messageStatisticsCheckbox.isChecked()) {
+					logMessageStatistics();
+				}
+				this.messageDispatcher.setStatisticsEnabled(messageStatisticsCheckbox.isChecked());
+				userPreferences.setPreference(MESSAGE_STATISTICS, String.valueOf(messageStatisticsCheckbox.isChecked()));
+			}
+			return true;
+		});
+
+		exportSavesAsSingleJsonCheckbox = i18NWidgetFactory.createCheckbox("GUI.OPTIONS.MISC.EXPORT_SAVES_AS_SINGLE_JSON");
+		GlobalSettings.EXPORT_SAVES_AS_SINGLE_JSON = Boolean.parseBoolean(userPreferences.getPreference(EXPORT_SAVES_AS_SINGLE_JSON, "false"));
+		exportSavesAsSingleJsonCheckbox.setChecked(GlobalSettings.EXPORT_SAVES_AS_SINGLE_JSON);
+		exportSavesAsSingleJsonCheckbox.addListener((event) -> {
+			if (event instanceof ChangeListener.ChangeEvent) {
+				messageDispatcher.dispatchMessage(MessageType.REQUEST_SOUND, new RequestSoundMessage(clickSoundAsset));
+				GlobalSettings.EXPORT_SAVES_AS_SINGLE_JSON = exportSavesAsSingleJsonCheckbox.isChecked();
+				userPreferences.setPreference(EXPORT_SAVES_AS_SINGLE_JSON, String.valueOf(exportSavesAsSingleJsonCheckbox.isChecked()));
+			}
+			return true;
+		});
+
 		messageDispatcher.addListener(this, MessageType.CRASH_REPORTING_OPT_IN_MODIFIED);
+		messageDispatcher.addListener(this, MessageType.DAY_ELAPSED);
+	}
+
+	private void logMessageStatistics() {
+		messageDispatcher.logStatistics(MAX_MESSAGE_TYPES_IN_STATISTICS);
+		messageDispatcher.resetStatistics();
 	}
 
 	@Override
@@ -109,6 +151,13 @@ public class MiscOptionsTab implements OptionsTab, Telegraph, GameContextAware {
 				crashReportingCheckbox.setChecked(reportingEnabled);
 				return true;
 			}
+			case MessageType.DAY_ELAPSED: {
+				// Statistics are summarised to the log once per day while enabled
+				if (messageDispatcher.isStatisticsEnabled()) {
+					logMessageStatistics();
+				}
+				return false; // Not the primary consumer of DAY_ELAPSED
+			}
 			default:
 				throw new IllegalArgumentException("Unexpected message type " + msg.message + " received by " + this.toString() + ", " + msg.toString());
 		}
@@ -124,6 +173,10 @@ public class MiscOptionsTab implements OptionsTab, Telegraph, GameContextAware {
 		menuTable.add(crashReportingCheckbox).colspan(2).left().pad(10).row();
 		menuTable.add(new Container<>()); // pad out 1 cell
 		menuTable.add(mainMenuScrollingCheckbox).colspan(2).left().pad(10).row();
+		menuTable.add(new Container<>()); // pad out 1 cell
+		menuTable.add(messageStatisticsCheckbox).colspan(2).left().pad(10).row();
+		menuTable.add(new Container<>()); // pad out 1 cell
+		menuTable.add(exportSavesAsSingleJsonCheckbox).colspan(2).left().pad(10).row();
 
 		if (GlobalSettings.DEV_MODE) {
 			menuTable.add(new Container<>()); // pad out 1 cell
@@ -1,5 +1,6 @@
 package technology.rocketjump.undermount.settlement;
 
+import com.badlogic.gdx.math.Vector2;
 import com.google.inject.Singleton;
 import org.pmw.tinylog.Logger;
 import technology.rocketjump.undermount.entities.components.ItemAllocationComponent;
@@ -12,6 +13,7 @@ import technology.rocketjump.undermount.materials.model.GameMaterial;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import static technology.rocketjump.undermount.materials.model.GameMaterial.NULL_MATERIAL;
 
@@ -26,6 +28,10 @@ public class ItemTracker implements GameContextAware {
 	private final Map<ItemType, Map<GameMaterial, Map<Long, Entity>>> itemTypesToMaterialsToEntitiesMap = new HashMap<>();
 	private final Map<Long, Entity> edibleItems = new HashMap<>();
 
+	private final Map<ItemType, SpatialItemIndex> itemTypeIndexes = new HashMap<>();
+	private final Map<ItemType, Map<GameMaterial, SpatialItemIndex>> itemTypeAndMaterialIndexes = new HashMap<>();
+	private final SpatialItemIndex edibleItemIndex = new SpatialItemIndex();
+
 	public Set<GameMaterial> getMaterialsByItemType(ItemType itemType) {
 		Map<GameMaterial, Map<Long, Entity>> materialMap = itemTypesToMaterialsToEntitiesMap.get(itemType);
 		if (materialMap != null) {
@@ -48,9 +54,13 @@ public class ItemTracker implements GameContextAware {
 		Map<GameMaterial, Map<Long, Entity>> materialsToEntities = itemTypesToMaterialsToEntitiesMap.computeIfAbsent(itemType, a -> new ConcurrentHashMap<>());
 		Map<Long, Entity> entityMap = materialsToEntities.computeIfAbsent(material, a -> new ConcurrentHashMap<>());
 		entityMap.put(entity.getId(), entity);
+		itemTypeIndexes.computeIfAbsent(itemType, a -> new SpatialItemIndex()).add(entity);
+		itemTypeAndMaterialIndexes.computeIfAbsent(itemType, a -> new HashMap<>())
+				.computeIfAbsent(material, a -> new SpatialItemIndex()).add(entity);
 
 		if (isItemEdible(attributes)) {
 			edibleItems.put(entity.getId(), entity);
+			edibleItemIndex.add(entity);
 		}
 	}
 
@@ -60,8 +70,30 @@ public class ItemTracker implements GameContextAware {
 				.getOrDefault(attributes.getPrimaryMaterial(), EMPTY_2)
 				.remove(entity.getId());
 		cullEmptyMapEntries(attributes.getItemType(), attributes.getPrimaryMaterial());
+		removeFromIndexes(entity, attributes.getItemType(), attributes.getPrimaryMaterial());
 		// Easiest to just always remove from edibleItems
 		edibleItems.remove(entity.getId());
+		edibleItemIndex.remove(entity);
+	}
+
+	/**
+	 * Called when a tracked item moves to a different tile, so it can be found by the nearest-first lookups
+	 *
+	 * @param newPosition the position being moved to, or null if the item no longer has a position of its own
+	 */
+	public void itemMoved(Entity entity, Vector2 newPosition) {
+		ItemEntityAttributes attributes = (ItemEntityAttributes) entity.getPhysicalEntityComponent().getAttributes();
+		SpatialItemIndex typeIndex = itemTypeIndexes.get(attributes.getItemType());
+		if (typeIndex == null) {
+			return;
+		}
+		typeIndex.moved(entity, newPosition);
+		SpatialItemIndex materialIndex = itemTypeAndMaterialIndexes.getOrDefault(attributes.getItemType(), Collections.emptyMap())
+				.get(attributes.getPrimaryMaterial());
+		if (materialIndex != null) {
+			materialIndex.moved(entity, newPosition);
+		}
+		edibleItemIndex.moved(entity, newPosition);
 	}
 
 	private static final Map<GameMaterial, Map<Long, Entity>> empty = new HashMap<>();
@@ -76,17 +108,23 @@ public class ItemTracker implements GameContextAware {
 				.getOrDefault(oldPrimaryMaterial, alsoEmpty)
 				.remove(entity.getId());
 		cullEmptyMapEntries(attributes.getItemType(), oldPrimaryMaterial);
+		removeFromIndexes(entity, attributes.getItemType(), oldPrimaryMaterial);
 
 		itemTypesToMaterialsToEntitiesMap.computeIfAbsent(attributes.getItemType(), a -> new ConcurrentHashMap<>())
 				.computeIfAbsent(attributes.getPrimaryMaterial(), a -> new ConcurrentHashMap<>())
 				.put(entity.getId(), entity);
+		itemTypeIndexes.computeIfAbsent(attributes.getItemType(), a -> new SpatialItemIndex()).add(entity);
+		itemTypeAndMaterialIndexes.computeIfAbsent(attributes.getItemType(), a -> new HashMap<>())
+				.computeIfAbsent(attributes.getPrimaryMaterial(), a -> new SpatialItemIndex()).add(entity);
 
 
 		if (oldPrimaryMaterial.isEdible()) {
 			edibleItems.remove(entity.getId());
+			edibleItemIndex.remove(entity);
 		}
 		if (attributes.getPrimaryMaterial().isEdible()) {
 			edibleItems.put(entity.getId(), entity);
+			edibleItemIndex.add(entity);
 		}
 	}
 
@@ -105,6 +143,29 @@ public class ItemTracker implements GameContextAware {
 		return found;
 	}
 
+	/**
+	 * Passes unallocated items of the given type (and material, if not null) to the visitor, nearest to the origin first,
+	 * until the visitor returns true
+	 *
+	 * @return true if the visitor accepted an item
+	 */
+	public boolean visitUnallocatedNearestFirst(ItemType itemType, GameMaterial material, Vector2 origin, Predicate<Entity> visitor) {
+		SpatialItemIndex index;
+		if (material == null) {
+			index = itemTypeIndexes.get(itemType);
+		} else {
+			index = itemTypeAndMaterialIndexes.getOrDefault(itemType, Collections.emptyMap()).get(material);
+		}
+		if (index == null) {
+			return false;
+		}
+		return index.visitNearestFirst(origin, entity -> isUnallocated(entity) && visitor.test(entity));
+	}
+
+	public boolean visitUnallocatedEdibleNearestFirst(Vector2 origin, Predicate<Entity> visitor) {
+		return edibleItemIndex.visitNearestFirst(origin, entity -> isUnallocated(entity) && visitor.test(entity));
+	}
+
 	public List<Entity> getItemsByType(ItemType itemType, boolean unallocatedOnly) {
 		List<Entity> found = new ArrayList<>();
 		Map<GameMaterial, Map<Long, Entity>> materialMap = itemTypesToMaterialsToEntitiesMap.get(itemType);
@@ -187,6 +248,9 @@ public class ItemTracker implements GameContextAware {
 	public void clearContextRelatedState() {
 		itemTypesToMaterialsToEntitiesMap.clear();
 		edibleItems.clear();
+		itemTypeIndexes.clear();
+		itemTypeAndMaterialIndexes.clear();
+		edibleItemIndex.clear();
 	}
 
 	/**
@@ -206,6 +270,33 @@ public class ItemTracker implements GameContextAware {
 		return false; // all materials inedible
 	}
 
+	private static boolean isUnallocated(Entity entity) {
+		return entity.getOrCreateComponent(ItemAllocationComponent.class).getNumUnallocated() > 0;
+	}
+
+	private void removeFromIndexes(Entity entity, ItemType itemType, GameMaterial material) {
+		SpatialItemIndex typeIndex = itemTypeIndexes.get(itemType);
+		if (typeIndex != null) {
+			typeIndex.remove(entity);
+			if (typeIndex.isEmpty()) {
+				itemTypeIndexes.remove(itemType);
+			}
+		}
+		Map<GameMaterial, SpatialItemIndex> materialIndexes = itemTypeAndMaterialIndexes.get(itemType);
+		if (materialIndexes != null) {
+			SpatialItemIndex materialIndex = materialIndexes.get(material);
+			if (materialIndex != null) {
+				materialIndex.remove(entity);
+				if (materialIndex.isEmpty()) {
+					materialIndexes.remove(material);
+				}
+			}
+			if (materialIndexes.isEmpty()) {
+				itemTypeAndMaterialIndexes.remove(itemType);
+			}
+		}
+	}
+
 	private void cullEmptyMapEntries(ItemType itemType, GameMaterial material) {
 		if (itemTypesToMaterialsToEntitiesMap.containsKey(itemType) && itemTypesToMaterialsToEntitiesMap.get(itemType).containsKey(material)) {
 			if (itemTypesToMaterialsToEntitiesMap.get(itemType).get(material).isEmpty()) {
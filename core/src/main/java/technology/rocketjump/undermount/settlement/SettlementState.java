@@ -38,7 +38,10 @@ public class SettlementState implements Persistable {
 	private String settlementName;
 
 	public final Map<Long, Entity> furnitureHoldingCompletedCooking = new HashMap<>();
-	public final List<MapTile> activeLiquidFlowTiles = new ArrayList<>();
+	public final Set<MapTile> activeLiquidFlowTiles = new LinkedHashSet<>();
+	// Tiles still to be updated in the liquid flow pass in progress
+	public final Set<MapTile> liquidFlowPassTiles = new LinkedHashSet<>();
+	private long liquidFlowPassCount;
 
 	// Crafting-related state
 	public final Map<ItemType, ProductionQuota> itemTypeProductionQuotas = new HashMap<>();
@@ -81,6 +84,14 @@ public class SettlementState implements Persistable {
 		this.immigrantsDue = immigrantsDue;
 	}
 
+	public long getLiquidFlowPassCount() {
+		return liquidFlowPassCount;
+	}
+
+	public void setLiquidFlowPassCount(long liquidFlowPassCount) {
+		this.liquidFlowPassCount = liquidFlowPassCount;
+	}
+
 	public Double getNextImmigrationGameTime() {
 		return nextImmigrationGameTime;
 	}
@@ -152,6 +163,15 @@ public class SettlementState implements Persistable {
 		}
 		asJson.put("activeFlowTiles", activeFlowTilesJson);
 
+		JSONArray liquidFlowPassTilesJson = new JSONArray();
+		for (MapTile liquidFlowPassTile : liquidFlowPassTiles) {
+			liquidFlowPassTilesJson.add(JSONUtils.toJSON(liquidFlowPassTile.getTilePosition()));
+		}
+		asJson.put("liquidFlowPassTiles", liquidFlowPassTilesJson);
+		if (liquidFlowPassCount != 0) {
+			asJson.put("liquidFlowPassCount", liquidFlowPassCount);
+		}
+
 
 		JSONObject productionQuotasJson = new JSONObject(true);
 		for (Map.Entry<ItemType, ProductionQuota> entry : itemTypeProductionQuotas.entrySet()) {
@@ -322,6 +342,20 @@ public class SettlementState implements Persistable {
 			}
 		}
 
+		JSONArray liquidFlowPassTilesJson = asJson.getJSONArray("liquidFlowPassTiles");
+		if (liquidFlowPassTilesJson != null) {
+			for (int cursor = 0; cursor < liquidFlowPassTilesJson.size(); cursor++) {
+				GridPoint2 location = JSONUtils.gridPoint2(liquidFlowPassTilesJson.getJSONObject(cursor));
+				MapTile tile = savedGameStateHolder.getMap().getTile(location);
+				if (tile == null) {
+					throw new InvalidSaveException("Can not find tile at " + location);
+				} else {
+					liquidFlowPassTiles.add(tile);
+				}
+			}
+		}
+		this.liquidFlowPassCount = asJson.getLongValue("liquidFlowPassCount");
+
 		JSONObject productionQuotasJson = asJson.getJSONObject("productionQuotas");
 		for (Map.Entry<String, Object> entry : productionQuotasJson.entrySet()) {
 			ItemType itemType = relatedStores.itemTypeDictionary.getByName(entry.getKey());
@@ -0,0 +1,247 @@
+package technology.rocketjump.undermount.settlement;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import technology.rocketjump.undermount.entities.model.Entity;
+
+import java.util.function.Predicate;
+
+/**
+ * The items of one kind in square buckets of the map, so they can be visited nearest first without going through
+ * (and sorting) every item of that kind.
+ *
+ * Items are put in the bucket for their world or parent position. Those with neither (e.g. being hauled) are held
+ * separately and put in a bucket once they have a position again. ItemTracker is told when items move to another
+ * tile, and any item found to have moved while its bucket is being visited is moved to the right bucket then. It is
+ * left for the search to find there, unless that bucket has already been visited (or is beyond the search) in which
+ * case it is visited along with the bucket it was found in.
+ */
+public class SpatialItemIndex {
+
+	static final int BUCKET_SIZE = 8;
+	private static final long UNPOSITIONED = Long.MIN_VALUE;
+
+	private final LongMap<Array<Entity>> buckets = new LongMap<>();
+	private final LongMap<Long> bucketByEntityId = new LongMap<>();
+	private final Array<Entity> unpositioned = new Array<>(false, 4);
+	private int minBucketX = Integer.MAX_VALUE, minBucketY = Integer.MAX_VALUE;
+	private int maxBucketX = Integer.MIN_VALUE, maxBucketY = Integer.MIN_VALUE;
+
+	private final Array<Entity> candidates = new Array<>();
+	private final Array<Entity> emitting = new Array<>();
+	// The current search, for telling whether a bucket has been visited yet
+	private int searchOriginX, searchOriginY, searchRing, searchMaxRing;
+
+	public void add(Entity entity) {
+		if (bucketByEntityId.containsKey(entity.getId())) {
+			remove(entity);
+		}
+		place(entity, entity.getLocationComponent().getWorldOrParentPosition());
+	}
+
+	public void remove(Entity entity) {
+		Long bucketKey = bucketByEntityId.remove(entity.getId());
+		if (bucketKey == null) {
+			return;
+		}
+		if (bucketKey == UNPOSITIONED) {
+			unpositioned.removeValue(entity, true);
+		} else {
+			Array<Entity> bucket = buckets.get(bucketKey);
+			bucket.removeValue(entity, true);
+			if (bucket.isEmpty()) {
+				buckets.remove(bucketKey);
+			}
+		}
+	}
+
+	/**
+	 * @param newPosition the position the item is moving to, which may be null when it is picked up or put in a container
+	 */
+	public void moved(Entity entity, Vector2 newPosition) {
+		Long bucketKey = bucketByEntityId.get(entity.getId());
+		if (bucketKey == null || bucketKey == keyOf(newPosition)) {
+			return;
+		}
+		remove(entity);
+		place(entity, newPosition);
+	}
+
+	public boolean contains(Entity entity) {
+		return bucketByEntityId.containsKey(entity.getId());
+	}
+
+	public int size() {
+		return bucketByEntityId.size;
+	}
+
+	public boolean isEmpty() {
+		return bucketByEntityId.size == 0;
+	}
+
+	/**
+	 * Passes each item to the visitor in order of distance from the origin, until the visitor returns true.
+	 * The visitor must not add or remove items from this index.
+	 *
+	 * @return true if the visitor stopped the search
+	 */
+	public boolean visitNearestFirst(Vector2 origin, Predicate<Entity> visitor) {
+		placeUnpositioned();
+		if (buckets.size == 0) {
+			return false;
+		}
+
+		int originBucketX = bucketCoord(origin.x);
+		int originBucketY = bucketCoord(origin.y);
+		int maxRing = Math.max(
+				Math.max(Math.abs(originBucketX - minBucketX), Math.abs(originBucketX - maxBucketX)),
+				Math.max(Math.abs(originBucketY - minBucketY), Math.abs(originBucketY - maxBucketY))
+		);
+
+		candidates.clear();
+		searchOriginX = originBucketX;
+		searchOriginY = originBucketY;
+		searchMaxRing = maxRing;
+		try {
+			for (int ring = 0; ring <= maxRing; ring++) {
+				searchRing = ring;
+				for (int bucketY = originBucketY - ring; bucketY <= originBucketY + ring; bucketY++) {
+					// Only the edges of the ring, the inside has already been visited
+					int step = (bucketY == originBucketY - ring || bucketY == originBucketY + ring) ? 1 : Math.max(1, ring * 2);
+					for (int bucketX = originBucketX - ring; bucketX <= originBucketX + ring; bucketX += step) {
+						collectFromBucket(bucketX, bucketY);
+					}
+				}
+
+				// Anything in a bucket not yet visited is at least this far away
+				float safeDistance = ring * BUCKET_SIZE;
+				if (emitCandidatesWithin(origin, ring == maxRing ? Float.MAX_VALUE : safeDistance * safeDistance, visitor)) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			candidates.clear();
+			emitting.clear();
+		}
+	}
+
+	public void clear() {
+		buckets.clear();
+		bucketByEntityId.clear();
+		unpositioned.clear();
+		minBucketX = minBucketY = Integer.MAX_VALUE;
+		maxBucketX = maxBucketY = Integer.MIN_VALUE;
+	}
+
+	private void collectFromBucket(int bucketX, int bucketY) {
+		long bucketKey = key(bucketX, bucketY);
+		Array<Entity> bucket = buckets.get(bucketKey);
+		if (bucket == null) {
+			return;
+		}
+		for (int cursor = bucket.size - 1; cursor >= 0; cursor--) {
+			Entity entity = bucket.get(cursor);
+			Vector2 position = entity.getLocationComponent().getWorldOrParentPosition();
+			long actualKey = keyOf(position);
+			if (actualKey != bucketKey) {
+				// Moved without the index being told, e.g. along with its container
+				bucket.removeIndex(cursor);
+				bucketByEntityId.remove(entity.getId());
+				place(entity, position);
+				if (position == null || !isVisitedBefore(bucketCoord(position.x), bucketCoord(position.y), bucketX, bucketY)) {
+					// Left to be collected from its new bucket when the search gets there
+					continue;
+				}
+			}
+			candidates.add(entity);
+		}
+		if (bucket.isEmpty()) {
+			buckets.remove(bucketKey);
+		}
+	}
+
+	/**
+	 * @return true if the bucket has been visited by the current search before the one being visited, or will not be
+	 * visited by it at all
+	 */
+	private boolean isVisitedBefore(int bucketX, int bucketY, int currentBucketX, int currentBucketY) {
+		int ring = Math.max(Math.abs(bucketX - searchOriginX), Math.abs(bucketY - searchOriginY));
+		if (ring != searchRing) {
+			return ring < searchRing || ring > searchMaxRing;
+		}
+		// Buckets in a ring are visited by row and then by column
+		return bucketY < currentBucketY || (bucketY == currentBucketY && bucketX < currentBucketX);
+	}
+
+	private boolean emitCandidatesWithin(Vector2 origin, float maxDistance2, Predicate<Entity> visitor) {
+		emitting.clear();
+		for (int cursor = candidates.size - 1; cursor >= 0; cursor--) {
+			Entity candidate = candidates.get(cursor);
+			if (candidate.getLocationComponent().getWorldOrParentPosition().dst2(origin) <= maxDistance2) {
+				emitting.add(candidate);
+				candidates.removeIndex(cursor);
+			}
+		}
+		emitting.sort((a, b) -> Float.compare(
+				a.getLocationComponent().getWorldOrParentPosition().dst2(origin),
+				b.getLocationComponent().getWorldOrParentPosition().dst2(origin)));
+		for (int cursor = 0; cursor < emitting.size; cursor++) {
+			if (visitor.test(emitting.get(cursor))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void placeUnpositioned() {
+		for (int cursor = unpositioned.size - 1; cursor >= 0; cursor--) {
+			Entity entity = unpositioned.get(cursor);
+			Vector2 position = entity.getLocationComponent().getWorldOrParentPosition();
+			if (position != null) {
+				unpositioned.removeIndex(cursor);
+				bucketByEntityId.remove(entity.getId());
+				place(entity, position);
+			}
+		}
+	}
+
+	private void place(Entity entity, Vector2 position) {
+		long bucketKey = keyOf(position);
+		bucketByEntityId.put(entity.getId(), bucketKey);
+		if (bucketKey == UNPOSITIONED) {
+			unpositioned.add(entity);
+			return;
+		}
+		Array<Entity> bucket = buckets.get(bucketKey);
+		if (bucket == null) {
+			bucket = new Array<>(false, 8);
+			buckets.put(bucketKey, bucket);
+		}
+		bucket.add(entity);
+
+		int bucketX = bucketCoord(position.x);
+		int bucketY = bucketCoord(position.y);
+		minBucketX = Math.min(minBucketX, bucketX);
+		minBucketY = Math.min(minBucketY, bucketY);
+		maxBucketX = Math.max(maxBucketX, bucketX);
+		maxBucketY = Math.max(maxBucketY, bucketY);
+	}
+
+	private static long keyOf(Vector2 position) {
+		if (position == null) {
+			return UNPOSITIONED;
+		}
+		return key(bucketCoord(position.x), bucketCoord(position.y));
+	}
+
+	private static int bucketCoord(float worldCoord) {
+		return MathUtils.floor(worldCoord / BUCKET_SIZE);
+	}
+
+	private static long key(int bucketX, int bucketY) {
+		return ((long) bucketX << 32) | (bucketY & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,15 @@
+#ifdef GL_ES
+    precision mediump float;
+#endif
+
+uniform vec3 u_lightColor;
+uniform vec2 u_vertexMapSize;
+uniform sampler2D u_outsideLight;
+
+varying vec2 v_worldPosition;
+
+void main() {
+    // Each texel is a map vertex, which sits at the corner of a tile, hence the half texel offset
+    vec2 texCoords = (v_worldPosition + 0.5) / u_vertexMapSize;
+    gl_FragColor = vec4(u_lightColor, texture2D(u_outsideLight, texCoords).a);
+}
@@ -0,0 +1,10 @@
+attribute vec4 a_position;
+
+uniform mat4 u_projTrans;
+
+varying vec2 v_worldPosition;
+
+void main() {
+    v_worldPosition = a_position.xy;
+    gl_Position = u_projTrans * a_position;
+}
@@ -0,0 +1,89 @@
+package technology.rocketjump.undermount.entities;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.gamecontext.GameContext;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static technology.rocketjump.undermount.entities.InfrequentUpdateScheduler.NUM_SLOTS;
+import static technology.rocketjump.undermount.entities.InfrequentUpdateScheduler.SLOT_DURATION_SECONDS;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InfrequentUpdateSchedulerTest {
+
+	private InfrequentUpdateScheduler scheduler;
+	@Mock
+	private GameContext mockGameContext;
+	@Mock
+	private Entity mockEntity;
+	@Mock
+	private Entity otherMockEntity;
+
+	@Before
+	public void setup() {
+		scheduler = new InfrequentUpdateScheduler();
+		when(mockEntity.getId()).thenReturn(1L);
+		lenient().when(otherMockEntity.getId()).thenReturn(2L);
+	}
+
+	@Test
+	public void update_callsEntityOncePerInterval() {
+		scheduler.add(mockEntity, 1f);
+
+		advanceSeconds(10f);
+
+		verify(mockEntity, times(10)).infrequentUpdate(mockGameContext);
+	}
+
+	@Test
+	public void update_handlesIntervalsLongerThanTheWheel() {
+		float interval = NUM_SLOTS * SLOT_DURATION_SECONDS * 2.5f;
+		scheduler.add(mockEntity, interval);
+
+		advanceSeconds(interval * 3);
+
+		verify(mockEntity, times(3)).infrequentUpdate(mockGameContext);
+	}
+
+	@Test
+	public void remove_stopsUpdates() {
+		scheduler.add(mockEntity, 1f);
+		scheduler.add(otherMockEntity, 1f);
+
+		scheduler.remove(mockEntity);
+		advanceSeconds(2f);
+
+		verify(mockEntity, never()).infrequentUpdate(mockGameContext);
+		verify(otherMockEntity, times(2)).infrequentUpdate(mockGameContext);
+		assertThat(scheduler.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void remove_duringAnotherEntitysUpdate_isSkipped() {
+		// Both entities are due in the first slot, and the most recently added is updated first
+		scheduler.add(mockEntity, SLOT_DURATION_SECONDS);
+		scheduler.add(otherMockEntity, SLOT_DURATION_SECONDS);
+		doAnswer(invocation -> {
+			scheduler.remove(mockEntity);
+			return null;
+		}).when(otherMockEntity).infrequentUpdate(mockGameContext);
+
+		advanceSeconds(SLOT_DURATION_SECONDS * 3);
+
+		verify(mockEntity, never()).infrequentUpdate(mockGameContext);
+		assertThat(scheduler.contains(mockEntity)).isFalse();
+	}
+
+	private void advanceSeconds(float seconds) {
+		int frames = Math.round(seconds / SLOT_DURATION_SECONDS);
+		for (int frame = 0; frame < frames; frame++) {
+			scheduler.update(SLOT_DURATION_SECONDS * 1.0001f, mockGameContext);
+		}
+	}
+
+}
@@ -0,0 +1,161 @@
+package technology.rocketjump.undermount.entities;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import technology.rocketjump.undermount.assets.model.FloorType;
+import technology.rocketjump.undermount.doors.Doorway;
+import technology.rocketjump.undermount.entities.behaviour.creature.SettlerBehaviour;
+import technology.rocketjump.undermount.entities.behaviour.furniture.DoorBehaviour;
+import technology.rocketjump.undermount.entities.components.humanoid.SteeringComponent;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.entities.model.EntityType;
+import technology.rocketjump.undermount.entities.model.physical.LocationComponent;
+import technology.rocketjump.undermount.entities.model.physical.PhysicalEntityComponent;
+import technology.rocketjump.undermount.entities.model.physical.creature.CreatureEntityAttributes;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.materials.model.GameMaterial;
+import technology.rocketjump.undermount.messaging.MessageType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ParallelSteeringPhaseTest {
+
+	private static final float DELTA_TIME = 0.1f;
+	private static final int NUM_FRAMES = 15;
+
+	@Mock
+	private FloorType mockFloorType;
+	@Mock
+	private GameMaterial mockFloorMaterial;
+	@Mock
+	private MessageDispatcher sequentialDispatcher;
+	@Mock
+	private MessageDispatcher parallelDispatcher;
+
+	@Before
+	public void setUp() {
+		when(mockFloorType.getSpeedModifier()).thenReturn(1f);
+	}
+
+	@Test
+	public void update_movesEntitiesTheSameAsSequentialSteering() {
+		TestWorld sequential = new TestWorld(sequentialDispatcher);
+		TestWorld parallel = new TestWorld(parallelDispatcher);
+		ParallelSteeringPhase parallelSteeringPhase = new ParallelSteeringPhase();
+
+		for (int frame = 0; frame < NUM_FRAMES; frame++) {
+			sequential.rebuildSpatialHash();
+			for (Entity entity : sequential.steered) {
+				entity.getBehaviourComponent().getSteeringComponent().update(DELTA_TIME);
+			}
+
+			parallel.rebuildSpatialHash();
+			parallelSteeringPhase.update(DELTA_TIME, parallel.steered, parallel.areaMap);
+			for (Entity entity : parallel.steered) {
+				// Skipped as already applied by the parallel phase
+				entity.getBehaviourComponent().getSteeringComponent().update(DELTA_TIME);
+			}
+			parallelSteeringPhase.finishFrame();
+		}
+
+		assertThat(parallel.steered.size()).isGreaterThan(32); // enough to be spread over the thread pool
+		for (int cursor = 0; cursor < sequential.steered.size(); cursor++) {
+			LocationComponent sequentialLocation = sequential.steered.get(cursor).getLocationComponent();
+			LocationComponent parallelLocation = parallel.steered.get(cursor).getLocationComponent();
+			assertThat(parallelLocation.getWorldPosition()).isEqualTo(sequentialLocation.getWorldPosition());
+			assertThat(parallelLocation.getLinearVelocity()).isEqualTo(sequentialLocation.getLinearVelocity());
+			assertThat(steeringOf(parallel.steered.get(cursor)).getPauseTime()).isEqualTo(steeringOf(sequential.steered.get(cursor)).getPauseTime());
+		}
+		assertThat(parallel.wanderer.getLocationComponent().getWorldPosition().x).isGreaterThan(5f);
+
+		// Caught up with the slow-moving blocker so paused behind it
+		assertThat(steeringOf(parallel.follower).getPauseTime()).isGreaterThan(0f);
+		assertThat(steeringOf(parallel.follower).getPauseTime()).isEqualTo(steeringOf(sequential.follower).getPauseTime());
+
+		// Waiting at the closed door, asking for it to open every frame
+		assertThat(parallel.waitingAtDoor.getLocationComponent().getWorldPosition()).isEqualTo(sequential.waitingAtDoor.getLocationComponent().getWorldPosition());
+		verify(sequentialDispatcher, times(NUM_FRAMES)).dispatchMessage(MessageType.REQUEST_DOOR_OPEN, sequential.door);
+		verify(parallelDispatcher, times(NUM_FRAMES)).dispatchMessage(MessageType.REQUEST_DOOR_OPEN, parallel.door);
+	}
+
+	private static SteeringComponent steeringOf(Entity entity) {
+		return entity.getBehaviourComponent().getSteeringComponent();
+	}
+
+	private class TestWorld {
+
+		private final TiledMap areaMap;
+		private final MessageDispatcher messageDispatcher;
+		private final List<Entity> steered = new ArrayList<>();
+		private final List<Entity> allCreatures = new ArrayList<>();
+		private final Entity wanderer;
+		private final Entity follower;
+		private final Entity waitingAtDoor;
+		private final Entity door;
+		private long nextId = 1;
+
+		private TestWorld(MessageDispatcher messageDispatcher) {
+			this.messageDispatcher = messageDispatcher;
+			this.areaMap = new TiledMap(1L, 64, 64, mockFloorType, mockFloorMaterial);
+
+			follower = settler(new Vector2(10.5f, 60.5f), new Vector2(20.5f, 60.5f));
+			follower.getLocationComponent().setMaxLinearSpeed(0.1f);
+			steered.add(follower);
+
+			// Not steered this frame, only seen by the follower which is moving the same way behind it
+			Entity blocker = settler(new Vector2(11.65f, 60.5f), null);
+			blocker.getLocationComponent().setLinearVelocity(new Vector2(1f, 0f));
+
+			door = new Entity(nextId++, EntityType.FURNITURE, Arrays.asList(new DoorBehaviour()));
+			Doorway doorway = new Doorway();
+			doorway.setDoorEntity(door);
+			areaMap.getTile(41, 60).setDoorway(doorway);
+			waitingAtDoor = settler(new Vector2(40.5f, 60.5f), new Vector2(41.5f, 60.5f));
+			steered.add(waitingAtDoor);
+
+			Entity firstWanderer = null;
+			for (int y = 4; y < 40; y += 6) {
+				for (int x = 4; x < 40; x += 6) {
+					Entity entity = settler(new Vector2(x + 0.5f, y + 0.5f), new Vector2(x + 20.5f, y + 0.5f));
+					steered.add(entity);
+					if (firstWanderer == null) {
+						firstWanderer = entity;
+					}
+				}
+			}
+			wanderer = firstWanderer;
+		}
+
+		private Entity settler(Vector2 position, Vector2 nextWaypoint) {
+			PhysicalEntityComponent physicalEntityComponent = new PhysicalEntityComponent();
+			physicalEntityComponent.setAttributes(new CreatureEntityAttributes());
+			LocationComponent locationComponent = new LocationComponent();
+			locationComponent.setWorldPosition(position, false);
+			SettlerBehaviour behaviour = new SettlerBehaviour();
+			Entity entity = new Entity(nextId++, EntityType.CREATURE, Arrays.asList(physicalEntityComponent, locationComponent, behaviour));
+			behaviour.getSteeringComponent().init(entity, areaMap, locationComponent, messageDispatcher);
+			if (nextWaypoint != null) {
+				behaviour.getSteeringComponent().setDestination(nextWaypoint);
+				behaviour.getSteeringComponent().setNextWaypoint(nextWaypoint);
+			}
+			allCreatures.add(entity);
+			return entity;
+		}
+
+		private void rebuildSpatialHash() {
+			areaMap.getCreatureSpatialHash().rebuild(allCreatures);
+		}
+	}
+
+}
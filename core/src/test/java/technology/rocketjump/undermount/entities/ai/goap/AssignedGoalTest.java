@@ -3,7 +3,6 @@ package technology.rocketjump.undermount.entities.ai.goap;
 import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxNativesLoader;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
@@ -19,6 +18,7 @@ import technology.rocketjump.undermount.entities.factories.SettlerFactory;
 import technology.rocketjump.undermount.entities.model.Entity;
 import technology.rocketjump.undermount.environment.GameClock;
 import technology.rocketjump.undermount.gamecontext.GameContext;
+import technology.rocketjump.undermount.mapping.model.CreatureSpatialHash;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.mapping.tile.floor.TileFloor;
@@ -27,6 +27,7 @@ import technology.rocketjump.undermount.rooms.RoomStore;
 import technology.rocketjump.undermount.ui.i18n.I18nTranslator;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.when;
 import static technology.rocketjump.undermount.assets.model.FloorType.NULL_FLOOR;
 import static technology.rocketjump.undermount.jobs.ProfessionDictionary.NULL_PROFESSION;
@@ -66,7 +67,8 @@ public class AssignedGoalTest {
 		gameContext.setGameClock(new GameClock());
 		gameContext.setAreaMap(mockMap);
 
-		when(mockMap.getNearestTiles(any(Vector2.class))).thenReturn(new Array<>());
+		when(mockMap.getTile(anyInt(), anyInt())).thenReturn(mockTile);
+		when(mockMap.getCreatureSpatialHash()).thenReturn(new CreatureSpatialHash(1, 1));
 		when(mockMap.getTile(any(Vector2.class))).thenReturn(mockTile);
 
 		when(mockTile.getFloor()).thenReturn(new TileFloor(NULL_FLOOR, GameMaterial.NULL_MATERIAL));
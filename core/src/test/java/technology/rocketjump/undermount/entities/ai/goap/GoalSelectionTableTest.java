@@ -0,0 +1,89 @@
+package technology.rocketjump.undermount.entities.ai.goap;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.Before;
+import org.junit.Test;
+import technology.rocketjump.undermount.entities.ai.memory.Memory;
+import technology.rocketjump.undermount.entities.ai.memory.MemoryType;
+import technology.rocketjump.undermount.entities.components.humanoid.MemoryComponent;
+import technology.rocketjump.undermount.entities.components.humanoid.NeedsComponent;
+import technology.rocketjump.undermount.environment.GameClock;
+import technology.rocketjump.undermount.guice.UndermountGuiceModule;
+
+import java.util.Random;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class GoalSelectionTableTest {
+
+	private GoalDictionary goalDictionary;
+	private GameClock gameClock;
+
+	@Before
+	public void setUp() throws Exception {
+		Injector injector = Guice.createInjector(new UndermountGuiceModule());
+		goalDictionary = injector.getInstance(GoalDictionary.class);
+		gameClock = new GameClock();
+	}
+
+	@Test
+	public void addSelectedGoals_queuesSameGoalsAsCheckingEveryCondition() {
+		GoalSelectionTable selectionTable = goalDictionary.getSelectionTable();
+		assertThat(selectionTable.getNumConditions()).isGreaterThan(0);
+
+		Random random = new Random(7L);
+		for (int iteration = 0; iteration < 500; iteration++) {
+			NeedsComponent needsComponent = new NeedsComponent();
+			for (EntityNeed need : EntityNeed.values()) {
+				if (random.nextInt(5) > 0) {
+					// Whole numbers so that thresholds are hit exactly
+					needsComponent.setValue(need, random.nextInt(111) - 10);
+				}
+			}
+			MemoryComponent memoryComponent = new MemoryComponent();
+			for (MemoryType memoryType : MemoryType.values()) {
+				if (random.nextInt(3) == 0) {
+					memoryComponent.addShortTerm(new Memory(memoryType, gameClock), gameClock);
+				}
+			}
+			Goal currentGoal = random.nextBoolean() ? null : goalDictionary.getAllGoals().get(random.nextInt(goalDictionary.getAllGoals().size()));
+
+			GoalQueue compiledQueue = new GoalQueue();
+			selectionTable.addSelectedGoals(compiledQueue, currentGoal, gameClock, needsComponent, memoryComponent);
+
+			assertThat(compiledQueue.toString()).isEqualTo(checkEveryCondition(currentGoal, needsComponent, memoryComponent).toString());
+		}
+	}
+
+	@Test
+	public void addSelectedGoals_withNoComponents_selectsOnlyGoalsWithoutConditions() {
+		GoalQueue compiledQueue = new GoalQueue();
+		goalDictionary.getSelectionTable().addSelectedGoals(compiledQueue, null, gameClock, null, null);
+
+		assertThat(compiledQueue.toString()).isEqualTo(checkEveryCondition(null, null, null).toString());
+	}
+
+	private GoalQueue checkEveryCondition(Goal currentGoal, NeedsComponent needsComponent, MemoryComponent memoryComponent) {
+		GoalQueue goalQueue = new GoalQueue();
+		for (Goal potentialGoal : goalDictionary.getAllGoals()) {
+			if (potentialGoal.getSelectors().isEmpty() || potentialGoal.equals(currentGoal)) {
+				continue;
+			}
+			for (GoalSelector selector : potentialGoal.getSelectors()) {
+				boolean allConditionsApply = true;
+				for (GoalSelectionCondition condition : selector.conditions) {
+					if (!condition.apply(gameClock, needsComponent, memoryComponent)) {
+						allConditionsApply = false;
+						break;
+					}
+				}
+				if (allConditionsApply) {
+					goalQueue.add(new QueuedGoal(potentialGoal, selector.scheduleCategory, selector.priority, gameClock));
+					break;
+				}
+			}
+		}
+		return goalQueue;
+	}
+}
@@ -0,0 +1,75 @@
+package technology.rocketjump.undermount.entities.ai.pathfinding;
+
+import com.badlogic.gdx.utils.IntSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import technology.rocketjump.undermount.assets.model.FloorType;
+import technology.rocketjump.undermount.assets.model.WallType;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.mapping.tile.TileNeighbours;
+import technology.rocketjump.undermount.materials.model.GameMaterial;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingChunkGraph.CHUNK_SIZE;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PathfindingChunkGraphTest {
+
+	@Mock
+	private FloorType mockFloorType;
+	@Mock
+	private GameMaterial mockMaterial;
+	@Mock
+	private WallType mockWallType;
+
+	private TiledMap map;
+
+	@Before
+	public void setUp() {
+		when(mockFloorType.getSpeedModifier()).thenReturn(1f);
+		map = new TiledMap(1L, CHUNK_SIZE * 3, CHUNK_SIZE * 3, mockFloorType, mockMaterial);
+	}
+
+	@Test
+	public void findChunkCorridor_goesStraightAcrossOpenMap() {
+		PathfindingChunkGraph graph = map.getPathfindingChunkGraph();
+
+		IntSet corridor = graph.findChunkCorridor(map.getTile(2, 2), map.getTile(2, (CHUNK_SIZE * 3) - 2));
+
+		assertThat(corridor).isNotNull();
+		assertThat(corridor.size).isEqualTo(3);
+		assertThat(corridor.contains(graph.getChunkIndex(2, CHUNK_SIZE + 2))).isTrue();
+	}
+
+	@Test
+	public void findChunkCorridor_goesAroundWall() {
+		// Wall across the middle row of chunks except for a gap on the right-hand side
+		for (int x = 0; x < (CHUNK_SIZE * 3) - 2; x++) {
+			map.getTile(x, CHUNK_SIZE + 5).addWall(new TileNeighbours(), mockMaterial, mockWallType);
+		}
+		PathfindingChunkGraph graph = map.getPathfindingChunkGraph();
+
+		IntSet corridor = graph.findChunkCorridor(map.getTile(2, 2), map.getTile(2, (CHUNK_SIZE * 3) - 2));
+
+		assertThat(corridor).isNotNull();
+		assertThat(corridor.contains(graph.getChunkIndex((CHUNK_SIZE * 2) + 2, CHUNK_SIZE + 2))).isTrue();
+	}
+
+	@Test
+	public void tileChanged_rebuildsChunkSoBlockedRouteIsNotFound() {
+		PathfindingChunkGraph graph = map.getPathfindingChunkGraph();
+		assertThat(graph.findChunkCorridor(map.getTile(2, 2), map.getTile(2, (CHUNK_SIZE * 3) - 2))).isNotNull();
+
+		for (int x = 0; x < CHUNK_SIZE * 3; x++) {
+			map.getTile(x, CHUNK_SIZE + 5).addWall(new TileNeighbours(), mockMaterial, mockWallType);
+			graph.tileChanged(x, CHUNK_SIZE + 5);
+		}
+
+		assertThat(graph.findChunkCorridor(map.getTile(2, 2), map.getTile(2, (CHUNK_SIZE * 3) - 2))).isNull();
+	}
+
+}
@@ -0,0 +1,56 @@
+package technology.rocketjump.undermount.entities.model;
+
+import org.junit.Test;
+import technology.rocketjump.undermount.entities.components.EntityComponent;
+import technology.rocketjump.undermount.entities.components.ItemAllocationComponent;
+import technology.rocketjump.undermount.entities.model.physical.creature.HaulingComponent;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class EntityComponentMapTest {
+
+	@Test
+	public void get_returnsComponentByClass() {
+		EntityComponentMap componentMap = new EntityComponentMap();
+		HaulingComponent haulingComponent = new HaulingComponent();
+		componentMap.add(haulingComponent);
+
+		assertThat(componentMap.get(HaulingComponent.class)).isSameAs(haulingComponent);
+		assertThat(componentMap.get(ItemAllocationComponent.class)).isNull();
+	}
+
+	@Test
+	public void remove_leavesOtherComponents() {
+		EntityComponentMap componentMap = new EntityComponentMap();
+		HaulingComponent haulingComponent = new HaulingComponent();
+		ItemAllocationComponent itemAllocationComponent = new ItemAllocationComponent();
+		componentMap.add(haulingComponent);
+		componentMap.add(itemAllocationComponent);
+
+		assertThat(componentMap.remove(HaulingComponent.class)).isSameAs(haulingComponent);
+		assertThat(componentMap.remove(HaulingComponent.class)).isNull();
+
+		assertThat(componentMap.get(HaulingComponent.class)).isNull();
+		assertThat(componentMap.size()).isEqualTo(1);
+		assertThat(componentMap.values()).containsOnly(itemAllocationComponent);
+	}
+
+	@Test
+	public void getAt_iteratesOverEachComponentOnce() {
+		EntityComponentMap componentMap = new EntityComponentMap();
+		componentMap.add(new HaulingComponent());
+		componentMap.add(new HaulingComponent());
+		componentMap.add(new ItemAllocationComponent());
+
+		int found = 0;
+		for (int index = 0; index < componentMap.capacity(); index++) {
+			EntityComponent component = componentMap.getAt(index);
+			if (component != null) {
+				found++;
+			}
+		}
+
+		assertThat(found).isEqualTo(2);
+	}
+
+}
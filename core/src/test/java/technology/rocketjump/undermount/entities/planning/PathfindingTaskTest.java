@@ -2,18 +2,22 @@ package technology.rocketjump.undermount.entities.planning;
 
 import com.badlogic.gdx.ai.pfa.GraphPath;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntSet;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import technology.rocketjump.undermount.assets.model.FloorType;
 import technology.rocketjump.undermount.assets.model.WallType;
+import technology.rocketjump.undermount.entities.ai.pathfinding.PathfindingChunkGraph;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.mapping.tile.TileNeighbours;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
 import technology.rocketjump.undermount.messaging.types.PathfindingRequestMessage;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PathfindingTaskTest implements PathfindingCallback {
@@ -138,6 +142,47 @@ public class PathfindingTaskTest implements PathfindingCallback {
 		assertThat(resultPath.get(0)).isEqualTo(new Vector2(2.5f, 2.5f));
 	}
 
+	@Test
+	public void testLongPathRefinedWithinChunkCorridor() throws Exception {
+		when(mockFloorType.getSpeedModifier()).thenReturn(1f);
+		TiledMap map = new TiledMap(1L, 96, 48, mockFloorType, baseFloorMaterial);
+		// A wall across the map with a single gap at the top, several chunks away from origin and destination
+		for (int y = 0; y < 47; y++) {
+			map.getTile(40, y).addWall(new TileNeighbours(), mockMaterial, mockWallType);
+		}
+
+		Vector2 origin = new Vector2(4.5f, 4.5f);
+		Vector2 destination = new Vector2(90.5f, 4.5f);
+		MapTile originTile = map.getTile(origin);
+		MapTile destinationTile = map.getTile(destination);
+		assertThat(PathfindingChunkGraph.chunkDistance(originTile, destinationTile)).isGreaterThan(2);
+		IntSet corridor = map.getPathfindingChunkGraph().findChunkCorridor(originTile, destinationTile);
+		assertThat(corridor).isNotNull();
+		assertThat(corridor.contains(map.getPathfindingChunkGraph().getChunkIndex(40, 47))).isTrue();
+
+		PathfindingRequestMessage requestMessage = new PathfindingRequestMessage(null, origin, destination, map, this, 0L);
+		PathfindingTask pathfindingTask = new PathfindingTask(requestMessage);
+		pathfindingTask.call();
+
+		assertThat(resultPath.getCount()).isGreaterThan(0);
+		assertThat(resultPath.get(resultPath.getCount() - 1)).isEqualTo(destination);
+		Vector2 previous = origin;
+		boolean passedThroughGap = false;
+		for (int cursor = 0; cursor < resultPath.getCount(); cursor++) {
+			Vector2 step = resultPath.get(cursor);
+			assertThat(Math.abs(step.x - previous.x)).isLessThanOrEqualTo(1f);
+			assertThat(Math.abs(step.y - previous.y)).isLessThanOrEqualTo(1f);
+			assertThat(map.getTile(step).hasWall()).isFalse();
+			if (step.equals(new Vector2(40.5f, 47.5f))) {
+				passedThroughGap = true;
+			}
+			previous = step;
+		}
+		assertThat(passedThroughGap).isTrue();
+		// Straight up to the gap and back down, so close to the shortest route rather than wandering
+		assertThat(resultPath.getCount()).isLessThan(110);
+	}
+
 	@Override
 	public void pathfindingStarted(PathfindingTask task) {
 		// Do nothing
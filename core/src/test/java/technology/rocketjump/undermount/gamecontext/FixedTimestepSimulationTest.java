@@ -0,0 +1,83 @@
+package technology.rocketjump.undermount.gamecontext;
+
+import com.badlogic.gdx.math.Vector2;
+import org.junit.After;
+import org.junit.Test;
+import technology.rocketjump.undermount.entities.model.physical.LocationComponent;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static technology.rocketjump.undermount.gamecontext.FixedTimestepSimulation.TICK_SECONDS;
+
+public class FixedTimestepSimulationTest {
+
+	private final FixedTimestepSimulation simulation = new FixedTimestepSimulation();
+	private int ticks;
+	private boolean allTicksFixedLength = true;
+
+	@After
+	public void tearDown() {
+		simulation.disable();
+	}
+
+	@Test
+	public void advance_runsFixedTicksForGameSpeed() {
+		for (int frame = 0; frame < 60; frame++) {
+			simulation.advance(1f / 60f, 4f, this::countTick);
+		}
+
+		assertThat(ticks).isIn(239, 240);
+		assertThat(allTicksFixedLength).isTrue();
+	}
+
+	@Test
+	public void advance_carriesRemainderToNextFrame() {
+		int firstFrameTicks = simulation.advance(TICK_SECONDS * 1.5f, 1f, this::countTick);
+		float alpha = simulation.getInterpolationAlpha();
+		int secondFrameTicks = simulation.advance(TICK_SECONDS * 0.6f, 1f, this::countTick);
+
+		assertThat(firstFrameTicks).isEqualTo(1);
+		assertThat(alpha).isGreaterThan(0.45f).isLessThan(0.55f);
+		assertThat(secondFrameTicks).isEqualTo(1);
+	}
+
+	@Test
+	public void advance_dropsFrameTimeOnceOverBudget() {
+		long[] fakeNanos = new long[1];
+		FixedTimestepSimulation budgeted = new FixedTimestepSimulation(10L, () -> fakeNanos[0]);
+
+		int ticksRun = budgeted.advance(1f, 18f, tickSeconds -> {
+			fakeNanos[0] += 4L;
+			countTick(tickSeconds);
+		});
+		int nextFrameTicks = budgeted.advance(0f, 18f, this::countTick);
+
+		assertThat(ticksRun).isEqualTo(3);
+		assertThat(nextFrameTicks).isLessThan(5);
+		budgeted.disable();
+	}
+
+	@Test
+	public void renderPosition_interpolatesFromPositionAtStartOfTick() {
+		LocationComponent locationComponent = new LocationComponent();
+		locationComponent.setWorldPosition(new Vector2(1f, 1f), false);
+
+		simulation.advance(TICK_SECONDS * 1.5f, 1f, tickSeconds -> {
+			locationComponent.recordPreviousTickPosition(simulation.getCurrentTick());
+			// Moved in place, which must not move the recorded position with it
+			locationComponent.getWorldPosition().add(1f, 0f);
+		});
+
+		Vector2 renderPosition = locationComponent.getRenderPosition(new Vector2(), simulation);
+		assertThat(renderPosition.x).isGreaterThan(1.45f).isLessThan(1.55f);
+		assertThat(renderPosition.y).isEqualTo(1f);
+
+		simulation.disable();
+		assertThat(locationComponent.getRenderPosition(new Vector2(), simulation)).isEqualTo(new Vector2(2f, 1f));
+	}
+
+	private void countTick(float tickSeconds) {
+		ticks++;
+		allTicksFixedLength &= tickSeconds == TICK_SECONDS;
+	}
+
+}
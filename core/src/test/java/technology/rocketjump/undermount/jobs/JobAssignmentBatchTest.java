@@ -0,0 +1,71 @@
+package technology.rocketjump.undermount.jobs;
+
+import org.junit.Before;
+import org.junit.Test;
+import technology.rocketjump.undermount.jobs.model.Job;
+import technology.rocketjump.undermount.jobs.model.JobPriority;
+import technology.rocketjump.undermount.jobs.model.JobType;
+import technology.rocketjump.undermount.jobs.model.PotentialJob;
+
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class JobAssignmentBatchTest {
+
+	private JobAssignmentBatch batch;
+	private Job jobA;
+	private Job jobB;
+
+	@Before
+	public void setup() {
+		batch = new JobAssignmentBatch(new PotentialJobSorter());
+		jobA = new Job(new JobType());
+		jobB = new Job(new JobType());
+	}
+
+	@Test
+	public void resolve_offersEachRequestADifferentJobFirst() {
+		int first = batch.addRequest();
+		batch.addCandidate(first, new PotentialJob(jobA, 5f), 0.5f);
+		batch.addCandidate(first, new PotentialJob(jobB, 6f), 0.5f);
+		int second = batch.addRequest();
+		batch.addCandidate(second, new PotentialJob(jobA, 2f), 0.5f);
+		batch.addCandidate(second, new PotentialJob(jobB, 20f), 0.5f);
+
+		List<List<Job>> result = batch.resolve();
+
+		assertThat(result.get(first)).containsExactly(jobB, jobA);
+		assertThat(result.get(second)).containsExactly(jobA, jobB);
+	}
+
+	@Test
+	public void resolve_higherPriorityJobIsMatchedBeforeNearerJob() {
+		jobB.setJobPriority(JobPriority.HIGHEST);
+		int first = batch.addRequest();
+		batch.addCandidate(first, new PotentialJob(jobB, 30f), 0.5f);
+		batch.addCandidate(first, new PotentialJob(jobA, 1f), 0.5f);
+		int second = batch.addRequest();
+		batch.addCandidate(second, new PotentialJob(jobB, 10f), 0.5f);
+
+		List<List<Job>> result = batch.resolve();
+
+		assertThat(result.get(first)).containsExactly(jobA, jobB);
+		assertThat(result.get(second)).containsExactly(jobB);
+	}
+
+	@Test
+	public void resolve_moreSkilledRequesterWinsTie() {
+		int first = batch.addRequest();
+		batch.addCandidate(first, new PotentialJob(jobA, 3f), 0.2f);
+		batch.addCandidate(first, new PotentialJob(jobB, 40f), 0.2f);
+		int second = batch.addRequest();
+		batch.addCandidate(second, new PotentialJob(jobA, 3f), 0.9f);
+
+		List<List<Job>> result = batch.resolve();
+
+		assertThat(result.get(second)).containsExactly(jobA);
+		assertThat(result.get(first)).containsExactly(jobB, jobA);
+	}
+
+}
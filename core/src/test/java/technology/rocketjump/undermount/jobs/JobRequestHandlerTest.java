@@ -0,0 +1,102 @@
+package technology.rocketjump.undermount.jobs;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import technology.rocketjump.undermount.entities.components.humanoid.ProfessionsComponent;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.entities.model.EntityType;
+import technology.rocketjump.undermount.entities.model.physical.LocationComponent;
+import technology.rocketjump.undermount.entities.planning.JobAssignmentCallback;
+import technology.rocketjump.undermount.environment.GameClock;
+import technology.rocketjump.undermount.gamecontext.GameContext;
+import technology.rocketjump.undermount.jobs.model.Job;
+import technology.rocketjump.undermount.jobs.model.JobState;
+import technology.rocketjump.undermount.jobs.model.JobType;
+import technology.rocketjump.undermount.messaging.types.JobRequestMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static technology.rocketjump.undermount.jobs.ProfessionDictionary.NULL_PROFESSION;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JobRequestHandlerTest {
+
+	@Mock
+	private MessageDispatcher mockMessageDispatcher;
+	@Mock
+	private ProfessionDictionary mockProfessionDictionary;
+	@Mock
+	private GameClock mockGameClock;
+
+	private JobStore jobStore;
+	private JobRequestHandler jobRequestHandler;
+	private GameContext gameContext;
+	private long nextJobId = 1;
+
+	@Before
+	public void setUp() {
+		gameContext = new GameContext();
+		gameContext.setGameClock(mockGameClock);
+		jobStore = new JobStore(mockProfessionDictionary);
+		jobStore.onContextChange(gameContext);
+		jobRequestHandler = new JobRequestHandler(mockMessageDispatcher, jobStore);
+		jobRequestHandler.onContextChange(gameContext);
+	}
+
+	@Test
+	public void update_offersAcceptableJob_behindMoreThanTheCandidateLimitOfRejectedJobs() {
+		JobType rejectedType = new JobType();
+		JobType acceptedType = new JobType();
+		for (int x = 0; x < 10; x++) {
+			for (int y = 0; y < 10; y++) {
+				addAssignableJob(rejectedType, new GridPoint2(x, y));
+			}
+		}
+		Job acceptedJob = addAssignableJob(acceptedType, new GridPoint2(40, 40));
+
+		List<Job> offeredJobs = new ArrayList<>();
+		JobAssignmentCallback callback = new JobAssignmentCallback() {
+			@Override
+			public void jobCallback(List<Job> potentialJobs, GameContext gameContext) {
+				offeredJobs.addAll(potentialJobs);
+			}
+
+			@Override
+			public boolean canAccept(Job potentialJob, GameContext gameContext) {
+				return potentialJob.getType() == acceptedType;
+			}
+		};
+		JobRequestMessage jobRequest = new JobRequestMessage(settlerAt(new Vector2(0.5f, 0.5f)), mockGameClock, callback);
+		gameContext.getJobRequestQueue().addLast(jobRequest);
+
+		jobRequestHandler.update(0.1f);
+
+		assertThat(offeredJobs).containsExactly(acceptedJob);
+		assertThat(jobRequest.getFirstRejectedJob().getType()).isSameAs(rejectedType);
+	}
+
+	private Job addAssignableJob(JobType jobType, GridPoint2 location) {
+		Job job = new Job(jobType, nextJobId++);
+		job.setRequiredProfession(NULL_PROFESSION);
+		job.setJobLocation(location);
+		job.setJobState(JobState.ASSIGNABLE);
+		jobStore.add(job);
+		return job;
+	}
+
+	private Entity settlerAt(Vector2 position) {
+		LocationComponent locationComponent = new LocationComponent();
+		locationComponent.setWorldPosition(position, false);
+		return new Entity(1L, EntityType.CREATURE, Arrays.asList(locationComponent, new ProfessionsComponent()));
+	}
+
+}
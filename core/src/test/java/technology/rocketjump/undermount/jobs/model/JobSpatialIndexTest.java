@@ -0,0 +1,89 @@
+package technology.rocketjump.undermount.jobs.model;
+
+import com.badlogic.gdx.math.GridPoint2;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class JobSpatialIndexTest {
+
+	private Profession profession;
+	private JobSpatialIndex index;
+
+	@Before
+	public void setup() {
+		profession = new Profession();
+		profession.setName("Test");
+		index = new JobSpatialIndex();
+	}
+
+	@Test
+	public void findNearest_returnsClosestJobsInOrder() {
+		Job far = job(90, 90, JobPriority.NORMAL);
+		Job near = job(12, 10, JobPriority.NORMAL);
+		Job middle = job(30, 25, JobPriority.NORMAL);
+		Job nearest = job(10, 11, JobPriority.NORMAL);
+
+		List<PotentialJob> results = new ArrayList<>();
+		index.findNearest(profession, JobPriority.NORMAL, new GridPoint2(10, 10), 3, results);
+
+		assertThat(jobsOf(results)).containsExactly(nearest, near, middle);
+	}
+
+	@Test
+	public void findNearest_skipsAssignedJobsAndOtherPriorities() {
+		Job assigned = job(10, 10, JobPriority.NORMAL);
+		assigned.setAssignedToEntityId(1L);
+		job(11, 10, JobPriority.HIGHEST);
+		Job unassigned = job(40, 40, JobPriority.NORMAL);
+
+		List<PotentialJob> results = new ArrayList<>();
+		index.findNearest(profession, JobPriority.NORMAL, new GridPoint2(10, 10), 5, results);
+
+		assertThat(jobsOf(results)).containsExactly(unassigned);
+	}
+
+	@Test
+	public void changingPriorityOrLocation_reindexesJob() {
+		Job job = job(10, 10, JobPriority.NORMAL);
+
+		job.setJobPriority(JobPriority.HIGHER);
+		job.setJobLocation(new GridPoint2(70, 3));
+
+		List<PotentialJob> results = new ArrayList<>();
+		index.findNearest(profession, JobPriority.NORMAL, new GridPoint2(10, 10), 5, results);
+		assertThat(results).isEmpty();
+
+		index.findNearest(profession, JobPriority.HIGHER, new GridPoint2(10, 10), 5, results);
+		assertThat(jobsOf(results)).containsExactly(job);
+		assertThat(results.get(0).distance).isEqualTo(new GridPoint2(70, 3).dst(10, 10));
+
+		index.remove(job);
+		job.setJobPriority(JobPriority.NORMAL);
+		results.clear();
+		index.findNearest(profession, JobPriority.NORMAL, new GridPoint2(10, 10), 5, results);
+		assertThat(results).isEmpty();
+	}
+
+	private Job job(int x, int y, JobPriority priority) {
+		Job job = new Job(new JobType());
+		job.setRequiredProfession(profession);
+		job.setJobPriority(priority);
+		job.setJobLocation(new GridPoint2(x, y));
+		index.add(job);
+		return job;
+	}
+
+	private List<Job> jobsOf(List<PotentialJob> potentialJobs) {
+		List<Job> jobs = new ArrayList<>();
+		for (PotentialJob potentialJob : potentialJobs) {
+			jobs.add(potentialJob.job);
+		}
+		return jobs;
+	}
+
+}
@@ -0,0 +1,83 @@
+package technology.rocketjump.undermount.mapping;
+
+import com.badlogic.gdx.math.GridPoint2;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import technology.rocketjump.undermount.assets.model.FloorType;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.mapping.tile.MapTile;
+import technology.rocketjump.undermount.mapping.tile.wall.Wall;
+import technology.rocketjump.undermount.materials.model.GameMaterial;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static technology.rocketjump.undermount.mapping.tile.TileExploration.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ExplorationFloodFillTest {
+
+	@Mock
+	private FloorType mockFloorType;
+	@Mock
+	private GameMaterial mockFloorMaterial;
+
+	private TiledMap map;
+
+	@Before
+	public void setUp() {
+		// A 12x8 cave with a wall down the middle at x = 6
+		map = new TiledMap(1L, 12, 8, mockFloorType, mockFloorMaterial);
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 12; x++) {
+				MapTile tile = map.getTile(x, y);
+				tile.setExploration(UNEXPLORED);
+				if (x == 6 || x == 7) {
+					tile.setWall(new Wall(), tile.getRoof());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void step_revealsConnectedAreaAndBoundingWalls_acrossSeveralSteps() {
+		ExplorationFloodFill floodFill = new ExplorationFloodFill(map);
+		floodFill.start(new GridPoint2(1, 1), false);
+
+		int steps = 0;
+		int revealed = 0;
+		while (!floodFill.isFinished()) {
+			revealed += floodFill.step(10);
+			steps++;
+		}
+
+		// 6 columns of floor plus the adjacent column of wall
+		assertThat(revealed).isEqualTo(7 * 8);
+		assertThat(steps).isEqualTo(6);
+		for (int y = 0; y < 8; y++) {
+			assertThat(map.getTile(5, y).getExploration()).isEqualTo(EXPLORED);
+			assertThat(map.getTile(6, y).getExploration()).isEqualTo(EXPLORED);
+			assertThat(map.getTile(7, y).getExploration()).isEqualTo(PARTIAL);
+			assertThat(map.getTile(8, y).getExploration()).isEqualTo(UNEXPLORED);
+		}
+		assertThat(map.getVertex(7, 7).getExplorationVisibility()).isEqualTo(1f);
+		assertThat(map.getVertex(8, 7).getExplorationVisibility()).isEqualTo(0f);
+	}
+
+	@Test
+	public void start_canBeReusedForAnotherFill() {
+		ExplorationFloodFill floodFill = new ExplorationFloodFill(map);
+		floodFill.start(new GridPoint2(1, 1), false);
+		floodFill.step(Integer.MAX_VALUE);
+
+		floodFill.start(new GridPoint2(10, 1), false);
+		int revealed = floodFill.step(Integer.MAX_VALUE);
+
+		// The wall at x = 7 is revealed again from the other side
+		assertThat(revealed).isEqualTo(5 * 8);
+		assertThat(floodFill.isFinished()).isTrue();
+		assertThat(map.getTile(11, 7).getExploration()).isEqualTo(EXPLORED);
+		assertThat(map.getTile(7, 0).getExploration()).isEqualTo(EXPLORED);
+	}
+}
@@ -0,0 +1,175 @@
+package technology.rocketjump.undermount.mapping;
+
+import com.alibaba.fastjson.JSONObject;
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.ai.msg.Telegram;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import technology.rocketjump.undermount.assets.model.FloorType;
+import technology.rocketjump.undermount.gamecontext.GameContext;
+import technology.rocketjump.undermount.mapping.model.TiledMap;
+import technology.rocketjump.undermount.mapping.tile.MapTile;
+import technology.rocketjump.undermount.mapping.tile.underground.ChannelLayout;
+import technology.rocketjump.undermount.mapping.tile.underground.TileLiquidFlow;
+import technology.rocketjump.undermount.materials.GameMaterialDictionary;
+import technology.rocketjump.undermount.materials.model.GameMaterial;
+import technology.rocketjump.undermount.messaging.MessageType;
+import technology.rocketjump.undermount.rendering.ScreenWriter;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static technology.rocketjump.undermount.mapping.tile.underground.TileLiquidFlow.MAX_LIQUID_FLOW_PER_TILE;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LiquidFlowProcessorTest {
+
+	private static final float DELTA_TIME = 1f / 60f;
+	private static final int WIDTH = 64;
+	private static final int HEIGHT = 8;
+	private static final int CHANNEL_Y = 3;
+	private static final int CHUNK_BORDER_X = 15;
+
+	@Mock
+	private FloorType mockFloorType;
+	@Mock
+	private GameMaterial mockFloorMaterial;
+	@Mock
+	private GameMaterialDictionary mockMaterialDictionary;
+	@Mock
+	private GameMaterial mockWater;
+	@Mock
+	private MessageDispatcher mockMessageDispatcher;
+	@Mock
+	private ScreenWriter mockScreenWriter;
+
+	@Before
+	public void setUp() {
+		when(mockMaterialDictionary.getByName("Water")).thenReturn(mockWater);
+	}
+
+	@Test
+	public void update_spreadsLiquidAcrossChunksTheSameEveryTime() {
+		// Sources in chunks 0 and 2, which are updated in parallel in the same phase
+		TiledMap firstMap = channelMap();
+		LiquidFlowProcessor firstProcessor = processorFor(firstMap);
+		TiledMap secondMap = channelMap();
+		LiquidFlowProcessor secondProcessor = processorFor(secondMap);
+
+		boolean flowedIntoChunkBetweenSources = false;
+		for (int frame = 0; frame < 600; frame++) {
+			if (frame < 60) {
+				addLiquid(firstProcessor, firstMap.getTile(2, CHANNEL_Y));
+				addLiquid(firstProcessor, firstMap.getTile(34, CHANNEL_Y));
+				addLiquid(secondProcessor, secondMap.getTile(2, CHANNEL_Y));
+				addLiquid(secondProcessor, secondMap.getTile(34, CHANNEL_Y));
+			}
+			firstProcessor.update(DELTA_TIME);
+			secondProcessor.update(DELTA_TIME);
+			for (int x = CHUNK_BORDER_X + 1; x < CHUNK_BORDER_X + 17; x++) {
+				flowedIntoChunkBetweenSources |= liquidAmount(firstMap.getTile(x, CHANNEL_Y)) > 0;
+			}
+		}
+
+		int tilesWithLiquid = 0;
+		for (int x = 0; x < WIDTH; x++) {
+			int firstAmount = liquidAmount(firstMap.getTile(x, CHANNEL_Y));
+			assertThat(liquidAmount(secondMap.getTile(x, CHANNEL_Y))).isEqualTo(firstAmount);
+			if (firstAmount > 0) {
+				tilesWithLiquid++;
+			}
+		}
+		assertThat(tilesWithLiquid).isGreaterThan(4);
+		assertThat(flowedIntoChunkBetweenSources).isTrue();
+		assertThat(firstMap.getVertex(CHUNK_BORDER_X, CHANNEL_Y).getAverageWaterDepth())
+				.isEqualTo(secondMap.getVertex(CHUNK_BORDER_X, CHANNEL_Y).getAverageWaterDepth());
+	}
+
+	@Test
+	public void update_carriesOnTheSameAfterReloadingPartWayThroughAPass() {
+		TiledMap uninterruptedMap = channelMap();
+		LiquidFlowProcessor uninterruptedProcessor = processorFor(uninterruptedMap);
+		TiledMap reloadedMap = channelMap();
+		GameContext reloadedContext = new GameContext();
+		reloadedContext.setAreaMap(reloadedMap);
+		LiquidFlowProcessor processorBeforeReload = new LiquidFlowProcessor(mockMaterialDictionary, mockMessageDispatcher, mockScreenWriter);
+		processorBeforeReload.onContextChange(reloadedContext);
+
+		for (int frame = 0; frame < 120; frame++) {
+			if (frame < 60) {
+				addLiquid(uninterruptedProcessor, uninterruptedMap.getTile(2, CHANNEL_Y));
+				addLiquid(processorBeforeReload, reloadedMap.getTile(2, CHANNEL_Y));
+			}
+			uninterruptedProcessor.update(DELTA_TIME);
+			processorBeforeReload.update(DELTA_TIME);
+		}
+		assertThat(reloadedContext.getSettlementState().liquidFlowPassTiles).isNotEmpty();
+
+		// Everything the new processor starts from is held in the map and settlement state, as when loading a save
+		processorBeforeReload.clearContextRelatedState();
+		LiquidFlowProcessor reloadedProcessor = new LiquidFlowProcessor(mockMaterialDictionary, mockMessageDispatcher, mockScreenWriter);
+		reloadedProcessor.onContextChange(reloadedContext);
+		for (int frame = 0; frame < 480; frame++) {
+			uninterruptedProcessor.update(DELTA_TIME);
+			reloadedProcessor.update(DELTA_TIME);
+		}
+
+		for (int x = 0; x < WIDTH; x++) {
+			assertThat(liquidAmount(reloadedMap.getTile(x, CHANNEL_Y))).isEqualTo(liquidAmount(uninterruptedMap.getTile(x, CHANNEL_Y)));
+		}
+	}
+
+	@Test
+	public void update_flowsFromLiquidLoadedWithoutAveragedFlowDirection() throws Exception {
+		TiledMap map = channelMap();
+		JSONObject olderSaveJson = new JSONObject(true);
+		olderSaveJson.put("liquidAmount", MAX_LIQUID_FLOW_PER_TILE);
+		TileLiquidFlow loadedFlow = new TileLiquidFlow();
+		loadedFlow.readFrom(olderSaveJson, null, null);
+		MapTile loadedTile = map.getTile(10, CHANNEL_Y);
+		loadedTile.getUnderTile().setLiquidFlow(loadedFlow);
+
+		GameContext gameContext = new GameContext();
+		gameContext.setAreaMap(map);
+		gameContext.getSettlementState().activeLiquidFlowTiles.add(loadedTile);
+		LiquidFlowProcessor processor = new LiquidFlowProcessor(mockMaterialDictionary, mockMessageDispatcher, mockScreenWriter);
+		processor.onContextChange(gameContext);
+
+		for (int frame = 0; frame < 10; frame++) {
+			processor.update(DELTA_TIME);
+		}
+
+		assertThat(liquidAmount(map.getTile(9, CHANNEL_Y)) + liquidAmount(map.getTile(11, CHANNEL_Y))).isGreaterThan(0);
+	}
+
+	private TiledMap channelMap() {
+		TiledMap map = new TiledMap(1L, WIDTH, HEIGHT, mockFloorType, mockFloorMaterial);
+		for (int x = 0; x < WIDTH; x++) {
+			map.getTile(x, CHANNEL_Y).getOrCreateUnderTile().setChannelLayout(new ChannelLayout(0));
+		}
+		return map;
+	}
+
+	private LiquidFlowProcessor processorFor(TiledMap map) {
+		LiquidFlowProcessor processor = new LiquidFlowProcessor(mockMaterialDictionary, mockMessageDispatcher, mockScreenWriter);
+		GameContext gameContext = new GameContext();
+		gameContext.setAreaMap(map);
+		processor.onContextChange(gameContext);
+		return processor;
+	}
+
+	private void addLiquid(LiquidFlowProcessor processor, MapTile tile) {
+		Telegram telegram = new Telegram();
+		telegram.message = MessageType.ADD_LIQUID_TO_FLOW;
+		telegram.extraInfo = tile;
+		processor.handleMessage(telegram);
+	}
+
+	private int liquidAmount(MapTile tile) {
+		TileLiquidFlow liquidFlow = tile.getUnderTile().getLiquidFlow();
+		return liquidFlow == null ? 0 : liquidFlow.getLiquidAmount();
+	}
+
+}
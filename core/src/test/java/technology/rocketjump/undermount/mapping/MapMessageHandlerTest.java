@@ -21,10 +21,13 @@ import technology.rocketjump.undermount.mapping.tile.MapTile;
 import technology.rocketjump.undermount.mapping.tile.TileNeighbours;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
 import technology.rocketjump.undermount.messaging.MessageType;
+import technology.rocketjump.undermount.messaging.async.BackgroundTaskManager;
+import technology.rocketjump.undermount.messaging.types.AddWallMessage;
 import technology.rocketjump.undermount.particles.ParticleEffectTypeDictionary;
 import technology.rocketjump.undermount.rooms.RoomFactory;
 import technology.rocketjump.undermount.rooms.RoomStore;
 import technology.rocketjump.undermount.rooms.StockpileComponentUpdater;
+import technology.rocketjump.undermount.settlement.ItemTracker;
 import technology.rocketjump.undermount.ui.GameInteractionStateContainer;
 import technology.rocketjump.undermount.ui.i18n.I18nTranslator;
 import technology.rocketjump.undermount.zones.Zone;
@@ -68,6 +71,10 @@ public class MapMessageHandlerTest {
 	private MechanismEntityFactory mockMechanismEntityFactory;
 	@Mock
 	private I18nTranslator mockI18nTranslator;
+	@Mock
+	private BackgroundTaskManager mockBackgroundTaskManager;
+	@Mock
+	private ItemTracker mockItemTracker;
 
 	@Test
 	public void removeWall_joinsRegions_keepsZones() {
@@ -148,13 +155,7 @@ public class MapMessageHandlerTest {
 		);
 		map.addZone(rightEdgeZone);
 
-		MapMessageHandler mapMessageHandler = new MapMessageHandler(mockMessageDispatcher, mockOutdoorLightProcessor,
-				mockInteractionStateContainer, mockRoomfactory, mockRoomStore, mockJobStore, mockStockpileComponentUpdater,
-				mockRoofConstructionManager, mockParticleEffectTypeDictionary, mockSoundAssetDictionary, mockFloorTypeDictionary,
-				mockMechanismTypeDictionary, mockMechanismEntityAttributesFactory, mockMechanismEntityFactory, mockI18nTranslator);
-		GameContext gameContext = new GameContext();
-		gameContext.setAreaMap(map);
-		mapMessageHandler.onContextChange(gameContext);
+		MapMessageHandler mapMessageHandler = createMapMessageHandler(map);
 
 		Telegram telegram = new Telegram();
 		telegram.message = MessageType.REMOVE_WALL;
@@ -170,4 +171,59 @@ public class MapMessageHandlerTest {
 		assertThat(rightTile.getZones()).hasSize(1);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void addWall_splitsRegion_keepsZoneWithItsSide() {
+		TiledMap map = new TiledMap(1, 5, 5, mockFloorType, GameMaterial.NULL_MATERIAL);
+
+		int region1 = map.createNewRegionId();
+		int region2 = map.createNewRegionId();
+		for (int x = 0; x < 5; x++) {
+			for (int y = 0; y < 5; y++) {
+				if (x == 2 && y != 2) {
+					map.getTile(x, y).addWall(new TileNeighbours(), GameMaterial.NULL_MATERIAL, mockWallType);
+					map.getTile(x, y).setRegionId(region2);
+				} else {
+					map.getTile(x, y).setRegionId(region1);
+				}
+			}
+		}
+
+		Zone rightEdgeZone = new Zone();
+		rightEdgeZone.add(
+				map.getTile(3, 0), map.getTile(4, 0)
+		);
+		map.addZone(rightEdgeZone);
+
+		MapMessageHandler mapMessageHandler = createMapMessageHandler(map);
+
+		Telegram telegram = new Telegram();
+		telegram.message = MessageType.ADD_WALL;
+		telegram.extraInfo = new AddWallMessage(new GridPoint2(2, 2), GameMaterial.NULL_MATERIAL, mockWallType);
+
+		mapMessageHandler.handleMessage(telegram);
+
+		MapTile leftTile = map.getTile(1, 0);
+		MapTile rightTile = map.getTile(3, 0);
+		assertThat(map.getTile(2, 2).getRegionId()).isEqualTo(region2);
+		assertThat(leftTile.getRegionId()).isNotEqualTo(rightTile.getRegionId());
+		assertThat(map.getTile(0, 4).getRegionId()).isEqualTo(leftTile.getRegionId());
+		assertThat(map.getTile(4, 4).getRegionId()).isEqualTo(rightTile.getRegionId());
+
+		assertThat(rightEdgeZone.getRegionId()).isEqualTo(rightTile.getRegionId());
+		assertThat(map.getZonesInRegion(rightTile.getRegionId())).containsOnly(rightEdgeZone);
+		assertThat(map.getZonesInRegion(leftTile.getRegionId())).isEmpty();
+	}
+
+	private MapMessageHandler createMapMessageHandler(TiledMap map) {
+		MapMessageHandler mapMessageHandler = new MapMessageHandler(mockMessageDispatcher, mockOutdoorLightProcessor,
+				mockInteractionStateContainer, mockRoomfactory, mockRoomStore, mockJobStore, mockStockpileComponentUpdater,
+				mockRoofConstructionManager, mockParticleEffectTypeDictionary, mockSoundAssetDictionary, mockFloorTypeDictionary,
+				mockMechanismTypeDictionary, mockMechanismEntityAttributesFactory, mockMechanismEntityFactory, mockI18nTranslator,
+				mockBackgroundTaskManager, mockItemTracker);
+		GameContext gameContext = new GameContext();
+		gameContext.setAreaMap(map);
+		mapMessageHandler.onContextChange(gameContext);
+		return mapMessageHandler;
+	}
+
+}
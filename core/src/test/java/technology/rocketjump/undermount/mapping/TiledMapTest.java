@@ -7,9 +7,14 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import technology.rocketjump.undermount.assets.model.FloorType;
+import technology.rocketjump.undermount.assets.model.WallType;
+import technology.rocketjump.undermount.mapping.model.NavigationGrid;
+import technology.rocketjump.undermount.mapping.model.OutsideLightChanges;
+import technology.rocketjump.undermount.mapping.model.TerrainRevisions;
 import technology.rocketjump.undermount.mapping.model.TiledMap;
 import technology.rocketjump.undermount.mapping.tile.CompassDirection;
 import technology.rocketjump.undermount.mapping.tile.MapTile;
+import technology.rocketjump.undermount.mapping.tile.TileExploration;
 import technology.rocketjump.undermount.mapping.tile.TileNeighbours;
 import technology.rocketjump.undermount.mapping.tile.roof.TileRoofState;
 import technology.rocketjump.undermount.materials.model.GameMaterial;
@@ -25,6 +30,8 @@ public class TiledMapTest {
     private FloorType mockFloorType;
     @Mock
     private GameMaterial mockFloorMaterial;
+    @Mock
+    private WallType mockWallType;
 
     @Test
     public void testXYBounds() throws Exception {
@@ -113,4 +120,56 @@ public class TiledMapTest {
         assertThat(nearestTiles.get(2)).isEqualTo(map.getTile(1, 2));
         assertThat(nearestTiles.get(3)).isEqualTo(map.getTile(2, 2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNavigationGrid_followsChangesToTiles() {
+        TiledMap map = new TiledMap(1L, 3, 3, mockFloorType, mockFloorMaterial);
+        MapTile tile = map.getTile(1, 2);
+        assertThat(map.getNavigationGrid().isNavigable(1, 2)).isTrue();
+
+        tile.addWall(new TileNeighbours(), mockFloorMaterial, mockWallType);
+
+        assertThat(map.getNavigationGrid().getFlags(1, 2)).isEqualTo(NavigationGrid.WALL);
+        assertThat(map.getNavigationGrid().isNavigable(1, 2)).isFalse();
+        assertThat(tile.isNavigable(null, map.getTile(1, 1))).isFalse();
+
+        tile.setWall(null, tile.getRoof());
+
+        assertThat(map.getNavigationGrid().getFlags(1, 2)).isEqualTo(0);
+        assertThat(tile.isNavigable(null, map.getTile(1, 1))).isTrue();
+    }
+
+    @Test
+    public void testTerrainRevisions_onlyChangeForTheChunkOfTheTile() {
+        TiledMap map = new TiledMap(1L, 40, 40, mockFloorType, mockFloorMaterial);
+        TerrainRevisions revisions = map.getTerrainRevisions();
+        assertThat(revisions.getChunksWide()).isEqualTo(2);
+
+        map.getTile(35, 3).setExploration(TileExploration.EXPLORED);
+
+        assertThat(revisions.getRevision(1, 0)).isEqualTo(1);
+        assertThat(revisions.getRevision(0, 0)).isEqualTo(0);
+        assertThat(revisions.getRevision(1, 1)).isEqualTo(0);
+    }
+
+    @Test
+    public void testOutsideLightChanges_coverOnlyTheChangedVertices() {
+        TiledMap map = new TiledMap(1L, 10, 10, mockFloorType, mockFloorMaterial);
+        OutsideLightChanges changes = map.getOutsideLightChanges();
+        assertThat(changes.isEmpty()).isTrue();
+
+        map.getVertex(2, 7).setOutsideLightAmount(0f); // unchanged
+        assertThat(changes.isEmpty()).isTrue();
+
+        map.getVertex(2, 7).setOutsideLightAmount(0.5f);
+        map.getVertex(4, 3).setOutsideLightAmount(1f);
+
+        assertThat(changes.getMinX()).isEqualTo(2);
+        assertThat(changes.getMaxX()).isEqualTo(4);
+        assertThat(changes.getMinY()).isEqualTo(3);
+        assertThat(changes.getMaxY()).isEqualTo(7);
+
+        changes.clear();
+        assertThat(changes.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,67 @@
+package technology.rocketjump.undermount.mapping.model;
+
+import com.badlogic.gdx.math.GridPoint2;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Before;
+import org.junit.Test;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.entities.model.EntityType;
+import technology.rocketjump.undermount.entities.model.physical.LocationComponent;
+
+import java.util.Arrays;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CreatureSpatialHashTest {
+
+	private CreatureSpatialHash spatialHash;
+	private final GridPoint2[] scratch = { new GridPoint2(), new GridPoint2(), new GridPoint2(), new GridPoint2() };
+	private final Array<Entity> result = new Array<>();
+	private long nextId = 1;
+
+	@Before
+	public void setUp() {
+		spatialHash = new CreatureSpatialHash(10, 10);
+	}
+
+	@Test
+	public void getCreaturesNear_findsCreaturesInNearestTilesOnly() {
+		Entity sameTile = build(EntityType.CREATURE, new Vector2(4.6f, 4.6f));
+		Entity adjacentTile = build(EntityType.CREATURE, new Vector2(5.2f, 5.1f));
+		Entity otherSideOfTile = build(EntityType.CREATURE, new Vector2(3.5f, 4.5f));
+		Entity item = build(EntityType.ITEM, new Vector2(4.5f, 4.5f));
+		Entity offMap = build(EntityType.CREATURE, new Vector2(-0.5f, 4.5f));
+		spatialHash.rebuild(Arrays.asList(sameTile, adjacentTile, otherSideOfTile, item, offMap, null));
+
+		spatialHash.getCreaturesNear(new Vector2(4.8f, 4.8f), scratch, result);
+
+		assertThat(result.size).isEqualTo(2);
+		assertThat(result.contains(sameTile, true)).isTrue();
+		assertThat(result.contains(adjacentTile, true)).isTrue();
+		assertThat(spatialHash.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void rebuild_replacesPreviousContents() {
+		Entity creature = build(EntityType.CREATURE, new Vector2(1.5f, 1.5f));
+		spatialHash.rebuild(Arrays.asList(creature));
+		creature.getLocationComponent().setWorldPosition(new Vector2(8.5f, 8.5f), false);
+
+		spatialHash.getCreaturesNear(new Vector2(8.5f, 8.5f), scratch, result);
+		assertThat(result.size).isEqualTo(0);
+
+		spatialHash.rebuild(Arrays.asList(creature));
+
+		spatialHash.getCreaturesNear(new Vector2(1.5f, 1.5f), scratch, result);
+		assertThat(result.size).isEqualTo(0);
+		spatialHash.getCreaturesNear(new Vector2(8.5f, 8.5f), scratch, result);
+		assertThat(result.size).isEqualTo(1);
+	}
+
+	private Entity build(EntityType type, Vector2 position) {
+		LocationComponent locationComponent = new LocationComponent();
+		locationComponent.setWorldPosition(position, false);
+		return new Entity(nextId++, type, Arrays.asList(locationComponent));
+	}
+}
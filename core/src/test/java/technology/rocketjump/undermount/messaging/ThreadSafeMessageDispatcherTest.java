@@ -0,0 +1,90 @@
+package technology.rocketjump.undermount.messaging;
+
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ThreadSafeMessageDispatcherTest {
+
+	private static final int OUTER_MESSAGE = 10;
+	private static final int INNER_MESSAGE = 3000; // Beyond the initial size of the listener table
+
+	private ThreadSafeMessageDispatcher dispatcher;
+
+	@Before
+	public void setup() {
+		dispatcher = new ThreadSafeMessageDispatcher();
+	}
+
+	@Test
+	public void nestedDispatch_doesNotOverwriteOuterTelegram() {
+		List<Object> received = new ArrayList<>();
+		dispatcher.addListener(msg -> {
+			dispatcher.dispatchMessage(INNER_MESSAGE, "inner");
+			received.add(msg.extraInfo);
+			return true;
+		}, OUTER_MESSAGE);
+		dispatcher.addListener(msg -> {
+			received.add(msg.extraInfo);
+			return true;
+		}, INNER_MESSAGE);
+
+		dispatcher.dispatchMessage(OUTER_MESSAGE, "outer");
+		dispatcher.dispatchMessage(OUTER_MESSAGE, "again");
+
+		assertThat(received).containsExactly("inner", "outer", "inner", "again");
+	}
+
+	@Test
+	public void removeListener_stopsDelivery() {
+		List<Object> received = new ArrayList<>();
+		Telegraph listener = msg -> received.add(msg.extraInfo);
+		dispatcher.addListener(listener, OUTER_MESSAGE);
+
+		dispatcher.dispatchMessage(OUTER_MESSAGE, "first");
+		dispatcher.removeListener(listener, OUTER_MESSAGE);
+		dispatcher.dispatchMessage(OUTER_MESSAGE, "second");
+
+		assertThat(received).containsExactly("first");
+	}
+
+	@Test
+	public void statistics_countDispatchesPerMessageCode() {
+		dispatcher.addListener(msg -> true, OUTER_MESSAGE);
+		dispatcher.dispatchMessage(OUTER_MESSAGE);
+		assertThat(dispatcher.getDispatchCount(OUTER_MESSAGE)).isEqualTo(0);
+
+		dispatcher.setStatisticsEnabled(true);
+		dispatcher.dispatchMessage(OUTER_MESSAGE);
+		dispatcher.dispatchMessage(OUTER_MESSAGE);
+
+		assertThat(dispatcher.getDispatchCount(OUTER_MESSAGE)).isEqualTo(2);
+		assertThat(dispatcher.getDispatchCount(INNER_MESSAGE)).isEqualTo(0);
+
+		dispatcher.resetStatistics();
+		assertThat(dispatcher.getDispatchCount(OUTER_MESSAGE)).isEqualTo(0);
+	}
+
+	@Test
+	public void getListeners_reflectsListenersAddedLater() {
+		Telegraph listener = msg -> true;
+		Map<Integer, Array<Telegraph>> listeners = dispatcher.getListeners();
+		assertThat(listeners).isEmpty();
+
+		dispatcher.addListener(listener, OUTER_MESSAGE);
+		dispatcher.addListener(listener, INNER_MESSAGE);
+
+		assertThat(listeners.keySet()).containsOnly(OUTER_MESSAGE, INNER_MESSAGE);
+		assertThat(listeners.get(INNER_MESSAGE).contains(listener, true)).isTrue();
+		assertThat(listeners.get(OUTER_MESSAGE + 1)).isNull();
+		assertThat(dispatcher.getListeners()).isSameAs(listeners);
+	}
+
+}
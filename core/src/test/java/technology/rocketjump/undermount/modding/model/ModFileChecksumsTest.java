@@ -0,0 +1,74 @@
+package technology.rocketjump.undermount.modding.model;
+
+import net.openhft.hashing.LongHashFunction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ModFileChecksumsTest {
+
+	private Path tempDir;
+	private Path inputFile;
+	private Path checksumsFile;
+
+	@Before
+	public void setup() throws IOException {
+		tempDir = Files.createTempDirectory("checksums");
+		inputFile = tempDir.resolve("input.json");
+		checksumsFile = tempDir.resolve("fileChecksums.json");
+		Files.write(inputFile, "[1, 2, 3]".getBytes());
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(inputFile);
+		Files.deleteIfExists(checksumsFile);
+		Files.deleteIfExists(tempDir);
+	}
+
+	@Test
+	public void checksum_isHashOfFileContents() throws IOException {
+		ModFileChecksums fileChecksums = new ModFileChecksums();
+
+		assertThat(fileChecksums.checksum(inputFile)).isEqualTo(LongHashFunction.xx().hashBytes(Files.readAllBytes(inputFile)));
+	}
+
+	@Test
+	public void checksum_isReusedFromPreviousRunWhenFileUnchanged() throws IOException {
+		ModFileChecksums firstRun = new ModFileChecksums();
+		long original = firstRun.checksum(inputFile);
+		firstRun.write(checksumsFile);
+
+		// Same size and modified time, so the contents are not read again
+		FileTime lastModified = Files.getLastModifiedTime(inputFile);
+		Files.write(inputFile, "[4, 5, 6]".getBytes());
+		Files.setLastModifiedTime(inputFile, lastModified);
+
+		ModFileChecksums secondRun = new ModFileChecksums();
+		secondRun.read(checksumsFile);
+
+		assertThat(secondRun.checksum(inputFile)).isEqualTo(original);
+	}
+
+	@Test
+	public void checksum_isRecalculatedWhenFileChanged() throws IOException {
+		ModFileChecksums firstRun = new ModFileChecksums();
+		long original = firstRun.checksum(inputFile);
+		firstRun.write(checksumsFile);
+
+		Files.write(inputFile, "[1, 2, 3, 4]".getBytes());
+
+		ModFileChecksums secondRun = new ModFileChecksums();
+		secondRun.read(checksumsFile);
+
+		assertThat(secondRun.checksum(inputFile)).isNotEqualTo(original);
+	}
+
+}
@@ -0,0 +1,104 @@
+package technology.rocketjump.undermount.persistence;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class SavedGameArchiveTest {
+
+	private static final int WIDTH = 7;
+	private static final int HEIGHT = 70; // More than one chunk of rows
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void chunkedSave_readsBackTilesAndVerticesChunkByChunk() throws Exception {
+		File saveFile = temporaryFolder.newFile("test.save");
+		SavedGameArchive.write(saveFile, "test.json", header(), mainJson(), false);
+
+		JSONObject[] tiles = new JSONObject[WIDTH * HEIGHT];
+		JSONObject[] vertices = new JSONObject[(WIDTH + 1) * (HEIGHT + 1)];
+		try (SavedGameArchive.Reader reader = new SavedGameArchive.Reader(saveFile)) {
+			JSONObject result = reader.readMainJson();
+			assertThat(result.getIntValue("saveFormat")).isEqualTo(SavedGameArchive.CHUNKED_SAVE_FORMAT);
+			assertThat(result.getString("version")).isEqualTo("test");
+			assertThat(result.containsKey("tiles")).isFalse();
+
+			reader.readChunks((chunk, firstIndex) -> copyInto(chunk, firstIndex, tiles),
+					(chunk, firstIndex) -> copyInto(chunk, firstIndex, vertices));
+		}
+
+		assertIndexed(tiles);
+		assertIndexed(vertices);
+	}
+
+	@Test
+	public void singleJsonSave_canStillBeRead() throws Exception {
+		File saveFile = temporaryFolder.newFile("test.save");
+		SavedGameArchive.write(saveFile, "test.json", header(), mainJson(), true);
+
+		try (SavedGameArchive.Reader reader = new SavedGameArchive.Reader(saveFile)) {
+			JSONObject result = reader.readMainJson();
+			assertThat(result.containsKey("saveFormat")).isFalse();
+			assertThat(result.getString("version")).isEqualTo("test");
+			assertIndexed(result.getJSONArray("tiles").toArray(new JSONObject[0]));
+			assertThat(result.getJSONArray("tiles")).hasSize(WIDTH * HEIGHT);
+			assertIndexed(result.getJSONArray("vertices").toArray(new JSONObject[0]));
+			assertThat(result.getJSONArray("vertices")).hasSize((WIDTH + 1) * (HEIGHT + 1));
+
+			reader.readChunks((chunk, firstIndex) -> fail("No tile chunks expected"),
+					(chunk, firstIndex) -> fail("No vertex chunks expected"));
+		}
+	}
+
+	private void copyInto(JSONArray chunk, int firstIndex, JSONObject[] target) {
+		for (int cursor = 0; cursor < chunk.size(); cursor++) {
+			assertThat(target[firstIndex + cursor]).isNull();
+			target[firstIndex + cursor] = chunk.getJSONObject(cursor);
+		}
+	}
+
+	private void assertIndexed(JSONObject[] elements) {
+		for (int cursor = 0; cursor < elements.length; cursor++) {
+			assertThat(elements[cursor]).isNotNull();
+			assertThat(elements[cursor].getIntValue("i")).isEqualTo(cursor);
+		}
+	}
+
+	private JSONObject header() {
+		JSONObject header = new JSONObject(true);
+		header.put("name", "test");
+		return header;
+	}
+
+	private JSONObject mainJson() {
+		JSONObject mainJson = new JSONObject(true);
+		mainJson.put("version", "test");
+		JSONObject map = new JSONObject(true);
+		map.put("width", WIDTH);
+		map.put("height", HEIGHT);
+		mainJson.put("map", map);
+		mainJson.put("tiles", indexedArray(WIDTH * HEIGHT));
+		mainJson.put("vertices", indexedArray((WIDTH + 1) * (HEIGHT + 1)));
+		return mainJson;
+	}
+
+	private JSONArray indexedArray(int size) {
+		JSONArray array = new JSONArray();
+		for (int cursor = 0; cursor < size; cursor++) {
+			JSONObject element = new JSONObject(true);
+			element.put("i", cursor);
+			array.add(element);
+		}
+		return array;
+	}
+
+}
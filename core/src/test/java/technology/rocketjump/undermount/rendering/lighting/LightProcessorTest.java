@@ -253,6 +253,36 @@ public class LightProcessorTest {
 		assertVectorEpsilonEquals(lightEdges.get(0).getPointB(),  new Vector2(0.25f, 1.75f));
 	}
 
+	@Test
+	public void computeVisibilityPolygon_fromCollectedEdges_matchesImmediateUpdate() {
+		TileNeighbours emptyNeighbours = new TileNeighbours();
+		TiledMap worldMap = new TiledMap(0L, 9, 4, mockFloorType, baseFloorMaterial);
+		worldMap.getTile(0, 1).addWall(emptyNeighbours, mockWallMaterial, mockWallType);
+		worldMap.getTile(4, 2).addWall(emptyNeighbours, mockWallMaterial, mockWallType);
+		worldMap.getTile(7, 2).addWall(emptyNeighbours, mockWallMaterial, mockWallType);
+
+		for (int x = 0; x < worldMap.getWidth(); x++) {
+			for (int y = 0; y < worldMap.getHeight(); y++) {
+				worldMap.getTile(x, y).update(worldMap.getNeighbours(x, y), worldMap.getVertices(x, y), null);
+			}
+		}
+
+		PointLight light = new PointLight(mockMesh);
+		light.setWorldPosition(new Vector2(5.5f, 2.5f));
+		lightProcessor.updateLightGeometry(light, worldMap);
+
+		Array<Edge> occludingEdges = lightProcessor.collectOccludingEdges(light.getWorldPosition(), worldMap);
+		Array<Edge> backgroundGeometry = new Array<>();
+		assertThat(lightProcessor.computeVisibilityPolygon(occludingEdges, backgroundGeometry)).isTrue();
+
+		Array<Edge> immediateGeometry = light.getLightPolygonEdges();
+		assertThat(backgroundGeometry.size).isEqualTo(immediateGeometry.size);
+		for (int cursor = 0; cursor < immediateGeometry.size; cursor++) {
+			assertVectorEpsilonEquals(backgroundGeometry.get(cursor).getPointA(), immediateGeometry.get(cursor).getPointA());
+			assertVectorEpsilonEquals(backgroundGeometry.get(cursor).getPointB(), immediateGeometry.get(cursor).getPointB());
+		}
+	}
+
 	public static void assertVectorEpsilonEquals(Vector2 actual, Vector2 expected) {
 		assertThat(actual.epsilonEquals(expected, EPSILON))
 				.overridingErrorMessage(actual.toString() + " is not epsilon equal to " + expected.toString()).isTrue();
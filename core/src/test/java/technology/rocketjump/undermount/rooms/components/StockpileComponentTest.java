@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 import static technology.rocketjump.undermount.materials.model.GameMaterial.NULL_MATERIAL;
 
@@ -78,11 +79,12 @@ public class StockpileComponentTest {
 		when(mockItemType.getMaxHauledAtOnce()).thenReturn(100);
 		when(mockItemType.getPrimaryMaterialType()).thenReturn(NULL_MATERIAL.getMaterialType());
 
-		when(mockMap.getTile(position1)).thenReturn(mockTile1);
-		when(mockMap.getTile(position2)).thenReturn(mockTile2);
+		// Only the first unallocated tile in the stockpile's order is looked at
+		lenient().when(mockMap.getTile(position1)).thenReturn(mockTile1);
+		lenient().when(mockMap.getTile(position2)).thenReturn(mockTile2);
 
-		when(mockTile1.isEmpty()).thenReturn(true);
-		when(mockTile2.isEmpty()).thenReturn(true);
+		lenient().when(mockTile1.isEmpty()).thenReturn(true);
+		lenient().when(mockTile2.isEmpty()).thenReturn(true);
 
 		when(mockItem.getType()).thenReturn(EntityType.ITEM);
 		ItemAllocationComponent itemAllocationComponent = new ItemAllocationComponent();
@@ -105,4 +107,47 @@ public class StockpileComponentTest {
 		assertThat(allocation.getTotalQuantity()).isEqualTo(100);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void allocate_startsNewStackWhenExistingIsFull() {
+		for (int i = 1; i <= 11; i++) {
+			stockpileComponent.requestAllocation(mockItem, mockMap);
+		}
+
+		StockpileAllocation allocation1 = stockpileComponent.getAllocationAt(position1);
+		StockpileAllocation allocation2 = stockpileComponent.getAllocationAt(position2);
+		assertThat(allocation1).isNotNull();
+		assertThat(allocation2).isNotNull();
+		assertThat(allocation1.getTotalQuantity() + allocation2.getTotalQuantity()).isEqualTo(110);
+	}
+
+	@Test
+	public void allocate_doesNotUseRemovedTile() {
+		stockpileComponent.requestAllocation(mockItem, mockMap);
+		GridPoint2 firstPosition = stockpileComponent.getAllocationAt(position1) != null ? position1 : position2;
+		GridPoint2 otherPosition = firstPosition.equals(position1) ? position2 : position1;
+
+		roomTiles.remove(firstPosition);
+		stockpileComponent.tileRemoved(firstPosition);
+		stockpileComponent.requestAllocation(mockItem, mockMap);
+
+		assertThat(stockpileComponent.getAllocationAt(firstPosition)).isNull();
+		assertThat(stockpileComponent.getAllocationAt(otherPosition).getTotalQuantity()).isEqualTo(10);
+	}
+
+	@Test
+	public void allocate_doesNotUseRemovedTile_whenToldBeforeRoomRemovesIt() {
+		stockpileComponent.requestAllocation(mockItem, mockMap);
+		GridPoint2 firstPosition = stockpileComponent.getAllocationAt(position1) != null ? position1 : position2;
+		GridPoint2 otherPosition = firstPosition.equals(position1) ? position2 : position1;
+
+		stockpileComponent.tileRemoved(otherPosition);
+		roomTiles.remove(otherPosition);
+		for (int i = 1; i <= 10; i++) {
+			stockpileComponent.requestAllocation(mockItem, mockMap);
+		}
+
+		assertThat(stockpileComponent.getAllocationAt(firstPosition).getTotalQuantity()).isEqualTo(100);
+		assertThat(stockpileComponent.getAllocationAt(otherPosition)).isNull();
+	}
+
+}
@@ -0,0 +1,61 @@
+package technology.rocketjump.undermount.rooms.constructions;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import technology.rocketjump.undermount.entities.model.physical.item.ItemType;
+import technology.rocketjump.undermount.jobs.model.JobPriority;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConstructionStoreTest {
+
+	private ConstructionStore constructionStore;
+	@Mock
+	private Construction mockNormalConstruction;
+	@Mock
+	private Construction mockHighConstruction;
+	@Mock
+	private Construction mockDisabledConstruction;
+
+	@Before
+	public void setUp() {
+		constructionStore = new ConstructionStore(new MessageDispatcher());
+		when(mockNormalConstruction.getPriority()).thenReturn(JobPriority.NORMAL);
+	}
+
+	@Test
+	public void nextDirty_returnsEachQueuedConstructionOnce_inPriorityOrder() {
+		when(mockHighConstruction.getPriority()).thenReturn(JobPriority.HIGHER);
+		when(mockDisabledConstruction.getPriority()).thenReturn(JobPriority.DISABLED);
+		constructionStore.markDirty(mockNormalConstruction);
+		constructionStore.markDirty(mockDisabledConstruction);
+		constructionStore.markDirty(mockHighConstruction);
+		constructionStore.markDirty(mockNormalConstruction);
+
+		assertThat(constructionStore.nextDirty()).isSameAs(mockHighConstruction);
+		assertThat(constructionStore.nextDirty()).isSameAs(mockNormalConstruction);
+		assertThat(constructionStore.nextDirty()).isNull();
+	}
+
+	@Test
+	public void itemTypeAvailable_queuesAwaitingConstructions_once() {
+		ItemType planks = new ItemType();
+		planks.setItemTypeId(1L);
+		ItemType stone = new ItemType();
+		stone.setItemTypeId(2L);
+		constructionStore.awaitItemType(mockNormalConstruction, planks);
+		constructionStore.awaitItemType(mockHighConstruction, stone);
+
+		assertThat(constructionStore.itemTypeAvailable(planks)).containsOnly(mockNormalConstruction);
+		assertThat(constructionStore.itemTypeAvailable(planks)).isEmpty();
+
+		assertThat(constructionStore.nextDirty()).isSameAs(mockNormalConstruction);
+		assertThat(constructionStore.nextDirty()).isNull();
+	}
+}
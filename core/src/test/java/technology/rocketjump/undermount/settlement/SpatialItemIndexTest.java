@@ -0,0 +1,125 @@
+package technology.rocketjump.undermount.settlement;
+
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Before;
+import org.junit.Test;
+import technology.rocketjump.undermount.entities.model.Entity;
+import technology.rocketjump.undermount.entities.model.EntityType;
+import technology.rocketjump.undermount.entities.model.physical.LocationComponent;
+
+import java.util.*;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SpatialItemIndexTest {
+
+	private SpatialItemIndex index;
+	private long nextId = 1;
+
+	@Before
+	public void setUp() {
+		index = new SpatialItemIndex();
+	}
+
+	@Test
+	public void visitNearestFirst_visitsInOrderOfDistance() {
+		Random random = new Random(42L);
+		List<Entity> items = new ArrayList<>();
+		for (int count = 0; count < 200; count++) {
+			Entity item = buildItem(new Vector2(random.nextFloat() * 100f, random.nextFloat() * 80f));
+			items.add(item);
+			index.add(item);
+		}
+		Vector2 origin = new Vector2(37.5f, 12.5f);
+
+		List<Entity> visited = new ArrayList<>();
+		boolean stopped = index.visitNearestFirst(origin, item -> {
+			visited.add(item);
+			return false;
+		});
+
+		items.sort(Comparator.comparing(item -> item.getLocationComponent().getWorldPosition().dst2(origin)));
+		assertThat(stopped).isFalse();
+		assertThat(visited).isEqualTo(items);
+	}
+
+	@Test
+	public void visitNearestFirst_stopsWhenVisitorAccepts() {
+		Entity near = buildItem(new Vector2(5.5f, 5.5f));
+		Entity middle = buildItem(new Vector2(20.5f, 5.5f));
+		Entity far = buildItem(new Vector2(90.5f, 70.5f));
+		index.add(far);
+		index.add(near);
+		index.add(middle);
+
+		List<Entity> visited = new ArrayList<>();
+		boolean stopped = index.visitNearestFirst(new Vector2(1f, 1f), item -> {
+			visited.add(item);
+			return item == middle;
+		});
+
+		assertThat(stopped).isTrue();
+		assertThat(visited).containsExactly(near, middle);
+	}
+
+	@Test
+	public void visitNearestFirst_findsItemsAtCurrentPosition_whenMovedOrPositionedLater() {
+		Entity moved = buildItem(new Vector2(90.5f, 90.5f));
+		Entity unpositioned = buildItem(null);
+		Entity removed = buildItem(new Vector2(2.5f, 2.5f));
+		index.add(moved);
+		index.add(unpositioned);
+		index.add(removed);
+
+		Vector2 newPosition = new Vector2(1.5f, 1.5f);
+		index.moved(moved, newPosition);
+		moved.getLocationComponent().setWorldPosition(newPosition, false);
+		unpositioned.getLocationComponent().setWorldPosition(new Vector2(3.5f, 3.5f), false);
+		index.remove(removed);
+
+		assertThat(visitAll(new Vector2(0.5f, 0.5f))).containsExactly(moved, unpositioned);
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void visitNearestFirst_relocatesItemsWhichMovedWithoutNotification() {
+		Entity stale = buildItem(new Vector2(60.5f, 60.5f));
+		Entity other = buildItem(new Vector2(4.5f, 4.5f));
+		index.add(stale);
+		index.add(other);
+
+		stale.getLocationComponent().setWorldPosition(new Vector2(1.5f, 1.5f), false);
+
+		assertThat(visitAll(new Vector2(0.5f, 0.5f))).containsOnly(stale, other);
+		assertThat(visitAll(new Vector2(0.5f, 0.5f))).containsExactly(stale, other);
+	}
+
+	@Test
+	public void visitNearestFirst_visitsItemMovedFurtherAwayWithoutNotificationOnceAndInOrder() {
+		Entity stale = buildItem(new Vector2(2.5f, 2.5f));
+		Entity middle = buildItem(new Vector2(20.5f, 2.5f));
+		Entity far = buildItem(new Vector2(40.5f, 2.5f));
+		index.add(stale);
+		index.add(middle);
+		index.add(far);
+
+		stale.getLocationComponent().setWorldPosition(new Vector2(30.5f, 2.5f), false);
+
+		assertThat(visitAll(new Vector2(0.5f, 0.5f))).containsExactly(middle, stale, far);
+	}
+
+	private List<Entity> visitAll(Vector2 origin) {
+		List<Entity> visited = new ArrayList<>();
+		index.visitNearestFirst(origin, item -> {
+			visited.add(item);
+			return false;
+		});
+		return visited;
+	}
+
+	private Entity buildItem(Vector2 position) {
+		LocationComponent locationComponent = new LocationComponent();
+		locationComponent.setWorldPosition(position, false);
+		return new Entity(nextId++, EntityType.ITEM, Arrays.asList(locationComponent));
+	}
+}